@@ -11,7 +11,9 @@ import gov.llnl.math.MathExceptions.ResizeException;
 import gov.llnl.math.MathExceptions.SizeException;
 import gov.llnl.math.MathExceptions.WriteAccessException;
 import gov.llnl.math.matrix.MatrixIterators.VectorIterator;
+import gov.llnl.math.matrix.special.MatrixSparseRow;
 import gov.llnl.utility.annotation.Internal;
+import java.util.Arrays;
 
 /**
  * Support class with different matrix multiply implementations. Called by
@@ -233,4 +235,104 @@ public class MatrixOpMultiply
     }
     return r;
   }
+
+  /**
+   * Multiply where one or both operands are sparse. Sparse products are
+   * produced in compressed row form. Products with a dense operand are dense
+   * and are computed one vector of the dense operand at a time.
+   *
+   * @param a is the first operand.
+   * @param b is the second operand.
+   * @return the matrix product.
+   * @throws SizeException if the inner dimension of the operands does not
+   * match.
+   */
+  public static Matrix multiplySparse(Matrix a, Matrix b)
+          throws SizeException
+  {
+    MatrixAssert.assertColumnsEqualsRows(a, b);
+    int d1 = a.rows();
+    int d3 = b.columns();
+    if (a instanceof MatrixSparseBase && b instanceof MatrixSparseBase)
+      return multiplySparseRows(asSparseRows(a), asSparseRows(b));
+
+    if (a instanceof MatrixSparseBase)
+    {
+      MatrixSparseBase sa = (MatrixSparseBase) a;
+      Matrix r = (d1 == 1 || d3 == 1) ? new MatrixColumnArray(d1, d3) : new MatrixColumnTable(d1, d3);
+      VectorIterator iterR = MatrixIterators.newColumnWriteIterator(r);
+      VectorIterator iterB = MatrixIterators.newColumnReadIterator(b);
+      while (iterR.advance() & iterB.advance())
+        sa.multiply(iterB.access(), iterB.begin(), iterR.access(), iterR.begin());
+      return r;
+    }
+
+    MatrixSparseBase sb = (MatrixSparseBase) b;
+    Matrix r = (d1 == 1 || d3 == 1) ? new MatrixRowArray(d1, d3) : new MatrixRowTable(d1, d3);
+    VectorIterator iterR = MatrixIterators.newRowWriteIterator(r);
+    VectorIterator iterA = MatrixIterators.newRowReadIterator(a);
+    while (iterR.advance() & iterA.advance())
+      sb.multiplyTranspose(iterA.access(), iterA.begin(), iterR.access(), iterR.begin());
+    return r;
+  }
+
+  /**
+   * Row by row sparse product. Each row of the result is accumulated in a
+   * dense work vector, so the cost is proportional to the number of scalar
+   * products plus the nonzeros of the result.
+   */
+  private static MatrixSparseRow multiplySparseRows(MatrixSparseRow a, MatrixSparseRow b)
+  {
+    int d1 = a.rows();
+    int d3 = b.columns();
+    int[] aIndex = a.accessIndex();
+    double[] aValues = a.accessValues();
+    int[] bIndex = b.accessIndex();
+    double[] bValues = b.accessValues();
+
+    int[] start = new int[d1 + 1];
+    int[] index = new int[Math.max(16, a.nonzeros() + b.nonzeros())];
+    double[] values = new double[index.length];
+    double[] work = new double[d3];
+    int[] mark = new int[d3];
+    Arrays.fill(mark, -1);
+    int nz = 0;
+    for (int i = 0; i < d1; ++i)
+    {
+      for (int p = a.addressBegin(i); p < a.addressEnd(i); ++p)
+      {
+        int k = aIndex[p];
+        double v = aValues[p];
+        for (int q = b.addressBegin(k); q < b.addressEnd(k); ++q)
+        {
+          int j = bIndex[q];
+          if (mark[j] != i)
+          {
+            mark[j] = i;
+            work[j] = v * bValues[q];
+            if (nz == index.length)
+            {
+              index = Arrays.copyOf(index, 2 * nz);
+              values = Arrays.copyOf(values, 2 * nz);
+            }
+            index[nz++] = j;
+          }
+          else
+            work[j] += v * bValues[q];
+        }
+      }
+      Arrays.sort(index, start[i], nz);
+      for (int p = start[i]; p < nz; ++p)
+        values[p] = work[index[p]];
+      start[i + 1] = nz;
+    }
+    return MatrixSparseRow.wrap(d1, d3, start, Arrays.copyOf(index, nz), Arrays.copyOf(values, nz));
+  }
+
+  private static MatrixSparseRow asSparseRows(Matrix m)
+  {
+    if (m instanceof MatrixSparseRow)
+      return (MatrixSparseRow) m;
+    return new MatrixSparseRow(m);
+  }
 }
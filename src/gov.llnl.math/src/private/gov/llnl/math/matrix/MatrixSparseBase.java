@@ -0,0 +1,606 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.matrix;
+
+import gov.llnl.math.DoubleArray;
+import gov.llnl.math.MathExceptions.SizeException;
+import gov.llnl.math.MathExceptions.WriteAccessException;
+import gov.llnl.math.matrix.MatrixIterators.VectorIterator;
+import gov.llnl.utility.UUIDUtilities;
+import java.util.Arrays;
+
+/**
+ * Base class for compressed sparse matrices.
+ *
+ * The nonzero elements are stored by major vector, which is a row for a
+ * compressed row matrix and a column for a compressed column matrix. The major
+ * vector i occupies the range from addressBegin(i) to addressEnd(i) in the
+ * index and value arrays with the minor indices in increasing order. Views
+ * produced by selecting major vectors or by transposing share the index and
+ * value arrays with the original. Selecting a contiguous range of minor
+ * indices also produces a sparse view which shares the values but holds its
+ * own shifted copy of the indices. Any other minor selection falls back to a
+ * row or column proxy.
+ *
+ * The sparsity pattern is fixed once the matrix is created. Elements within
+ * the pattern may be altered with set, but setting a nonzero value outside of
+ * the pattern produces a WriteAccessException.
+ */
+public abstract class MatrixSparseBase
+        implements Matrix.SelectAccess, Matrix.ScalarOperations
+{
+  private static final long serialVersionUID
+          = UUIDUtilities.createLong("MatrixSparseBase-v1");
+
+  protected Object sync;
+  protected int majorSize;
+  protected int minorSize;
+  protected int[] begin;
+  protected int[] end;
+  protected int[] index;
+  protected double[] values;
+
+  /**
+   * Create a view sharing the storage of an existing matrix.
+   *
+   * @param sync is the synchronization object of the original.
+   * @param majorSize is the number of major vectors.
+   * @param minorSize is the length of each major vector.
+   * @param begin is the start of each major vector.
+   * @param end is the end of each major vector.
+   * @param index holds the minor index of each element.
+   * @param values holds the value of each element.
+   */
+  protected MatrixSparseBase(Object sync, int majorSize, int minorSize,
+          int[] begin, int[] end, int[] index, double[] values)
+  {
+    this.sync = (sync == null) ? this : sync;
+    this.majorSize = majorSize;
+    this.minorSize = minorSize;
+    this.begin = begin;
+    this.end = end;
+    this.index = index;
+    this.values = values;
+  }
+
+  /**
+   * Create a compact copy of a matrix.
+   *
+   * Exact zeros in a dense matrix are not stored.
+   *
+   * @param matrix is the matrix to copy.
+   * @param rowMajor is true if the major vectors are the rows.
+   */
+  protected MatrixSparseBase(Matrix matrix, boolean rowMajor)
+  {
+    this.sync = this;
+    if (matrix instanceof MatrixSparseBase)
+    {
+      MatrixSparseBase source = (MatrixSparseBase) matrix;
+      if (source.isRowMajor() == rowMajor)
+        copyFrom(source);
+      else
+        transposeFrom(source);
+    }
+    else
+      compressFrom(matrix, rowMajor);
+  }
+
+  /**
+   * Verify the arrays for a compressed matrix.
+   *
+   * @param majorSize is the number of major vectors.
+   * @param minorSize is the length of each major vector.
+   * @param start holds the start of each major vector followed by the total
+   * number of elements.
+   * @param index holds the minor index of each element.
+   * @param values holds the value of each element.
+   * @throws SizeException if the arrays are too short.
+   * @throws IllegalArgumentException if the pointers are not increasing or the
+   * indices are not sorted.
+   */
+  protected static void assertCompressed(int majorSize, int minorSize,
+          int[] start, int[] index, double[] values)
+          throws SizeException
+  {
+    if (start.length != majorSize + 1)
+      throw new SizeException("Size mismatch, start=" + start.length + " expected=" + (majorSize + 1));
+    int nz = start[majorSize];
+    if (index.length < nz || values.length < nz)
+      throw new SizeException("Size mismatch, index=" + index.length
+              + " values=" + values.length + " nonzeros=" + nz);
+    if (start[0] < 0)
+      throw new IllegalArgumentException("Negative start");
+    for (int i = 0; i < majorSize; ++i)
+    {
+      if (start[i + 1] < start[i])
+        throw new IllegalArgumentException("Start is not increasing at " + i);
+      int last = -1;
+      for (int k = start[i]; k < start[i + 1]; ++k)
+      {
+        if (index[k] <= last || index[k] >= minorSize)
+          throw new IllegalArgumentException("Bad index " + index[k] + " in vector " + i);
+        last = index[k];
+      }
+    }
+  }
+
+  /**
+   * Split the start array of a compressed matrix into begin and end.
+   *
+   * @param start holds the start of each major vector followed by the total
+   * number of elements.
+   * @return the begin and end arrays.
+   */
+  protected static int[][] splitStart(int[] start)
+  {
+    int n = start.length - 1;
+    return new int[][]
+    {
+      Arrays.copyOfRange(start, 0, n), Arrays.copyOfRange(start, 1, n + 1)
+    };
+  }
+
+  /**
+   * @return true if the major vectors are the rows.
+   */
+  protected abstract boolean isRowMajor();
+
+  /**
+   * Create a view that shares the values of this matrix.
+   *
+   * @param minorSize is the length of each major vector.
+   * @param begin is the start of each major vector.
+   * @param end is the end of each major vector.
+   * @param index holds the minor index of each element.
+   * @return a new view.
+   */
+  protected abstract MatrixSparseBase newView(int minorSize, int[] begin, int[] end, int[] index);
+
+//<editor-fold desc="basic" defaultstate="collapsed">
+  @Override
+  public void mutable() throws WriteAccessException
+  {
+    throw new WriteAccessException("Sparse matrices cannot be altered directly.");
+  }
+
+  @Override
+  public Object sync()
+  {
+    return sync;
+  }
+
+  /**
+   * Get the number of elements stored.
+   *
+   * @return the number of elements in the sparsity pattern.
+   */
+  public int nonzeros()
+  {
+    int nz = 0;
+    for (int i = 0; i < majorSize; ++i)
+      nz += end[i] - begin[i];
+    return nz;
+  }
+
+  /**
+   * Access the minor indices of the elements.
+   *
+   * @return the array backing the indices.
+   */
+  public int[] accessIndex()
+  {
+    return index;
+  }
+
+  /**
+   * Access the values of the elements.
+   *
+   * If the values are to be altered the pattern must not be changed.
+   *
+   * @return the array backing the values.
+   */
+  public double[] accessValues()
+  {
+    return values;
+  }
+
+  /**
+   * Get the offset of the first element of a major vector.
+   *
+   * @param i is the major vector.
+   * @return the offset into the index and values.
+   */
+  public int addressBegin(int i)
+  {
+    return begin[i];
+  }
+
+  /**
+   * Get the offset past the last element of a major vector.
+   *
+   * @param i is the major vector.
+   * @return the offset into the index and values.
+   */
+  public int addressEnd(int i)
+  {
+    return end[i];
+  }
+
+//</editor-fold>
+//<editor-fold desc="multiply" defaultstate="collapsed">
+  /**
+   * Multiply this matrix by a vector.
+   *
+   * @param x is a vector with length equal to the columns.
+   * @param out is a vector to hold the result or null to allocate.
+   * @return a vector holding this*x.
+   * @throws SizeException if the lengths do not match.
+   */
+  public double[] multiply(double[] x, double[] out) throws SizeException
+  {
+    out = assertVectors(x, columns(), out, rows());
+    multiply(x, 0, out, 0);
+    return out;
+  }
+
+  /**
+   * Multiply the transpose of this matrix by a vector.
+   *
+   * @param x is a vector with length equal to the rows.
+   * @param out is a vector to hold the result or null to allocate.
+   * @return a vector holding transpose(this)*x.
+   * @throws SizeException if the lengths do not match.
+   */
+  public double[] multiplyTranspose(double[] x, double[] out) throws SizeException
+  {
+    out = assertVectors(x, rows(), out, columns());
+    multiplyTranspose(x, 0, out, 0);
+    return out;
+  }
+
+  /**
+   * Multiply this matrix by a vector without checking sizes.
+   *
+   * @param x holds the vector.
+   * @param xOffset is the start of the vector in x.
+   * @param out holds the result.
+   * @param outOffset is the start of the result in out.
+   */
+  public void multiply(double[] x, int xOffset, double[] out, int outOffset)
+  {
+    if (isRowMajor())
+      multiplyMajor(x, xOffset, out, outOffset);
+    else
+      multiplyMinor(x, xOffset, out, outOffset);
+  }
+
+  /**
+   * Multiply the transpose of this matrix by a vector without checking sizes.
+   *
+   * @param x holds the vector.
+   * @param xOffset is the start of the vector in x.
+   * @param out holds the result.
+   * @param outOffset is the start of the result in out.
+   */
+  public void multiplyTranspose(double[] x, int xOffset, double[] out, int outOffset)
+  {
+    if (isRowMajor())
+      multiplyMinor(x, xOffset, out, outOffset);
+    else
+      multiplyMajor(x, xOffset, out, outOffset);
+  }
+
+//</editor-fold>
+//<editor-fold desc="scalar" defaultstate="collapsed">
+  @Override
+  public Matrix addAssign(double scalar) throws UnsupportedOperationException
+  {
+    if (scalar == 0)
+      return this;
+    throw new UnsupportedOperationException("Sparse condition violated");
+  }
+
+  @Override
+  public Matrix multiplyAssign(double scalar)
+  {
+    if (scalar == 1)
+      return this;
+    for (int i = 0; i < majorSize; ++i)
+      DoubleArray.multiplyAssignRange(values, begin[i], end[i], scalar);
+    return this;
+  }
+
+  @Override
+  public Matrix divideAssign(double scalar)
+  {
+    if (scalar == 1)
+      return this;
+    for (int i = 0; i < majorSize; ++i)
+      DoubleArray.divideAssignRange(values, begin[i], end[i], scalar);
+    return this;
+  }
+
+//</editor-fold>
+//<editor-fold desc="internal" defaultstate="collapsed">
+  /**
+   * Find the location of an element.
+   *
+   * @param i is the major index.
+   * @param j is the minor index.
+   * @return the offset of the element or -1 if it is not in the pattern.
+   */
+  protected int find(int i, int j)
+  {
+    int k = Arrays.binarySearch(index, begin[i], end[i], j);
+    return (k < 0) ? -1 : k;
+  }
+
+  protected double getElement(int i, int j)
+  {
+    int k = find(i, j);
+    if (k < 0)
+      return 0;
+    return values[k];
+  }
+
+  protected void setElement(int i, int j, double value) throws WriteAccessException
+  {
+    int k = find(i, j);
+    if (k >= 0)
+      values[k] = value;
+    else if (value != 0)
+      throw new WriteAccessException("Unable to set outside of sparsity pattern");
+  }
+
+  protected double[] copyMajorTo(double[] out, int offset, int i)
+  {
+    DoubleArray.fillRange(out, offset, offset + minorSize, 0);
+    for (int k = begin[i]; k < end[i]; ++k)
+      out[offset + index[k]] = values[k];
+    return out;
+  }
+
+  protected double[] copyMinorTo(double[] out, int offset, int j)
+  {
+    for (int i = 0; i < majorSize; ++i)
+      out[offset + i] = getElement(i, j);
+    return out;
+  }
+
+  protected void assignMajor(double[] in, int i) throws WriteAccessException
+  {
+    int k = begin[i];
+    for (int j = 0; j < minorSize; ++j)
+    {
+      if (k < end[i] && index[k] == j)
+        values[k++] = in[j];
+      else if (in[j] != 0)
+        throw new WriteAccessException("Unable to set outside of sparsity pattern");
+    }
+  }
+
+  protected void assignMinor(double[] in, int j) throws WriteAccessException
+  {
+    for (int i = 0; i < majorSize; ++i)
+      setElement(i, j, in[i]);
+  }
+
+  protected MatrixSparseBase selectMajor(int... selection)
+          throws IndexOutOfBoundsException
+  {
+    int n = selection.length;
+    int[] b = new int[n];
+    int[] e = new int[n];
+    for (int i = 0; i < n; ++i)
+    {
+      int s = selection[i];
+      if (s < 0 || s >= majorSize)
+        throw new IndexOutOfBoundsException("Selection " + s + " out of range " + majorSize);
+      b[i] = begin[s];
+      e[i] = end[s];
+    }
+    return newView(minorSize, b, e, index);
+  }
+
+  /**
+   * Select minor vectors.
+   *
+   * A contiguous increasing selection is a sparse view. Each major vector is
+   * narrowed to the elements in the range, which keeps the values shared, and
+   * the indices are shifted into a new array. Other selections produce a
+   * proxy.
+   *
+   * @param selection is the list of minor vectors.
+   * @return a new view.
+   * @throws IndexOutOfBoundsException if a selection is out of range.
+   */
+  protected Matrix selectMinor(int... selection)
+          throws IndexOutOfBoundsException
+  {
+    int n = selection.length;
+    int first = (n == 0) ? 0 : selection[0];
+    for (int j = 0; j < n; ++j)
+    {
+      if (selection[j] < 0 || selection[j] >= minorSize)
+        throw new IndexOutOfBoundsException("Selection " + selection[j] + " out of range " + minorSize);
+      if (selection[j] != first + j)
+        return isRowMajor()
+                ? new MatrixColumnProxy(this, selection)
+                : new MatrixRowProxy(this, selection);
+    }
+
+    int[] b = new int[majorSize];
+    int[] e = new int[majorSize];
+    int[] shifted = new int[index.length];
+    for (int i = 0; i < majorSize; ++i)
+    {
+      b[i] = lowerBound(begin[i], end[i], first);
+      e[i] = lowerBound(b[i], end[i], first + n);
+      for (int k = b[i]; k < e[i]; ++k)
+        shifted[k] = index[k] - first;
+    }
+    return newView(n, b, e, shifted);
+  }
+
+  /**
+   * Replace the contents of this matrix.
+   *
+   * Views of this matrix will no longer track it.
+   *
+   * @param matrix is a compact matrix with the same orientation.
+   */
+  protected void adopt(MatrixSparseBase matrix)
+  {
+    this.majorSize = matrix.majorSize;
+    this.minorSize = matrix.minorSize;
+    this.begin = matrix.begin;
+    this.end = matrix.end;
+    this.index = matrix.index;
+    this.values = matrix.values;
+  }
+
+  private int lowerBound(int from, int to, int j)
+  {
+    int k = Arrays.binarySearch(index, from, to, j);
+    return (k < 0) ? -k - 1 : k;
+  }
+
+  private void multiplyMajor(double[] x, int xOffset, double[] out, int outOffset)
+  {
+    for (int i = 0; i < majorSize; ++i)
+    {
+      double s = 0;
+      for (int k = begin[i]; k < end[i]; ++k)
+        s += values[k] * x[xOffset + index[k]];
+      out[outOffset + i] = s;
+    }
+  }
+
+  private void multiplyMinor(double[] x, int xOffset, double[] out, int outOffset)
+  {
+    DoubleArray.fillRange(out, outOffset, outOffset + minorSize, 0);
+    for (int i = 0; i < majorSize; ++i)
+    {
+      double xi = x[xOffset + i];
+      if (xi == 0)
+        continue;
+      for (int k = begin[i]; k < end[i]; ++k)
+        out[outOffset + index[k]] += values[k] * xi;
+    }
+  }
+
+  private static double[] assertVectors(double[] x, int xLength, double[] out, int outLength)
+          throws SizeException
+  {
+    if (x.length != xLength)
+      throw new SizeException("Size mismatch, vector=" + x.length + " expected=" + xLength);
+    if (out == null)
+      return new double[outLength];
+    if (out.length != outLength || out == x)
+      throw new SizeException("Output vector must be distinct with length " + outLength);
+    return out;
+  }
+
+  private void copyFrom(MatrixSparseBase source)
+  {
+    int nz = source.nonzeros();
+    this.majorSize = source.majorSize;
+    this.minorSize = source.minorSize;
+    this.begin = new int[majorSize];
+    this.end = new int[majorSize];
+    this.index = new int[nz];
+    this.values = new double[nz];
+    int p = 0;
+    for (int i = 0; i < majorSize; ++i)
+    {
+      int n = source.end[i] - source.begin[i];
+      System.arraycopy(source.index, source.begin[i], index, p, n);
+      System.arraycopy(source.values, source.begin[i], values, p, n);
+      begin[i] = p;
+      p += n;
+      end[i] = p;
+    }
+  }
+
+  private void transposeFrom(MatrixSparseBase source)
+  {
+    int nz = source.nonzeros();
+    this.majorSize = source.minorSize;
+    this.minorSize = source.majorSize;
+    this.begin = new int[majorSize];
+    this.end = new int[majorSize];
+    this.index = new int[nz];
+    this.values = new double[nz];
+
+    // Count the elements in each new major vector
+    for (int i = 0; i < minorSize; ++i)
+      for (int k = source.begin[i]; k < source.end[i]; ++k)
+        end[source.index[k]]++;
+    int p = 0;
+    for (int j = 0; j < majorSize; ++j)
+    {
+      begin[j] = p;
+      p += end[j];
+      end[j] = begin[j];
+    }
+
+    // Scattering in order of the old major keeps the new indices sorted
+    for (int i = 0; i < minorSize; ++i)
+      for (int k = source.begin[i]; k < source.end[i]; ++k)
+      {
+        int q = end[source.index[k]]++;
+        index[q] = i;
+        values[q] = source.values[k];
+      }
+  }
+
+  private void compressFrom(Matrix matrix, boolean rowMajor)
+  {
+    this.majorSize = rowMajor ? matrix.rows() : matrix.columns();
+    this.minorSize = rowMajor ? matrix.columns() : matrix.rows();
+    this.begin = new int[majorSize];
+    this.end = new int[majorSize];
+
+    // Count the nonzeros
+    int nz = 0;
+    VectorIterator iter = rowMajor
+            ? MatrixIterators.newRowReadIterator(matrix)
+            : MatrixIterators.newColumnReadIterator(matrix);
+    while (iter.advance())
+    {
+      double[] v = iter.access();
+      for (int j = iter.begin(); j < iter.end(); ++j)
+        if (v[j] != 0)
+          ++nz;
+    }
+
+    this.index = new int[nz];
+    this.values = new double[nz];
+    int p = 0;
+    int i = 0;
+    iter = rowMajor
+            ? MatrixIterators.newRowReadIterator(matrix)
+            : MatrixIterators.newColumnReadIterator(matrix);
+    while (iter.advance())
+    {
+      double[] v = iter.access();
+      int offset = iter.begin();
+      begin[i] = p;
+      for (int j = 0; j < minorSize; ++j)
+      {
+        if (v[offset + j] != 0)
+        {
+          index[p] = j;
+          values[p++] = v[offset + j];
+        }
+      }
+      end[i++] = p;
+    }
+  }
+//</editor-fold>
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.wavelet;
+
+import gov.llnl.math.matrix.Matrix;
+import gov.llnl.math.matrix.MatrixFactory;
+import java.util.Arrays;
+
+/**
+ * Time domain wavelet filter bank with reusable work buffers.
+ *
+ * The decimated transform is computed in place one level at a time using a
+ * single work row. The over-complete transform is computed by direct circular
+ * correlation with the dilated filters, which matches
+ * {@link WaveletOps#overCompleteWaveletTransform} for any even signal length.
+ * That transform dilates the filters by subsampling their spectrum, which
+ * drops the last frequency when the length is odd, so odd lengths are passed
+ * to it directly.
+ *
+ * A pyramid holds work buffers and thus may only be used by one thread at a
+ * time.
+ */
+class WaveletPyramid
+{
+  private final double[] h0;
+  private final double[] h1;
+  // Analysis filters written as correlations
+  private final double[] g0;
+  private final double[] g1;
+  private double[] work = new double[0];
+  private double[] next = new double[0];
+  private double[] signal = new double[0];
+
+  WaveletPyramid(double[] h0, double[] h1)
+  {
+    this.h0 = h0;
+    this.h1 = h1;
+    this.g0 = WaveletUtilities.reverse(h0);
+    this.g1 = WaveletUtilities.reverse(h1);
+  }
+
+  /**
+   * Limit the scale to the largest supported by the signal length.
+   *
+   * This uses the same limit as the over-complete transform.
+   *
+   * @param length is the length of the signal.
+   * @param scale is the requested scale.
+   * @return the scale to be used.
+   */
+  int limitScale(int length, int scale)
+  {
+    if (scale < 1)
+      throw new IllegalArgumentException("Scale must be positive.");
+    int maxPossibleScale = 1 + (int) ((Math.log(length) - Math.log(g0.length)) / Math.log(2));
+    if (scale > maxPossibleScale)
+      scale = maxPossibleScale;
+    if (scale < 1)
+      throw new IllegalArgumentException("Signal is shorter than the wavelet.");
+    return scale;
+  }
+
+  /**
+   * Limit the scale for the decimated transform.
+   *
+   * @param length is the length of the signal.
+   * @param scale is the requested scale.
+   * @return the scale to be used.
+   * @throws IllegalArgumentException if the length is not a multiple of
+   * 2^scale.
+   */
+  int limitDecimated(int length, int scale)
+  {
+    scale = limitScale(length, scale);
+    if (length % (1 << scale) != 0)
+      throw new IllegalArgumentException("Signal length must be a multiple of 2^scale.");
+    return scale;
+  }
+
+  /**
+   * Compute the decimated transform in place.
+   *
+   * On return the signal holds the approximation at the coarsest scale
+   * followed by the details from the coarsest to the finest scale.
+   *
+   * @param x holds the signal.
+   * @param offset is the start of the signal in x.
+   * @param length is the length of the signal.
+   * @param scale is the requested scale.
+   * @return the scale used.
+   */
+  int forward(double[] x, int offset, int length, int scale)
+  {
+    scale = limitDecimated(length, scale);
+    ensure(length);
+    double[] w = this.work;
+    int m = g0.length;
+    for (int n = length; n > length >> scale; n >>= 1)
+    {
+      int half = n >> 1;
+      for (int k = 0; k < half; ++k)
+      {
+        double s = 0;
+        double d = 0;
+        int j = 2 * k;
+        for (int p = 0; p < m; ++p)
+        {
+          double v = x[offset + j];
+          s += g0[p] * v;
+          d += g1[p] * v;
+          if (++j == n)
+            j = 0;
+        }
+        w[k] = s;
+        w[half + k] = d;
+      }
+      System.arraycopy(w, 0, x, offset, n);
+    }
+    return scale;
+  }
+
+  /**
+   * Reconstruct a signal in place from the decimated transform.
+   *
+   * @param x holds the coefficients as produced by forward.
+   * @param offset is the start of the coefficients in x.
+   * @param length is the length of the signal.
+   * @param scale is the scale requested for the forward transform.
+   */
+  void inverse(double[] x, int offset, int length, int scale)
+  {
+    scale = limitDecimated(length, scale);
+    ensure(length);
+    double[] w = this.work;
+    int m = g0.length;
+    for (int n = (length >> scale) << 1; n <= length; n <<= 1)
+    {
+      int half = n >> 1;
+      Arrays.fill(w, 0, n, 0);
+      for (int k = 0; k < half; ++k)
+      {
+        double s = x[offset + k];
+        double d = x[offset + half + k];
+        int j = 2 * k;
+        for (int p = 0; p < m; ++p)
+        {
+          w[j] += g0[p] * s + g1[p] * d;
+          if (++j == n)
+            j = 0;
+        }
+      }
+      System.arraycopy(w, 0, x, offset, n);
+    }
+  }
+
+  /**
+   * Compute the over-complete transform.
+   *
+   * @param x holds the signal.
+   * @param offset is the start of the signal in x.
+   * @param length is the length of the signal.
+   * @param scale is the requested scale.
+   * @return a new matrix holding the wavelet coefficients with each column
+   * representing a scale.
+   */
+  Matrix overcomplete(double[] x, int offset, int length, int scale)
+  {
+    scale = limitScale(length, scale);
+    if ((length & 1) == 1)
+    {
+      if (signal.length != length)
+        signal = new double[length];
+      System.arraycopy(x, offset, signal, 0, length);
+      return WaveletOps.overCompleteWaveletTransform(signal, h0, h1, scale);
+    }
+    ensure(length);
+    int m = g0.length;
+    double[][] out = new double[scale + 1][length];
+    double[] current = this.work;
+    double[] low = this.next;
+    System.arraycopy(x, offset, current, 0, length);
+    for (int j = 0, step = 1; j < scale; ++j, step <<= 1)
+    {
+      // Filter taps at scale j are 2^j samples apart
+      int stride = step % length;
+      double[] high = out[j];
+      int start = Math.floorMod(-(m - 1) * step, length);
+      for (int t = 0; t < length; ++t)
+      {
+        double d = 0;
+        double s = 0;
+        int u = t;
+        int v = start;
+        for (int p = 0; p < m; ++p)
+        {
+          d += g1[p] * current[u];
+          s += g0[p] * current[v];
+          u += stride;
+          if (u >= length)
+            u -= length;
+          v += stride;
+          if (v >= length)
+            v -= length;
+        }
+        high[t] = d;
+        low[t] = s;
+        if (++start == length)
+          start = 0;
+      }
+      double[] tmp = current;
+      current = low;
+      low = tmp;
+    }
+
+    // Align the lowest resolution signal with the last detail
+    int shift = Math.floorMod((m - 1) * (1 << (scale - 1)), length);
+    double[] last = out[scale];
+    System.arraycopy(current, shift, last, 0, length - shift);
+    System.arraycopy(current, 0, last, length - shift, shift);
+    return MatrixFactory.newColumnMatrix(out);
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private void ensure(int length)
+  {
+    if (work.length < length)
+    {
+      work = new double[length];
+      next = new double[length];
+    }
+  }
+//</editor-fold>
+}
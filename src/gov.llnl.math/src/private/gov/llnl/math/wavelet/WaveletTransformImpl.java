@@ -7,6 +7,8 @@
 package gov.llnl.math.wavelet;
 
 import gov.llnl.math.matrix.Matrix;
+import gov.llnl.utility.ExecutorUtilities;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Implementation for a generic 1D wavelet transform.
@@ -68,4 +70,77 @@ class WaveletTransformImpl implements WaveletTransform
     return WaveletOps.smooth(inData, this.h0, this.h1, waveletScale);
   }
 
+  @Override
+  public int forwardInPlace(double[] signal, int scale)
+  {
+    return new WaveletPyramid(h0, h1).forward(signal, 0, signal.length, scale);
+  }
+
+  @Override
+  public void inverseInPlace(double[] coef, int scale)
+  {
+    new WaveletPyramid(h0, h1).inverse(coef, 0, coef.length, scale);
+  }
+
+  @Override
+  public int forwardInPlace(Matrix.RowAccess signals, int first, int count, int scale,
+          ExecutorService executor)
+  {
+    int used = new WaveletPyramid(h0, h1).limitDecimated(signals.columns(), scale);
+    signals.mutable();
+    int length = signals.columns();
+    execute(signals, first, count, executor,
+            (pyramid, row) -> pyramid.forward(signals.accessRow(row), signals.addressRow(row), length, used));
+    return used;
+  }
+
+  @Override
+  public void inverseInPlace(Matrix.RowAccess coef, int first, int count, int scale,
+          ExecutorService executor)
+  {
+    int used = new WaveletPyramid(h0, h1).limitDecimated(coef.columns(), scale);
+    coef.mutable();
+    int length = coef.columns();
+    execute(coef, first, count, executor,
+            (pyramid, row) -> pyramid.inverse(coef.accessRow(row), coef.addressRow(row), length, used));
+  }
+
+  @Override
+  public Matrix[] forward(Matrix.RowAccess signals, int first, int count, int scale,
+          ExecutorService executor)
+  {
+    int used = new WaveletPyramid(h0, h1).limitScale(signals.columns(), scale);
+    int length = signals.columns();
+    Matrix[] out = new Matrix[count];
+    execute(signals, first, count, executor,
+            (pyramid, row) -> out[row - first] = pyramid.overcomplete(
+                    signals.accessRow(row), signals.addressRow(row), length, used));
+    return out;
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private interface RowTask
+  {
+    void apply(WaveletPyramid pyramid, int row);
+  }
+
+  private void execute(Matrix matrix, int first, int count, ExecutorService executor, RowTask task)
+  {
+    if (first < 0 || count < 0 || first + count > matrix.rows())
+      throw new IndexOutOfBoundsException("Rows " + first + " to " + (first + count) + " of " + matrix.rows());
+
+    // Each task reuses one set of work buffers for a contiguous range of rows
+    int tasks = (executor == null) ? 1 : Runtime.getRuntime().availableProcessors();
+    ExecutorUtilities.executeBlocks(count, (count + tasks - 1) / tasks, executor,
+            (begin, end) -> evaluateRows(first + begin, first + end, task));
+  }
+
+  private void evaluateRows(int begin, int end, RowTask task)
+  {
+    WaveletPyramid pyramid = new WaveletPyramid(h0, h1);
+    for (int row = begin; row < end; ++row)
+      task.apply(pyramid, row);
+  }
+//</editor-fold>
+
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.algebra;
+
+import gov.llnl.math.DoubleArray;
+import gov.llnl.math.MathAssert;
+import gov.llnl.math.MathExceptions.ConvergenceException;
+import gov.llnl.math.MathExceptions.SizeException;
+import gov.llnl.math.matrix.Matrix;
+import gov.llnl.math.matrix.MatrixAssert;
+import gov.llnl.math.matrix.MatrixOps;
+import gov.llnl.math.matrix.MatrixSparseBase;
+
+/**
+ * Iterative solver for Ax=b where A is symmetric positive definite.
+ *
+ * Uses the conjugate gradient method with a Jacobi (diagonal) preconditioner.
+ * Each iteration requires one product of the matrix with a vector, thus it is
+ * well suited to sparse matrices which are too large to factor. The iteration
+ * stops when the norm of the residual relative to the norm of b falls below
+ * the tolerance.
+ *
+ * The solver holds the statistics of the last solution and thus may only be
+ * used by one thread at a time.
+ */
+public class ConjugateGradient
+{
+  public final static double DEFAULT_TOLERANCE = 1e-10;
+
+  double tolerance = DEFAULT_TOLERANCE;
+  int maxIterations = 0;
+  boolean preconditioned = true;
+  int iterations;
+  double residual;
+
+  /**
+   * Solve Ax=b starting from zero.
+   *
+   * @param A is a symmetric positive definite matrix.
+   * @param b is the right hand side.
+   * @return a new vector holding the solution.
+   * @throws SizeException if the sizes do not match.
+   * @throws ConvergenceException if the tolerance is not reached.
+   */
+  public double[] solve(Matrix A, double[] b)
+          throws SizeException, ConvergenceException
+  {
+    return solve(A, b, null);
+  }
+
+  /**
+   * Solve Ax=b starting from an initial guess.
+   *
+   * @param A is a symmetric positive definite matrix.
+   * @param b is the right hand side.
+   * @param x0 is the initial guess or null to start from zero. It is not
+   * altered.
+   * @return a new vector holding the solution.
+   * @throws SizeException if the sizes do not match.
+   * @throws ConvergenceException if the tolerance is not reached or the
+   * matrix is found not to be positive definite.
+   */
+  public double[] solve(Matrix A, double[] b, double[] x0)
+          throws SizeException, ConvergenceException
+  {
+    MatrixAssert.assertSquare(A);
+    int n = A.rows();
+    MathAssert.assertLengthEqual(b, n, "b");
+    double[] x = new double[n];
+    if (x0 != null)
+    {
+      MathAssert.assertLengthEqual(x0, n, "x0");
+      System.arraycopy(x0, 0, x, 0, n);
+    }
+
+    this.iterations = 0;
+    this.residual = 0;
+    double bnorm = Math.sqrt(DoubleArray.sumSqr(b));
+    if (bnorm == 0)
+    {
+      DoubleArray.fill(x, 0);
+      return x;
+    }
+
+    // Preconditioner
+    double[] m = new double[n];
+    for (int i = 0; i < n; ++i)
+    {
+      double d = preconditioned ? A.get(i, i) : 1;
+      m[i] = (d > 0) ? 1 / d : 1;
+    }
+
+    // r = b - A*x
+    double[] q = new double[n];
+    double[] r = new double[n];
+    multiply(A, x, q);
+    for (int i = 0; i < n; ++i)
+      r[i] = b[i] - q[i];
+    this.residual = Math.sqrt(DoubleArray.sumSqr(r)) / bnorm;
+    if (residual <= tolerance)
+      return x;
+
+    double[] z = new double[n];
+    double[] p = new double[n];
+    double rz = 0;
+    for (int i = 0; i < n; ++i)
+    {
+      z[i] = m[i] * r[i];
+      p[i] = z[i];
+      rz += r[i] * z[i];
+    }
+
+    int limit = (maxIterations > 0) ? maxIterations : 2 * n + 10;
+    for (int k = 1; k <= limit; ++k)
+    {
+      multiply(A, p, q);
+      double pq = DoubleArray.multiplyInner(p, q);
+      if (!(pq > 0))
+        throw new ConvergenceException("Matrix is not positive definite");
+      double alpha = rz / pq;
+      double rr = 0;
+      for (int i = 0; i < n; ++i)
+      {
+        x[i] += alpha * p[i];
+        r[i] -= alpha * q[i];
+        rr += r[i] * r[i];
+      }
+      this.iterations = k;
+      this.residual = Math.sqrt(rr) / bnorm;
+      if (residual <= tolerance)
+        return x;
+
+      double rz2 = 0;
+      for (int i = 0; i < n; ++i)
+      {
+        z[i] = m[i] * r[i];
+        rz2 += r[i] * z[i];
+      }
+      double beta = rz2 / rz;
+      rz = rz2;
+      for (int i = 0; i < n; ++i)
+        p[i] = z[i] + beta * p[i];
+    }
+    throw new ConvergenceException("Conjugate gradient failed to converge in "
+            + limit + " iterations, residual=" + residual);
+  }
+
+//<editor-fold desc="accessors" defaultstate="collapsed">
+  /**
+   * @return the number of iterations used by the last solution.
+   */
+  public int getIterations()
+  {
+    return iterations;
+  }
+
+  /**
+   * @return the relative residual of the last solution.
+   */
+  public double getResidual()
+  {
+    return residual;
+  }
+
+  /**
+   * @return the tolerance
+   */
+  public double getTolerance()
+  {
+    return tolerance;
+  }
+
+  /**
+   * @param tolerance is the relative residual at which to stop.
+   */
+  public void setTolerance(double tolerance)
+  {
+    this.tolerance = tolerance;
+  }
+
+  /**
+   * @return the maximum number of iterations
+   */
+  public int getMaxIterations()
+  {
+    return maxIterations;
+  }
+
+  /**
+   * Set the limit on iterations.
+   *
+   * @param maxIterations is the limit or zero to use a limit based on the size
+   * of the matrix.
+   */
+  public void setMaxIterations(int maxIterations)
+  {
+    this.maxIterations = maxIterations;
+  }
+
+  /**
+   * @return true if the Jacobi preconditioner is used.
+   */
+  public boolean isPreconditioned()
+  {
+    return preconditioned;
+  }
+
+  /**
+   * @param preconditioned is true to use the Jacobi preconditioner.
+   */
+  public void setPreconditioned(boolean preconditioned)
+  {
+    this.preconditioned = preconditioned;
+  }
+//</editor-fold>
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private static void multiply(Matrix A, double[] x, double[] out)
+  {
+    if (A instanceof MatrixSparseBase)
+      ((MatrixSparseBase) A).multiply(x, 0, out, 0);
+    else
+      System.arraycopy(MatrixOps.multiply(A, x), 0, out, 0, out.length);
+  }
+//</editor-fold>
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.algebra;
+
+import gov.llnl.math.MathAssert;
+import gov.llnl.math.MathExceptions.SingularException;
+import gov.llnl.math.MathExceptions.SizeException;
+import gov.llnl.math.matrix.Matrix;
+import gov.llnl.math.matrix.MatrixAssert;
+import gov.llnl.math.matrix.MatrixSparseBase;
+import gov.llnl.math.matrix.special.MatrixSparseColumn;
+import gov.llnl.math.matrix.special.MatrixSparseRow;
+
+/**
+ * Cholesky factorization A=L*L' of a sparse symmetric positive definite
+ * matrix.
+ *
+ * The factor is computed one row at a time using the elimination tree of the
+ * matrix to find the nonzero pattern of each row, so the cost is proportional
+ * to the number of operations on nonzero elements. Only the upper triangle of
+ * the matrix is read. No fill reducing ordering is applied, thus the matrix
+ * should already be ordered such that the fill is small. Banded matrices and
+ * matrices from chains or neighboring channels are naturally in such an order.
+ *
+ * Unlike CholeskyFactorization no pivoting is performed and a matrix which is
+ * not positive definite produces a SingularException.
+ */
+public class SparseCholeskyFactorization
+{
+  public final static double DEFAULT_TOLERANCE = 1e-15;
+
+  double tolerance = DEFAULT_TOLERANCE;
+  int size;
+  int[] parent;
+  int[] start;
+  int[] index;
+  double[] values;
+
+  /**
+   * Solve the problem of Ax=c where A is the decomposed matrix.
+   *
+   * @param c is the right hand side.
+   * @return a new vector holding the solution.
+   */
+  public double[] solve(double[] c)
+  {
+    MathAssert.assertLengthEqual(c, size, "vector size incorrect");
+    double[] x = c.clone();
+
+    // Forward substitution with L
+    for (int j = 0; j < size; ++j)
+    {
+      int p = start[j];
+      double xj = x[j] / values[p];
+      x[j] = xj;
+      for (++p; p < start[j + 1]; ++p)
+        x[index[p]] -= values[p] * xj;
+    }
+
+    // Back substitution with L'
+    for (int j = size - 1; j >= 0; --j)
+    {
+      int p = start[j];
+      double s = x[j];
+      for (int q = p + 1; q < start[j + 1]; ++q)
+        s -= values[q] * x[index[q]];
+      x[j] = s / values[p];
+    }
+    return x;
+  }
+
+  /**
+   * Compute the factorization of a symmetric positive definite matrix.
+   *
+   * The matrix is not altered. Sparse matrices are used directly, other
+   * matrices are first converted to compressed column form.
+   *
+   * @param A is a symmetric matrix.
+   * @return this factorization.
+   * @throws SizeException if the matrix is not square.
+   * @throws SingularException if the matrix is not positive definite.
+   */
+  public SparseCholeskyFactorization decompose(Matrix A)
+          throws SizeException, SingularException
+  {
+    MatrixAssert.assertSquare(A);
+
+    // The rows of a symmetric matrix are also its columns
+    MatrixSparseBase C;
+    if (A instanceof MatrixSparseColumn)
+      C = (MatrixSparseBase) A;
+    else if (A instanceof MatrixSparseRow)
+      C = ((MatrixSparseRow) A).transpose();
+    else
+      C = new MatrixSparseColumn(A);
+
+    int n = A.rows();
+    int[] Ai = C.accessIndex();
+    double[] Ax = C.accessValues();
+    this.size = n;
+    this.parent = computeTree(C);
+
+    int[] stack = new int[n];
+    int[] flag = new int[n];
+
+    // Count the nonzeros in each column of L
+    int[] next = new int[n];
+    for (int j = 0; j < n; ++j)
+      flag[j] = -1;
+    for (int k = 0; k < n; ++k)
+    {
+      next[k]++;
+      int top = reach(C, k, stack, flag);
+      for (int t = top; t < n; ++t)
+        next[stack[t]]++;
+    }
+    int[] Lp = new int[n + 1];
+    for (int j = 0; j < n; ++j)
+    {
+      Lp[j + 1] = Lp[j] + next[j];
+      next[j] = Lp[j];
+    }
+    int[] Li = new int[Lp[n]];
+    double[] Lx = new double[Lp[n]];
+
+    // Compute L one row at a time
+    double[] x = new double[n];
+    for (int j = 0; j < n; ++j)
+      flag[j] = -1;
+    for (int k = 0; k < n; ++k)
+    {
+      int top = reach(C, k, stack, flag);
+      double akk = 0;
+      for (int p = C.addressBegin(k); p < C.addressEnd(k); ++p)
+      {
+        int i = Ai[p];
+        if (i < k)
+          x[i] = Ax[p];
+        else if (i == k)
+          akk = Ax[p];
+      }
+      double d = akk;
+
+      for (int t = top; t < n; ++t)
+      {
+        int j = stack[t];
+        double lkj = x[j] / Lx[Lp[j]];
+        x[j] = 0;
+        for (int p = Lp[j] + 1; p < next[j]; ++p)
+          x[Li[p]] -= Lx[p] * lkj;
+        d -= lkj * lkj;
+        int p = next[j]++;
+        Li[p] = k;
+        Lx[p] = lkj;
+      }
+
+      if (!(d > tolerance * Math.abs(akk)))
+        throw new SingularException("Matrix is not positive definite at " + k);
+      int p = next[k]++;
+      Li[p] = k;
+      Lx[p] = Math.sqrt(d);
+    }
+
+    this.start = Lp;
+    this.index = Li;
+    this.values = Lx;
+    return this;
+  }
+
+//<editor-fold desc="accessors" defaultstate="collapsed">
+  /**
+   * @return the size
+   */
+  public int getSize()
+  {
+    return size;
+  }
+
+  /**
+   * Get the lower triangular factor.
+   *
+   * The diagonal is the first element of each column.
+   *
+   * @return the factor as a sparse matrix sharing storage with this
+   * factorization.
+   */
+  public MatrixSparseColumn getL()
+  {
+    return MatrixSparseColumn.wrap(size, size, start, index, values);
+  }
+
+  /**
+   * @return the number of nonzeros in the factor.
+   */
+  public int getNonzeros()
+  {
+    return start[size];
+  }
+
+  /**
+   * Get the elimination tree.
+   *
+   * @return the parent of each column or -1 for a root.
+   */
+  public int[] getParent()
+  {
+    return parent;
+  }
+
+  /**
+   * @return the tolerance
+   */
+  public double getTolerance()
+  {
+    return tolerance;
+  }
+
+  /**
+   * @param tolerance the tolerance to set
+   */
+  public void setTolerance(double tolerance)
+  {
+    this.tolerance = tolerance;
+  }
+//</editor-fold>
+//<editor-fold desc="internal" defaultstate="collapsed">
+  /**
+   * Compute the elimination tree from the upper triangle.
+   *
+   * Uses path compression through the ancestor array.
+   */
+  static int[] computeTree(MatrixSparseBase C)
+  {
+    int n = C.columns();
+    int[] Ai = C.accessIndex();
+    int[] parent = new int[n];
+    int[] ancestor = new int[n];
+    for (int k = 0; k < n; ++k)
+    {
+      parent[k] = -1;
+      ancestor[k] = -1;
+      for (int p = C.addressBegin(k); p < C.addressEnd(k); ++p)
+      {
+        int i = Ai[p];
+        while (i != -1 && i < k)
+        {
+          int inext = ancestor[i];
+          ancestor[i] = k;
+          if (inext == -1)
+            parent[i] = k;
+          i = inext;
+        }
+      }
+    }
+    return parent;
+  }
+
+  /**
+   * Find the nonzero pattern of row k of L.
+   *
+   * The columns are placed in stack[top..n) in an order such that each column
+   * appears before its ancestors.
+   *
+   * @return top of the stack.
+   */
+  int reach(MatrixSparseBase C, int k, int[] stack, int[] flag)
+  {
+    int n = size;
+    int[] Ai = C.accessIndex();
+    int top = n;
+    flag[k] = k;
+    for (int p = C.addressBegin(k); p < C.addressEnd(k); ++p)
+    {
+      int i = Ai[p];
+      if (i > k)
+        continue;
+      int len = 0;
+      for (; flag[i] != k; i = parent[i])
+      {
+        stack[len++] = i;
+        flag[i] = k;
+      }
+      while (len > 0)
+        stack[--top] = stack[--len];
+    }
+    return top;
+  }
+//</editor-fold>
+}
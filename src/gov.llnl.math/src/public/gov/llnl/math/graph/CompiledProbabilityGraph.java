@@ -0,0 +1,514 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.graph;
+
+import gov.llnl.math.graph.ViterbiProbabilityGraph.Datum;
+import gov.llnl.math.graph.ViterbiProbabilityGraph.Output;
+import gov.llnl.math.graph.ViterbiProbabilityGraph.Workspace;
+import gov.llnl.math.graph.primitives.Connection;
+import gov.llnl.math.graph.primitives.NodeEdgeList;
+import java.util.Arrays;
+
+/**
+ * ProbabilityGraph flattened for evaluating many queries.
+ *
+ * The order of visitation, the direction of each message and the factor
+ * tables depend only on the graph, so they are computed once and stored in
+ * primitive arrays. Nodes are numbered in visitation order. The neighbors of
+ * each node are stored in compressed sparse row form in the same order as the
+ * edges of the graph, which is the bit order of the factor table.
+ *
+ * The graph is evaluated with
+ * {@link ViterbiProbabilityGraph#execute(Output[], CompiledProbabilityGraph, GraphQuery[])}.
+ * Messages for a block of queries are stored with the queries adjacent so
+ * that each step of the message passing is a loop over the queries.
+ *
+ * A compiled graph is immutable and may be shared between threads. It must be
+ * compiled again if the graph is altered.
+ */
+public class CompiledProbabilityGraph
+{
+  /**
+   * Number of queries evaluated together.
+   */
+  static final int BLOCK = 32;
+
+  final int size;
+  final ProbabilityGraphNode[] nodes;
+  final boolean[] variable;
+  final int[] queryId;
+  final int[] messageTo;
+  final int[] edgeStart;
+  final int[] edgeNode;
+  final boolean[] edgeIncoming;
+  final int[] outEdge;
+  final int[] factorStart;
+  final double[] factors;
+
+  /**
+   * Compile a graph.
+   *
+   * @param graph
+   * @throws RuntimeException if the graph has a loop or a node without a type.
+   */
+  public CompiledProbabilityGraph(ProbabilityGraph graph)
+  {
+    // Use the same visitation order as the single query algorithm
+    ViterbiProbabilityGraph viterbi = new ViterbiProbabilityGraph();
+    Workspace workspace = new Workspace();
+    viterbi.initialize(workspace, graph);
+    viterbi.assignOrder(workspace);
+
+    int n = graph.nodes().size();
+    this.size = n;
+    this.nodes = new ProbabilityGraphNode[n];
+    this.variable = new boolean[n];
+    this.queryId = new int[n];
+    this.messageTo = new int[n];
+    this.edgeStart = new int[n + 1];
+    this.outEdge = new int[n];
+    this.factorStart = new int[n];
+
+    // Number the nodes in the order of visit
+    int[] position = new int[n];
+    Datum[] order = new Datum[n];
+    int count = 0;
+    for (Datum datum = workspace.getFirst(); datum != null && count < n; datum = datum.next)
+    {
+      position[datum.node.getId()] = count;
+      order[count++] = datum;
+    }
+    if (count != n)
+      throw new RuntimeException("bad graph: unable to order nodes");
+
+    int edges = 0;
+    int tables = 0;
+    for (int p = 0; p < n; ++p)
+    {
+      ProbabilityGraphNode node = order[p].node;
+      if (!node.isVariableNode() && !node.isFactorNode())
+        throw new RuntimeException("bad node type " + node + " " + node.type);
+      nodes[p] = node;
+      variable[p] = node.isVariableNode();
+      queryId[p] = node.getQueryId();
+      messageTo[p] = (order[p].messageTo == null) ? -1 : position[order[p].messageTo.node.getId()];
+      edgeStart[p] = edges;
+      factorStart[p] = tables;
+      edges += node.getNumEdges();
+      tables += node.getFactorTableSize();
+    }
+    edgeStart[n] = edges;
+
+    this.edgeNode = new int[edges];
+    this.edgeIncoming = new boolean[edges];
+    this.factors = new double[tables];
+    for (int p = 0; p < n; ++p)
+    {
+      ProbabilityGraphNode node = nodes[p];
+      int e = edgeStart[p];
+      outEdge[p] = -1;
+      NodeEdgeList<ProbabilityGraphNode, ProbabilityGraphEdge> list = node.getEdges();
+      for (Connection<ProbabilityGraphNode, ProbabilityGraphEdge> connection : list)
+      {
+        int neighbor = position[connection.getNode().getId()];
+        edgeNode[e] = neighbor;
+        edgeIncoming[e] = messageTo[neighbor] == p;
+        if (!edgeIncoming[e])
+          outEdge[p] = e - edgeStart[p];
+        e++;
+      }
+      for (int i = 0; i < node.getFactorTableSize(); ++i)
+        factors[factorStart[p] + i] = node.getFactor(i);
+    }
+  }
+
+  /**
+   * @return the number of nodes in the graph.
+   */
+  public int size()
+  {
+    return size;
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  /**
+   * Messages for a block of queries.
+   *
+   * All arrays are indexed by node times the block size plus the query.
+   */
+  final class Batch
+  {
+    final int width;
+    final double[] weight0;
+    final double[] weight1;
+    final double[] forward0;
+    final double[] forward1;
+    final double[] reverse0;
+    final double[] reverse1;
+    final double[] total;
+    final int[] track0;
+    final int[] track1;
+    final int[] best;
+    final boolean[] free;
+    final double[] work;
+    final double[] max;
+    final double[] sum;
+
+    Batch(int width)
+    {
+      this.width = width;
+      int n = size * width;
+      weight0 = new double[n];
+      weight1 = new double[n];
+      forward0 = new double[n];
+      forward1 = new double[n];
+      reverse0 = new double[n];
+      reverse1 = new double[n];
+      total = new double[n];
+      track0 = new int[n];
+      track1 = new int[n];
+      best = new int[n];
+      free = new boolean[n];
+      work = new double[width];
+      max = new double[width];
+      sum = new double[width];
+    }
+
+    /**
+     * Evaluate a block of queries.
+     *
+     * @param outputs
+     * @param queries
+     * @param offset is the first query in the block.
+     * @param count is the number of queries in the block.
+     * @param full is true to compute the state and pivot as well as the
+     * probabilities.
+     */
+    void evaluate(Output[] outputs, GraphQuery[] queries, int offset, int count, boolean full)
+    {
+      Arrays.fill(reverse0, 1);
+      Arrays.fill(reverse1, 1);
+      Arrays.fill(free, false);
+      loadQueries(queries, offset, count);
+      collectEvidence(count);
+      for (int q = 0; q < count; ++q)
+      {
+        Output output = outputs[offset + q];
+        output.maxProbability = max[q];
+        output.totalProbability = sum[q];
+      }
+      if (!full)
+        return;
+      distributeDecisions(outputs, queries, offset, count);
+      distributeEvidence(count);
+      calculateStateRatios(outputs, queries, offset, count);
+    }
+
+    /**
+     * Convert the query states into the weights for each variable.
+     */
+    void loadQueries(GraphQuery[] queries, int offset, int count)
+    {
+      for (int p = 0; p < size; ++p)
+      {
+        if (!variable[p])
+          continue;
+        ProbabilityGraphNode node = nodes[p];
+        int id = queryId[p];
+        int base = p * width;
+        double f0 = factors[factorStart[p]];
+        double f1 = factors[factorStart[p] + 1];
+        for (int q = 0; q < count; ++q)
+        {
+          GraphQuery query = queries[offset + q];
+          double w0 = f0;
+          double w1 = f1;
+          if (node.hasConditions() && query.hasConditions())
+          {
+            double[] f = node.getVariableFactors(query);
+            w0 = f[0];
+            w1 = f[1];
+          }
+          if (query.isPartial(id))
+          {
+            double partial = query.getPartial(id);
+            w0 *= (1 - partial);
+            w1 *= partial;
+          }
+          else if (query.isTrue(id))
+            w0 = 0;
+          else if (query.isFalse(id))
+            w1 = 0;
+          else if (query.isUnknown(id))
+            free[base + q] = true;
+          weight0[base + q] = w0;
+          weight1[base + q] = w1;
+        }
+      }
+    }
+
+    void collectEvidence(int count)
+    {
+      Arrays.fill(max, 0, count, 1);
+      Arrays.fill(sum, 0, count, 1);
+      for (int p = 0; p < size; ++p)
+      {
+        if (variable[p])
+          forwardVariable(p, count);
+        else
+          forwardFactor(p, count);
+
+        // Track the global maximum over the trees of a forest
+        if (messageTo[p] == -1)
+        {
+          int base = p * width;
+          for (int q = 0; q < count; ++q)
+          {
+            max[q] *= (best[base + q] == 1) ? forward1[base + q] : forward0[base + q];
+            sum[q] *= total[base + q];
+          }
+        }
+      }
+    }
+
+    void forwardVariable(int p, int count)
+    {
+      int base = p * width;
+      for (int q = 0; q < count; ++q)
+      {
+        forward0[base + q] = weight0[base + q];
+        forward1[base + q] = weight1[base + q];
+        track0[base + q] = 0;
+        track1[base + q] = 1;
+      }
+      for (int e = edgeStart[p]; e < edgeStart[p + 1]; ++e)
+      {
+        if (!edgeIncoming[e])
+          continue;
+        int nb = edgeNode[e] * width;
+        for (int q = 0; q < count; ++q)
+        {
+          forward0[base + q] *= forward0[nb + q];
+          forward1[base + q] *= forward1[nb + q];
+        }
+      }
+      for (int q = 0; q < count; ++q)
+      {
+        best[base + q] = (forward0[base + q] < forward1[base + q]) ? 1 : 0;
+        total[base + q] = forward0[base + q] + forward1[base + q];
+      }
+    }
+
+    void forwardFactor(int p, int count)
+    {
+      int base = p * width;
+      int e0 = edgeStart[p];
+      int e1 = edgeStart[p + 1];
+      int out = outEdge[p];
+      int tableSize = 1 << (e1 - e0);
+      for (int q = 0; q < count; ++q)
+      {
+        forward0[base + q] = -1;
+        forward1[base + q] = -1;
+        track0[base + q] = 0;
+        track1[base + q] = 1;
+        total[base + q] = 0;
+      }
+
+      // Walk the entire factor table
+      for (int i = 0; i < tableSize; ++i)
+      {
+        double factor = factors[factorStart[p] + i];
+        Arrays.fill(work, 0, count, factor);
+        for (int e = e0; e < e1; ++e)
+        {
+          if (!edgeIncoming[e])
+            continue;
+          int nb = edgeNode[e] * width;
+          double[] message = ((i >> (e - e0)) & 1) != 0 ? forward1 : forward0;
+          for (int q = 0; q < count; ++q)
+            work[q] *= message[nb + q];
+        }
+
+        // Keep the best entry for the outgoing state
+        boolean who = out >= 0 && ((i >> out) & 1) != 0;
+        double[] message = who ? forward1 : forward0;
+        int[] track = who ? track1 : track0;
+        for (int q = 0; q < count; ++q)
+        {
+          if (message[base + q] < work[q])
+          {
+            message[base + q] = work[q];
+            track[base + q] = i;
+          }
+          total[base + q] += work[q];
+        }
+      }
+      for (int q = 0; q < count; ++q)
+        best[base + q] = (forward0[base + q] < forward1[base + q]) ? 1 : 0;
+    }
+
+    void distributeDecisions(Output[] outputs, GraphQuery[] queries, int offset, int count)
+    {
+      for (int q = 0; q < count; ++q)
+        outputs[offset + q].state = new GraphQuery(queries[offset + q].size());
+
+      for (int p = size - 1; p >= 0; --p)
+      {
+        int base = p * width;
+        int e0 = edgeStart[p];
+        for (int q = 0; q < count; ++q)
+        {
+          int state = (best[base + q] == 1) ? track1[base + q] : track0[base + q];
+          if (variable[p])
+          {
+            if (state == 1)
+              outputs[offset + q].state.setTrue(queryId[p]);
+            else
+              outputs[offset + q].state.setFalse(queryId[p]);
+          }
+          for (int e = e0; e < edgeStart[p + 1]; ++e)
+          {
+            if (!edgeIncoming[e])
+              continue;
+            if (variable[p])
+              best[edgeNode[e] * width + q] = state;
+            else
+              best[edgeNode[e] * width + q] = (state >> (e - e0)) & 1;
+          }
+        }
+      }
+    }
+
+    void distributeEvidence(int count)
+    {
+      for (int p = size - 1; p >= 0; --p)
+      {
+        if (variable[p])
+          reverseVariable(p, count);
+        else
+          reverseFactor(p, count);
+      }
+    }
+
+    void reverseVariable(int p, int count)
+    {
+      int base = p * width;
+      int e0 = edgeStart[p];
+      int e1 = edgeStart[p + 1];
+      for (int k = e0; k < e1; ++k)
+      {
+        if (!edgeIncoming[k])
+          continue;
+        int target = edgeNode[k] * width;
+        for (int q = 0; q < count; ++q)
+        {
+          reverse0[target + q] = weight0[base + q] * reverse0[base + q];
+          reverse1[target + q] = weight1[base + q] * reverse1[base + q];
+        }
+
+        // Exclude the message from the node the message is sent to
+        for (int e = e0; e < e1; ++e)
+        {
+          if (e == k || !edgeIncoming[e])
+            continue;
+          int nb = edgeNode[e] * width;
+          for (int q = 0; q < count; ++q)
+          {
+            reverse0[target + q] *= forward0[nb + q];
+            reverse1[target + q] *= forward1[nb + q];
+          }
+        }
+      }
+    }
+
+    void reverseFactor(int p, int count)
+    {
+      int base = p * width;
+      int e0 = edgeStart[p];
+      int e1 = edgeStart[p + 1];
+      int tableSize = 1 << (e1 - e0);
+      for (int k = e0; k < e1; ++k)
+      {
+        if (!edgeIncoming[k])
+          continue;
+        int target = edgeNode[k];
+        int tb = target * width;
+        Arrays.fill(reverse0, tb, tb + count, 0);
+        Arrays.fill(reverse1, tb, tb + count, 0);
+
+        for (int i = 0; i < tableSize; ++i)
+        {
+          double factor = factors[factorStart[p] + i];
+          Arrays.fill(work, 0, count, factor);
+          boolean who = false;
+          for (int e = e0; e < e1; ++e)
+          {
+            boolean bit = ((i >> (e - e0)) & 1) != 0;
+            if (edgeNode[e] == target)
+            {
+              who = bit;
+              continue;
+            }
+            double[] message;
+            int nb;
+            if (edgeIncoming[e])
+            {
+              message = bit ? forward1 : forward0;
+              nb = edgeNode[e] * width;
+            }
+            else
+            {
+              message = bit ? reverse1 : reverse0;
+              nb = base;
+            }
+            for (int q = 0; q < count; ++q)
+              work[q] *= message[nb + q];
+          }
+
+          double[] message = who ? reverse1 : reverse0;
+          for (int q = 0; q < count; ++q)
+          {
+            if (message[tb + q] < work[q])
+              message[tb + q] = work[q];
+          }
+        }
+      }
+    }
+
+    void calculateStateRatios(Output[] outputs, GraphQuery[] queries, int offset, int count)
+    {
+      for (int q = 0; q < count; ++q)
+      {
+        Output output = outputs[offset + q];
+        output.pivot = -1;
+        output.pivotRatio = -1;
+      }
+      for (int p = 0; p < size; ++p)
+      {
+        if (!variable[p])
+          continue;
+        int base = p * width;
+        for (int q = 0; q < count; ++q)
+        {
+          if (!free[base + q])
+            continue;
+          double bestFalse = forward0[base + q] * reverse0[base + q];
+          double bestTrue = forward1[base + q] * reverse1[base + q];
+          double ratio = (bestTrue == 0) ? 1e308 : bestFalse / bestTrue;
+          Output output = outputs[offset + q];
+          if (ratio > output.pivotRatio)
+          {
+            output.pivotRatio = ratio;
+            output.pivot = queryId[p];
+          }
+        }
+      }
+    }
+  }
+//</editor-fold>
+}
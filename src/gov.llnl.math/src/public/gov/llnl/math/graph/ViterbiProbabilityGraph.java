@@ -9,10 +9,12 @@ package gov.llnl.math.graph;
 //#ifndef RNAK_GRAPHS_VITERBI_PROBABILITY_GRAPH_H_
 import gov.llnl.math.graph.primitives.Connection;
 import gov.llnl.math.graph.primitives.NodeEdgeList;
+import gov.llnl.utility.ExecutorUtilities;
 import gov.llnl.utility.UUIDUtilities;
 import java.io.PrintStream;
 import java.io.Serializable;
 import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
 
 /**
  * This algorithm processes a Probability Graph with a query to find the most
@@ -126,6 +128,11 @@ public class ViterbiProbabilityGraph implements Serializable
       last = null;
     }
 
+    Datum getFirst()
+    {
+      return first;
+    }
+
     public void initialize(ProbabilityGraph pg)
     {
       LinkedList<ProbabilityGraphNode> nodes = pg.nodes();
@@ -588,6 +595,67 @@ public class ViterbiProbabilityGraph implements Serializable
     calculateStateRatios(output, workspace);
   }
 
+  /**
+   * Executes the Viterbi algorithm for many queries on a compiled graph.
+   *
+   * This produces the same outputs as calling
+   * {@link #execute(Output, ProbabilityGraph, GraphQuery) execute} for each
+   * query, but the graph is only walked once for each block of queries and no
+   * workspace is allocated per query.
+   *
+   * @param outputs holds the results for each query.
+   * @param graph is the compiled graph.
+   * @param queries holds the states to be evaluated.
+   */
+  public void execute(Output[] outputs, CompiledProbabilityGraph graph, GraphQuery[] queries)
+  {
+    execute(outputs, graph, queries, null, true);
+  }
+
+  /**
+   * Executes the Viterbi algorithm for many queries on a compiled graph with
+   * the blocks of queries split between threads.
+   *
+   * @param outputs holds the results for each query.
+   * @param graph is the compiled graph.
+   * @param queries holds the states to be evaluated.
+   * @param executor runs the blocks of queries.
+   */
+  public void execute(Output[] outputs, CompiledProbabilityGraph graph, GraphQuery[] queries,
+          ExecutorService executor)
+  {
+    execute(outputs, graph, queries, executor, true);
+  }
+
+  /**
+   * Computes only the maximum and total probability for many queries on a
+   * compiled graph.
+   *
+   * @param outputs holds the results for each query. Only the maxProbability
+   * and totalProbability will be filled out.
+   * @param graph is the compiled graph.
+   * @param queries holds the states to be evaluated.
+   */
+  public void propogate(Output[] outputs, CompiledProbabilityGraph graph, GraphQuery[] queries)
+  {
+    execute(outputs, graph, queries, null, false);
+  }
+
+  /**
+   * Computes only the maximum and total probability for many queries on a
+   * compiled graph with the blocks of queries split between threads.
+   *
+   * @param outputs holds the results for each query.
+   * @param graph is the compiled graph.
+   * @param queries holds the states to be evaluated.
+   * @param executor runs the blocks of queries.
+   */
+  public void propogate(Output[] outputs, CompiledProbabilityGraph graph, GraphQuery[] queries,
+          ExecutorService executor)
+  {
+    execute(outputs, graph, queries, executor, false);
+  }
+
   /**
    * Sets up a workspace for the Viterbi algorithm to operate on a
    * ProbabilityGraph.
@@ -812,6 +880,37 @@ public class ViterbiProbabilityGraph implements Serializable
     }
   }
 
+  private void execute(Output[] outputs, CompiledProbabilityGraph graph, GraphQuery[] queries,
+          ExecutorService executor, boolean full)
+  {
+    if (outputs.length < queries.length)
+      throw new RuntimeException("Output not set");
+    for (int i = 0; i < queries.length; ++i)
+    {
+      if (outputs[i] == null)
+        throw new RuntimeException("Output not set");
+    }
+
+    int width = CompiledProbabilityGraph.BLOCK;
+    int blocks = (queries.length + width - 1) / width;
+    // Each task reuses one set of messages for a contiguous range of blocks
+    int tasks = (executor == null) ? 1 : Runtime.getRuntime().availableProcessors();
+    ExecutorUtilities.executeBlocks(blocks, (blocks + tasks - 1) / tasks, executor,
+            (first, last) -> evaluateBlocks(outputs, graph, queries, first, last, full));
+  }
+
+  private static void evaluateBlocks(Output[] outputs, CompiledProbabilityGraph graph, GraphQuery[] queries,
+          int first, int last, boolean full)
+  {
+    int width = CompiledProbabilityGraph.BLOCK;
+    CompiledProbabilityGraph.Batch batch = graph.new Batch(width);
+    for (int b = first; b < last; ++b)
+    {
+      int offset = b * width;
+      batch.evaluate(outputs, queries, offset, Math.min(width, queries.length - offset), full);
+    }
+  }
+
   private static void throwBadNodeType(ProbabilityGraphNode node)
   {
     throw new RuntimeException("bad node type " + node + " " + node.type);
@@ -98,6 +98,43 @@ public interface MultiInterpolator extends Supplier<Evaluator>
       }
     }
 
+    /**
+     * Evaluate one of the functions at many points.
+     *
+     * This is fastest when the points are in increasing order such as the
+     * channels of a spectrum, but any order is allowed. The cursor position
+     * after the call is not defined.
+     *
+     * @param index is the function number.
+     * @param x is the list of points.
+     * @param out is the memory to hold the result. It may be the same as x.
+     */
+    default void evaluate(int index, double[] x, double[] out)
+    {
+      for (int i = 0; i < x.length; ++i)
+      {
+        seek(x[i]);
+        out[i] = evaluate(index);
+      }
+    }
+
+    /**
+     * Evaluate all of the functions at many points.
+     *
+     * @param x is the list of points.
+     * @param result is the memory to hold the result with one row for each
+     * function.
+     */
+    default void evaluateAll(double[] x, double[][] result)
+    {
+      for (int i = 0; i < x.length; ++i)
+      {
+        seek(x[i]);
+        for (int j = 0; j < result.length; ++j)
+          result[j][i] = evaluate(j);
+      }
+    }
+
     /**
      * Get an operator for this function.
      *
@@ -70,6 +70,60 @@ class MultiLinearInterp implements MultiInterpolator
       double fraction = cursor.getFraction();
       return (1 - fraction) * y[index] + fraction * y[index + 1];
     }
+
+    @Override
+    public void evaluate(int index, double[] x, double[] out)
+    {
+      evaluateRange(x, new double[][]
+      {
+        out
+      }, index);
+    }
+
+    @Override
+    public void evaluateAll(double[] x, double[][] result)
+    {
+      evaluateRange(x, result, 0);
+    }
+
+    /**
+     * Evaluate consecutive functions at many points.
+     *
+     * @param x is the list of points.
+     * @param result holds one row for each function.
+     * @param first is the function for the first row.
+     */
+    private void evaluateRange(double[] x, double[][] result, int first)
+    {
+      if (xv.length < 2)
+      {
+        for (int j = 0; j < result.length; ++j)
+          MultiInterpolator.Evaluator.super.evaluate(first + j, x, result[j]);
+        return;
+      }
+      SegmentRuns runs = new SegmentRuns(xv);
+      int n = x.length;
+      int i = 0;
+      while (i < n)
+      {
+        int end = runs.next(x, i, n);
+        int k = runs.segment;
+        double x0 = xv[k];
+        double dx = xv[k + 1] - x0;
+
+        // The first row is written last so that it may share memory with x
+        for (int j = result.length - 1; j >= 0; --j)
+        {
+          double[] y = yv[first + j];
+          double[] out = result[j];
+          double y0 = y[k];
+          double slope = (y[k + 1] - y0) / dx;
+          for (int l = i; l < end; ++l)
+            out[l] = y0 + (x[l] - x0) * slope;
+        }
+        i = end;
+      }
+    }
   }
 //</editor-fold>
 }
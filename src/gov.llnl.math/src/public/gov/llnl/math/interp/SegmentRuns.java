@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved.
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.interp;
+
+import gov.llnl.math.Cursor;
+
+/**
+ * Splits a list of points into runs which fall in the same segment.
+ *
+ * This is used by the bulk evaluators. When the points are in increasing
+ * order the segment is found by advancing from the previous one, so each run
+ * costs a short scan rather than a search. The evaluator can then compute the
+ * coefficients for the segment once and apply them to the whole run without
+ * any branches. Points out of order are handled correctly but require a
+ * search.
+ *
+ * The segments match those used by {@link Cursor}. Points beyond the ends are
+ * assigned to the first or last segment.
+ */
+final class SegmentRuns
+{
+  private final double[] knots;
+  private final int log;
+  int segment;
+
+  SegmentRuns(double[] knots)
+  {
+    this.knots = knots;
+    this.log = Cursor.seekLog(knots.length);
+    this.segment = 0;
+  }
+
+  /**
+   * Find the segment for a point and the end of the run that shares it.
+   *
+   * The segment is stored in {@link #segment}.
+   *
+   * @param x is the list of points.
+   * @param begin is the first point in the run.
+   * @param end is the end of the list (exclusive).
+   * @return the end of the run (exclusive).
+   */
+  int next(double[] x, int begin, int end)
+  {
+    int n = knots.length;
+    segment = Cursor.seekSegment(x[begin], knots, 0, n, segment, log);
+    double lower = (segment == 0) ? Double.NEGATIVE_INFINITY : knots[segment];
+    double upper = (segment == n - 2) ? Double.POSITIVE_INFINITY : knots[segment + 1];
+    int i = begin + 1;
+    while (i < end && x[i] >= lower && x[i] < upper)
+      ++i;
+    return i;
+  }
+}
@@ -62,12 +62,27 @@ public interface SingleInterpolator extends Supplier<Evaluator>
     default double[] applyAll(double[] values)
     {
       double[] out = new double[values.length];
-      for (int i = 0; i < values.length; ++i)
+      evaluate(values, out);
+      return out;
+    }
+
+    /**
+     * Evaluate the function at many points.
+     *
+     * This is fastest when the points are in increasing order such as the
+     * channels of a spectrum, but any order is allowed. The cursor position
+     * after the call is not defined.
+     *
+     * @param x is the list of points.
+     * @param out is the memory to hold the result. It may be the same as x.
+     */
+    default void evaluate(double[] x, double[] out)
+    {
+      for (int i = 0; i < x.length; ++i)
       {
-        seek(values[i]);
+        seek(x[i]);
         out[i] = evaluate();
       }
-      return out;
     }
 
   }
@@ -57,6 +57,29 @@ class SingleLinearInterp implements SingleInterpolator
       }
       return (1 - fraction) * yv[index] + fraction * yv[index + 1];
     }
+
+    @Override
+    public void evaluate(double[] x, double[] out)
+    {
+      if (xv.length < 2)
+      {
+        SingleInterpolator.Evaluator.super.evaluate(x, out);
+        return;
+      }
+      SegmentRuns runs = new SegmentRuns(xv);
+      int n = x.length;
+      int i = 0;
+      while (i < n)
+      {
+        int end = runs.next(x, i, n);
+        int k = runs.segment;
+        double x0 = xv[k];
+        double y0 = yv[k];
+        double slope = (yv[k + 1] - y0) / (xv[k + 1] - x0);
+        for (; i < end; ++i)
+          out[i] = y0 + (x[i] - x0) * slope;
+      }
+    }
   }
 //</editor-fold>
 
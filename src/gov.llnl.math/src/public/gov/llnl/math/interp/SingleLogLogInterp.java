@@ -55,6 +55,31 @@ class SingleLogLogInterp implements SingleInterpolator
       return Math.exp((1 - fraction) * yv[index]
               + fraction * yv[index + 1]);
     }
+
+    @Override
+    public void evaluate(double[] x, double[] out)
+    {
+      if (xv.length < 2)
+      {
+        SingleInterpolator.Evaluator.super.evaluate(x, out);
+        return;
+      }
+      int n = x.length;
+      for (int i = 0; i < n; ++i)
+        out[i] = Math.log(x[i]);
+      SegmentRuns runs = new SegmentRuns(xv);
+      int i = 0;
+      while (i < n)
+      {
+        int end = runs.next(out, i, n);
+        int k = runs.segment;
+        double x0 = xv[k];
+        double y0 = yv[k];
+        double slope = (yv[k + 1] - y0) / (xv[k + 1] - x0);
+        for (; i < end; ++i)
+          out[i] = Math.exp(y0 + (out[i] - x0) * slope);
+      }
+    }
   }
 //</editor-fold>
 
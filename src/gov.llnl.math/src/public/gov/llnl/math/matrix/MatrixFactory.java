@@ -7,6 +7,8 @@
 package gov.llnl.math.matrix;
 
 import gov.llnl.math.MathExceptions.SizeException;
+import gov.llnl.math.matrix.special.MatrixSparseColumn;
+import gov.llnl.math.matrix.special.MatrixSparseRow;
 import gov.llnl.math.matrix.special.MatrixTriDiagonal;
 import java.util.Collection;
 
@@ -469,4 +471,31 @@ public class MatrixFactory
     return new MatrixRowOpsVector(values, 0);
   }
 //</editor-fold>
+//<editor-fold desc="sparse" defaultstate="collapsed">
+  /**
+   * Copy a matrix to a sparse matrix in compressed row form.
+   *
+   * Elements which are exactly zero are not stored.
+   *
+   * @param matrix
+   * @return a new sparse matrix.
+   */
+  public static MatrixSparseRow newSparseRowMatrix(Matrix matrix)
+  {
+    return new MatrixSparseRow(matrix);
+  }
+
+  /**
+   * Copy a matrix to a sparse matrix in compressed column form.
+   *
+   * Elements which are exactly zero are not stored.
+   *
+   * @param matrix
+   * @return a new sparse matrix.
+   */
+  public static MatrixSparseColumn newSparseColumnMatrix(Matrix matrix)
+  {
+    return new MatrixSparseColumn(matrix);
+  }
+//</editor-fold>
 }
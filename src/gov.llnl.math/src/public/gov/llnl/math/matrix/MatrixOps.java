@@ -383,6 +383,8 @@ public class MatrixOps
   static public double[] multiply(double[] b, Matrix a)
           throws SizeException
   {
+    if (a instanceof MatrixSparseBase)
+      return ((MatrixSparseBase) a).multiplyTranspose(b, null);
     Matrix c = multiply(MatrixFactory.newRowMatrix(b), a);
     return unwrapArray(c);
   }
@@ -390,6 +392,8 @@ public class MatrixOps
   static public double[] multiply(Matrix a, double[] b)
           throws SizeException
   {
+    if (a instanceof MatrixSparseBase)
+      return ((MatrixSparseBase) a).multiply(b, null);
     Matrix c = multiply(a, MatrixFactory.newColumnMatrix(b));
     return unwrapArray(c);
   }
@@ -403,7 +407,8 @@ public class MatrixOps
 
   /**
    * Multiply two matrices together. The result will be in the preferred
-   * implementation for multiplication.
+   * implementation for multiplication. If both operands are sparse the result
+   * is a compressed row matrix.
    *
    * @param a is the first operand.
    * @param b is the second operand.
@@ -416,6 +421,9 @@ public class MatrixOps
     try
     {
       MatrixAssert.assertColumnsEqualsRows(a, b);
+      if (a instanceof MatrixSparseBase || b instanceof MatrixSparseBase)
+        return MatrixOpMultiply.multiplySparse(a, b);
+
       int d1 = a.rows();
       int d3 = b.columns();
 
@@ -124,6 +124,8 @@ public class MatrixViews
     int[] index = new int[end - begin];
     for (int i = 0; i < end - begin; ++i)
       index[i] = begin + i;
+    if (matrix instanceof SelectAccess)
+      return ((SelectAccess) matrix).selectColumns(index);
     return new MatrixColumnProxy(matrix, index);
   }
 
@@ -227,6 +229,8 @@ public class MatrixViews
     int[] index = new int[end - begin];
     for (int i = 0; i < end - begin; ++i)
       index[i] = begin + i;
+    if (matrix instanceof SelectAccess)
+      return ((SelectAccess) matrix).selectRows(index);
     return new MatrixRowProxy(matrix, index);
   }
 
@@ -274,10 +278,7 @@ public class MatrixViews
       return new MatrixColumnList(matrix.sync(), out, endRow - beginRow);
     }
 
-    int[] index = new int[endRow - beginRow];
-    for (int i = 0; i < endRow - beginRow; ++i)
-      index[i] = beginRow + i;
-    return selectColumnRange(new MatrixRowProxy(matrix, index), beginColumn, endColumn);
+    return selectColumnRange(selectRowRange(matrix, beginRow, endRow), beginColumn, endColumn);
   }
 
 //</editor-fold>
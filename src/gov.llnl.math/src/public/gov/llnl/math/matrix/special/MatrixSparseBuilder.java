@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.matrix.special;
+
+import java.util.Arrays;
+
+/**
+ * Assembles a sparse matrix from a list of elements.
+ *
+ * Elements may be added in any order. Elements added more than once at the
+ * same location are summed, which is convenient when assembling operators such
+ * as rebinning or response matrices from contributions. The builder may be
+ * reused after a matrix is produced.
+ */
+public class MatrixSparseBuilder
+{
+  private final int rows;
+  private final int columns;
+  private int size = 0;
+  private int[] rowIndex = new int[16];
+  private int[] columnIndex = new int[16];
+  private double[] values = new double[16];
+
+  /**
+   * Create a builder for a matrix.
+   *
+   * @param rows is the number of rows.
+   * @param columns is the number of columns.
+   */
+  public MatrixSparseBuilder(int rows, int columns)
+  {
+    if (rows < 0 || columns < 0)
+      throw new IllegalArgumentException("Negative size");
+    this.rows = rows;
+    this.columns = columns;
+  }
+
+  /**
+   * Add a value to an element.
+   *
+   * @param row is the row of the element.
+   * @param column is the column of the element.
+   * @param value is the value to add.
+   * @return this builder.
+   * @throws IndexOutOfBoundsException if the element is outside of the matrix.
+   */
+  public MatrixSparseBuilder add(int row, int column, double value)
+          throws IndexOutOfBoundsException
+  {
+    if (row < 0 || row >= rows || column < 0 || column >= columns)
+      throw new IndexOutOfBoundsException("Element out of range "
+              + row + "," + column + " for " + rows + "x" + columns);
+    if (size == values.length)
+    {
+      int n = 2 * size;
+      rowIndex = Arrays.copyOf(rowIndex, n);
+      columnIndex = Arrays.copyOf(columnIndex, n);
+      values = Arrays.copyOf(values, n);
+    }
+    rowIndex[size] = row;
+    columnIndex[size] = column;
+    values[size] = value;
+    ++size;
+    return this;
+  }
+
+  /**
+   * @return the number of elements added.
+   */
+  public int size()
+  {
+    return size;
+  }
+
+  /**
+   * Remove all elements.
+   */
+  public void clear()
+  {
+    size = 0;
+  }
+
+  /**
+   * Create a matrix in compressed row form.
+   *
+   * @return a new matrix holding the elements.
+   */
+  public MatrixSparseRow newRowMatrix()
+  {
+    int[][] pattern = new int[2][];
+    double[] v = compress(rowIndex, columnIndex, rows, columns, pattern);
+    int[] start = pattern[0];
+    return new MatrixSparseRow(null, rows, columns,
+            Arrays.copyOf(start, rows), Arrays.copyOfRange(start, 1, rows + 1), pattern[1], v);
+  }
+
+  /**
+   * Create a matrix in compressed column form.
+   *
+   * @return a new matrix holding the elements.
+   */
+  public MatrixSparseColumn newColumnMatrix()
+  {
+    int[][] pattern = new int[2][];
+    double[] v = compress(columnIndex, rowIndex, columns, rows, pattern);
+    int[] start = pattern[0];
+    return new MatrixSparseColumn(null, columns, rows,
+            Arrays.copyOf(start, columns), Arrays.copyOfRange(start, 1, columns + 1), pattern[1], v);
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  /**
+   * Sort the elements by major then minor and sum duplicates.
+   *
+   * Two counting sorts are used so the cost is linear in the number of
+   * elements.
+   *
+   * @param major is the major index of each element.
+   * @param minor is the minor index of each element.
+   * @param majorSize is the number of major vectors.
+   * @param minorSize is the length of the major vectors.
+   * @param pattern receives the start and index arrays.
+   * @return the values.
+   */
+  private double[] compress(int[] major, int[] minor, int majorSize, int minorSize, int[][] pattern)
+  {
+    // Sort by minor
+    int[] count = new int[minorSize + 1];
+    for (int t = 0; t < size; ++t)
+      count[minor[t] + 1]++;
+    for (int j = 0; j < minorSize; ++j)
+      count[j + 1] += count[j];
+    int[] order1 = new int[size];
+    for (int t = 0; t < size; ++t)
+      order1[count[minor[t]]++] = t;
+
+    // Stable sort by major
+    int[] start = new int[majorSize + 1];
+    for (int t = 0; t < size; ++t)
+      start[major[t] + 1]++;
+    for (int i = 0; i < majorSize; ++i)
+      start[i + 1] += start[i];
+    int[] next = Arrays.copyOf(start, majorSize);
+    int[] order2 = new int[size];
+    for (int s = 0; s < size; ++s)
+    {
+      int t = order1[s];
+      order2[next[major[t]]++] = t;
+    }
+
+    // Merge duplicates
+    int[] index = new int[size];
+    double[] out = new double[size];
+    int nz = 0;
+    for (int i = 0; i < majorSize; ++i)
+    {
+      int first = nz;
+      for (int s = start[i]; s < start[i + 1]; ++s)
+      {
+        int t = order2[s];
+        if (nz > first && index[nz - 1] == minor[t])
+          out[nz - 1] += values[t];
+        else
+        {
+          index[nz] = minor[t];
+          out[nz++] = values[t];
+        }
+      }
+      start[i] = first;
+    }
+    start[majorSize] = nz;
+    pattern[0] = start;
+    pattern[1] = Arrays.copyOf(index, nz);
+    return Arrays.copyOf(out, nz);
+  }
+//</editor-fold>
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.matrix.special;
+
+import gov.llnl.math.MathExceptions.ResizeException;
+import gov.llnl.math.MathExceptions.SizeException;
+import gov.llnl.math.MathExceptions.WriteAccessException;
+import gov.llnl.math.matrix.Matrix;
+import gov.llnl.math.matrix.MatrixAssert;
+import gov.llnl.math.matrix.MatrixSparseBase;
+import gov.llnl.utility.UUIDUtilities;
+
+/**
+ * Sparse matrix stored in compressed column form.
+ *
+ * Each column holds the row index and value of its nonzero elements. Column
+ * access and multiplication by a vector cost time proportional to the number
+ * of nonzeros. Row access requires a search in each column. Selecting columns
+ * produces a view which shares the storage of this matrix, as does the
+ * transpose which is a {@link MatrixSparseRow}. Selecting a contiguous range of
+ * rows produces a sparse view which shares the values, while other row
+ * selections produce a proxy.
+ *
+ * Use {@link MatrixSparseBuilder} to assemble a matrix from elements.
+ */
+public class MatrixSparseColumn extends MatrixSparseBase
+{
+  private static final long serialVersionUID = UUIDUtilities.createLong("MatrixSparseColumn-v1");
+
+  /**
+   * Create a sparse copy of a matrix.
+   *
+   * @param matrix is the matrix to copy.
+   */
+  public MatrixSparseColumn(Matrix matrix)
+  {
+    super(matrix, false);
+  }
+
+  MatrixSparseColumn(Object sync, int columns, int rows,
+          int[] begin, int[] end, int[] index, double[] values)
+  {
+    super(sync, columns, rows, begin, end, index, values);
+  }
+
+  /**
+   * Wrap existing arrays in compressed column form as a matrix.
+   *
+   * The elements of column j are stored from start[j] to start[j+1] with the
+   * rows in increasing order.
+   *
+   * @param rows is the number of rows.
+   * @param columns is the number of columns.
+   * @param start holds the start of each column followed by the number of
+   * nonzeros. Its length must be columns+1.
+   * @param index holds the row of each element.
+   * @param values holds the value of each element.
+   * @return a new matrix backed by index and values.
+   * @throws SizeException if the arrays are too short.
+   * @throws IllegalArgumentException if start is not increasing or the rows of
+   * a column are not sorted.
+   */
+  public static MatrixSparseColumn wrap(int rows, int columns, int[] start, int[] index, double[] values)
+          throws SizeException
+  {
+    assertCompressed(columns, rows, start, index, values);
+    int[][] split = splitStart(start);
+    return new MatrixSparseColumn(null, columns, rows, split[0], split[1], index, values);
+  }
+
+  @Override
+  public int rows()
+  {
+    return minorSize;
+  }
+
+  @Override
+  public int columns()
+  {
+    return majorSize;
+  }
+
+  @Override
+  public void set(int row, int column, double value)
+          throws WriteAccessException, IndexOutOfBoundsException
+  {
+    MatrixAssert.assertInRange(this, row, column);
+    setElement(column, row, value);
+  }
+
+  @Override
+  public double get(int row, int column) throws IndexOutOfBoundsException
+  {
+    MatrixAssert.assertInRange(this, row, column);
+    return getElement(column, row);
+  }
+
+  @Override
+  public Matrix assign(Matrix matrix) throws ResizeException, WriteAccessException
+  {
+    if (matrix != this)
+      adopt(new MatrixSparseColumn(matrix));
+    return this;
+  }
+
+  @Override
+  public void assignRow(double[] in, int index) throws WriteAccessException, IndexOutOfBoundsException
+  {
+    assignMinor(in, index);
+  }
+
+  @Override
+  public void assignColumn(double[] in, int index) throws WriteAccessException, IndexOutOfBoundsException
+  {
+    assignMajor(in, index);
+  }
+
+  @Override
+  public MatrixSparseColumn copyOf()
+  {
+    return new MatrixSparseColumn(this);
+  }
+
+  @Override
+  public double[] copyRowTo(double[] out, int offset, int index) throws IndexOutOfBoundsException
+  {
+    return copyMinorTo(out, offset, index);
+  }
+
+  @Override
+  public double[] copyColumnTo(double[] out, int offset, int index) throws IndexOutOfBoundsException
+  {
+    return copyMajorTo(out, offset, index);
+  }
+
+  @Override
+  public MatrixSparseRow transpose()
+  {
+    return new MatrixSparseRow(sync, majorSize, minorSize, begin, end, index, values);
+  }
+
+  @Override
+  public MatrixSparseColumn selectColumn(int index) throws IndexOutOfBoundsException
+  {
+    return (MatrixSparseColumn) selectMajor(index);
+  }
+
+  @Override
+  public MatrixSparseColumn selectColumns(int[] index) throws IndexOutOfBoundsException
+  {
+    return (MatrixSparseColumn) selectMajor(index);
+  }
+
+  @Override
+  public Matrix selectRow(int index) throws IndexOutOfBoundsException
+  {
+    return selectMinor(index);
+  }
+
+  @Override
+  public Matrix selectRows(int[] index) throws IndexOutOfBoundsException
+  {
+    return selectMinor(index);
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  @Override
+  protected boolean isRowMajor()
+  {
+    return false;
+  }
+
+  @Override
+  protected MatrixSparseBase newView(int minorSize, int[] begin, int[] end, int[] index)
+  {
+    return new MatrixSparseColumn(sync, begin.length, minorSize, begin, end, index, values);
+  }
+//</editor-fold>
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.matrix.special;
+
+import gov.llnl.math.MathExceptions.ResizeException;
+import gov.llnl.math.MathExceptions.SizeException;
+import gov.llnl.math.MathExceptions.WriteAccessException;
+import gov.llnl.math.matrix.Matrix;
+import gov.llnl.math.matrix.MatrixAssert;
+import gov.llnl.math.matrix.MatrixSparseBase;
+import gov.llnl.utility.UUIDUtilities;
+
+/**
+ * Sparse matrix stored in compressed row form.
+ *
+ * Each row holds the column index and value of its nonzero elements. Row
+ * access and multiplication by a vector cost time proportional to the number
+ * of nonzeros. Column access requires a search in each row. Selecting rows
+ * produces a view which shares the storage of this matrix, as does the
+ * transpose which is a {@link MatrixSparseColumn}. Selecting a contiguous range of
+ * columns produces a sparse view which shares the values, while other column
+ * selections produce a proxy.
+ *
+ * Use {@link MatrixSparseBuilder} to assemble a matrix from elements.
+ */
+public class MatrixSparseRow extends MatrixSparseBase
+{
+  private static final long serialVersionUID = UUIDUtilities.createLong("MatrixSparseRow-v1");
+
+  /**
+   * Create a sparse copy of a matrix.
+   *
+   * @param matrix is the matrix to copy.
+   */
+  public MatrixSparseRow(Matrix matrix)
+  {
+    super(matrix, true);
+  }
+
+  MatrixSparseRow(Object sync, int rows, int columns,
+          int[] begin, int[] end, int[] index, double[] values)
+  {
+    super(sync, rows, columns, begin, end, index, values);
+  }
+
+  /**
+   * Wrap existing arrays in compressed row form as a matrix.
+   *
+   * The elements of row i are stored from start[i] to start[i+1] with the
+   * columns in increasing order.
+   *
+   * @param rows is the number of rows.
+   * @param columns is the number of columns.
+   * @param start holds the start of each row followed by the number of
+   * nonzeros. Its length must be rows+1.
+   * @param index holds the column of each element.
+   * @param values holds the value of each element.
+   * @return a new matrix backed by index and values.
+   * @throws SizeException if the arrays are too short.
+   * @throws IllegalArgumentException if start is not increasing or the columns
+   * of a row are not sorted.
+   */
+  public static MatrixSparseRow wrap(int rows, int columns, int[] start, int[] index, double[] values)
+          throws SizeException
+  {
+    assertCompressed(rows, columns, start, index, values);
+    int[][] split = splitStart(start);
+    return new MatrixSparseRow(null, rows, columns, split[0], split[1], index, values);
+  }
+
+  @Override
+  public int rows()
+  {
+    return majorSize;
+  }
+
+  @Override
+  public int columns()
+  {
+    return minorSize;
+  }
+
+  @Override
+  public void set(int row, int column, double value)
+          throws WriteAccessException, IndexOutOfBoundsException
+  {
+    MatrixAssert.assertInRange(this, row, column);
+    setElement(row, column, value);
+  }
+
+  @Override
+  public double get(int row, int column) throws IndexOutOfBoundsException
+  {
+    MatrixAssert.assertInRange(this, row, column);
+    return getElement(row, column);
+  }
+
+  @Override
+  public Matrix assign(Matrix matrix) throws ResizeException, WriteAccessException
+  {
+    if (matrix != this)
+      adopt(new MatrixSparseRow(matrix));
+    return this;
+  }
+
+  @Override
+  public void assignRow(double[] in, int index) throws WriteAccessException, IndexOutOfBoundsException
+  {
+    assignMajor(in, index);
+  }
+
+  @Override
+  public void assignColumn(double[] in, int index) throws WriteAccessException, IndexOutOfBoundsException
+  {
+    assignMinor(in, index);
+  }
+
+  @Override
+  public MatrixSparseRow copyOf()
+  {
+    return new MatrixSparseRow(this);
+  }
+
+  @Override
+  public double[] copyRowTo(double[] out, int offset, int index) throws IndexOutOfBoundsException
+  {
+    return copyMajorTo(out, offset, index);
+  }
+
+  @Override
+  public double[] copyColumnTo(double[] out, int offset, int index) throws IndexOutOfBoundsException
+  {
+    return copyMinorTo(out, offset, index);
+  }
+
+  @Override
+  public MatrixSparseColumn transpose()
+  {
+    return new MatrixSparseColumn(sync, majorSize, minorSize, begin, end, index, values);
+  }
+
+  @Override
+  public Matrix selectColumn(int index) throws IndexOutOfBoundsException
+  {
+    return selectMinor(index);
+  }
+
+  @Override
+  public Matrix selectColumns(int[] index) throws IndexOutOfBoundsException
+  {
+    return selectMinor(index);
+  }
+
+  @Override
+  public MatrixSparseRow selectRow(int index) throws IndexOutOfBoundsException
+  {
+    return (MatrixSparseRow) selectMajor(index);
+  }
+
+  @Override
+  public MatrixSparseRow selectRows(int[] index) throws IndexOutOfBoundsException
+  {
+    return (MatrixSparseRow) selectMajor(index);
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  @Override
+  protected boolean isRowMajor()
+  {
+    return true;
+  }
+
+  @Override
+  protected MatrixSparseBase newView(int minorSize, int[] begin, int[] end, int[] index)
+  {
+    return new MatrixSparseRow(sync, begin.length, minorSize, begin, end, index, values);
+  }
+//</editor-fold>
+}
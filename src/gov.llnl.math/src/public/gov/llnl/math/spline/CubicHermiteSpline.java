@@ -193,77 +193,104 @@ public final class CubicHermiteSpline
     throw new MathExceptions.DomainException("Outside domain");
   }
 
-  @Override
-  public boolean contains(double d)
-  {
-    return (d >= control[0].x) && (d < control[control.length - 1].x);
-  }
-
-  @Override
-  public double[] evaluateRangeOrdered(double[] in, int start, int end)
+  private void evaluateRange(double[] in, int begin, int end, double[] out)
           throws MathExceptions.DomainException
   {
     int N = control.length;
-    double[] out = new double[end - start];
-    int i1 = start;
-    int i2 = 0;
-
-    // Pre
-    while (i1 < end && in[i1] < control[0].x)
+    if (N < 2)
     {
-      out[i2++] = interpolateBefore(in[i1]);
-      i1++;
+      for (int i = begin; i < end; ++i)
+        out[i - begin] = applyAsDouble(in[i]);
+      return;
     }
-
-    // Within
-    if (i1 < end && contains(in[i1]))
+    double first = control[0].x;
+    double last = control[N - 1].x;
+    int i0 = 0;
+    int i1 = begin;
+    while (i1 < end)
     {
-      int i0 = SplineUtilities.binarysearch(control, in[i1]);
-      i0++;
+      double x = in[i1];
 
-      while (i1 < end)
+      // Points beyond the ends and NaN are handled individually
+      if (!(x >= first && x <= last))
       {
-        while ((i0 < N) && (in[i1] > control[i0].x))
-          i0++;
-        if (i0 >= N)
-          break;
-
-        // inline for speed
-        {
-          ControlPoint c0 = control[i0 - 1];
-          ControlPoint c1 = control[i0];
-          double h = c1.x - c0.x;
-          double t = (in[i1] - c0.x) / h;
-          double t2 = t * t;
-          double t3 = t * t * t;
-          double h00 = 2 * t3 - 3 * t2 + 1;
-          double h01 = t3 - 2 * t2 + t;
-          double h10 = -2 * t3 + 3 * t2;
-          double h11 = t3 - t2;
-          out[i2++] = h00 * c0.y + h01 * h * c0.m + h10 * c1.y + h11 * h * c1.m;
-        }
+        if (x < first)
+          out[i1 - begin] = interpolateBefore(x);
+        else if (x > last)
+          out[i1 - begin] = interpolateAfter(x);
+        else
+          out[i1 - begin] = x;
         i1++;
+        continue;
       }
-    }
 
-    // Post
-    // special handling for CLAMP
-    if (this.endBehavior == EndBehavior.CLAMP)
-    {
-      double d = control[N - 1].y;
-      for (; i2 < out.length; ++i2)
-        out[i2] = d;
-      return out;
-    }
+      // Advance to the segment holding the point
+      if (x < control[i0].x || x > control[i0 + 1].x)
+      {
+        if (i0 + 2 < N && x > control[i0 + 1].x && x <= control[i0 + 2].x)
+          i0++;
+        else
+          i0 = Math.min(SplineUtilities.binarysearch(control, x), N - 2);
+      }
 
-    while (i1 < end && in[i1] > control[N - 1].x)
-    {
-      out[i2++] = interpolateAfter(in[i1]);
-      i1++;
+      // Polynomial for the segment in powers of (x-x0)
+      ControlPoint c0 = control[i0];
+      ControlPoint c1 = control[i0 + 1];
+      double x0 = c0.x;
+      double x1 = c1.x;
+      double h = x1 - x0;
+      double d = (c1.y - c0.y) / h;
+      double a0 = c0.y;
+      double a1 = c0.m;
+      double a2 = (3 * d - 2 * c0.m - c1.m) / h;
+      double a3 = (c0.m + c1.m - 2 * d) / (h * h);
+
+      // Find the run of points in the segment
+      int i2 = i1 + 1;
+      while (i2 < end && in[i2] >= x0 && in[i2] <= x1)
+        i2++;
+      for (; i1 < i2; ++i1)
+      {
+        double u = in[i1] - x0;
+        out[i1 - begin] = ((a3 * u + a2) * u + a1) * u + a0;
+      }
     }
+  }
+
+  @Override
+  public boolean contains(double d)
+  {
+    return (d >= control[0].x) && (d < control[control.length - 1].x);
+  }
+
+  @Override
+  public double[] evaluateRangeOrdered(double[] in, int start, int end)
+          throws MathExceptions.DomainException
+  {
+    double[] out = new double[end - start];
+    evaluateRange(in, start, end, out);
     return out;
   }
 
+  /**
+   * Evaluate the spline at many points.
+   *
+   * The segment for each point is found by advancing from the segment of the
+   * previous point. The polynomial for a segment is computed once and applied
+   * to every point in the run which shares it, so points in increasing order
+   * require no search.
+   *
+   * @param in is the list of points.
+   * @param out is the memory to hold the result. It may be the same as in.
+   * @throws MathExceptions.DomainException if an input is outside of the
+   * domain and there is no extrapolation method set.
+   */
+  @Override
+  public void evaluate(double[] in, double[] out) throws MathExceptions.DomainException
+  {
+    evaluateRange(in, 0, in.length, out);
+  }
+
   @Matlab
   public double getControlX(int index)
   {
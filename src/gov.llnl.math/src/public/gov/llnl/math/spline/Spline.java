@@ -27,9 +27,25 @@ public abstract class Spline<PointType extends Spline.ControlPoint> implements F
   public double[] interpolate(double in[]) throws MathExceptions.DomainException
   {
     double[] out = new double[in.length];
+    evaluate(in, out);
+    return out;
+  }
+
+  /**
+   * Evaluate the spline at many points.
+   *
+   * Implementations are fastest when the points are in increasing order such
+   * as the channels of a spectrum, but any order is allowed.
+   *
+   * @param in is the list of points.
+   * @param out is the memory to hold the result. It may be the same as in.
+   * @throws DomainException if an input is outside of the domain and there is
+   * no extrapolation method set.
+   */
+  public void evaluate(double[] in, double[] out) throws DomainException
+  {
     for (int i = 0; i < in.length; i++)
       out[i] = applyAsDouble(in[i]);
-    return out;
   }
 
   /**
@@ -7,6 +7,7 @@
 package gov.llnl.math.wavelet;
 
 import gov.llnl.math.matrix.Matrix;
+import java.util.concurrent.ExecutorService;
 
 /**
  *
@@ -49,4 +50,125 @@ public interface WaveletTransform
    */
   double[] smooth(double[] inData, int waveletScale);
 
+  /**
+   * Compute the decimated wavelet transform in place.
+   *
+   * On return the signal holds the approximation at the coarsest scale
+   * followed by the details from the coarsest to the finest scale. Each
+   * coefficient equals a sample of the corresponding column of
+   * {@link #forward(double[], int) forward}, so this is a cheap way to extract
+   * features from a signal without the redundancy of the over-complete
+   * transform.
+   *
+   * @param signal is the signal to transform. Its length must be a multiple
+   * of 2^scale after the scale is truncated.
+   * @param scale is the requested scale of the wavelet. It is truncated as for
+   * forward. This must be a positive integer.
+   * @return the scale used.
+   * @throws IllegalArgumentException if the scale is zero or negative or the
+   * length is not a multiple of 2^scale.
+   */
+  int forwardInPlace(double[] signal, int scale) throws IllegalArgumentException;
+
+  /**
+   * Reconstruct a signal in place from the decimated wavelet transform.
+   *
+   * @param coef holds the coefficients produced by
+   * {@link #forwardInPlace(double[], int) forwardInPlace}.
+   * @param scale is the scale that was requested for the forward transform.
+   * @throws IllegalArgumentException if the scale is zero or negative or the
+   * length is not a multiple of 2^scale.
+   */
+  void inverseInPlace(double[] coef, int scale) throws IllegalArgumentException;
+
+  /**
+   * Compute the decimated wavelet transform in place on a range of rows.
+   *
+   * Each row is a separate signal, such as a spectrum or a time slice from a
+   * sliding window. Work buffers are reused between rows. If an executor is
+   * given the rows are split between threads.
+   *
+   * @param signals holds one signal in each row.
+   * @param first is the first row to transform.
+   * @param count is the number of rows to transform.
+   * @param scale is the requested scale of the wavelet.
+   * @param executor runs blocks of rows or null to use the calling thread.
+   * @return the scale used.
+   * @throws IllegalArgumentException if the scale is zero or negative or the
+   * length is not a multiple of 2^scale.
+   */
+  int forwardInPlace(Matrix.RowAccess signals, int first, int count, int scale, ExecutorService executor)
+          throws IllegalArgumentException;
+
+  /**
+   * Reconstruct a range of rows in place from the decimated wavelet transform.
+   *
+   * @param coef holds the coefficients for one signal in each row.
+   * @param first is the first row to reconstruct.
+   * @param count is the number of rows to reconstruct.
+   * @param scale is the scale that was requested for the forward transform.
+   * @param executor runs blocks of rows or null to use the calling thread.
+   * @throws IllegalArgumentException if the scale is zero or negative or the
+   * length is not a multiple of 2^scale.
+   */
+  void inverseInPlace(Matrix.RowAccess coef, int first, int count, int scale, ExecutorService executor)
+          throws IllegalArgumentException;
+
+  /**
+   * Compute the wavelet transform for a range of rows.
+   *
+   * This produces the same coefficients as calling
+   * {@link #forward(double[], int) forward} on each row. Even lengths are
+   * computed in the time domain with reused work buffers, while odd lengths
+   * go through the same Fourier transform path as forward.
+   *
+   * @param signals holds one signal in each row.
+   * @param first is the first row to transform.
+   * @param count is the number of rows to transform.
+   * @param scale is the requested scale of the wavelet.
+   * @param executor runs blocks of rows or null to use the calling thread.
+   * @return the wavelet coefficients for each row.
+   * @throws IllegalArgumentException if the scale is zero or negative.
+   */
+  Matrix[] forward(Matrix.RowAccess signals, int first, int count, int scale, ExecutorService executor)
+          throws IllegalArgumentException;
+
+  /**
+   * Compute the decimated wavelet transform in place on every row.
+   *
+   * @param signals holds one signal in each row.
+   * @param scale is the requested scale of the wavelet.
+   * @param executor runs blocks of rows or null to use the calling thread.
+   * @return the scale used.
+   */
+  default int forwardInPlace(Matrix.RowAccess signals, int scale, ExecutorService executor)
+  {
+    return forwardInPlace(signals, 0, signals.rows(), scale, executor);
+  }
+
+  /**
+   * Reconstruct every row in place from the decimated wavelet transform.
+   *
+   * @param coef holds the coefficients for one signal in each row.
+   * @param scale is the scale that was requested for the forward transform.
+   * @param executor runs blocks of rows or null to use the calling thread.
+   */
+  default void inverseInPlace(Matrix.RowAccess coef, int scale, ExecutorService executor)
+  {
+    inverseInPlace(coef, 0, coef.rows(), scale, executor);
+  }
+
+  /**
+   * Compute the wavelet transform for every row.
+   *
+   * @param signals holds one signal in each row.
+   * @param scale is the requested scale of the wavelet.
+   * @param executor runs blocks of rows or null to use the calling thread.
+   * @return the wavelet coefficients for each row.
+   */
+  default Matrix[] forward(Matrix.RowAccess signals, int scale, ExecutorService executor)
+  {
+    return forward(signals, 0, signals.rows(), scale, executor);
+  }
+
 }
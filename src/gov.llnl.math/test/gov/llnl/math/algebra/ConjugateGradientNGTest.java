@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.algebra;
+
+import gov.llnl.math.MathExceptions.ConvergenceException;
+import gov.llnl.math.matrix.MatrixFactory;
+import gov.llnl.math.matrix.special.MatrixSparseRow;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for ConjugateGradient.
+ */
+public class ConjugateGradientNGTest
+{
+
+  public ConjugateGradientNGTest()
+  {
+  }
+
+  /**
+   * Test of solve method, of class ConjugateGradient.
+   */
+  @Test
+  public void testSolve()
+  {
+    Random random = new Random(3);
+    int n = 200;
+    MatrixSparseRow A = SparseCholeskyFactorizationNGTest.newSystem(random, n);
+    double[] b = new double[n];
+    for (int i = 0; i < n; ++i)
+      b[i] = random.nextDouble() - 0.5;
+
+    double[] expected = new SparseCholeskyFactorization().decompose(A).solve(b);
+    ConjugateGradient instance = new ConjugateGradient();
+    instance.setTolerance(1e-12);
+    double[] result = instance.solve(A, b);
+    assertTrue(instance.getIterations() > 0);
+    assertTrue(instance.getResidual() <= 1e-12);
+    for (int i = 0; i < n; ++i)
+      assertEquals(result[i], expected[i], 1e-9);
+
+    // Dense matrix and a starting guess
+    result = instance.solve(MatrixFactory.newRowMatrix(A), b, expected);
+    assertTrue(instance.getIterations() <= 1);
+    for (int i = 0; i < n; ++i)
+      assertEquals(result[i], expected[i], 1e-9);
+
+    // Without preconditioner
+    instance.setPreconditioned(false);
+    result = instance.solve(A, b);
+    for (int i = 0; i < n; ++i)
+      assertEquals(result[i], expected[i], 1e-9);
+  }
+
+  /**
+   * Test of solve method, of class ConjugateGradient.
+   */
+  @Test
+  public void testSolveZero()
+  {
+    Random random = new Random(4);
+    MatrixSparseRow A = SparseCholeskyFactorizationNGTest.newSystem(random, 10);
+    ConjugateGradient instance = new ConjugateGradient();
+    double[] result = instance.solve(A, new double[10]);
+    assertEquals(result, new double[10]);
+    assertEquals(instance.getIterations(), 0);
+  }
+
+  /**
+   * Test of solve method, of class ConjugateGradient.
+   */
+  @Test(expectedExceptions = ConvergenceException.class)
+  public void testSolveConvergence()
+  {
+    Random random = new Random(5);
+    int n = 50;
+    MatrixSparseRow A = SparseCholeskyFactorizationNGTest.newSystem(random, n);
+    double[] b = new double[n];
+    for (int i = 0; i < n; ++i)
+      b[i] = random.nextDouble();
+    ConjugateGradient instance = new ConjugateGradient();
+    instance.setMaxIterations(2);
+    instance.solve(A, b);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.algebra;
+
+import gov.llnl.math.MathExceptions.SingularException;
+import gov.llnl.math.matrix.Matrix;
+import gov.llnl.math.matrix.MatrixFactory;
+import gov.llnl.math.matrix.MatrixOps;
+import gov.llnl.math.matrix.special.MatrixSparseBuilder;
+import gov.llnl.math.matrix.special.MatrixSparseColumn;
+import gov.llnl.math.matrix.special.MatrixSparseRow;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for SparseCholeskyFactorization.
+ */
+public class SparseCholeskyFactorizationNGTest
+{
+
+  public SparseCholeskyFactorizationNGTest()
+  {
+  }
+
+  /**
+   * Create a random sparse symmetric positive definite matrix.
+   *
+   * The matrix is banded with a few long range couplings and is made diagonally
+   * dominant.
+   */
+  static MatrixSparseRow newSystem(Random random, int n)
+  {
+    MatrixSparseBuilder builder = new MatrixSparseBuilder(n, n);
+    double[] diagonal = new double[n];
+    for (int i = 0; i < n; ++i)
+    {
+      int[] offsets =
+      {
+        1, 2, 1 + random.nextInt(n)
+      };
+      for (int d : offsets)
+      {
+        int j = i + d;
+        if (j >= n)
+          continue;
+        double v = random.nextDouble() - 0.5;
+        builder.add(i, j, v);
+        builder.add(j, i, v);
+        diagonal[i] += Math.abs(v);
+        diagonal[j] += Math.abs(v);
+      }
+    }
+    for (int i = 0; i < n; ++i)
+      builder.add(i, i, diagonal[i] + 0.1 + random.nextDouble());
+    return builder.newRowMatrix();
+  }
+
+  /**
+   * Test of decompose method, of class SparseCholeskyFactorization.
+   */
+  @Test
+  public void testDecompose()
+  {
+    Random random = new Random(1);
+    MatrixSparseRow A = newSystem(random, 40);
+    SparseCholeskyFactorization instance = new SparseCholeskyFactorization();
+    instance.decompose(A);
+    assertEquals(instance.getSize(), 40);
+
+    MatrixSparseColumn L = instance.getL();
+    assertEquals(L.nonzeros(), instance.getNonzeros());
+    Matrix LLt = MatrixOps.multiply(L, L.transpose());
+    for (int i = 0; i < 40; ++i)
+    {
+      assertEquals(L.get(i, i) > 0, true);
+      for (int j = 0; j < 40; ++j)
+      {
+        if (j > i)
+          assertEquals(L.get(i, j), 0.0);
+        assertEquals(LLt.get(i, j), A.get(i, j), 1e-12);
+      }
+    }
+  }
+
+  /**
+   * Test of solve method, of class SparseCholeskyFactorization.
+   */
+  @Test
+  public void testSolve()
+  {
+    Random random = new Random(2);
+    for (int n : new int[]
+    {
+      1, 5, 60
+    })
+    {
+      MatrixSparseRow A = newSystem(random, n);
+      double[] b = new double[n];
+      for (int i = 0; i < n; ++i)
+        b[i] = random.nextDouble();
+
+      // Sparse and dense inputs give the same factor
+      double[] x1 = new SparseCholeskyFactorization().decompose(A).solve(b);
+      double[] x2 = new SparseCholeskyFactorization().decompose(MatrixFactory.newColumnMatrix(A)).solve(b);
+      double[] r = MatrixOps.multiply(A, x1);
+      for (int i = 0; i < n; ++i)
+      {
+        assertEquals(r[i], b[i], 1e-10);
+        assertEquals(x2[i], x1[i], 1e-12);
+      }
+    }
+  }
+
+  /**
+   * Test of decompose method, of class SparseCholeskyFactorization.
+   */
+  @Test(expectedExceptions = SingularException.class)
+  public void testDecomposeIndefinite()
+  {
+    MatrixSparseBuilder builder = new MatrixSparseBuilder(3, 3);
+    builder.add(0, 0, 1).add(1, 1, 1).add(2, 2, 1);
+    builder.add(1, 2, 2).add(2, 1, 2);
+    new SparseCholeskyFactorization().decompose(builder.newColumnMatrix());
+  }
+}
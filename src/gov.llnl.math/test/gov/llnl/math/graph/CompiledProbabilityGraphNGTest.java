@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.graph;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for CompiledProbabilityGraph.
+ */
+public class CompiledProbabilityGraphNGTest
+{
+
+  public CompiledProbabilityGraphNGTest()
+  {
+  }
+
+  /**
+   * Create a random forest of variables joined by factors.
+   */
+  static ProbabilityGraph newGraph(Random random, int variables)
+  {
+    ProbabilityGraph graph = new ProbabilityGraph();
+    ProbabilityGraphNode[] vars = new ProbabilityGraphNode[variables];
+    for (int i = 0; i < variables; ++i)
+    {
+      ProbabilityGraphNode node = graph.allocateNode();
+      node.setAsVariableNode();
+      node.setQueryId(i);
+      node.allocateFactorTable();
+      double f = 0.05 + 0.9 * random.nextDouble();
+      node.setFactor(0, 1 - f);
+      node.setFactor(1, f);
+      vars[i] = node;
+    }
+
+    // Join each variable to one or two earlier ones, leaving a second tree
+    for (int i = 1; i < variables; ++i)
+    {
+      if (i == variables / 2)
+        continue;
+      int start = (i < variables / 2) ? 0 : variables / 2;
+      ProbabilityGraphNode factor = graph.allocateNode();
+      factor.setAsFactorNode();
+      graph.link(factor, vars[start + random.nextInt(i - start)]);
+      graph.link(factor, vars[i]);
+      if (i + 1 < variables && i + 1 != variables / 2 && random.nextBoolean())
+      {
+        graph.link(factor, vars[++i]);
+      }
+      factor.allocateFactorTable();
+      for (int j = 0; j < factor.getFactorTableSize(); ++j)
+        factor.setFactor(j, 0.1 + random.nextDouble());
+    }
+    graph.setVariableCount(variables);
+    return graph;
+  }
+
+  static GraphQuery[] newQueries(Random random, ProbabilityGraph graph, int count)
+  {
+    GraphQuery[] queries = new GraphQuery[count];
+    for (int i = 0; i < count; ++i)
+    {
+      GraphQuery query = graph.allocateQuery();
+      for (int j = 0; j < query.size(); ++j)
+      {
+        int r = random.nextInt(4);
+        if (r == 0)
+          query.setTrue(j);
+        else if (r == 1)
+          query.setFalse(j);
+        else if (r == 2)
+          query.setUnknown(j);
+        else
+          query.setPartial(j, random.nextDouble());
+      }
+      queries[i] = query;
+    }
+    return queries;
+  }
+
+  static void assertSameOutput(ViterbiProbabilityGraph.Output result, ViterbiProbabilityGraph.Output expected, boolean full)
+  {
+    assertEquals(result.maxProbability, expected.maxProbability, 1e-12 * expected.maxProbability);
+    assertEquals(result.totalProbability, expected.totalProbability, 1e-12 * expected.totalProbability);
+    if (!full)
+      return;
+    assertEquals(result.pivot, expected.pivot);
+    assertEquals(result.pivotRatio, expected.pivotRatio, 1e-9 * Math.abs(expected.pivotRatio));
+    for (int j = 0; j < expected.state.size(); ++j)
+      assertEquals(result.state.get(j), expected.state.get(j));
+  }
+
+  /**
+   * Test of execute method, of class ViterbiProbabilityGraph.
+   */
+  @Test
+  public void testExecute()
+  {
+    Random random = new Random(5);
+    ViterbiProbabilityGraph viterbi = new ViterbiProbabilityGraph();
+    for (int trial = 0; trial < 5; ++trial)
+    {
+      ProbabilityGraph graph = newGraph(random, 12 + trial);
+      CompiledProbabilityGraph compiled = new CompiledProbabilityGraph(graph);
+      assertEquals(compiled.size(), graph.nodes().size());
+
+      // Not a multiple of the block size
+      GraphQuery[] queries = newQueries(random, graph, 77);
+      ViterbiProbabilityGraph.Output[] outputs = new ViterbiProbabilityGraph.Output[queries.length];
+      for (int i = 0; i < outputs.length; ++i)
+        outputs[i] = new ViterbiProbabilityGraph.Output();
+      viterbi.execute(outputs, compiled, queries);
+
+      for (int i = 0; i < queries.length; ++i)
+      {
+        ViterbiProbabilityGraph.Output expected = new ViterbiProbabilityGraph.Output();
+        viterbi.execute(expected, graph, queries[i]);
+        assertSameOutput(outputs[i], expected, true);
+      }
+    }
+  }
+
+  /**
+   * Test of propogate method with an executor, of class
+   * ViterbiProbabilityGraph.
+   */
+  @Test
+  public void testPropogateParallel()
+  {
+    Random random = new Random(7);
+    ViterbiProbabilityGraph viterbi = new ViterbiProbabilityGraph();
+    ProbabilityGraph graph = newGraph(random, 20);
+    CompiledProbabilityGraph compiled = new CompiledProbabilityGraph(graph);
+    GraphQuery[] queries = newQueries(random, graph, 500);
+    ViterbiProbabilityGraph.Output[] outputs = new ViterbiProbabilityGraph.Output[queries.length];
+    for (int i = 0; i < outputs.length; ++i)
+      outputs[i] = new ViterbiProbabilityGraph.Output();
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try
+    {
+      viterbi.propogate(outputs, compiled, queries, executor);
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+
+    for (int i = 0; i < queries.length; ++i)
+    {
+      ViterbiProbabilityGraph.Output expected = new ViterbiProbabilityGraph.Output();
+      viterbi.propogate(expected, graph, queries[i]);
+      assertSameOutput(outputs[i], expected, false);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.interp;
+
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for MultiInterpolator.
+ */
+public class MultiInterpolatorNGTest
+{
+  static final double[][] Y =
+  {
+    {
+      0.1, 0.5, 1.2, 2.0, 1.5, 0.8, 0.4, 0.2, 0.05
+    },
+    {
+      3, 2, 1.5, 1.2, 1.1, 1.05, 1.02, 1.01, 1.0
+    },
+    {
+      1, 2, 4, 8, 16, 32, 64, 128, 300
+    }
+  };
+
+  public MultiInterpolatorNGTest()
+  {
+  }
+
+  static void assertEvaluate(MultiInterpolator interp)
+  {
+    double[] x = SingleInterpolatorNGTest.newPoints();
+    MultiInterpolator.Evaluator evaluator = interp.get();
+    double[][] expected = new double[Y.length][x.length];
+    for (int i = 0; i < x.length; ++i)
+    {
+      evaluator.seek(x[i]);
+      for (int j = 0; j < Y.length; ++j)
+        expected[j][i] = evaluator.evaluate(j);
+    }
+
+    double[][] result = new double[Y.length][x.length];
+    interp.get().evaluateAll(x, result);
+    for (int j = 0; j < Y.length; ++j)
+      for (int i = 0; i < x.length; ++i)
+        assertEquals(result[j][i], expected[j][i], 1e-12 * (1 + Math.abs(expected[j][i])));
+
+    double[] out = x.clone();
+    interp.get().evaluate(2, out, out);
+    for (int i = 0; i < x.length; ++i)
+      assertEquals(out[i], result[2][i]);
+  }
+
+  /**
+   * Test of evaluateAll method, of class MultiLinearInterp.
+   */
+  @Test
+  public void testEvaluateLinear()
+  {
+    assertEvaluate(MultiInterpolator.createLinear(SingleInterpolatorNGTest.X, Y));
+  }
+
+  /**
+   * Test of evaluateAll method, of class MultiLogLogInterp.
+   */
+  @Test
+  public void testEvaluateLogLog()
+  {
+    assertEvaluate(MultiInterpolator.createLogLog(SingleInterpolatorNGTest.X, Y));
+  }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.interp;
+
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for SingleInterpolator.
+ */
+public class SingleInterpolatorNGTest
+{
+  static final double[] X =
+  {
+    10, 20, 40, 80, 160, 320, 640, 1280, 3000
+  };
+  static final double[] Y =
+  {
+    0.1, 0.5, 1.2, 2.0, 1.5, 0.8, 0.4, 0.2, 0.05
+  };
+
+  public SingleInterpolatorNGTest()
+  {
+  }
+
+  /**
+   * Create points which start ordered and then jump around.
+   */
+  static double[] newPoints()
+  {
+    double[] x = new double[600];
+    for (int i = 0; i < 500; ++i)
+      x[i] = 5 + 7 * i;
+    for (int i = 500; i < x.length; ++i)
+      x[i] = 5 + (i * 3571) % 3500;
+    x[10] = 20;
+    x[100] = 640;
+    return x;
+  }
+
+  static void assertEvaluate(SingleInterpolator interp)
+  {
+    double[] x = newPoints();
+    SingleInterpolator.Evaluator evaluator = interp.get();
+    double[] expected = new double[x.length];
+    for (int i = 0; i < x.length; ++i)
+    {
+      evaluator.seek(x[i]);
+      expected[i] = evaluator.evaluate();
+    }
+
+    double[] out = new double[x.length];
+    interp.get().evaluate(x, out);
+    for (int i = 0; i < x.length; ++i)
+      assertEquals(out[i], expected[i], 1e-12 * (1 + Math.abs(expected[i])));
+
+    double[] all = interp.get().applyAll(x);
+    for (int i = 0; i < x.length; ++i)
+      assertEquals(all[i], out[i]);
+  }
+
+  /**
+   * Test of evaluate method, of class SingleLinearInterp.
+   */
+  @Test
+  public void testEvaluateLinear()
+  {
+    assertEvaluate(SingleInterpolator.createLinear(X, Y));
+  }
+
+  /**
+   * Test of evaluate method, of class SingleLogLogInterp.
+   */
+  @Test
+  public void testEvaluateLogLog()
+  {
+    assertEvaluate(SingleInterpolator.createLogLog(X, Y));
+  }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.matrix.special;
+
+import gov.llnl.math.matrix.MatrixColumnArray;
+import static gov.llnl.math.matrix.special.MatrixSparseRowNGTest.assertMatrixEquals;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+import support.MatrixTestGenerator;
+
+/**
+ * Test code for MatrixSparseBuilder.
+ */
+strictfp public class MatrixSparseBuilderNGTest
+{
+  MatrixTestGenerator tg = new MatrixTestGenerator();
+
+  public MatrixSparseBuilderNGTest()
+  {
+  }
+
+  /**
+   * Test of newRowMatrix and newColumnMatrix methods, of class
+   * MatrixSparseBuilder.
+   */
+  @Test
+  public void testBuild()
+  {
+    int rows = 13;
+    int columns = 7;
+    MatrixColumnArray expected = new MatrixColumnArray(rows, columns);
+    MatrixSparseBuilder instance = new MatrixSparseBuilder(rows, columns);
+
+    // Random order with repeated elements
+    for (int k = 0; k < 60; ++k)
+    {
+      int i = (int) (tg.rand.nextDouble() * rows);
+      int j = (int) (tg.rand.nextDouble() * columns);
+      double v = tg.rand.nextDouble();
+      instance.add(i, j, v);
+      expected.set(i, j, expected.get(i, j) + v);
+    }
+    assertEquals(instance.size(), 60);
+
+    MatrixSparseRow result1 = instance.newRowMatrix();
+    assertMatrixEquals(result1, expected, 1e-15);
+    MatrixSparseColumn result2 = instance.newColumnMatrix();
+    assertMatrixEquals(result2, expected, 1e-15);
+    assertEquals(result1.nonzeros(), result2.nonzeros());
+    assertEquals(result1.nonzeros(), new MatrixSparseRow(expected).nonzeros());
+
+    instance.clear();
+    assertEquals(instance.newRowMatrix().nonzeros(), 0);
+  }
+
+  /**
+   * Test of add method, of class MatrixSparseBuilder.
+   */
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void testAddOutOfRange()
+  {
+    new MatrixSparseBuilder(3, 3).add(1, 3, 1.0);
+  }
+}
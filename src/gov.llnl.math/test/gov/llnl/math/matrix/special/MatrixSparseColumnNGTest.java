@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.matrix.special;
+
+import gov.llnl.math.MathExceptions.WriteAccessException;
+import gov.llnl.math.matrix.Matrix;
+import gov.llnl.math.matrix.MatrixFactory;
+import gov.llnl.math.matrix.MatrixOps;
+import gov.llnl.math.matrix.MatrixViews;
+import static gov.llnl.math.matrix.special.MatrixSparseRowNGTest.assertMatrixEquals;
+import static gov.llnl.math.matrix.special.MatrixSparseRowNGTest.newSparseContents;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+import support.MatrixTestGenerator;
+
+/**
+ * Test code for MatrixSparseColumn.
+ */
+strictfp public class MatrixSparseColumnNGTest
+{
+  MatrixTestGenerator tg = new MatrixTestGenerator();
+
+  public MatrixSparseColumnNGTest()
+  {
+  }
+
+  /**
+   * Test of constructor, of class MatrixSparseColumn.
+   */
+  @Test
+  public void testConstructor()
+  {
+    Matrix dense = newSparseContents(tg, 5, 8);
+    MatrixSparseColumn instance = MatrixFactory.newSparseColumnMatrix(dense);
+    assertMatrixEquals(instance, dense, 0);
+    assertMatrixEquals(new MatrixSparseColumn(new MatrixSparseRow(dense)), dense, 0);
+    assertMatrixEquals(instance.transpose(), dense.transpose(), 0);
+  }
+
+  /**
+   * Test of wrap method, of class MatrixSparseColumn.
+   */
+  @Test
+  public void testWrap()
+  {
+    MatrixSparseColumn instance = MatrixSparseColumn.wrap(3, 2,
+            new int[]
+            {
+              0, 2, 3
+            },
+            new int[]
+            {
+              0, 2, 1
+            },
+            new double[]
+            {
+              1, 2, 3
+            });
+    assertEquals(instance.rows(), 3);
+    assertEquals(instance.columns(), 2);
+    assertEquals(instance.get(0, 0), 1.0);
+    assertEquals(instance.get(2, 0), 2.0);
+    assertEquals(instance.get(1, 1), 3.0);
+    assertEquals(instance.get(1, 0), 0.0);
+  }
+
+  /**
+   * Test of assignColumn method, of class MatrixSparseColumn.
+   */
+  @Test
+  public void testAssignColumn()
+  {
+    Matrix dense = newSparseContents(tg, 6, 3);
+    MatrixSparseColumn instance = new MatrixSparseColumn(dense);
+    double[] column = dense.copyColumn(1);
+    for (int i = 0; i < column.length; ++i)
+      column[i] *= 2;
+    instance.assignColumn(column, 1);
+    assertEquals(instance.copyColumn(1), column);
+  }
+
+  /**
+   * Test of assignColumn method, of class MatrixSparseColumn.
+   */
+  @Test(expectedExceptions = WriteAccessException.class)
+  public void testAssignColumnOutsidePattern()
+  {
+    MatrixSparseColumn instance = new MatrixSparseColumn(MatrixFactory.wrapArray(new double[]
+    {
+      1, 0, 0, 2
+    }, 2, 2));
+    instance.assignColumn(new double[]
+    {
+      1, 1
+    }, 0);
+  }
+
+  /**
+   * Test of multiply methods, of class MatrixSparseColumn.
+   */
+  @Test
+  public void testMultiplyVector()
+  {
+    Matrix dense = newSparseContents(tg, 9, 4);
+    MatrixSparseColumn instance = new MatrixSparseColumn(dense);
+    double[] x = tg.newArray(4);
+    double[] y = tg.newArray(9);
+    double[] expected = MatrixOps.multiply(dense, x);
+    double[] result = MatrixOps.multiply(instance, x);
+    for (int i = 0; i < expected.length; ++i)
+      assertEquals(result[i], expected[i], 1e-12);
+    expected = MatrixOps.multiply(y, dense);
+    result = MatrixOps.multiply(y, instance);
+    for (int i = 0; i < expected.length; ++i)
+      assertEquals(result[i], expected[i], 1e-12);
+  }
+
+  /**
+   * Test of views, of class MatrixSparseColumn.
+   */
+  @Test
+  public void testViews()
+  {
+    Matrix dense = newSparseContents(tg, 6, 8);
+    MatrixSparseColumn instance = new MatrixSparseColumn(dense);
+    Matrix columns = MatrixViews.selectColumnRange(instance, 3, 7);
+    assertTrue(columns instanceof MatrixSparseColumn);
+    assertMatrixEquals(columns, MatrixViews.selectColumnRange(dense, 3, 7), 0);
+    Matrix rows = MatrixViews.selectRowRange(instance, 2, 5);
+    assertTrue(rows instanceof MatrixSparseColumn);
+    assertMatrixEquals(rows, MatrixViews.selectRowRange(dense, 2, 5), 0);
+    Matrix block = MatrixViews.select(instance, 1, 4, 2, 8);
+    assertTrue(block instanceof MatrixSparseColumn);
+    assertMatrixEquals(block, MatrixViews.select(dense, 1, 4, 2, 8), 0);
+    assertMatrixEquals(MatrixViews.selectColumn(instance, 4), MatrixViews.selectColumn(dense, 4), 0);
+    assertMatrixEquals(MatrixViews.selectRows(instance, 5, 0), MatrixViews.selectRows(dense, 5, 0), 0);
+
+    // Row views share the values
+    MatrixOps.multiplyAssign(rows, 2);
+    for (int i = 0; i < 6; ++i)
+    {
+      double scale = (i >= 2 && i < 5) ? 2 : 1;
+      assertEquals(instance.get(i, 0), scale * dense.get(i, 0));
+      assertEquals(instance.get(i, 6), scale * dense.get(i, 6));
+    }
+  }
+}
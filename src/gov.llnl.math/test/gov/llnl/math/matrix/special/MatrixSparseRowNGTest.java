@@ -0,0 +1,339 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.matrix.special;
+
+import gov.llnl.math.MathExceptions.SizeException;
+import gov.llnl.math.MathExceptions.WriteAccessException;
+import gov.llnl.math.matrix.Matrix;
+import gov.llnl.math.matrix.MatrixColumnArray;
+import gov.llnl.math.matrix.MatrixFactory;
+import gov.llnl.math.matrix.MatrixIterators;
+import gov.llnl.math.matrix.MatrixOps;
+import gov.llnl.math.matrix.MatrixViews;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+import support.MatrixTestGenerator;
+
+/**
+ * Test code for MatrixSparseRow.
+ */
+strictfp public class MatrixSparseRowNGTest
+{
+  MatrixTestGenerator tg = new MatrixTestGenerator();
+
+  public MatrixSparseRowNGTest()
+  {
+  }
+
+  /**
+   * Create a dense matrix in which most elements are zero.
+   */
+  static Matrix newSparseContents(MatrixTestGenerator tg, int rows, int columns)
+  {
+    MatrixColumnArray m = tg.newMatrix(rows, columns);
+    for (int i = 0; i < rows; ++i)
+      for (int j = 0; j < columns; ++j)
+        if (tg.rand.nextDouble() < 0.75)
+          m.set(i, j, 0);
+    return m;
+  }
+
+  static void assertMatrixEquals(Matrix result, Matrix expected, double tolerance)
+  {
+    assertEquals(result.rows(), expected.rows());
+    assertEquals(result.columns(), expected.columns());
+    for (int i = 0; i < expected.rows(); ++i)
+      for (int j = 0; j < expected.columns(); ++j)
+        assertEquals(result.get(i, j), expected.get(i, j), tolerance);
+  }
+
+  /**
+   * Test of constructor, of class MatrixSparseRow.
+   */
+  @Test
+  public void testConstructor()
+  {
+    Matrix dense = newSparseContents(tg, 7, 5);
+    MatrixSparseRow instance = new MatrixSparseRow(dense);
+    assertMatrixEquals(instance, dense, 0);
+    int nz = 0;
+    for (double v : dense.flatten())
+      if (v != 0)
+        nz++;
+    assertEquals(instance.nonzeros(), nz);
+
+    // Conversion from the other layout
+    MatrixSparseColumn column = new MatrixSparseColumn(dense);
+    assertMatrixEquals(new MatrixSparseRow(column), dense, 0);
+    assertMatrixEquals(MatrixFactory.newSparseRowMatrix(column), dense, 0);
+  }
+
+  /**
+   * Test of wrap method, of class MatrixSparseRow.
+   */
+  @Test
+  public void testWrap()
+  {
+    MatrixSparseRow instance = MatrixSparseRow.wrap(2, 3,
+            new int[]
+            {
+              0, 2, 3
+            },
+            new int[]
+            {
+              0, 2, 1
+            },
+            new double[]
+            {
+              1, 2, 3
+            });
+    assertEquals(instance.get(0, 0), 1.0);
+    assertEquals(instance.get(0, 1), 0.0);
+    assertEquals(instance.get(0, 2), 2.0);
+    assertEquals(instance.get(1, 1), 3.0);
+    assertEquals(instance.nonzeros(), 3);
+  }
+
+  /**
+   * Test of wrap method, of class MatrixSparseRow.
+   */
+  @Test(expectedExceptions = SizeException.class)
+  public void testWrapSizeException()
+  {
+    MatrixSparseRow.wrap(3, 3, new int[]
+    {
+      0, 1, 2
+    }, new int[2], new double[2]);
+  }
+
+  /**
+   * Test of wrap method, of class MatrixSparseRow.
+   */
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testWrapUnsorted()
+  {
+    MatrixSparseRow.wrap(1, 3, new int[]
+    {
+      0, 2
+    }, new int[]
+    {
+      2, 1
+    }, new double[2]);
+  }
+
+  /**
+   * Test of set method, of class MatrixSparseRow.
+   */
+  @Test
+  public void testSet()
+  {
+    MatrixSparseRow instance = new MatrixSparseRow(MatrixFactory.wrapArray(new double[]
+    {
+      1, 0, 0, 2
+    }, 2, 2));
+    instance.set(0, 0, 5);
+    instance.set(1, 0, 0);
+    assertEquals(instance.get(0, 0), 5.0);
+    assertEquals(instance.get(1, 1), 2.0);
+  }
+
+  /**
+   * Test of set method, of class MatrixSparseRow.
+   */
+  @Test(expectedExceptions = WriteAccessException.class)
+  public void testSetOutsidePattern()
+  {
+    MatrixSparseRow instance = new MatrixSparseRow(MatrixFactory.wrapArray(new double[]
+    {
+      1, 0, 0, 2
+    }, 2, 2));
+    instance.set(1, 0, 1);
+  }
+
+  /**
+   * Test of copyRowTo and copyColumnTo methods, of class MatrixSparseRow.
+   */
+  @Test
+  public void testCopy()
+  {
+    Matrix dense = newSparseContents(tg, 6, 8);
+    MatrixSparseRow instance = new MatrixSparseRow(dense);
+    for (int i = 0; i < dense.rows(); ++i)
+      assertEquals(instance.copyRow(i), dense.copyRow(i));
+    for (int j = 0; j < dense.columns(); ++j)
+      assertEquals(instance.copyColumn(j), dense.copyColumn(j));
+    assertMatrixEquals(instance.copyOf(), dense, 0);
+  }
+
+  /**
+   * Test of transpose method, of class MatrixSparseRow.
+   */
+  @Test
+  public void testTranspose()
+  {
+    Matrix dense = newSparseContents(tg, 4, 9);
+    dense.set(0, 3, 1.5);
+    MatrixSparseRow instance = new MatrixSparseRow(dense);
+    MatrixSparseColumn result = instance.transpose();
+    assertMatrixEquals(result, dense.transpose(), 0);
+
+    // The transpose shares storage
+    result.set(3, 0, 10);
+    assertEquals(instance.get(0, 3), 10.0);
+  }
+
+  /**
+   * Test of multiply methods, of class MatrixSparseRow.
+   */
+  @Test
+  public void testMultiplyVector()
+  {
+    Matrix dense = newSparseContents(tg, 7, 5);
+    MatrixSparseRow instance = new MatrixSparseRow(dense);
+    double[] x = tg.newArray(5);
+    double[] y = tg.newArray(7);
+    double[] expected = MatrixOps.multiply(dense, x);
+    double[] result = instance.multiply(x, null);
+    for (int i = 0; i < 7; ++i)
+      assertEquals(result[i], expected[i], 1e-12);
+    assertEquals(MatrixOps.multiply(instance, x), result);
+
+    expected = MatrixOps.multiply(y, dense);
+    result = instance.multiplyTranspose(y, new double[5]);
+    for (int i = 0; i < 5; ++i)
+      assertEquals(result[i], expected[i], 1e-12);
+    assertEquals(MatrixOps.multiply(y, instance), result);
+  }
+
+  /**
+   * Test of multiply methods, of class MatrixSparseRow.
+   */
+  @Test(expectedExceptions = SizeException.class)
+  public void testMultiplyVectorSize()
+  {
+    MatrixSparseRow instance = new MatrixSparseRow(newSparseContents(tg, 7, 5));
+    instance.multiply(new double[7], null);
+  }
+
+  /**
+   * Test of MatrixOps.multiply with sparse operands.
+   */
+  @Test
+  public void testMatrixOpsMultiply()
+  {
+    Matrix a = newSparseContents(tg, 6, 9);
+    Matrix b = newSparseContents(tg, 9, 4);
+    Matrix expected = MatrixOps.multiply(a, b);
+
+    MatrixSparseRow sa = new MatrixSparseRow(a);
+    MatrixSparseColumn sb = new MatrixSparseColumn(b);
+    assertMatrixEquals(MatrixOps.multiply(sa, b), expected, 1e-12);
+    assertMatrixEquals(MatrixOps.multiply(a, sb), expected, 1e-12);
+    assertMatrixEquals(MatrixOps.multiply(a, new MatrixSparseRow(b)), expected, 1e-12);
+
+    Matrix result = MatrixOps.multiply(sa, sb);
+    assertTrue(result instanceof MatrixSparseRow);
+    assertMatrixEquals(result, expected, 1e-12);
+    result = MatrixOps.multiply(new MatrixSparseColumn(a), new MatrixSparseRow(b));
+    assertMatrixEquals(result, expected, 1e-12);
+  }
+
+  /**
+   * Test of scalar operations, of class MatrixSparseRow.
+   */
+  @Test
+  public void testMultiplyAssign()
+  {
+    Matrix dense = newSparseContents(tg, 5, 5);
+    MatrixSparseRow instance = new MatrixSparseRow(dense);
+    MatrixOps.multiplyAssign(instance, 3);
+    assertMatrixEquals(instance, MatrixOps.multiplyAssign(dense, 3), 0);
+    instance.divideAssign(3);
+    assertMatrixEquals(instance, MatrixOps.divideAssign(dense, 3), 1e-15);
+  }
+
+  /**
+   * Test of views, of class MatrixSparseRow.
+   */
+  @Test
+  public void testViews()
+  {
+    Matrix dense = newSparseContents(tg, 8, 6);
+    MatrixSparseRow instance = new MatrixSparseRow(dense);
+
+    Matrix rows = MatrixViews.selectRowRange(instance, 2, 6);
+    assertTrue(rows instanceof MatrixSparseRow);
+    assertMatrixEquals(rows, MatrixViews.selectRowRange(dense, 2, 6), 0);
+    assertMatrixEquals(MatrixViews.selectRows(instance, 5, 1), MatrixViews.selectRows(dense, 5, 1), 0);
+    Matrix columns = MatrixViews.selectColumnRange(instance, 1, 4);
+    assertTrue(columns instanceof MatrixSparseRow);
+    assertMatrixEquals(columns, MatrixViews.selectColumnRange(dense, 1, 4), 0);
+    Matrix block = MatrixViews.select(instance, 1, 7, 2, 5);
+    assertTrue(block instanceof MatrixSparseRow);
+    assertMatrixEquals(block, MatrixViews.select(dense, 1, 7, 2, 5), 0);
+    assertEquals(((MatrixSparseRow) block).nonzeros(),
+            new MatrixSparseRow(MatrixViews.select(dense, 1, 7, 2, 5)).nonzeros());
+    assertTrue(instance.selectColumn(5) instanceof MatrixSparseRow);
+    assertMatrixEquals(instance.selectColumn(5), MatrixViews.selectColumn(dense, 5), 0);
+
+    // Columns out of order need a proxy
+    int[] order =
+    {
+      4, 0, 2
+    };
+    Matrix shuffled = MatrixViews.selectColumns(instance, order);
+    assertFalse(shuffled instanceof MatrixSparseRow);
+    for (int i = 0; i < 8; ++i)
+      for (int j = 0; j < order.length; ++j)
+        assertEquals(shuffled.get(i, j), dense.get(i, order[j]));
+
+    // Row views share storage
+    MatrixOps.multiplyAssign(rows, 2);
+    for (int j = 0; j < 6; ++j)
+    {
+      assertEquals(instance.get(0, j), dense.get(0, j));
+      assertEquals(instance.get(3, j), 2 * dense.get(3, j));
+    }
+
+    // Column views share the values
+    MatrixOps.multiplyAssign(columns, 3);
+    for (int j = 0; j < 6; ++j)
+    {
+      double scale = (j >= 1 && j < 4) ? 3 : 1;
+      assertEquals(instance.get(0, j), scale * dense.get(0, j));
+      assertEquals(instance.get(3, j), 2 * scale * dense.get(3, j));
+    }
+  }
+
+  /**
+   * Test of MatrixIterators with a sparse matrix.
+   */
+  @Test
+  public void testIterators()
+  {
+    Matrix dense = newSparseContents(tg, 5, 7);
+    MatrixSparseRow instance = new MatrixSparseRow(dense);
+    MatrixIterators.VectorIterator iter = MatrixIterators.newColumnReadIterator(instance);
+    while (iter.advance())
+    {
+      double[] expected = dense.copyColumn(iter.index());
+      for (int i = 0; i < expected.length; ++i)
+        assertEquals(iter.get(i), expected[i]);
+    }
+  }
+
+  /**
+   * Test of mutable method, of class MatrixSparseRow.
+   */
+  @Test(expectedExceptions = WriteAccessException.class)
+  public void testMutable()
+  {
+    new MatrixSparseRow(newSparseContents(tg, 3, 3)).mutable();
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.math.spline;
+
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for CubicHermiteSpline.
+ */
+public class CubicHermiteSplineNGTest
+{
+
+  public CubicHermiteSplineNGTest()
+  {
+  }
+
+  static CubicHermiteSpline newSpline(Random random)
+  {
+    double[] x = new double[12];
+    double[] y = new double[12];
+    double u = 0;
+    for (int i = 0; i < x.length; ++i)
+    {
+      u += 1 + 50 * random.nextDouble();
+      x[i] = u;
+      y[i] = 10 * random.nextGaussian();
+    }
+    return CubicHermiteSplineFactory.createNatural(x, y);
+  }
+
+  static void assertClose(double[] result, double[] expected)
+  {
+    assertEquals(result.length, expected.length);
+    for (int i = 0; i < expected.length; ++i)
+      assertEquals(result[i], expected[i], 1e-10 * (1 + Math.abs(expected[i])));
+  }
+
+  /**
+   * Test of evaluate method, of class CubicHermiteSpline.
+   */
+  @Test
+  public void testEvaluate()
+  {
+    Random random = new Random(2);
+    CubicHermiteSpline instance = newSpline(random);
+    for (EndBehavior eb : new EndBehavior[]
+    {
+      EndBehavior.LINEAR, EndBehavior.CLAMP
+    })
+    {
+      instance.setEndBehavior(eb);
+
+      // Ordered points covering both ends and every knot
+      double[] in = new double[1001];
+      for (int i = 0; i < in.length; ++i)
+        in[i] = -20 + 0.7 * i;
+      in[100] = instance.getControlX(0);
+      in[500] = instance.getControlX(5);
+      double[] expected = new double[in.length];
+      for (int i = 0; i < in.length; ++i)
+        expected[i] = instance.applyAsDouble(in[i]);
+
+      double[] out = new double[in.length];
+      instance.evaluate(in, out);
+      assertClose(out, expected);
+      assertClose(instance.evaluateRangeOrdered(in, 0, in.length), expected);
+
+      // Unordered points
+      double[] shuffled = new double[in.length];
+      double[] shuffledExpected = new double[in.length];
+      for (int i = 0; i < in.length; ++i)
+      {
+        int j = (i * 379) % in.length;
+        shuffled[i] = in[j];
+        shuffledExpected[i] = expected[j];
+      }
+      instance.evaluate(shuffled, shuffled);
+      assertClose(shuffled, shuffledExpected);
+    }
+
+    double[] out = new double[1];
+    instance.evaluate(new double[]
+    {
+      Double.NaN
+    }, out);
+    assertTrue(Double.isNaN(out[0]));
+  }
+
+}
@@ -12,6 +12,9 @@ import gov.llnl.math.matrix.MatrixFactory;
 import gov.llnl.math.matrix.MatrixOps;
 import gov.llnl.utility.ArrayEncoding;
 import java.text.ParseException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import static org.testng.Assert.*;
 import org.testng.annotations.Test;
 
@@ -111,4 +114,124 @@ strictfp public class WaveletTransformNGTest
     instance.smooth(new double[10], 0);
   }
 
+  /**
+   * Test of forwardInPlace and inverseInPlace methods, of class
+   * WaveletTransform.
+   */
+  @Test
+  public void testForwardInPlace() throws WaveletNotFoundException
+  {
+    Random random = new Random(3);
+    for (String name : new String[]
+    {
+      "daub4", "daub8", "daub24"
+    })
+    {
+      WaveletTransform instance = WaveletTransformFactory.newTransform(name);
+      int m = name.equals("daub4") ? 4 : (name.equals("daub8") ? 8 : 24);
+      double[] x = new double[128];
+      for (int i = 0; i < x.length; ++i)
+        x[i] = random.nextGaussian();
+      Matrix expected = instance.forward(x, 3);
+
+      double[] coef = x.clone();
+      int scale = instance.forwardInPlace(coef, 3);
+      assertEquals(scale, expected.columns() - 1);
+
+      // Each decimated coefficient is a sample of the over-complete transform
+      int n = x.length;
+      for (int j = 0; j < scale; ++j)
+      {
+        int size = n >> (j + 1);
+        int phase = (m - 1) * ((1 << j) - 1);
+        for (int k = 0; k < size; ++k)
+          assertEquals(coef[size + k], expected.get((k * (2 << j) + phase) % n, j), 1e-10);
+      }
+      int size = n >> scale;
+      int phase = (m - 1) * ((1 << (scale - 1)) - 1);
+      for (int k = 0; k < size; ++k)
+        assertEquals(coef[k], expected.get((k * (1 << scale) + phase) % n, scale), 1e-10);
+
+      instance.inverseInPlace(coef, 3);
+      for (int i = 0; i < n; ++i)
+        assertEquals(coef[i], x[i], 1e-10);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testForwardInPlaceFail() throws WaveletNotFoundException
+  {
+    WaveletTransform instance = WaveletTransformFactory.newTransform("daub4");
+    instance.forwardInPlace(new double[36], 4);
+  }
+
+  /**
+   * Test of batch forward method, of class WaveletTransform.
+   */
+  @Test
+  public void testForwardBatch() throws WaveletNotFoundException
+  {
+    Random random = new Random(4);
+    WaveletTransform instance = WaveletTransformFactory.newTransform("daub6");
+    double[][] spectra = new double[9][96];
+    for (double[] spectrum : spectra)
+      for (int i = 0; i < spectrum.length; ++i)
+        spectrum[i] = random.nextInt(100);
+    Matrix.RowAccess signals = MatrixFactory.newRowMatrix(spectra);
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try
+    {
+      // A sliding window over the rows
+      Matrix[] result = instance.forward(signals, 2, 6, 20, executor);
+      assertEquals(result.length, 6);
+      for (int r = 0; r < result.length; ++r)
+      {
+        Matrix expected = instance.forward(spectra[r + 2], 20);
+        assertEquals(result[r].columns(), expected.columns());
+        Matrix err = MatrixOps.subtract(result[r], expected);
+        assertTrue(DoubleArray.findMaximumAbsolute(err.flatten()) < 1e-9);
+      }
+
+      double[][] copy = new double[spectra.length][];
+      for (int r = 0; r < spectra.length; ++r)
+        copy[r] = spectra[r].clone();
+      int scale = instance.forwardInPlace(signals, 3, executor);
+      assertEquals(scale, 3);
+      double[] coef = copy[4].clone();
+      instance.forwardInPlace(coef, 3);
+      assertTrue(DoubleArray.equivalent(spectra[4], coef));
+
+      instance.inverseInPlace(signals, 3, null);
+      for (int r = 0; r < spectra.length; ++r)
+        for (int i = 0; i < spectra[r].length; ++i)
+          assertEquals(spectra[r][i], copy[r][i], 1e-9);
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+
+    // Odd lengths and lengths which are not a multiple of 2^scale
+    instance = WaveletTransformFactory.newTransform("daub8");
+    for (int length : new int[]
+    {
+      1023, 1001, 513, 1000, 100
+    })
+    {
+      double[][] odd = new double[3][length];
+      for (double[] spectrum : odd)
+        for (int i = 0; i < spectrum.length; ++i)
+          spectrum[i] = random.nextInt(100);
+      Matrix[] result = instance.forward(MatrixFactory.newRowMatrix(odd), 5, null);
+      for (int r = 0; r < odd.length; ++r)
+      {
+        Matrix expected = instance.forward(odd[r], 5);
+        assertEquals(result[r].columns(), expected.columns());
+        Matrix err = MatrixOps.subtract(result[r], expected);
+        assertTrue(DoubleArray.findMaximumAbsolute(err.flatten()) < 1e-9, "length " + length);
+      }
+    }
+  }
+
 }
@@ -5,6 +5,7 @@
 package gov.llnl.rtk.geant4;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import java.io.BufferedWriter;
@@ -20,6 +21,7 @@ import gov.llnl.rtk.physics.SphericalSection;
 import gov.llnl.rtk.physics.CylindricalSection;
 import gov.llnl.rtk.physics.ConicalSection;
 import gov.llnl.rtk.physics.Material;
+import gov.llnl.rtk.transport.TransportCache;
 
 import java.net.URL;
 import java.io.File;
@@ -46,6 +48,7 @@ public class GEANT4Environment {
   public List<String> materialLines = new ArrayList<>();
   public List<String> beamLines = new ArrayList<>();
   public List<FluxBinned> results = new ArrayList<>();
+  private TransportCache cache;
 
   public GEANT4Environment(List<double[]> distribution, String sourceParticle, int numberOfParticles, boolean isSpherical, double sourceRadius, List<Section> shieldingSections) {
     this.distribution = distribution;
@@ -354,7 +357,79 @@ public class GEANT4Environment {
     }
   }
 
+  /**
+   * Use a cache for the results.
+   *
+   * GEANT4 is run with its default seed, so runs are keyed by the macro, the
+   * source distribution and the number of particles.
+   *
+   * @param cache or null to always run GEANT4.
+   */
+  public void setCache(TransportCache cache) {
+    this.cache = cache;
+  }
+
+  public TransportCache getCache() {
+    return cache;
+  }
+
+  /**
+   * Get the macro that is written to rtk.mac.
+   *
+   * @return the macro lines separated by newlines.
+   */
+  public String getMacro() {
+    StringBuilder sb = new StringBuilder();
+    for (List<String> lines : List.of(this.defaultLines, this.materialLines, this.beamLines)) {
+      for (String line : lines) {
+        sb.append(line).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Write the macro, run GEANT4 and read the results.
+   *
+   * If a cache is set and the same run was done before, GEANT4 is not run and
+   * the results are taken from the cache.
+   *
+   * @throws IOException if GEANT4 fails.
+   */
+  public void run() throws IOException {
+    writeSettingsToMacro();
+    if (cache == null) {
+      if (!launch()) {
+        throw new IOException("GEANT4 run failed");
+      }
+      this.results = readResults();
+      return;
+    }
+
+    StringBuilder input = new StringBuilder(getMacro());
+    for (double[] row : this.distribution) {
+      input.append(Arrays.toString(row)).append('\n');
+    }
+    String key = TransportCache.createKey(input.toString(), numberOfParticles, 0);
+    try {
+      this.results = new ArrayList<>(cache.compute(key, () -> {
+        if (!launch()) {
+          throw new IOException("GEANT4 run failed");
+        }
+        return readResults();
+      }));
+    } catch (IOException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
   public void launchGEANT4() {
+    launch();
+  }
+
+  private boolean launch() {
     URL geant4ProgramURL = GEANT4Environment.class.getClassLoader().getResource("gov/llnl/rtk/geant4/resources/RadSimBetaConverter");
     System.out.println(geant4ProgramURL);
     try {
@@ -365,24 +440,33 @@ public class GEANT4Environment {
       int exitCode = process.waitFor();
       if (exitCode != 0) {
         System.err.println("GEANT4 launch failed with exit code: " + exitCode);
+        return false;
       }
+      return true;
     } catch (IOException | InterruptedException e) {
       System.err.println("Error launching GEANT4 " + e.getMessage());
+      return false;
     }
   }
 
   public void parseResults() {
+    this.results.addAll(readResults());
+  }
+
+  private List<FluxBinned> readResults() {
+    List<FluxBinned> out = new ArrayList<>();
     String gammaSpectrumFile = "RadSim_h1_GammaEnergy_escape.csv";
     FluxBinned gammaSpectrum = parseHistogramFromFile(gammaSpectrumFile);
-    this.results.add(gammaSpectrum);
+    out.add(gammaSpectrum);
 
     String electronSpectrumFile = "RadSim_h1_ElectronEnergy_escape.csv";
     FluxBinned electronSpectrum = parseHistogramFromFile(electronSpectrumFile);
-    this.results.add(electronSpectrum);
+    out.add(electronSpectrum);
 
     String positronSpectrumFile = "RadSim_h1_PositronEnergy_escape.csv";
     FluxBinned positronSpectrum = parseHistogramFromFile(positronSpectrumFile);
-    this.results.add(positronSpectrum);
+    out.add(positronSpectrum);
+    return out;
   }
 
   public FluxBinned getGammaSpectrum() {
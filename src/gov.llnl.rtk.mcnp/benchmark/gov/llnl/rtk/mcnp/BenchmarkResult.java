@@ -0,0 +1,69 @@
+package gov.llnl.rtk.mcnp;
+
+import gov.llnl.utility.Benchmarker;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compare the indexed Result against the parser it replaced on synthetic
+ * outputs of increasing size.
+ *
+ * Uses SyntheticOutput and LegacyResult from the test tree, so run it with
+ * the test classes on the class path.
+ */
+public class BenchmarkResult extends Benchmarker {
+
+    final static int BINS = 500;
+    final static int[] SPECTRA = {10, 100, 1000};
+
+    BenchmarkResult() throws IOException {
+        for (int spectra : SPECTRA) {
+            Path file = Files.createTempFile("mcnp", ".output");
+            file.toFile().deleteOnExit();
+            new SyntheticOutput(spectra / 10, 10, BINS).write(file, spectra);
+            String label = String.format("%d spectra %.1f MB", spectra, Files.size(file) / 1e6);
+
+            this.addTask("legacy " + label, (passes) -> {
+                try {
+                    for (int i = 0; i < passes; ++i) {
+                        new LegacyResult(file.toFile()).getSpectra();
+                    }
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+            this.addTask("open " + label, (passes) -> {
+                try {
+                    for (int i = 0; i < passes; ++i) {
+                        new Result(file);
+                    }
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+            this.addTask("open and read one " + label, (passes) -> {
+                try {
+                    for (int i = 0; i < passes; ++i) {
+                        new Result(file).getSpectrum(spectra / 2);
+                    }
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+            this.addTask("open and read all " + label, (passes) -> {
+                try {
+                    for (int i = 0; i < passes; ++i) {
+                        new Result(file).getSpectra();
+                    }
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+        }
+    }
+
+    static public void main(String[] args) throws IOException {
+        new BenchmarkResult().test();
+    }
+}
@@ -1,9 +1,13 @@
 package gov.llnl.rtk.mcnp;
 
+import gov.llnl.rtk.RtkPackage;
 import java.io.*;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
 
 public class MCNP_Job {
 
@@ -35,43 +39,120 @@ public class MCNP_Job {
         return run(1);
     }
 
+    /**
+     * Run MCNP and wait for it to finish.
+     *
+     * The output of the process is written to a log file next to the output
+     * file.
+     *
+     * @param tasks is the number of threads for MCNP.
+     * @return the parsed output.
+     * @throws Exception if MCNP exits with an error or writes no output.
+     */
     public Result run(int tasks) throws Exception {
 
         // Create the various files
-        Path path = Paths.get(outputDir.toString(), name + "_" + System.currentTimeMillis());
+        Path path = createBasePath();
         File inputFile = new File(path +  ".input");
         File outputFile = new File(path +  ".output");
         File runFile = new File(path +  ".run");
+        File logFile = new File(path +  ".log");
 
         // Write the input file
-        inputFile.createNewFile();
-        FileWriter writer = new FileWriter(inputFile);
-        writer.write(deck.toString());
-        writer.close();
+        writeInput(inputFile, deck.toString());
 
         // Create the mcnp command
-        String command = this.mcnpPath.toFile().getAbsolutePath();
-        command += " i=" + inputFile.getAbsolutePath();
-        command += " o=" + outputFile.getAbsolutePath();
-        command += " run=" + runFile.getAbsolutePath();
-        if (tasks > 1) command += " tasks " + tasks;
-        Process p = Runtime.getRuntime().exec(command);
-
-        // todo: verbose option
+        List<String> command = getCommand(inputFile, outputFile, runFile, tasks, false);
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.directory(outputDir.toFile());
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(logFile);
+        RtkPackage.getInstance().getLogger().fine(String.join(" ", command));
+
         // Execute the command
-        System.out.println(command);
-        BufferedReader stdInput = new BufferedReader(new InputStreamReader(p.getInputStream()));
-        String line = stdInput.readLine();
-        while (line != null) {
-            System.out.println(line);
-            line = stdInput.readLine();
+        Process p = builder.start();
+        int code;
+        try {
+            code = p.waitFor();
+        } catch (InterruptedException e) {
+            p.descendants().forEach(ProcessHandle::destroyForcibly);
+            p.destroyForcibly();
+            throw e;
+        }
+        if (code != 0 || !outputFile.exists()) {
+            throw new Exception("MCNP job " + name + " exited with code " + code + ", see " + logFile);
         }
 
         // Todo: parse output file into java objects
         return new Result(outputFile);
     }
 
+    public String getName() {
+        return name;
+    }
+
+    public MCNP_Deck getDeck() {
+        return deck;
+    }
+
+    public Path getOutputDir() {
+        return outputDir;
+    }
 
+    public Path getMcnpPath() {
+        return mcnpPath;
+    }
+
+    /**
+     * Reserve a unique base name for the files of a run.
+     *
+     * The input file is created so that jobs with the same name started at the
+     * same time do not collide.
+     */
+    Path createBasePath() throws IOException {
+        String base = name + "_" + System.currentTimeMillis();
+        for (int i = 0; ; i++) {
+            Path path = Paths.get(outputDir.toString(), (i == 0) ? base : base + "_" + i);
+            try {
+                Files.createFile(Paths.get(path + ".input"));
+                return path;
+            } catch (FileAlreadyExistsException e) {
+                // try the next suffix
+            }
+        }
+    }
+
+    static void writeInput(File inputFile, String contents) throws IOException {
+        try (FileWriter writer = new FileWriter(inputFile)) {
+            writer.write(contents);
+        }
+    }
+
+    /**
+     * Build the command line for MCNP.
+     *
+     * @param inputFile is the deck, ignored for a continue run.
+     * @param outputFile must not exist.
+     * @param runFile is the restart file.
+     * @param tasks is the number of threads for MCNP.
+     * @param resume continues from the restart file.
+     */
+    List<String> getCommand(File inputFile, File outputFile, File runFile, int tasks, boolean resume) {
+        List<String> command = new ArrayList<>();
+        command.add(this.mcnpPath.toFile().getAbsolutePath());
+        if (resume) {
+            command.add("c");
+        } else {
+            command.add("i=" + inputFile.getAbsolutePath());
+        }
+        command.add("o=" + outputFile.getAbsolutePath());
+        command.add("run=" + runFile.getAbsolutePath());
+        if (tasks > 1) {
+            command.add("tasks");
+            command.add(Integer.toString(tasks));
+        }
+        return command;
+    }
 
     private static Path getMcnpPath(String query){
         ArrayList<Path> candidatePaths = new ArrayList<>();
@@ -0,0 +1,301 @@
+package gov.llnl.rtk.mcnp;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs many MCNP jobs at once within a budget of CPUs.
+ *
+ * Each job reserves one CPU per MCNP task before it starts, so the total
+ * number of tasks running never exceeds the budget. The output of each
+ * process is written to a log file next to the output file, so a chatty
+ * process can never stall on a full pipe.
+ *
+ * A job which exceeds the timeout or exits with an error is stopped. If
+ * resumes are allowed and MCNP wrote a restart file, the job is continued
+ * from the restart file rather than started over.
+ *
+ * Cancelling the future for a job stops its process.
+ */
+public class MCNP_JobFarm implements AutoCloseable {
+
+    private static final long DESTROY_GRACE_MILLIS = 5000;
+
+    private final int cpuBudget;
+    private final Semaphore cpus;
+    private final ExecutorService executor;
+    private final Set<Run> active = ConcurrentHashMap.newKeySet();
+    private volatile long timeoutMillis = 0;
+    private volatile int maxResumes = 0;
+
+    /**
+     * Create a farm using all of the processors.
+     */
+    public MCNP_JobFarm() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a farm.
+     *
+     * @param cpuBudget is the most MCNP tasks that may run at once.
+     */
+    public MCNP_JobFarm(int cpuBudget) {
+        if (cpuBudget < 1) {
+            throw new IllegalArgumentException("CPU budget must be at least 1");
+        }
+        this.cpuBudget = cpuBudget;
+        this.cpus = new Semaphore(cpuBudget, true);
+        this.executor = Executors.newFixedThreadPool(cpuBudget, r -> {
+            Thread thread = new Thread(r, "MCNP_JobFarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getCpuBudget() {
+        return cpuBudget;
+    }
+
+    /**
+     * Set the longest time a single MCNP process may run.
+     *
+     * @param timeout is the limit, or 0 for no limit.
+     * @param unit
+     */
+    public void setTimeout(long timeout, TimeUnit unit) {
+        this.timeoutMillis = unit.toMillis(timeout);
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Set how many times a failed job is continued from its restart file.
+     *
+     * @param maxResumes is the number of continue runs allowed per job.
+     */
+    public void setMaxResumes(int maxResumes) {
+        this.maxResumes = maxResumes;
+    }
+
+    public int getMaxResumes() {
+        return maxResumes;
+    }
+
+    /**
+     * @return the number of jobs which are queued or running.
+     */
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Queue a job with one task.
+     *
+     * @param job
+     * @return a future holding the result.
+     */
+    public CompletableFuture<Result> submit(MCNP_Job job) {
+        return submit(job, 1);
+    }
+
+    /**
+     * Queue a job.
+     *
+     * The deck is written on the calling thread as the cards share counters.
+     *
+     * @param job
+     * @param tasks is the number of MCNP tasks, limited to the CPU budget.
+     * @return a future holding the result.
+     */
+    public CompletableFuture<Result> submit(MCNP_Job job, int tasks) {
+        return submit(job, tasks, null);
+    }
+
+    /**
+     * Queue many jobs.
+     *
+     * @param jobs
+     * @param tasks is the number of MCNP tasks for each job.
+     * @return a future for each job.
+     */
+    public List<CompletableFuture<Result>> submitAll(List<MCNP_Job> jobs, int tasks) {
+        List<CompletableFuture<Result>> out = new ArrayList<>(jobs.size());
+        for (MCNP_Job job : jobs) {
+            out.add(submit(job, tasks));
+        }
+        return out;
+    }
+
+    /**
+     * Cancel all queued and running jobs.
+     */
+    public void cancelAll() {
+        for (Run run : new ArrayList<>(active)) {
+            run.future.cancel(true);
+        }
+    }
+
+    /**
+     * Cancel all jobs and stop the worker threads.
+     */
+    @Override
+    public void close() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+
+    CompletableFuture<Result> submit(MCNP_Job job, int tasks, Consumer<Result> onResult) {
+        int cost = Math.max(1, Math.min(tasks, cpuBudget));
+        Run run = new Run(job, job.getDeck().toString(), cost, onResult);
+        active.add(run);
+        run.task = executor.submit(run);
+        return run.future;
+    }
+
+    private static void destroy(Process process) throws InterruptedException {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroy();
+        if (!process.waitFor(DESTROY_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * State for one job.
+     */
+    private class Run implements Runnable {
+
+        final MCNP_Job job;
+        final String contents;
+        final int cost;
+        final Consumer<Result> onResult;
+        final CompletableFuture<Result> future = new CompletableFuture<Result>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean out = super.cancel(mayInterruptIfRunning);
+                stop();
+                return out;
+            }
+        };
+        volatile Future<?> task;
+        volatile Process process;
+
+        Run(MCNP_Job job, String contents, int cost, Consumer<Result> onResult) {
+            this.job = job;
+            this.contents = contents;
+            this.cost = cost;
+            this.onResult = onResult;
+        }
+
+        @Override
+        public void run() {
+            boolean acquired = false;
+            Result result = null;
+            Throwable failure = null;
+            try {
+                if (future.isDone()) {
+                    return;
+                }
+                cpus.acquire(cost);
+                acquired = true;
+                result = execute();
+                if (onResult != null) {
+                    onResult.accept(result);
+                }
+            } catch (InterruptedException e) {
+                failure = new CancellationException("MCNP job " + job.getName() + " interrupted");
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                if (acquired) {
+                    cpus.release(cost);
+                }
+                active.remove(this);
+            }
+
+            // Complete only after the job has left the farm so that callers
+            // waiting on the future see the CPUs released
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+
+        Result execute() throws Exception {
+            Path path = job.createBasePath();
+            File inputFile = new File(path + ".input");
+            File runFile = new File(path + ".run");
+            MCNP_Job.writeInput(inputFile, contents);
+
+            for (int attempt = 0; ; attempt++) {
+                String suffix = (attempt == 0) ? "" : "_resume" + attempt;
+                File outputFile = new File(path + suffix + ".output");
+                File logFile = new File(path + suffix + ".log");
+                List<String> command = job.getCommand(inputFile, outputFile, runFile, cost, attempt > 0);
+                ProcessBuilder builder = new ProcessBuilder(command);
+                builder.directory(job.getOutputDir().toFile());
+                builder.redirectErrorStream(true);
+                builder.redirectOutput(logFile);
+
+                String failure;
+                Process p = builder.start();
+                process = p;
+                try {
+                    if (future.isDone()) {
+                        throw new InterruptedException();
+                    }
+                    long timeout = timeoutMillis;
+                    if (timeout > 0 && !p.waitFor(timeout, TimeUnit.MILLISECONDS)) {
+                        destroy(p);
+                        failure = "timed out";
+                    } else {
+                        int code = p.waitFor();
+                        if (code == 0 && outputFile.exists()) {
+                            return new Result(outputFile);
+                        }
+                        failure = "exited with code " + code;
+                    }
+                } catch (InterruptedException e) {
+                    destroy(p);
+                    throw e;
+                } finally {
+                    process = null;
+                }
+
+                if (attempt >= maxResumes || !runFile.exists()) {
+                    throw new Exception("MCNP job " + job.getName() + " " + failure + ", see " + logFile);
+                }
+            }
+        }
+
+        void stop() {
+            // A queued task which is cancelled never runs
+            active.remove(this);
+            Future<?> t = task;
+            if (t != null) {
+                t.cancel(true);
+            }
+            Process p = process;
+            if (p != null) {
+                p.descendants().forEach(ProcessHandle::destroyForcibly);
+                p.destroyForcibly();
+            }
+        }
+    }
+}
@@ -5,10 +5,12 @@ import gov.llnl.rtk.data.EnergyScale;
 import gov.llnl.rtk.flux.*;
 import gov.llnl.rtk.physics.Section;
 import gov.llnl.rtk.physics.SphericalSection;
+import gov.llnl.rtk.transport.TransportCache;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author lahmann
@@ -18,7 +20,10 @@ public class RadSim_MCNP_Job {
     private String name;
     private Path outputDir;
     private Path mcnpPath;
-    private Result result;
+    private volatile Result result;
+    private volatile List<FluxBinned> spectra;
+    private TransportCache cache;
+    private int numSourceParticles;
 
     private MCNP_Source source;
     private MCNP_Distribution distribution;
@@ -58,6 +63,7 @@ public class RadSim_MCNP_Job {
 
     public void setParticleOptions(int numSourceParticles, MCNP_Particle sourceParticle, MCNP_Particle ... otherParticles) {
         this.source = new MCNP_Source("", sourceParticle, numSourceParticles);
+        this.numSourceParticles = numSourceParticles;
         this.particles = new MCNP_Particle[otherParticles.length + 1];
         this.particles[0] = sourceParticle;
         for (int i = 0; i < otherParticles.length; i++) {
@@ -175,9 +181,70 @@ public class RadSim_MCNP_Job {
         return deck;
     }
 
+    /**
+     * Use a cache for the tallies.
+     *
+     * Jobs whose rendered deck matches an earlier run are not run again.
+     * MCNP is run with its default random number seed, so the key is the
+     * deck and the number of source particles.
+     *
+     * @param cache or null to always run MCNP.
+     */
+    public void setCache(TransportCache cache) {
+        this.cache = cache;
+    }
+
+    public TransportCache getCache() {
+        return cache;
+    }
+
     public void run(int numTasks) throws Exception {
         MCNP_Job job = new MCNP_Job(name, buildDeck(), outputDir, mcnpPath);
-        this.result = job.run(numTasks);
+        if (cache == null) {
+            this.spectra = null;
+            this.result = job.run(numTasks);
+            return;
+        }
+        String key = TransportCache.createKey(job.getDeck().toString(), numSourceParticles, 0);
+        this.result = null;
+        this.spectra = cache.compute(key, () -> job.run(numTasks).getSpectra());
+    }
+
+    /**
+     * Queue the job on a farm rather than running it here.
+     *
+     * The result is available from getTallySpectrum once the future completes.
+     * If the tallies are found in the cache, the job is not queued and the
+     * future holds null.
+     *
+     * @param farm
+     * @param numTasks is the number of MCNP tasks.
+     * @return a future holding the result.
+     */
+    public CompletableFuture<Result> submit(MCNP_JobFarm farm, int numTasks) throws Exception {
+        MCNP_Job job = new MCNP_Job(name, buildDeck(), outputDir, mcnpPath);
+        TransportCache c = this.cache;
+        if (c == null) {
+            this.spectra = null;
+            return farm.submit(job, numTasks, r -> this.result = r);
+        }
+        String key = TransportCache.createKey(job.getDeck().toString(), numSourceParticles, 0);
+        List<FluxBinned> cached = c.isVerify() ? null : c.get(key);
+        if (cached != null) {
+            this.result = null;
+            this.spectra = cached;
+            return CompletableFuture.completedFuture(null);
+        }
+        return farm.submit(job, numTasks, r -> {
+            List<FluxBinned> out = r.getSpectra();
+            try {
+                c.compute(key, () -> out);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            this.result = r;
+            this.spectra = out;
+        });
     }
 
     public FluxBinned getTallySpectrum(String key, MCNP_Particle particle, boolean escaping) throws Exception {
@@ -212,7 +279,11 @@ public class RadSim_MCNP_Job {
             index += 1;
         }
 
-        return result.getSpectra().get(index);
+        List<FluxBinned> cached = spectra;
+        if (cached != null) {
+            return cached.get(index);
+        }
+        return result.getFlux(index);
     }
 
 
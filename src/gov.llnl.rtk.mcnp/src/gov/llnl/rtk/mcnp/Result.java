@@ -4,112 +4,474 @@ import gov.llnl.rtk.flux.FluxBinned;
 import gov.llnl.rtk.flux.FluxGroupBin;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
-import java.util.Map;
 
+/**
+ * Tally spectra from an MCNP output file.
+ *
+ * The file is scanned once when the result is created to find the byte range
+ * of each spectrum. The numbers in a spectrum are only parsed when that
+ * spectrum is requested, so large outputs with many tallies are cheap to open.
+ *
+ * Spectra are numbered in the order they appear in the file. Each surface and
+ * angle bin of a tally is a separate spectrum.
+ */
 public class Result {
 
-    // private Map<Integer, HashMap<Integer, FluxBinned>> spectra = new HashMap<>();
-    private ArrayList<FluxBinned> spectra = new ArrayList<>();
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte[] TALLY = "1tally".getBytes();
+    private static final byte[] STATUS = "1status".getBytes();
+    private static final byte[] SURFACE = "surface ".getBytes();
+    private static final byte[] TOTAL = "total".getBytes();
+    private static final byte[] ENERGY = "energy".getBytes();
+    private static final byte[] ANGLE = "angle".getBytes();
+    private static final double[] POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Path path;
+    private final List<Block> blocks = new ArrayList<>();
+    private final Spectrum[] parsed;
+    private List<FluxBinned> spectra = null;
 
     public Result(File outputFile) throws Exception {
-        List<String> allLines = getLines(outputFile);
-        List<List<String>> tallies = getTallies(allLines);
-        for (List<String> tally : tallies) {
-            List<List<String>> spectraLines = getSpectra(tally);
-            for (List<String> lines : spectraLines) {
-                spectra.add(parseSpectrum(lines));
+        this(outputFile.toPath());
+    }
+
+    public Result(Path outputFile) throws IOException {
+        this.path = outputFile;
+        index();
+        this.parsed = new Spectrum[blocks.size()];
+    }
+
+    /**
+     * @return the number of spectra in the file.
+     */
+    public int getSpectrumCount() {
+        return blocks.size();
+    }
+
+    /**
+     * Get the tally number for a spectrum.
+     *
+     * @param index
+     * @return the tally number from the output file.
+     */
+    public int getTallyNumber(int index) {
+        return blocks.get(index).tally;
+    }
+
+    /**
+     * Get the surface number for a spectrum.
+     *
+     * @param index
+     * @return the surface number from the output file.
+     */
+    public int getSurfaceNumber(int index) {
+        return blocks.get(index).surface;
+    }
+
+    /**
+     * Get the values for one spectrum.
+     *
+     * @param index
+     * @return the spectrum, parsed on first use.
+     */
+    public synchronized Spectrum getSpectrum(int index) throws IOException {
+        Spectrum out = parsed[index];
+        if (out == null) {
+            out = parse(blocks.get(index));
+            parsed[index] = out;
+        }
+        return out;
+    }
+
+    /**
+     * Get one spectrum as a flux.
+     *
+     * @param index
+     * @return a new flux holding a group for each energy bin.
+     */
+    public FluxBinned getFlux(int index) throws IOException {
+        Spectrum spectrum = getSpectrum(index);
+        double[] upper = spectrum.getUpperEnergyBins();
+        double[] values = spectrum.getValues();
+        double[] uncertainties = spectrum.getUncertainties();
+        FluxBinned flux = new FluxBinned();
+        double lower = 0.0;
+        for (int i = 0; i < upper.length; i++) {
+            flux.addPhotonGroup(new FluxGroupBin(lower, upper[i], values[i], uncertainties[i]));
+            lower = upper[i];
+        }
+        return flux;
+    }
+
+    /**
+     * Get all of the spectra as fluxes.
+     *
+     * @return the spectra in file order.
+     */
+    public synchronized List<FluxBinned> getSpectra() {
+        if (spectra == null) {
+            List<FluxBinned> out = new ArrayList<>(blocks.size());
+            try {
+                for (int i = 0; i < blocks.size(); i++) {
+                    out.add(getFlux(i));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
             }
+            spectra = out;
         }
+        return spectra;
     }
 
-    private FluxBinned parseSpectrum(List<String> lines) {
-        FluxBinned spectrum = new FluxBinned();
-        double lowerEnergyBin = 0.0;
-        for (String line : lines) {
-            String[] entries = line.split("\\s+");
-            double upperEnergyBin = Double.parseDouble(entries[1]);
-            if (upperEnergyBin == 0.0) {
-                continue;
+    /**
+     * Byte range of the lines of one spectrum.
+     */
+    private static class Block {
+        final int tally;
+        final int surface;
+        final long start;
+        long end = -1;
+
+        Block(int tally, int surface, long start) {
+            this.tally = tally;
+            this.surface = surface;
+            this.start = start;
+        }
+    }
+
+    /**
+     * Find the spectra in a single pass over the file.
+     *
+     * A tally runs from a "1tally" line to the "1status" line. Within a tally,
+     * a spectrum starts after a "surface" line and ends at the "total" line.
+     */
+    private void index() throws IOException {
+        Indexer indexer = new Indexer();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            byte[] line = new byte[256];
+            int length = 0;
+            long offset = 0;
+            long lineStart = 0;
+            while (true) {
+                buffer.clear();
+                int n = channel.read(buffer);
+                if (n < 0) {
+                    break;
+                }
+                byte[] data = buffer.array();
+                for (int i = 0; i < n; i++) {
+                    byte b = data[i];
+                    if (b != '\n') {
+                        if (length == line.length) {
+                            line = Arrays.copyOf(line, 2 * length);
+                        }
+                        line[length++] = b;
+                        continue;
+                    }
+                    long next = offset + i + 1;
+                    indexer.accept(line, length, lineStart, next);
+                    length = 0;
+                    lineStart = next;
+                }
+                offset += n;
             }
-            double counts = Double.parseDouble(entries[2]);
-            double uncertainty = counts * Double.parseDouble(entries[3]);
-            spectrum.addPhotonGroup(new FluxGroupBin(1000.0 * lowerEnergyBin, 1000.0 * upperEnergyBin, counts, uncertainty));
-            lowerEnergyBin = upperEnergyBin;
+            if (length > 0) {
+                indexer.accept(line, length, lineStart, offset);
+            }
+            indexer.open = close(indexer.open, offset);
         }
-        return spectrum;
     }
 
-    // Todo: cell tally support
-    private List<List<String>> getSpectra(List<String> lines) {
-        ArrayList<List<String>> spectra = new ArrayList<>();
-        boolean atSpectrum = false;
-        for (String line : lines) {
-            if (line.contains("energy")) {
-                continue;
+    /**
+     * State for the index pass.
+     */
+    private class Indexer {
+        boolean inTally = false;
+        int tally = 0;
+        Block open = null;
+
+        void accept(byte[] line, int length, long lineStart, long next) {
+            // Only lines with lower case letters can hold a keyword
+            if (!hasLowerCase(line, length)) {
+                return;
             }
-            if (line.contains("angle")) {
-                continue;
+            if (contains(line, length, TALLY)) {
+                open = close(open, lineStart);
+                inTally = isInteger(line, length, 1);
+                if (inTally) {
+                    tally = parseInteger(line, length, 1);
+                }
+            }
+            if (contains(line, length, STATUS)) {
+                open = close(open, lineStart);
+                inTally = false;
             }
-            if (line.contains("total")) {
-                atSpectrum = false;
+            if (!inTally || contains(line, length, ENERGY) || contains(line, length, ANGLE)) {
+                return;
             }
-            if (atSpectrum) {
-                spectra.get(spectra.size() - 1).add(line);
+            if (contains(line, length, TOTAL)) {
+                open = close(open, lineStart);
             }
-            if (line.contains("surface ")) {
-                try {
-                    int locationId = Integer.parseInt(line.split("\\s+")[2]);
-                    atSpectrum = true;
-                    spectra.add(new ArrayList<>());
-                } catch (NumberFormatException e) {
-                    atSpectrum = false;
+            if (contains(line, length, SURFACE)) {
+                open = close(open, lineStart);
+                if (isInteger(line, length, 2)) {
+                    open = new Block(tally, parseInteger(line, length, 2), next);
                 }
             }
         }
-        return spectra;
     }
 
-    private List<List<String>> getTallies(List<String> lines) {
-        ArrayList<List<String>> tallies = new ArrayList<>();
-        boolean atTally = false;
-        for (String line : lines) {
-            if (line.contains("1tally")) {
-                try {
-                    int tallyId = Integer.parseInt(line.split("\\s+")[1]);
-                    atTally = true;
-                    tallies.add(new ArrayList<>());
-                } catch (NumberFormatException e) {
-                    atTally = false;
+    private Block close(Block block, long end) {
+        if (block != null) {
+            block.end = end;
+            blocks.add(block);
+        }
+        return null;
+    }
+
+    /**
+     * Parse the rows of one spectrum.
+     *
+     * Each row holds the upper energy in MeV, the value and the relative
+     * error. Rows with an upper energy of zero are skipped.
+     */
+    private Spectrum parse(Block block) throws IOException {
+        int size = (int) (block.end - block.start);
+        byte[] data = new byte[size];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, block.start + buffer.position()) < 0) {
+                    break;
                 }
             }
+        }
 
-            if (line.contains("1status")) {
-                atTally = false;
+        int capacity = 64;
+        double[] upper = new double[capacity];
+        double[] values = new double[capacity];
+        double[] uncertainties = new double[capacity];
+        double[] fields = new double[3];
+        int count = 0;
+        int start = 0;
+        for (int i = 0; i <= size; i++) {
+            if (i < size && data[i] != '\n') {
+                continue;
+            }
+            int end = i;
+            int lineStart = start;
+            start = i + 1;
+            if (hasLowerCase(data, lineStart, end)
+                    && (contains(data, lineStart, end, ENERGY) || contains(data, lineStart, end, ANGLE))) {
+                continue;
             }
+            if (!parseRow(data, lineStart, end, fields) || fields[0] == 0.0) {
+                continue;
+            }
+            if (count == capacity) {
+                capacity *= 2;
+                upper = Arrays.copyOf(upper, capacity);
+                values = Arrays.copyOf(values, capacity);
+                uncertainties = Arrays.copyOf(uncertainties, capacity);
+            }
+            upper[count] = 1000.0 * fields[0];
+            values[count] = fields[1];
+            uncertainties[count] = fields[1] * fields[2];
+            count++;
+        }
+        return new Spectrum(Arrays.copyOf(upper, count), Arrays.copyOf(values, count), Arrays.copyOf(uncertainties, count));
+    }
 
-            if (atTally) {
-                tallies.get(tallies.size() - 1).add(line);
+    /**
+     * Parse the first three numbers on a line.
+     *
+     * @return false if the line does not start with three numbers.
+     */
+    private static boolean parseRow(byte[] data, int start, int end, double[] out) {
+        int i = start;
+        for (int k = 0; k < 3; k++) {
+            while (i < end && isSpace(data[i])) {
+                i++;
             }
+            int j = i;
+            while (j < end && !isSpace(data[j])) {
+                j++;
+            }
+            if (j == i || !isNumberStart(data[i])) {
+                return false;
+            }
+            out[k] = parseDouble(data, i, j);
+            i = j;
         }
-        return tallies;
+        return true;
     }
 
-    private List<String> getLines(File file) throws Exception {
-        Scanner scanner = new Scanner(file);
-        List<String> lines = new ArrayList<>();
-        while (scanner.hasNextLine()) {
-            lines.add(scanner.nextLine());
+    /**
+     * Parse a number in the form written by MCNP.
+     *
+     * Numbers with few digits are converted exactly with a single multiply or
+     * divide. Anything else is passed to Double.parseDouble.
+     */
+    static double parseDouble(byte[] data, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (data[i] == '-' || data[i] == '+')) {
+            negative = data[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean any = false;
+        for (; i < end && data[i] >= '0' && data[i] <= '9'; i++) {
+            mantissa = mantissa * 10 + (data[i] - '0');
+            digits += (mantissa != 0) ? 1 : 0;
+            any = true;
         }
-        scanner.close();
-        return lines;
+        if (i < end && data[i] == '.') {
+            for (i++; i < end && data[i] >= '0' && data[i] <= '9'; i++) {
+                mantissa = mantissa * 10 + (data[i] - '0');
+                digits += (mantissa != 0) ? 1 : 0;
+                scale--;
+                any = true;
+            }
+        }
+        if (any && i < end && (data[i] == 'E' || data[i] == 'e')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (data[i] == '-' || data[i] == '+')) {
+                negativeExponent = data[i] == '-';
+                i++;
+            }
+            int exponent = 0;
+            int exponentStart = i;
+            for (; i < end && data[i] >= '0' && data[i] <= '9' && exponent < 10000; i++) {
+                exponent = exponent * 10 + (data[i] - '0');
+            }
+            if (i == exponentStart) {
+                any = false;
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (!any || i != end || digits > 15 || scale < -22 || scale > 22) {
+            return Double.parseDouble(new String(data, start, end - start));
+        }
+        double value = (scale < 0) ? mantissa / POWERS[-scale] : mantissa * POWERS[scale];
+        return negative ? -value : value;
     }
 
-    public List<FluxBinned> getSpectra() {
-        return spectra;
+    private static boolean isNumberStart(byte b) {
+        return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.';
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+    }
+
+    private static boolean hasLowerCase(byte[] line, int length) {
+        return hasLowerCase(line, 0, length);
+    }
+
+    private static boolean hasLowerCase(byte[] line, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (line[i] >= 'a' && line[i] <= 'z') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(byte[] line, int length, byte[] pattern) {
+        return contains(line, 0, length, pattern);
+    }
+
+    private static boolean contains(byte[] line, int start, int end, byte[] pattern) {
+        int last = end - pattern.length;
+        outer:
+        for (int i = start; i <= last; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (line[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Find a whitespace separated field.
+     *
+     * Fields are numbered as by String.split("\\s+"), so a line starting with
+     * whitespace has an empty field 0.
+     *
+     * @return the start and end of the field, or null if there are too few.
+     */
+    private static int[] field(byte[] line, int length, int index) {
+        int i = 0;
+        int k = 0;
+        if (length > 0 && isSpace(line[0])) {
+            // Leading empty field
+            if (index == 0) {
+                return new int[]{0, 0};
+            }
+            while (i < length && isSpace(line[i])) {
+                i++;
+            }
+            k = 1;
+        }
+        while (i < length) {
+            int j = i;
+            while (j < length && !isSpace(line[j])) {
+                j++;
+            }
+            if (k == index) {
+                return new int[]{i, j};
+            }
+            k++;
+            i = j;
+            while (i < length && isSpace(line[i])) {
+                i++;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isInteger(byte[] line, int length, int index) {
+        int[] range = field(line, length, index);
+        if (range == null || range[0] == range[1]) {
+            return false;
+        }
+        int i = range[0];
+        if (line[i] == '-' || line[i] == '+') {
+            i++;
+        }
+        if (i == range[1] || range[1] - i > 9) {
+            return false;
+        }
+        for (; i < range[1]; i++) {
+            if (line[i] < '0' || line[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseInteger(byte[] line, int length, int index) {
+        int[] range = field(line, length, index);
+        return Integer.parseInt(new String(line, range[0], range[1] - range[0]));
     }
 
     public static void main(String ... args) throws Exception {
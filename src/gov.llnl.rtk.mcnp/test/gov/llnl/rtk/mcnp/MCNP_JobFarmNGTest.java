@@ -0,0 +1,282 @@
+package gov.llnl.rtk.mcnp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for MCNP_JobFarm and MCNP_Job.
+ *
+ * MCNP is replaced by a shell script whose behavior is chosen by a keyword in
+ * the deck. Each call of the script appends a line to a "calls" file holding
+ * its process id, the number of tasks, whether it was a continue run, and the
+ * total tasks running when it started.
+ */
+public class MCNP_JobFarmNGTest {
+
+    static final String SCRIPT = String.join("\n",
+            "#!/bin/sh",
+            "dir=$(dirname \"$0\")",
+            "tasks=1; resume=0; prev=",
+            "for a in \"$@\"; do",
+            "  case \"$a\" in",
+            "    i=*) in=\"${a#i=}\" ;;",
+            "    o=*) out=\"${a#o=}\" ;;",
+            "    run=*) run=\"${a#run=}\" ;;",
+            "    c) resume=1 ;;",
+            "  esac",
+            "  [ \"$prev\" = tasks ] && tasks=$a",
+            "  prev=$a",
+            "done",
+            "[ -z \"$in\" ] && in=\"${run%.run}.input\"",
+            "mode=$(cat \"$in\")",
+            "mkdir -p \"$dir/running\"",
+            "echo $tasks > \"$dir/running/$$\"",
+            "total=$(cat \"$dir\"/running/* | awk '{s+=$1} END {print s}')",
+            "echo \"$$ $tasks $resume $total\" >> \"$dir/calls\"",
+            "echo \"fake mcnp $mode\"",
+            "echo \"fake mcnp error\" 1>&2",
+            "case \"$mode\" in",
+            "  ok) sleep 1; echo output > \"$out\" ;;",
+            "  fail) rm -f \"$dir/running/$$\"; exit 3 ;;",
+            "  hang) sleep 60 ;;",
+            "  crash)",
+            "    if [ $resume = 0 ]; then",
+            "      touch \"$run\"; rm -f \"$dir/running/$$\"; exit 1",
+            "    fi",
+            "    echo output > \"$out\" ;;",
+            "esac",
+            "rm -f \"$dir/running/$$\"",
+            "");
+
+    /**
+     * Deck which renders as a single keyword for the fake script.
+     */
+    static class FakeDeck extends MCNP_Deck {
+
+        final String mode;
+
+        FakeDeck(String mode) {
+            super(mode);
+            this.mode = mode;
+        }
+
+        @Override
+        public String toString() {
+            return mode;
+        }
+    }
+
+    public MCNP_JobFarmNGTest() {
+    }
+
+    static Path newDirectory() throws IOException {
+        Path dir = Files.createTempDirectory("mcnpfarm");
+        Path script = dir.resolve("mcnp");
+        Files.write(script, SCRIPT.getBytes());
+        script.toFile().setExecutable(true);
+        return dir;
+    }
+
+    static MCNP_Job newJob(Path dir, String name, String mode) throws Exception {
+        return new MCNP_Job(name, new FakeDeck(mode), dir.resolve("out"), dir.resolve("mcnp"));
+    }
+
+    /**
+     * Get the calls made to the fake script.
+     *
+     * @return pid, tasks, resume, and running tasks for each call.
+     */
+    static List<long[]> getCalls(Path dir) throws IOException {
+        List<long[]> out = new ArrayList<>();
+        File file = dir.resolve("calls").toFile();
+        if (!file.exists()) {
+            return out;
+        }
+        for (String line : Files.readAllLines(file.toPath())) {
+            String[] parts = line.trim().split(" +");
+            long[] call = new long[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                call[i] = Long.parseLong(parts[i]);
+            }
+            out.add(call);
+        }
+        return out;
+    }
+
+    static List<long[]> waitForCalls(Path dir, int count) throws Exception {
+        for (int i = 0; i < 500; i++) {
+            List<long[]> calls = getCalls(dir);
+            if (calls.size() >= count) {
+                return calls;
+            }
+            Thread.sleep(10);
+        }
+        fail("fake mcnp was not started");
+        return null;
+    }
+
+    static String getFailure(CompletableFuture<Result> future) throws Exception {
+        try {
+            future.get(30, TimeUnit.SECONDS);
+            fail("expected failure");
+        } catch (ExecutionException ex) {
+            return ex.getCause().getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Test of submit method, of class MCNP_JobFarm.
+     */
+    @Test
+    public void testConcurrencyBudget() throws Exception {
+        Path dir = newDirectory();
+        try (MCNP_JobFarm farm = new MCNP_JobFarm(2)) {
+            List<MCNP_Job> jobs = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                jobs.add(newJob(dir, "job" + i, "ok"));
+            }
+            for (CompletableFuture<Result> future : farm.submitAll(jobs, 1)) {
+                assertNotNull(future.get(30, TimeUnit.SECONDS));
+            }
+            List<long[]> calls = getCalls(dir);
+            assertEquals(calls.size(), 6);
+            long most = 0;
+            for (long[] call : calls) {
+                assertEquals(call[1], 1);
+                most = Math.max(most, call[3]);
+            }
+            assertEquals(most, 2);
+
+            // Jobs with more tasks than the budget are limited to the budget
+            // and run one at a time
+            Files.delete(dir.resolve("calls"));
+            List<CompletableFuture<Result>> futures = farm.submitAll(jobs.subList(0, 3), 5);
+            for (CompletableFuture<Result> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            for (long[] call : getCalls(dir)) {
+                assertEquals(call[1], 2);
+                assertEquals(call[3], 2);
+            }
+            assertEquals(farm.getActiveCount(), 0);
+        }
+    }
+
+    /**
+     * Test of setTimeout method, of class MCNP_JobFarm.
+     */
+    @Test
+    public void testTimeout() throws Exception {
+        Path dir = newDirectory();
+        try (MCNP_JobFarm farm = new MCNP_JobFarm(1)) {
+            farm.setTimeout(500, TimeUnit.MILLISECONDS);
+            long start = System.nanoTime();
+            String message = getFailure(farm.submit(newJob(dir, "hang", "hang")));
+            assertTrue(message.contains("timed out"), message);
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(20));
+            long pid = getCalls(dir).get(0)[0];
+            assertFalse(ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false));
+        }
+    }
+
+    /**
+     * Test of setMaxResumes method, of class MCNP_JobFarm.
+     */
+    @Test
+    public void testResume() throws Exception {
+        Path dir = newDirectory();
+        try (MCNP_JobFarm farm = new MCNP_JobFarm(1)) {
+            // Without resumes the first failure is final
+            String message = getFailure(farm.submit(newJob(dir, "crash", "crash")));
+            assertTrue(message.contains("exited with code 1"), message);
+            assertEquals(getCalls(dir).size(), 1);
+
+            // The continue run picks up from the restart file
+            Files.delete(dir.resolve("calls"));
+            farm.setMaxResumes(1);
+            assertNotNull(farm.submit(newJob(dir, "crash", "crash")).get(30, TimeUnit.SECONDS));
+            List<long[]> calls = getCalls(dir);
+            assertEquals(calls.size(), 2);
+            assertEquals(calls.get(0)[2], 0);
+            assertEquals(calls.get(1)[2], 1);
+
+            // No restart file means no continue run
+            Files.delete(dir.resolve("calls"));
+            message = getFailure(farm.submit(newJob(dir, "fail", "fail")));
+            assertTrue(message.contains("exited with code 3"), message);
+            assertEquals(getCalls(dir).size(), 1);
+        }
+    }
+
+    /**
+     * Test of cancelling a job, of class MCNP_JobFarm.
+     */
+    @Test
+    public void testCancel() throws Exception {
+        Path dir = newDirectory();
+        try (MCNP_JobFarm farm = new MCNP_JobFarm(1)) {
+            CompletableFuture<Result> running = farm.submit(newJob(dir, "hang", "hang"));
+            CompletableFuture<Result> queued = farm.submit(newJob(dir, "queued", "ok"));
+            long pid = waitForCalls(dir, 1).get(0)[0];
+            assertEquals(farm.getActiveCount(), 2);
+
+            // A queued job is removed without starting
+            assertTrue(queued.cancel(true));
+            assertEquals(farm.getActiveCount(), 1);
+
+            // A running job has its process stopped
+            assertTrue(running.cancel(true));
+            try {
+                running.get();
+                fail("expected cancellation");
+            } catch (CancellationException ex) {
+                // expected
+            }
+            for (int i = 0; i < 500 && ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false); i++) {
+                Thread.sleep(10);
+            }
+            assertFalse(ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false));
+            for (int i = 0; i < 500 && farm.getActiveCount() > 0; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(farm.getActiveCount(), 0);
+
+            // The slot is free for new work and the cancelled job never ran
+            assertNotNull(farm.submit(newJob(dir, "after", "ok")).get(30, TimeUnit.SECONDS));
+            assertEquals(getCalls(dir).size(), 2);
+        }
+    }
+
+    /**
+     * Test of run method, of class MCNP_Job.
+     */
+    @Test
+    public void testRun() throws Exception {
+        Path dir = newDirectory();
+        MCNP_Job job = newJob(dir, "single", "ok");
+        assertNotNull(job.run());
+        File[] logs = dir.resolve("out").toFile().listFiles((d, name) -> name.endsWith(".log"));
+        assertEquals(logs.length, 1);
+        String log = new String(Files.readAllBytes(logs[0].toPath()));
+        assertTrue(log.contains("fake mcnp ok"), log);
+        assertTrue(log.contains("fake mcnp error"), log);
+
+        try {
+            newJob(dir, "failed", "fail").run();
+            fail("expected failure");
+        } catch (Exception ex) {
+            assertTrue(ex.getMessage().contains("exited with code 3"), ex.getMessage());
+        }
+    }
+}
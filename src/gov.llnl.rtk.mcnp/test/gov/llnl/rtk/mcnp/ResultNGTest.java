@@ -0,0 +1,229 @@
+package gov.llnl.rtk.mcnp;
+
+import gov.llnl.rtk.flux.FluxBinned;
+import gov.llnl.rtk.flux.FluxGroupBin;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for Result.
+ *
+ * The spectra are compared with those read by LegacyResult, the parser used
+ * before the output was indexed.
+ */
+public class ResultNGTest {
+
+    public ResultNGTest() {
+    }
+
+    static void assertSameSpectra(List<FluxBinned> actual, List<FluxBinned> expected) {
+        assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            List<FluxGroupBin> a = actual.get(i).getPhotonGroups();
+            List<FluxGroupBin> e = expected.get(i).getPhotonGroups();
+            assertEquals(a.size(), e.size());
+            for (int j = 0; j < e.size(); j++) {
+                assertEquals(a.get(j).getEnergyLower(), e.get(j).getEnergyLower(), 0.0);
+                assertEquals(a.get(j).getEnergyUpper(), e.get(j).getEnergyUpper(), 0.0);
+                assertEquals(a.get(j).getCounts(), e.get(j).getCounts(), 0.0);
+                assertEquals(a.get(j).getUncertainty(), e.get(j).getUncertainty(), 0.0);
+            }
+        }
+    }
+
+    static void assertParity(SyntheticOutput output, long seed) throws Exception {
+        Path file = output.write(Files.createTempFile("mcnp", ".output"), seed);
+        try {
+            List<FluxBinned> expected = new LegacyResult(file.toFile()).getSpectra();
+            assertEquals(expected.size(), output.getSpectrumCount());
+            Result result = new Result(file);
+            assertEquals(result.getSpectrumCount(), output.getSpectrumCount());
+            assertSameSpectra(result.getSpectra(), expected);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test of getSpectra method, of class Result.
+     */
+    @Test
+    public void testParity() throws Exception {
+        assertParity(new SyntheticOutput(1, 1, 10), 1);
+        assertParity(new SyntheticOutput(3, 4, 50), 2);
+        assertParity(new SyntheticOutput(2, 20, 1000), 3);
+
+        // No tallies
+        assertParity(new SyntheticOutput(0, 0, 0), 4);
+    }
+
+    /**
+     * Test of getSpectra method, of class Result.
+     */
+    @Test
+    public void testParityVariety() throws Exception {
+        assertParity(new SyntheticOutput(3, 4, 50).setVariety(true), 5);
+        assertParity(new SyntheticOutput(2, 10, 700).setVariety(true), 6);
+    }
+
+    /**
+     * Test of getTallyNumber and getSurfaceNumber methods, of class Result.
+     */
+    @Test
+    public void testNumbers() throws Exception {
+        Path file = new SyntheticOutput(3, 2, 5).setVariety(true)
+                .write(Files.createTempFile("mcnp", ".output"), 7);
+        try {
+            Result result = new Result(file);
+            assertEquals(result.getSpectrumCount(), 6);
+            for (int i = 0; i < 6; i++) {
+                assertEquals(result.getTallyNumber(i), 10 * (i / 2) + 1);
+                assertEquals(result.getSurfaceNumber(i), i % 2 + 1);
+            }
+
+            // Spectra can be read in any order
+            List<FluxBinned> all = new LegacyResult(file.toFile()).getSpectra();
+            Result other = new Result(file);
+            for (int i = 5; i >= 0; i--) {
+                assertSameSpectra(List.of(other.getFlux(i)), List.of(all.get(i)));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test of getSpectra method, of class Result.
+     */
+    @Test
+    public void testMalformedRow() throws Exception {
+        Path file = Files.createTempFile("mcnp", ".output");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(file)) {
+                out.write("1tally        1        nps =     1000\n");
+                out.write(" surface  1\n");
+                out.write("      energy\n");
+                out.write("    1.0000E-02   1.00000E-03 0.1000\n");
+                // Three digit exponents are written without the E
+                out.write("    2.0000E-02   1.00000-100 0.1000\n");
+                out.write("      total      1.00000E-03 0.1000\n");
+                out.write("1status\n");
+            }
+            try {
+                new LegacyResult(file.toFile());
+                fail("expected failure");
+            } catch (NumberFormatException ex) {
+                // expected
+            }
+            Result result = new Result(file);
+            assertEquals(result.getSpectrumCount(), 1);
+            try {
+                result.getSpectra();
+                fail("expected failure");
+            } catch (NumberFormatException ex) {
+                // expected
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    static void assertParseDouble(String s) {
+        byte[] bytes = s.getBytes();
+        double expected;
+        try {
+            expected = Double.parseDouble(s);
+        } catch (NumberFormatException ex) {
+            try {
+                Result.parseDouble(bytes, 0, bytes.length);
+                fail("expected failure for " + s);
+            } catch (NumberFormatException ex2) {
+                // expected
+            }
+            return;
+        }
+        double actual = Result.parseDouble(bytes, 0, bytes.length);
+        assertEquals(Double.doubleToRawLongBits(actual), Double.doubleToRawLongBits(expected), s);
+    }
+
+    /**
+     * Test of parseDouble method, of class Result.
+     */
+    @Test
+    public void testParseDouble() {
+        Random random = new Random(1);
+        String[] formats = {"%.5E", "%.4E", "%.5e", "%.4f", "%.9f", "%.15E", "%+.5E", "%.0f"};
+        for (int i = 0; i < 20000; i++) {
+            double value = Math.exp(100 * (random.nextDouble() - 0.5));
+            if (random.nextBoolean()) {
+                value = -value;
+            }
+            assertParseDouble(String.format(Locale.ROOT, formats[i % formats.length], value));
+        }
+        assertParseDouble("0");
+        assertParseDouble("-0.0");
+        assertParseDouble("0.00000E+00");
+        assertParseDouble(".5");
+        assertParseDouble("5.");
+        assertParseDouble("1.E5");
+        assertParseDouble("000000000000000000001.5");
+        assertParseDouble("999999999999999");
+        assertParseDouble("1.0E22");
+        assertParseDouble("1.0E-22");
+    }
+
+    /**
+     * Test of parseDouble method, of class Result.
+     *
+     * These all go through Double.parseDouble.
+     */
+    @Test
+    public void testParseDoubleFallback() {
+        // More than 15 significant digits
+        assertParseDouble("1234567890123456");
+        assertParseDouble("1.2345678901234567");
+        assertParseDouble("1.23456789012345678E-03");
+        assertParseDouble("9007199254740993");
+        assertParseDouble("0.1000000000000000055511151231257827");
+
+        // Exponents beyond the exact powers of ten
+        assertParseDouble("1.0E23");
+        assertParseDouble("1.0E-23");
+        assertParseDouble("1.23456E+25");
+        assertParseDouble("1.23456E-30");
+        assertParseDouble("4.9E-324");
+        assertParseDouble("2.5E-324");
+        assertParseDouble("1.7976931348623157E308");
+        assertParseDouble("1E400");
+        assertParseDouble("-1E400");
+        assertParseDouble("1E-400");
+        assertParseDouble("1E99999999999");
+        assertParseDouble("0.0001E+25");
+        assertParseDouble("10000E-25");
+
+        // Forms only Double.parseDouble accepts
+        assertParseDouble("1.5d");
+        assertParseDouble("1.5F");
+        assertParseDouble("0x1p3");
+
+        // Malformed fields
+        assertParseDouble("1.00000-100");
+        assertParseDouble("1.2.3");
+        assertParseDouble("1e");
+        assertParseDouble("1E+");
+        assertParseDouble("-");
+        assertParseDouble("+");
+        assertParseDouble(".");
+        assertParseDouble(".E5");
+        assertParseDouble("1x");
+        assertParseDouble("--1");
+        assertParseDouble("1E5.0");
+    }
+}
@@ -0,0 +1,169 @@
+package gov.llnl.rtk.mcnp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Writes files laid out like the output of MCNP surface tallies.
+ *
+ * The file starts with an echo of the input and holds a number of tallies,
+ * each with a spectrum for a number of surfaces, followed by the status and
+ * fluctuation chart sections. With variety enabled the values are written in
+ * each of the number forms the parser must handle, and lines which only look
+ * like spectra are added around the tallies.
+ */
+class SyntheticOutput {
+
+    final int tallies;
+    final int surfaces;
+    final int bins;
+    boolean variety = false;
+
+    /**
+     * @param tallies is the number of tallies.
+     * @param surfaces is the number of surfaces in each tally.
+     * @param bins is the number of energy bins in each spectrum.
+     */
+    SyntheticOutput(int tallies, int surfaces, int bins) {
+        this.tallies = tallies;
+        this.surfaces = surfaces;
+        this.bins = bins;
+    }
+
+    SyntheticOutput setVariety(boolean variety) {
+        this.variety = variety;
+        return this;
+    }
+
+    /**
+     * @return the number of spectra written.
+     */
+    int getSpectrumCount() {
+        return tallies * surfaces;
+    }
+
+    /**
+     * Write an output file.
+     *
+     * @param file is the file to write.
+     * @param seed selects the values.
+     * @return the file.
+     */
+    Path write(Path file, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            writeHeader(out);
+            for (int t = 0; t < tallies; t++) {
+                writeTally(out, random, 10 * t + 1);
+            }
+            writeTrailer(out);
+        }
+        return file;
+    }
+
+    private void writeHeader(BufferedWriter out) throws IOException {
+        line(out, "1mcnp     version 6     ld=05/08/13                     01/01/26 00:00:00");
+        line(out, "          synthetic output");
+        for (int i = 1; i <= 40; i++) {
+            line(out, String.format(Locale.ROOT, "%5d-       %d 1 -1.0 -%d      $ surface %d inside", i, i, i, i));
+        }
+        line(out, "  c  surface cards");
+        line(out, " ");
+    }
+
+    private void writeTally(BufferedWriter out, Random random, int tally) throws IOException {
+        line(out, String.format(Locale.ROOT, "1tally %8d        nps =     1000000", tally));
+        line(out, "           tally type 1    number of particles crossing a surface.");
+        line(out, "           particle(s): photons");
+        line(out, " ");
+        if (variety) {
+            line(out, "           areas");
+            line(out, "    surface:       1         2");
+            line(out, "             3.14159E+02  3.14159E+02");
+            line(out, " ");
+        }
+        for (int s = 1; s <= surfaces; s++) {
+            line(out, String.format(Locale.ROOT, " surface  %d", s));
+            if (variety && s % 2 == 0) {
+                line(out, " angle  bin:  -1.00000E+00 to  0.00000E+00 mu");
+            }
+            line(out, "      energy");
+            double total = 0;
+            for (int b = 0; b < bins; b++) {
+                // The first bin has an upper energy of zero and is skipped
+                double energy = 0.01 * b;
+                double value = Math.exp(-3 * random.nextDouble()) * 1e-3;
+                double error = (b == 0) ? 0 : random.nextDouble() * 0.5;
+                total += value;
+                line(out, String.format(Locale.ROOT, "    %.4E   %s %.4f", energy, format(value, b), error));
+            }
+            line(out, String.format(Locale.ROOT, "      total      %.5E 0.0010", total));
+            line(out, " ");
+        }
+        line(out, " ===================================================================");
+    }
+
+    /**
+     * Format a value in one of the forms found in MCNP output.
+     */
+    private String format(double value, int bin) {
+        if (!variety) {
+            return String.format(Locale.ROOT, "%.5E", value);
+        }
+        switch (bin % 7) {
+            case 1:
+                // More digits than the fast path handles
+                return String.format(Locale.ROOT, "%.17E", value);
+            case 2:
+                // Exponents beyond the exact powers of ten
+                return String.format(Locale.ROOT, "%.5E", value * 1e-27);
+            case 3:
+                return String.format(Locale.ROOT, "%.5E", value * 1e30);
+            case 4:
+                return String.format(Locale.ROOT, "%.5e", value);
+            case 5:
+                return String.format(Locale.ROOT, "%.9f", value);
+            case 6:
+                return String.format(Locale.ROOT, "+%.5E", value);
+            default:
+                return String.format(Locale.ROOT, "%.5E", value);
+        }
+    }
+
+    private void writeTrailer(BufferedWriter out) throws IOException {
+        line(out, "1status of the statistical checks used to form confidence intervals for the mean for each tally bin");
+        line(out, " ");
+        line(out, "1tally fluctuation charts");
+        line(out, " ");
+        if (variety) {
+            // Not a tally, so this must not be read as a spectrum
+            line(out, " surface  99");
+            line(out, "    1.0000E+00   1.00000E+00 0.1000");
+            line(out, "      total      1.00000E+00 0.1000");
+        }
+        line(out, "           tally        1");
+        line(out, "          nps      mean     error   vov  slope    fom");
+        line(out, "       1000000   1.0000E-03 0.0100 0.0001 10.0 1.0E+05");
+    }
+
+    private static void line(BufferedWriter out, String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+    }
+
+    /**
+     * Write a file for use outside of the tests.
+     *
+     * @param args holds the file, tallies, surfaces, and bins.
+     */
+    public static void main(String... args) throws IOException {
+        SyntheticOutput output = new SyntheticOutput(
+                Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+        output.write(Paths.get(args[0]), 0);
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.calibration;
+
+import gov.llnl.math.DoubleArray;
+import gov.llnl.math.MathExceptions.ConvergenceException;
+import gov.llnl.math.SpecialFunctions;
+import gov.llnl.math.function.LinearFunction;
+import gov.llnl.math.matrix.Matrix;
+import gov.llnl.math.matrix.MatrixColumnArray;
+import gov.llnl.math.matrix.MatrixFactory;
+import gov.llnl.math.matrix.MatrixOps;
+import gov.llnl.math.matrix.MatrixViews;
+import gov.llnl.math.optimize.LinearRegression;
+import gov.llnl.utility.Benchmarker;
+import java.util.Random;
+
+/**
+ * Compare the in place Gaussian fit workspace against the matrix based fit it
+ * replaced, both cold and warm started from the previous solution.
+ *
+ * Before timing, the results of the two implementations are compared on each
+ * spectrum and the largest relative difference is reported.
+ */
+public class BenchmarkGaussianFitter extends Benchmarker
+{
+  final static int START = 70;
+  final static int END = 131;
+  final static double ALPHA = 0.2;
+  final static int ITERATIONS = 100;
+
+  /**
+   * Create a Gaussian peak on a linear continuum with Poisson like noise.
+   *
+   * @param seed is the seed for the noise.
+   * @param mu is the center of the peak.
+   * @return a new spectrum with 256 channels.
+   */
+  static double[] newSpectrum(long seed, double mu)
+  {
+    Random random = new Random(seed);
+    double[] out = new double[256];
+    for (int i = 0; i < out.length; ++i)
+    {
+      double mean = 50 - 30 * i / 255.0 + 400 * Math.exp(-0.5 * (i - mu) * (i - mu) / 25);
+      out[i] = Math.max(0, Math.rint(mean + Math.sqrt(mean) * random.nextGaussian()));
+    }
+    return out;
+  }
+
+  /**
+   * The matrix based fit used before the workspace.
+   *
+   * @param in is the spectrum to fit.
+   * @param start is the first channel of the region.
+   * @param end is the channel after the region.
+   * @return linear1, linear2, intensity, mu, sigma, and error.
+   * @throws ConvergenceException if the fit fails.
+   */
+  static double[] matrixFit(double[] in, int start, int end, double alpha, int iterations)
+          throws ConvergenceException
+  {
+    double mu;
+    double sigma;
+    double intensity;
+    double linear1;
+    double linear2;
+
+    double mink4 = (1.0 / (end - start) / (end - start));
+    double[][] limits = new double[][]
+    {
+      DoubleArray.newArray(-0.1, 5.0, 0.5, 0),
+      DoubleArray.newArray(-0.1, 5.0, 0.5, 0),
+      DoubleArray.newArray(1e-8, 2.0, 1e-3, 0),
+      DoubleArray.newArray(start - 10, end + 10, (start + end) / 2, 0),
+      DoubleArray.newArray(mink4, 0.1, (4 * mink4 + 0.1) / 5, 0)
+    };
+    int[] violation = new int[5];
+
+    double[] working = DoubleArray.copyOf(in);
+    double norm = Math.sqrt(DoubleArray.sumSqrRange(working, start, end));
+    DoubleArray.divideAssignRange(working, start, end, norm);
+
+    {
+      LinearRegression lr = new LinearRegression();
+      for (int i = start; i < end; ++i)
+        lr.add(i, working[i]);
+      LinearFunction pf = lr.compute();
+      for (int j = 0; j < 3; ++j)
+      {
+        lr.clear();
+        for (int i = start; i < end; ++i)
+        {
+          lr.add(i, working[i],
+                  SpecialFunctions.logistic(pf.applyAsDouble(i), working[i], 100));
+        }
+        pf = lr.compute();
+      }
+
+      double s0 = 0;
+      double s1 = 0;
+      double s2 = 0;
+      intensity = 0;
+      for (int i = start; i < end; ++i)
+      {
+        double d = working[i] - pf.applyAsDouble(i);
+        if (d > intensity)
+          intensity = d;
+        if (d > 0)
+        {
+          s0 += d;
+          s1 += d * i;
+          s2 += d * i * i;
+        }
+      }
+      linear1 = pf.applyAsDouble(start);
+      linear2 = pf.applyAsDouble(end - 1);
+      mu = s1 / s0;
+      sigma = Math.sqrt(s2 / s0 - mu * mu) / 2;
+    }
+
+    double k[] = new double[]
+    {
+      linear1, linear2, intensity, mu, 0.5 / sigma / sigma
+    };
+
+    for (int i = 0; i < 5; i++)
+    {
+      if (k[i] < limits[i][0])
+        k[i] = limits[i][0];
+      if (k[i] > limits[i][1])
+        k[i] = limits[i][1];
+    }
+
+    Matrix q1 = new MatrixColumnArray(5, 1);
+    Matrix q2 = new MatrixColumnArray(5, 5);
+
+    double dk;
+    double err = 0;
+    double previousErr = Double.MAX_VALUE;
+    for (int i1 = 0; i1 < iterations; ++i1)
+    {
+      MatrixOps.fill(q1, 0);
+      MatrixOps.fill(q2, 0);
+
+      err = 0;
+      for (int i2 = start; i2 < end; ++i2)
+      {
+        double g = Math.exp(-k[4] * (i2 - k[3]) * (i2 - k[3]));
+        double h = (i2 - start) / (end - 1.0 - start);
+        double f = ((k[0] * (1 - h) + k[1] * h + k[2] * g) - working[i2]);
+        err += f * f;
+
+        Matrix df = MatrixFactory.wrapColumnVector(new double[]
+        {
+          (1 - h),
+          h,
+          g,
+          2 * g * k[2] * k[4] * (i2 - k[3]),
+          -g * k[2] * (i2 - k[3]) * (i2 - k[3])
+        });
+        MatrixOps.addAssignScaled(q1, df, f);
+        MatrixOps.addAssign(q2, MatrixOps.multiplyVectorOuter(df, df));
+      }
+
+      if (err < previousErr && previousErr - err < 1e-5 * err)
+        break;
+      previousErr = err;
+
+      for (int i = 0; i < 5; ++i)
+      {
+        double lambda = limits[i][3];
+        q1.set(i, 0, q1.get(i, 0) + lambda * (k[i] - limits[i][2]));
+        q2.set(i, i, q2.get(i, i) + lambda);
+      }
+
+      Matrix v = MatrixViews.diagonal(q2);
+      MatrixOps.addAssignScaled(v, v, 0.01);
+      Matrix update = MatrixOps.divideLeft(q2, q1);
+
+      int count = 0;
+      while (true)
+      {
+        boolean good = true;
+        for (int i = 0; i < 5; i++)
+        {
+          double revised = k[i] - alpha * update.get(i, 0);
+          if (revised >= limits[i][0] && revised < limits[i][1])
+          {
+            violation[i] = 0;
+            continue;
+          }
+
+          double lambda = limits[i][3];
+          if (lambda == 0)
+            lambda = 1e-4;
+          if (violation[i] != 0)
+            lambda *= 4;
+          limits[i][3] = lambda;
+          if (limits[i][3] > 1000)
+            limits[i][3] = 1000;
+
+          good = false;
+          q1.set(i, 0, q1.get(i, 0) + lambda * (revised - limits[i][2]) / alpha);
+          q2.set(i, i, q2.get(i, i) + lambda);
+          violation[i] = 1;
+        }
+        if (good)
+          break;
+        update = MatrixOps.divideLeft(q2, q1);
+        count++;
+        if (count > 40)
+          throw new ConvergenceException("Failed in updating limits");
+      }
+
+      for (int i = 0; i < 5; i++)
+        violation[i] = 0;
+
+      dk = 0;
+      for (int i3 = 0; i3 < 5; ++i3)
+      {
+        double delta = update.get(i3, 0);
+        if (delta != delta)
+          throw new ConvergenceException("NaN in operation");
+        dk += delta * delta;
+        k[i3] -= alpha * delta;
+      }
+      if (dk < 1e-6)
+        break;
+    }
+
+    return new double[]
+    {
+      norm * k[0], norm * k[1], norm * k[2], k[3], Math.sqrt(0.5 / k[4]), err / (end - start)
+    };
+  }
+
+  static double[] toArray(GaussianFitter.GaussianFitterResult result)
+  {
+    return new double[]
+    {
+      result.getLinear1(), result.getLinear2(), result.getPeakIntensity(),
+      result.getPeakLocation(), result.getWidth(), result.getError()
+    };
+  }
+
+  /**
+   * Check that the two implementations agree before timing them.
+   *
+   * The results agree to about 1e-15 relative.
+   */
+  static void verify(double[][] spectra) throws ConvergenceException
+  {
+    GaussianFitter.Workspace workspace = new GaussianFitter.Workspace();
+    double worst = 0;
+    for (double[] spectrum : spectra)
+    {
+      double[] expected = matrixFit(spectrum, START, END, ALPHA, ITERATIONS);
+      workspace.fit(spectrum, 0, START, END, false, ALPHA, ITERATIONS);
+      double[] actual = toArray(workspace.toResult(spectrum));
+      for (int i = 0; i < expected.length; ++i)
+        worst = Math.max(worst, Math.abs(actual[i] - expected[i]) / Math.abs(expected[i]));
+    }
+    if (worst > 1e-12)
+      throw new AssertionError(String.format("fits differ by %.3g relative", worst));
+  }
+
+  BenchmarkGaussianFitter() throws ConvergenceException
+  {
+    // A peak drifting by a fraction of a channel between samples
+    double[][] spectra = new double[64][];
+    for (int i = 0; i < spectra.length; ++i)
+      spectra[i] = newSpectrum(i, 100 + 0.05 * i);
+    verify(spectra);
+
+    this.addTask("matrix fit", (passes) ->
+    {
+      try
+      {
+        for (int i = 0; i < passes; ++i)
+          matrixFit(spectra[i % spectra.length], START, END, ALPHA, ITERATIONS);
+      }
+      catch (ConvergenceException ex)
+      {
+        throw new RuntimeException(ex);
+      }
+    });
+    this.addTask("workspace fit", (passes) ->
+    {
+      try
+      {
+        GaussianFitter.Workspace workspace = new GaussianFitter.Workspace();
+        for (int i = 0; i < passes; ++i)
+          workspace.fit(spectra[i % spectra.length], 0, START, END, false, ALPHA, ITERATIONS);
+      }
+      catch (ConvergenceException ex)
+      {
+        throw new RuntimeException(ex);
+      }
+    });
+    this.addTask("workspace warm fit", (passes) ->
+    {
+      try
+      {
+        GaussianFitter.Workspace workspace = new GaussianFitter.Workspace();
+        for (int i = 0; i < passes; ++i)
+          workspace.fit(spectra[i % spectra.length], 0, START, END, true, ALPHA, ITERATIONS);
+      }
+      catch (ConvergenceException ex)
+      {
+        throw new RuntimeException(ex);
+      }
+    });
+  }
+
+  static public void main(String[] args) throws ConvergenceException
+  {
+    new BenchmarkGaussianFitter().test();
+  }
+}
@@ -29,7 +29,8 @@ public class PeakTrackerReader extends PolymorphicReader<PeakTracker>
   public ObjectReader<? extends PeakTracker>[] getReaders() throws ReaderException
   {
     return group(new ExternalPeakTrackerReader(),
-            new PredictivePeakTrackerReader()
+            new PredictivePeakTrackerReader(),
+            new StreamingPeakTrackerReader()
     );
   }
 }
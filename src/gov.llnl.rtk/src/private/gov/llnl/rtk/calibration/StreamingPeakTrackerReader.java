@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.calibration;
+
+import gov.llnl.rtk.RtkPackage;
+import gov.llnl.utility.io.ReaderException;
+import gov.llnl.utility.xml.bind.ObjectReader;
+import gov.llnl.utility.xml.bind.Reader;
+import gov.llnl.utility.xml.bind.ReaderContext;
+import org.xml.sax.Attributes;
+
+/**
+ * Reader for StreamingPeakTracker.
+ */
+@Reader.Declaration(pkg = RtkPackage.class, name = "streamingPeakTracker",
+        cls = StreamingPeakTracker.class,
+        referenceable = true, order = Reader.Order.ALL, document = true)
+public class StreamingPeakTrackerReader extends ObjectReader<StreamingPeakTracker>
+{
+
+  @Override
+  public StreamingPeakTracker start(ReaderContext context, Attributes attributes) throws ReaderException
+  {
+    return new StreamingPeakTracker();
+  }
+
+  @Override
+  public ElementHandlerMap getHandlers(ReaderContext context) throws ReaderException
+  {
+    ReaderBuilder<StreamingPeakTracker> builder = this.newBuilder();
+
+    builder.element("decimation")
+            .callInteger(StreamingPeakTracker::setDecimation);
+    builder.element("meanTimeConstant")
+            .callDouble(StreamingPeakTracker::setMeanTimeConstant);
+    builder.element("biasTimeConstant")
+            .callDouble(StreamingPeakTracker::setBiasTimeConstant);
+    builder.element("spectralTimeConstant1")
+            .callDouble(StreamingPeakTracker::setSpectralTimeConstant1);
+    builder.element("spectralTimeConstant2")
+            .callDouble(StreamingPeakTracker::setSpectralTimeConstant2);
+    builder.element("windowMargin")
+            .callDouble(StreamingPeakTracker::setWindowMargin)
+            .optional();
+    builder.element("peakFitter")
+            .reader(new PeakFitterReader())
+            .call(StreamingPeakTracker::setFitter);
+    builder.element("peakFinder")
+            .reader(new PeakFinderReader())
+            .call(StreamingPeakTracker::setFinder)
+            .optional();
+    builder.element("peakTester")
+            .reader(new PeakTesterReader())
+            .call(StreamingPeakTracker::setTester)
+            .optional();
+    return builder.getHandlers();
+  }
+
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import gov.llnl.rtk.RtkPackage;
+import gov.llnl.utility.xml.bind.Reader;
+
+/**
+ * Reader for CompactIntegerSpectrum.
+ */
+@Reader.Declaration(pkg = RtkPackage.class, name = "compactIntegerSpectrum",
+        cls = CompactIntegerSpectrum.class,
+        order = Reader.Order.FREE,
+        referenceable = true)
+public class CompactIntegerSpectrumReader extends SpectrumReader<CompactIntegerSpectrum>
+{
+  public CompactIntegerSpectrumReader()
+  {
+    super(CompactIntegerSpectrum.class);
+  }
+
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+/**
+ * Writer for CompactIntegerSpectrum.
+ */
+public class CompactIntegerSpectrumWriter extends SpectrumWriter<CompactIntegerSpectrum>
+{
+  public CompactIntegerSpectrumWriter()
+  {
+    super("compactIntegerSpectrum");
+  }
+
+}
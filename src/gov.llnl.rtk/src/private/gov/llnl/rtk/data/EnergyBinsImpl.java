@@ -21,6 +21,7 @@ public class EnergyBinsImpl extends ExpandableObject implements EnergyScale
 {
   private static final long serialVersionUID = UUIDUtilities.createLong("EnergyBins-v2");
   double[] values;
+  transient EnergyScaleLookup lookup;
 
   public EnergyBinsImpl()
   {
@@ -103,6 +104,9 @@ public class EnergyBinsImpl extends ExpandableObject implements EnergyScale
   @Override
   public int findEdgeFloor(double energy)
   {
+    EnergyScaleLookup l = getLookup();
+    if (l != null)
+      return l.floor(energy);
     if (energy < values[0])
       return -1;
     int index = Arrays.binarySearch(values, energy);
@@ -114,6 +118,9 @@ public class EnergyBinsImpl extends ExpandableObject implements EnergyScale
   @Override
   public int findEdgeCeiling(double energy)
   {
+    EnergyScaleLookup l = getLookup();
+    if (l != null)
+      return l.ceiling(energy);
     if (energy < values[0])
       return 0;
     int index = Arrays.binarySearch(values, energy);
@@ -125,6 +132,9 @@ public class EnergyBinsImpl extends ExpandableObject implements EnergyScale
   @Override
   public double findBin(double energy)
   {
+    EnergyScaleLookup l = getLookup();
+    if (l != null)
+      return l.bin(energy);
     int lower = findEdgeFloor(energy);
     if (lower < 0)
       return -0.5;
@@ -137,6 +147,18 @@ public class EnergyBinsImpl extends ExpandableObject implements EnergyScale
     return lower + fraction;
   }
 
+  @Override
+  public void convertEnergyToEdge(double[] energies, double[] out)
+  {
+    EnergyScaleLookup l = getLookup();
+    if (l == null)
+    {
+      EnergyScale.super.convertEnergyToEdge(energies, out);
+      return;
+    }
+    l.bins(energies, out);
+  }
+
 //</editor-fold>
   @Override
   public double getEnergyOfEdge(double edge)
@@ -160,4 +182,17 @@ public class EnergyBinsImpl extends ExpandableObject implements EnergyScale
     double f = edge - lower;
     return (1 - f) * E0 + f * E1;
   }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private EnergyScaleLookup getLookup()
+  {
+    EnergyScaleLookup l = this.lookup;
+    if (l == null || !l.isFor(values))
+    {
+      l = EnergyScaleLookup.of(values);
+      this.lookup = l;
+    }
+    return l;
+  }
+//</editor-fold>
 }
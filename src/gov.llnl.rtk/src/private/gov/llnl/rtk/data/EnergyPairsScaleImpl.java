@@ -36,6 +36,7 @@ final public class EnergyPairsScaleImpl
   transient private CubicHermiteSpline forward = null;
   transient private CubicHermiteSpline inverse = null;
   transient private double[] values;
+  transient private EnergyScaleLookup lookup;
 
   public EnergyPairsScaleImpl()
   {
@@ -104,7 +105,9 @@ final public class EnergyPairsScaleImpl
   @Override
   public int findEdgeFloor(double energy)
   {
-    getEdges();
+    EnergyScaleLookup l = getLookup();
+    if (l != null)
+      return l.floor(energy);
     if (energy < values[0])
       return -1;
     int index = Arrays.binarySearch(values, energy);
@@ -116,7 +119,9 @@ final public class EnergyPairsScaleImpl
   @Override
   public int findEdgeCeiling(double energy)
   {
-    getEdges();
+    EnergyScaleLookup l = getLookup();
+    if (l != null)
+      return l.ceiling(energy);
     if (energy < values[0])
       return 0;
     int index = Arrays.binarySearch(values, energy);
@@ -134,6 +139,7 @@ final public class EnergyPairsScaleImpl
     forward = null;
     inverse = null;
     values = null;
+    lookup = null;
   }
 
   @Override
@@ -179,10 +185,15 @@ final public class EnergyPairsScaleImpl
     // Thus we need to find an initial guess and then refine it through iteration.
     double eps = 1e-9;
     Spline cs = getForwardModel();
-    Spline cs2 = getInverseModel();
 
-    // Use the inverse model to guess the answer
-    double edge = cs2.applyAsDouble(energy);
+    // Within the scale the edges give a close guess, otherwise use the
+    // inverse model to guess the answer
+    double[] edges = getEdges();
+    double edge;
+    if (energy >= edges[0] && energy < edges[edges.length - 1])
+      edge = getLookup().bin(energy);
+    else
+      edge = getInverseModel().applyAsDouble(energy);
 
     // Iterate on to refine the solution.
     for (int i = 0; i < 10; i++)
@@ -202,11 +213,17 @@ final public class EnergyPairsScaleImpl
   public double[] convertEnergyToEdge(double[] energies) throws MathExceptions.DomainException
   {
     double[] out = new double[energies.length];
+    convertEnergyToEdge(energies, out);
+    return out;
+  }
+
+  @Override
+  public void convertEnergyToEdge(double[] energies, double[] out)
+  {
     for (int i = 0; i < energies.length; ++i)
     {
       out[i] = this.convertEnergyToEdge(energies[i]);
     }
-    return out;
   }
 
   @Override
@@ -219,5 +236,19 @@ final public class EnergyPairsScaleImpl
   public double getEnergyOfEdge(double edge)
   {
     return getForwardModel().applyAsDouble(edge);
-  }  
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private EnergyScaleLookup getLookup()
+  {
+    double[] edges = getEdges();
+    EnergyScaleLookup l = this.lookup;
+    if (l == null || !l.isFor(edges))
+    {
+      l = EnergyScaleLookup.of(edges);
+      this.lookup = l;
+    }
+    return l;
+  }
+//</editor-fold>
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import java.util.Arrays;
+
+/**
+ * Fast search of the edges of an energy scale.
+ *
+ * Most scales are linear or quadratic in the channel (the sqrt scale is
+ * quadratic), so the channel can be computed directly by inverting the
+ * polynomial. Other scales use a guide table which divides the energy range
+ * into equal intervals holding the first edge of each interval.
+ *
+ * The estimate is always corrected against the edges, so the results are the
+ * same as a binary search even if the edges were altered after the lookup was
+ * built. Only the speed depends on the estimate.
+ */
+final class EnergyScaleLookup
+{
+  final double[] edges;
+  private final int last;
+  // Polynomial model E = a + b*i + c*i^2
+  private final boolean polynomial;
+  private final double a;
+  private final double b;
+  private final double c;
+  // Guide table
+  private final int[] guide;
+  private final double guideScale;
+
+  private EnergyScaleLookup(double[] edges)
+  {
+    this.edges = edges;
+    this.last = edges.length - 1;
+    int n = last;
+    double e0 = edges[0];
+    double en = edges[n];
+
+    // Fit a quadratic through the ends and middle
+    int m = n / 2;
+    double pa = e0;
+    double pc = 0;
+    double pb = (en - e0) / n;
+    if (m > 0 && m < n)
+    {
+      double s1 = (edges[m] - e0) / m;
+      double s2 = (en - e0) / n;
+      pc = (s2 - s1) / (n - m);
+      pb = s1 - pc * m;
+    }
+    this.a = pa;
+    this.b = pb;
+    this.c = pc;
+    this.polynomial = verify();
+
+    if (polynomial || !(en > e0))
+    {
+      this.guide = null;
+      this.guideScale = 0;
+      return;
+    }
+
+    // Each guide entry holds the floor of the start of its interval
+    int[] g = new int[n + 1];
+    double scale = n / (en - e0);
+    int j = 0;
+    for (int k = 0; k <= n; ++k)
+    {
+      double energy = e0 + k / scale;
+      while (j < n && edges[j + 1] <= energy)
+        j++;
+      g[k] = j;
+    }
+    this.guide = g;
+    this.guideScale = scale;
+  }
+
+  /**
+   * Create a lookup for a set of edges.
+   *
+   * @param edges must be increasing.
+   * @return the lookup or null if there are too few edges.
+   */
+  static EnergyScaleLookup of(double[] edges)
+  {
+    if (edges == null || edges.length < 2)
+      return null;
+    return new EnergyScaleLookup(edges);
+  }
+
+  /**
+   * Check if this lookup was built for the current edges.
+   *
+   * @param edges
+   * @return true if the lookup can be used.
+   */
+  boolean isFor(double[] edges)
+  {
+    return this.edges == edges;
+  }
+
+  /**
+   * Equivalent to findEdgeFloor using a binary search.
+   *
+   * @param energy
+   * @return the last edge at or below the energy, or -1 if below the first
+   * edge.
+   */
+  int floor(double energy)
+  {
+    if (energy < edges[0])
+      return -1;
+    if (Double.isNaN(energy))
+      return last;
+    int i = estimate(energy);
+    while (i < last && edges[i + 1] <= energy)
+      i++;
+    while (i > 0 && edges[i] > energy)
+      i--;
+    return i;
+  }
+
+  /**
+   * Equivalent to findEdgeCeiling using a binary search.
+   *
+   * @param energy
+   * @return the first edge at or above the energy.
+   */
+  int ceiling(double energy)
+  {
+    if (energy < edges[0])
+      return 0;
+    int i = floor(energy);
+    if (edges[i] == energy)
+      return i;
+    return i + 1;
+  }
+
+  /**
+   * Equivalent to EnergyBinsImpl.findBin.
+   *
+   * @param energy
+   * @return the fractional edge with linear interpolation in each channel.
+   */
+  double bin(double energy)
+  {
+    int lower = floor(energy);
+    if (lower < 0)
+      return -0.5;
+    if (lower >= last)
+      return last + 1 + 0.5;
+    double eLower = edges[lower];
+    double eUpper = edges[lower + 1];
+    double fraction = (energy - eLower) / (eUpper - eLower);
+    return lower + fraction;
+  }
+
+  /**
+   * Convert many energies to fractional edges.
+   *
+   * @param energies
+   * @param out must be at least as long as energies.
+   */
+  void bins(double[] energies, double[] out)
+  {
+    for (int i = 0; i < energies.length; ++i)
+      out[i] = bin(energies[i]);
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  /**
+   * Check the polynomial is increasing and predicts every edge to within a
+   * fraction of a channel.
+   */
+  private boolean verify()
+  {
+    int n = last;
+    if (!(b > 0) || !(b + 2 * c * n > 0))
+      return false;
+    for (int i = 0; i < n; ++i)
+    {
+      double width = edges[i + 1] - edges[i];
+      if (!(width > 0))
+        return false;
+      double err = Math.abs(a + i * (b + c * i) - edges[i]);
+      if (!(err < 0.25 * width))
+        return false;
+    }
+    return Math.abs(a + n * (b + c * n) - edges[n]) < 0.25 * (edges[n] - edges[n - 1]);
+  }
+
+  private int estimate(double energy)
+  {
+    double x;
+    if (polynomial)
+    {
+      double d = energy - a;
+      if (c == 0)
+        x = d / b;
+      else
+      {
+        double q = b * b + 4 * c * d;
+        if (q < 0)
+          return last;
+        x = 2 * d / (b + Math.sqrt(q));
+      }
+    }
+    else if (guide != null)
+    {
+      x = (energy - edges[0]) * guideScale;
+      if (!(x < last))
+        return last;
+      // Search within the interval if it holds many edges
+      int k = (int) x;
+      int lo = guide[k];
+      int hi = guide[k + 1];
+      if (hi - lo > 8)
+      {
+        int index = Arrays.binarySearch(edges, lo, hi + 1, energy);
+        return (index < 0) ? Math.max(lo, -index - 2) : index;
+      }
+      return lo;
+    }
+    else
+    {
+      int index = Arrays.binarySearch(edges, energy);
+      return (index < 0) ? Math.max(0, -index - 2) : index;
+    }
+    if (!(x < last))
+      return last;
+    if (x < 0)
+      return 0;
+    return (int) x;
+  }
+//</editor-fold>
+}
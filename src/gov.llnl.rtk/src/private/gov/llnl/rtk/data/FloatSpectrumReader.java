@@ -0,0 +1,26 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import gov.llnl.rtk.RtkPackage;
+import gov.llnl.utility.xml.bind.Reader;
+
+/**
+ * Reader for FloatSpectrum.
+ */
+@Reader.Declaration(pkg = RtkPackage.class, name = "floatSpectrum",
+        cls = FloatSpectrum.class,
+        order = Reader.Order.FREE,
+        referenceable = true)
+public class FloatSpectrumReader extends SpectrumReader<FloatSpectrum>
+{
+  public FloatSpectrumReader()
+  {
+    super(FloatSpectrum.class);
+  }
+
+}
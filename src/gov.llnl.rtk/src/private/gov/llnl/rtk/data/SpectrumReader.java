@@ -71,6 +71,8 @@ public abstract class SpectrumReader<T extends SpectrumBase> extends ObjectReade
         obj.assignData(ArrayEncoding.decodeIntegers(contents));
       else if (cls.equals(double[].class))
         obj.assignData(ArrayEncoding.decodeDoubles(contents));
+      else if (cls.equals(float[].class))
+        obj.assignData(ArrayEncoding.decodeFloats(contents));
       else
         throw new ReaderException("Unable to handle " + cls);
     }
@@ -20,7 +20,12 @@ public class SpectrumWriter<T extends Spectrum> extends ObjectWriter<T>
 {
   public SpectrumWriter()
   {
-    super(Options.NONE, "spectrum", RtkPackage.getInstance());
+    this("spectrum");
+  }
+
+  protected SpectrumWriter(String name)
+  {
+    super(Options.NONE, name, RtkPackage.getInstance());
   }
 
   @Override
@@ -46,7 +51,12 @@ public class SpectrumWriter<T extends Spectrum> extends ObjectWriter<T>
       wb.element("liveTime").putDouble(object.getLiveTime());
     if (object.getEnergyScale() != null)
       wb.element("gammaEnergyBins").writer(new EnergyScaleWriter()).put(object.getEnergyScale());
-    if (object instanceof SpectrumBase)
+    if (object instanceof CompactIntegerSpectrum)
+    {
+      // Compact storage is not exposed so write the expanded counts
+      wb.element("gammaCounts").putContents(((CompactIntegerSpectrum) object).toIntegers());
+    }
+    else if (object instanceof SpectrumBase)
     {
       wb.element("gammaCounts").putContents(((SpectrumBase) object).toArray());
     }
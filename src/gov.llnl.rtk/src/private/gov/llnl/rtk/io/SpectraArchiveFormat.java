@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved.
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.io;
+
+import gov.llnl.utility.annotation.Internal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Layout constants for the spectra archive format.
+ *
+ * The file consists of a header, a sequence of blocks and a footer. Each block
+ * holds a fixed number of rows stored as one chunk per column. Each chunk may
+ * be compressed independently. The footer holds the shared energy scale table
+ * and the offset of every chunk so that any row can be located without
+ * scanning.
+ *
+ * <pre>
+ * header  : MAGIC, int version
+ * block*  : chunk[COLUMNS]
+ * footer  : int type, int channels, int rows, int rowsPerBlock,
+ *           int scales, (int edges, double[edges])*,
+ *           int blocks, (int firstRow, int rows,
+ *                        (int codec, long offset, int stored, int raw)[COLUMNS])*
+ * trailer : long footerOffset, int footerLength, MAGIC
+ * </pre>
+ *
+ * All values are little endian.
+ */
+@Internal
+class SpectraArchiveFormat
+{
+  static final byte[] MAGIC =
+  {
+    'R', 'T', 'K', 'S', 'P', 'A', 'R', 'C'
+  };
+  static final int VERSION = 1;
+  static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+  static final int HEADER_SIZE = MAGIC.length + 4;
+  static final int TRAILER_SIZE = 8 + 4 + MAGIC.length;
+
+  // Storage type for the counts matrix
+  static final int TYPE_INT = 0;
+  static final int TYPE_DOUBLE = 1;
+
+  // Compression of a chunk
+  static final int CODEC_NONE = 0;
+  static final int CODEC_DEFLATE = 1;
+
+  // Columns in each block
+  static final int COUNTS = 0;        // int[channels] or double[channels] per row
+  static final int LIVE_TIME = 1;     // double per row
+  static final int REAL_TIME = 2;     // double per row
+  static final int START_SECONDS = 3; // long per row, Long.MIN_VALUE if not set
+  static final int START_NANOS = 4;   // int per row
+  static final int SCALE = 5;         // int index into scale table, -1 if not set
+  static final int VALID_RANGE = 6;   // int minimum, int maximum per row
+  static final int OUT_OF_RANGE = 7;  // double under, double over per row
+  static final int TITLES = 8;        // int length[rows] (-1 for null), utf-8 bytes
+  static final int ATTRIBUTES = 9;    // int length[rows], serialized attribute maps
+  static final int COLUMNS = 10;
+
+  static final int DEFAULT_ROWS_PER_BLOCK = 1024;
+
+  /**
+   * Index entry for one block of rows.
+   */
+  static class BlockIndex
+  {
+    int firstRow;
+    int rows;
+    final int[] codec = new int[COLUMNS];
+    final long[] offset = new long[COLUMNS];
+    final int[] stored = new int[COLUMNS];
+    final int[] raw = new int[COLUMNS];
+
+    long getStart()
+    {
+      long start = Long.MAX_VALUE;
+      for (int i = 0; i < COLUMNS; ++i)
+        start = Math.min(start, offset[i]);
+      return start;
+    }
+
+    long getEnd()
+    {
+      long end = 0;
+      for (int i = 0; i < COLUMNS; ++i)
+        end = Math.max(end, offset[i] + stored[i]);
+      return end;
+    }
+  }
+
+  static ByteBuffer allocate(int size)
+  {
+    return ByteBuffer.allocate(size).order(ORDER);
+  }
+
+  /**
+   * Compress the contents of a buffer.
+   *
+   * @param raw is the buffer to compress from position to limit.
+   * @return the compressed bytes or null if compression did not reduce the
+   * size.
+   */
+  static byte[] deflate(ByteBuffer raw)
+  {
+    int length = raw.remaining();
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try
+    {
+      deflater.setInput(raw.array(), raw.arrayOffset() + raw.position(), length);
+      deflater.finish();
+      byte[] out = new byte[length];
+      int n = 0;
+      while (!deflater.finished() && n < out.length)
+        n += deflater.deflate(out, n, out.length - n);
+      if (!deflater.finished() || n >= length)
+        return null;
+      byte[] result = new byte[n];
+      System.arraycopy(out, 0, result, 0, n);
+      return result;
+    }
+    finally
+    {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Decompress a chunk into a new heap buffer.
+   *
+   * @param stored is the compressed chunk.
+   * @param raw is the size of the decompressed chunk.
+   * @return a buffer holding the decompressed contents.
+   * @throws DataFormatException if the chunk is corrupt.
+   */
+  static ByteBuffer inflate(ByteBuffer stored, int raw) throws DataFormatException
+  {
+    byte[] in = new byte[stored.remaining()];
+    stored.duplicate().get(in);
+    byte[] out = new byte[raw];
+    Inflater inflater = new Inflater();
+    try
+    {
+      inflater.setInput(in);
+      int n = 0;
+      while (n < raw && !inflater.finished())
+      {
+        int m = inflater.inflate(out, n, raw - n);
+        if (m == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+          break;
+        n += m;
+      }
+      if (n != raw)
+        throw new DataFormatException("Truncated chunk");
+    }
+    finally
+    {
+      inflater.end();
+    }
+    return ByteBuffer.wrap(out).order(ORDER);
+  }
+}
@@ -11,11 +11,10 @@ import gov.llnl.utility.annotation.Internal;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -35,21 +34,31 @@ public class NuclideManagerImpl implements NuclideManager
 {
   HashMap<String, Nuclide> byName = new HashMap<>();
   HashMap<Integer, Nuclide> byId = new HashMap<>();
+  ArrayList<Nuclide> loaded = new ArrayList<>();
+
+  // Atomic number for each symbol indexed by the first letter times 27 plus
+  // the second letter, with 0 if there is no second letter.
+  private final int[] symbols = new int[26 * 27];
+  // Open addressed table from packed (Z, A, M) to the dense index
+  private int[] slotKeys;
+  private int[] slotIndex;
+  private int slotMask;
+  private Nuclide[] nuclides;
+  // Names such as "n1" which the parser does not reach
+  private int[] irregular;
 
   public NuclideManagerImpl()
   {
     load();
+    buildIndex();
   }
 
   @Override
   public ArrayList<String> getNuclideNames()
   {
-    return (ArrayList<String>) byName.keySet();
+    return new ArrayList<>(byName.keySet());
   }
 
-  static final Pattern PATTERN1 = Pattern.compile("([0-9]+)-?([A-z])([A-z]?)([Mm]?[2-9]?)");
-  static final Pattern PATTERN2 = Pattern.compile("([A-z])([A-z]?)-?([0-9]+)([Mm]?[2-9]?)");
-
   @Override
   public Nuclide getByName(String name)
   {
@@ -60,45 +69,65 @@ public class NuclideManagerImpl implements NuclideManager
     if (nuclide != null)
       return nuclide;
 
-    String desc;
-    Matcher matcher = PATTERN1.matcher(name);
-    if (matcher.matches())
-    {
-      desc = String.format("%s%s%s%s",
-              matcher.group(2).toUpperCase(),
-              matcher.group(3).toLowerCase(),
-              matcher.group(1),
-              matcher.group(4).toLowerCase());
-      nuclide = byName.get(desc);
-      if (nuclide != null)
-        return nuclide;
-      if (matcher.group(3).toLowerCase().equals("m"))
-      {
-        desc = String.format("%s%s%s%s",
-                matcher.group(2).toUpperCase(),
-                matcher.group(1),
-                matcher.group(3).toLowerCase(),
-                matcher.group(4).toLowerCase());
-        nuclide = byName.get(desc);
-        if (nuclide != null)
-          return nuclide;
-      }
-    }
+    int index = indexOf(name);
+    if (index < 0)
+      return null;
+    return nuclides[index];
+  }
 
-    matcher = PATTERN2.matcher(name);
-    if (matcher.matches())
+  /**
+   * Get the dense index for a nuclide name.
+   *
+   * This accepts the same spellings as getByName, such as "Cs137", "137Cs",
+   * "Cs-137", "cs137m2" and "99TCM", but does not allocate. Natural elements
+   * do not have an index.
+   *
+   * @param name
+   * @return the index or -1 if the name is not a nuclide in the library.
+   */
+  @Override
+  public int indexOf(CharSequence name)
+  {
+    int n = name.length();
+    if (n == 0)
+      return -1;
+    char c = name.charAt(0);
+    int index;
+    if (c >= '0' && c <= '9')
+      index = indexOfMassFirst(name, n);
+    else
+      index = indexOfSymbolFirst(name, n);
+    if (index >= 0)
+      return index;
+    for (int i : irregular)
     {
-      desc = String.format("%s%s%s%s",
-              matcher.group(1).toUpperCase(),
-              matcher.group(2).toLowerCase(),
-              matcher.group(3),
-              matcher.group(4).toLowerCase());
-      nuclide = byName.get(desc);
-      if (nuclide != null)
-        return nuclide;
+      if (nuclides[i].getName().contentEquals(name))
+        return i;
     }
+    return -1;
+  }
+
+  @Override
+  public int indexOf(Nuclide nuclide)
+  {
+    if (nuclide == null)
+      return -1;
+    int id = nuclide.getId();
+    if (id <= 0)
+      return -1;
+    return lookup(id / 10000, (id / 10) % 1000, id % 10);
+  }
+
+  @Override
+  public Nuclide getByIndex(int index)
+  {
+    return nuclides[index];
+  }
 
-    return nuclide;
+  @Override
+  public int getNuclideCount()
+  {
+    return nuclides.length;
   }
 
   @Override
@@ -178,6 +207,7 @@ public class NuclideManagerImpl implements NuclideManager
 
         manager.byName.put(nuclide.getName(), nuclide);
         manager.byId.put(nuclide.id, nuclide);
+        manager.loaded.add(nuclide);
 
       }
     }
@@ -218,6 +248,196 @@ public class NuclideManagerImpl implements NuclideManager
     }
   }
 
+//<editor-fold desc="index" defaultstate="collapsed">
+  /**
+   * Build the symbol table and the index from the loaded nuclides.
+   */
+  private void buildIndex()
+  {
+    nuclides = loaded.toArray(new Nuclide[loaded.size()]);
+    loaded = null;
+    int size = Integer.highestOneBit(Math.max(nuclides.length, 1) * 2) * 2;
+    slotKeys = new int[size];
+    slotIndex = new int[size];
+    slotMask = size - 1;
+    for (int i = 0; i < nuclides.length; ++i)
+    {
+      Nuclide nuclide = nuclides[i];
+      int id = nuclide.getId();
+      int slot = slot(key(id / 10000, (id / 10) % 1000, id % 10));
+      if (slotKeys[slot] == 0)
+      {
+        slotKeys[slot] = key(id / 10000, (id / 10) % 1000, id % 10);
+        slotIndex[slot] = i;
+      }
+
+      // Symbols are taken from the leading letters of the names
+      String name = nuclide.getName();
+      char c1 = name.charAt(0);
+      if (c1 < 'A' || c1 > 'Z')
+        continue;
+      char c2 = name.length() > 1 ? name.charAt(1) : 0;
+      int s = (c1 - 'A') * 27;
+      if (c2 >= 'a' && c2 <= 'z')
+        s += c2 - 'a' + 1;
+      symbols[s] = nuclide.getAtomicNumber();
+    }
+
+    irregular = new int[0];
+    int[] out = new int[nuclides.length];
+    int count = 0;
+    for (int i = 0; i < nuclides.length; ++i)
+    {
+      if (indexOf(nuclides[i].getName()) != i)
+        out[count++] = i;
+    }
+    irregular = Arrays.copyOf(out, count);
+  }
+
+  /**
+   * Parse names of the form "Cs137", "Cs-137" and "CS137M2".
+   */
+  private int indexOfSymbolFirst(CharSequence name, int n)
+  {
+    int i = 0;
+    int c1 = letter(name.charAt(i++));
+    if (c1 < 0)
+      return -1;
+    int c2 = 0;
+    if (i < n && letter(name.charAt(i)) >= 0)
+      c2 = letter(name.charAt(i++)) + 1;
+    if (i < n && name.charAt(i) == '-')
+      i++;
+    int start = i;
+    int mass = 0;
+    for (; i < n && isDigit(name.charAt(i)); ++i)
+      mass = digits(mass, name.charAt(i));
+    if (i == start || name.charAt(start) == '0')
+      return -1;
+    return findWithSuffix(symbols[c1 * 27 + c2], mass, name, i, n);
+  }
+
+  /**
+   * Parse names of the form "137Cs", "137-Cs", "99TCM" and "99TM".
+   */
+  private int indexOfMassFirst(CharSequence name, int n)
+  {
+    int i = 0;
+    int mass = 0;
+    for (; i < n && isDigit(name.charAt(i)); ++i)
+      mass = digits(mass, name.charAt(i));
+    if (name.charAt(0) == '0')
+      return -1;
+    if (i < n && name.charAt(i) == '-')
+      i++;
+    if (i == n)
+      return -1;
+    int c1 = letter(name.charAt(i++));
+    if (c1 < 0)
+      return -1;
+    if (i == n || letter(name.charAt(i)) < 0)
+      return findWithSuffix(symbols[c1 * 27], mass, name, i, n);
+
+    char second = name.charAt(i++);
+    int index = findWithSuffix(symbols[c1 * 27 + letter(second) + 1], mass, name, i, n);
+    if (index >= 0 || (second != 'm' && second != 'M'))
+      return index;
+
+    // The second letter may be the isomer marker as in "99TM"
+    if (i == n)
+      return find(symbols[c1 * 27], mass, 1);
+    if (i + 1 == n && isIsomerDigit(name.charAt(i)))
+      return find(symbols[c1 * 27], mass, name.charAt(i) - '0');
+    return -1;
+  }
+
+  /**
+   * Parse the optional isomer suffix "m", "m2" or "2" and find the nuclide.
+   */
+  private int findWithSuffix(int z, int mass, CharSequence name, int i, int n)
+  {
+    int isomer = 0;
+    if (i < n && (name.charAt(i) == 'm' || name.charAt(i) == 'M'))
+    {
+      isomer = 1;
+      i++;
+    }
+    if (i < n && isIsomerDigit(name.charAt(i)))
+    {
+      // Without the marker the digit is part of the mass
+      if (isomer == 0)
+        mass = digits(mass, name.charAt(i));
+      else
+        isomer = name.charAt(i) - '0';
+      i++;
+    }
+    if (i != n)
+      return -1;
+    return find(z, mass, isomer);
+  }
+
+  private int find(int z, int mass, int isomer)
+  {
+    // Unknown symbols have no atomic number
+    if (z <= 0)
+      return -1;
+    return lookup(z, mass, isomer);
+  }
+
+  private int lookup(int z, int mass, int isomer)
+  {
+    if (mass <= 0 || mass > 999)
+      return -1;
+    int key = key(z, mass, isomer);
+    int slot = slot(key);
+    if (slotKeys[slot] != key)
+      return -1;
+    return slotIndex[slot];
+  }
+
+  /**
+   * Find the slot holding a key or the empty slot where it belongs.
+   */
+  private int slot(int key)
+  {
+    int slot = (key * 0x9E3779B9) >>> 7 & slotMask;
+    while (slotKeys[slot] != 0 && slotKeys[slot] != key)
+      slot = (slot + 1) & slotMask;
+    return slot;
+  }
+
+  private static int key(int z, int mass, int isomer)
+  {
+    // Offset so that a key is never 0 which marks an empty slot
+    return ((z + 1) << 14) | (mass << 4) | isomer;
+  }
+
+  private static int digits(int value, char c)
+  {
+    // Saturate so that long strings of digits cannot wrap
+    return Math.min(value * 10 + (c - '0'), 10000);
+  }
+
+  private static boolean isDigit(char c)
+  {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isIsomerDigit(char c)
+  {
+    return c >= '2' && c <= '9';
+  }
+
+  private static int letter(char c)
+  {
+    if (c >= 'A' && c <= 'Z')
+      return c - 'A';
+    if (c >= 'a' && c <= 'z')
+      return c - 'a';
+    return -1;
+  }
+//</editor-fold>
+
   public static void main(String[] args)
   {
     Nuclide nuclide = Nuclides.get("Tc99m");
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.quality;
+
+import gov.llnl.rtk.data.GammaMeasurement;
+import gov.llnl.utility.annotation.Internal;
+
+/**
+ * Quality check that can be evaluated from a shared channel summary.
+ *
+ * The QualityControlEngine scans each spectrum once and passes the summary to
+ * every channel check rather than having each check scan the spectrum.
+ */
+@Internal
+interface ChannelCheck extends QualityCheck<GammaMeasurement>
+{
+  /**
+   * Register the quantities required by this check.
+   *
+   * @param summary
+   */
+  default void prepare(ChannelSummary summary)
+  {
+  }
+
+  /**
+   * Execute the check using a summary of the spectrum.
+   *
+   * @param faultSet
+   * @param measurement
+   * @param summary has been computed for the sample of the measurement.
+   * @return false if the check fails and should not proceed.
+   */
+  boolean evaluate(FaultSet faultSet, GammaMeasurement measurement, ChannelSummary summary);
+
+  @Override
+  default boolean execute(FaultSet faultSet, GammaMeasurement measurement)
+  {
+    ChannelSummary summary = new ChannelSummary();
+    prepare(summary);
+    summary.compute(measurement.getSample());
+    return evaluate(faultSet, measurement, summary);
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.quality;
+
+import gov.llnl.rtk.data.ChannelView;
+import gov.llnl.rtk.data.Spectrum;
+import gov.llnl.rtk.data.SpectrumOps;
+import gov.llnl.utility.annotation.Internal;
+import java.util.Arrays;
+
+/**
+ * Quantities computed in a single pass over the channels of a spectrum.
+ *
+ * Checks that operate on the channel data register the partial sums they need
+ * with {@link #addThreshold(int)} and then read the results after
+ * {@link #compute(Spectrum)}. The summary is reused between measurements so
+ * that quality control does not allocate for each spectrum.
+ */
+@Internal
+class ChannelSummary
+{
+  private int[] thresholds = new int[0];
+  private double[] below = new double[0];
+  private double counts;
+  private double maximum;
+  private double minimum;
+  private double[] scratch;
+
+  /**
+   * Request the sum of the channels below a channel.
+   *
+   * @param channel is the first channel excluded from the sum.
+   */
+  void addThreshold(int channel)
+  {
+    int i = Arrays.binarySearch(thresholds, channel);
+    if (i >= 0)
+      return;
+    i = -i - 1;
+    int[] t = new int[thresholds.length + 1];
+    System.arraycopy(thresholds, 0, t, 0, i);
+    t[i] = channel;
+    System.arraycopy(thresholds, i, t, i + 1, thresholds.length - i);
+    thresholds = t;
+    below = new double[t.length];
+  }
+
+  /**
+   * Scan the channels of a spectrum.
+   *
+   * @param spectrum
+   */
+  void compute(Spectrum spectrum)
+  {
+    Object data = SpectrumOps.getStorage(spectrum);
+    int lower = spectrum.getMinimumValidChannel();
+    int upper = spectrum.getMaximumValidChannel();
+    if (data instanceof int[])
+      compute((int[]) data, lower, upper);
+    else if (data instanceof double[])
+      compute((double[]) data, ((double[]) data).length, lower, upper);
+    else
+    {
+      // Read other storage through the view into a reused buffer
+      ChannelView view = spectrum.getChannelView();
+      scratch = view.copyTo(scratch);
+      compute(scratch, view.size(), lower, upper);
+    }
+  }
+
+  /**
+   * Get the total counts in the valid region.
+   *
+   * @return the counts.
+   */
+  double getCounts()
+  {
+    return counts;
+  }
+
+  /**
+   * Get the largest value of any channel.
+   *
+   * @return the maximum or negative infinity if there are no channels.
+   */
+  double getMaximum()
+  {
+    return maximum;
+  }
+
+  /**
+   * Get the smallest value of any channel.
+   *
+   * @return the minimum or positive infinity if there are no channels.
+   */
+  double getMinimum()
+  {
+    return minimum;
+  }
+
+  /**
+   * Get the sum of the channels below a threshold.
+   *
+   * @param channel must have been registered with addThreshold.
+   * @return the sum of channels from 0 up to but not including the channel.
+   */
+  double getCountsBelow(int channel)
+  {
+    int i = Arrays.binarySearch(thresholds, channel);
+    if (i < 0)
+      throw new IllegalStateException("Threshold not requested " + channel);
+    return below[i];
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private void compute(int[] data, int lower, int upper)
+  {
+    int n = data.length;
+    long running = 0;
+    long total = 0;
+    int max = Integer.MIN_VALUE;
+    int min = Integer.MAX_VALUE;
+    int t = 0;
+    int i = 0;
+    while (true)
+    {
+      // Record the partial sums that end at this channel
+      while (t < thresholds.length && thresholds[t] <= i)
+        below[t++] = running;
+      if (i >= n)
+        break;
+
+      // Accumulate up to the next channel of interest
+      int end = next(i, t, lower, upper, n);
+      boolean valid = i >= lower && i < upper;
+      for (; i < end; ++i)
+      {
+        int v = data[i];
+        running += v;
+        if (valid)
+          total += v;
+        if (v > max)
+          max = v;
+        if (v < min)
+          min = v;
+      }
+    }
+    finish(t, running);
+    this.counts = total;
+    this.maximum = (n > 0) ? max : Double.NEGATIVE_INFINITY;
+    this.minimum = (n > 0) ? min : Double.POSITIVE_INFINITY;
+  }
+
+  private void compute(double[] data, int n, int lower, int upper)
+  {
+    double running = 0;
+    double total = 0;
+    double max = Double.NEGATIVE_INFINITY;
+    double min = Double.POSITIVE_INFINITY;
+    int t = 0;
+    int i = 0;
+    while (true)
+    {
+      while (t < thresholds.length && thresholds[t] <= i)
+        below[t++] = running;
+      if (i >= n)
+        break;
+
+      int end = next(i, t, lower, upper, n);
+      boolean valid = i >= lower && i < upper;
+      for (; i < end; ++i)
+      {
+        double v = data[i];
+        running += v;
+        if (valid)
+          total += v;
+        if (v > max)
+          max = v;
+        if (v < min)
+          min = v;
+      }
+    }
+    finish(t, running);
+    this.counts = total;
+    this.maximum = max;
+    this.minimum = min;
+  }
+
+  /**
+   * Find the next channel at which a partial sum is required.
+   */
+  private int next(int i, int t, int lower, int upper, int n)
+  {
+    int end = n;
+    if (t < thresholds.length && thresholds[t] < end)
+      end = thresholds[t];
+    if (lower > i && lower < end)
+      end = lower;
+    if (upper > i && upper < end)
+      end = upper;
+    return end;
+  }
+
+  /**
+   * Complete the partial sums for thresholds beyond the end of the data.
+   */
+  private void finish(int t, double running)
+  {
+    while (t < thresholds.length)
+      below[t++] = running;
+  }
+//</editor-fold>
+}
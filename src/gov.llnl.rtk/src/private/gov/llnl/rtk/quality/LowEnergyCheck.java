@@ -6,15 +6,12 @@
  */
 package gov.llnl.rtk.quality;
 
-import gov.llnl.math.IntegerArray;
 import gov.llnl.rtk.RtkPackage;
 import gov.llnl.rtk.data.GammaMeasurement;
-import gov.llnl.rtk.data.IntegerSpectrum;
 import gov.llnl.rtk.impl.FaultImpl;
 import gov.llnl.rtk.quality.FaultCategory;
 import gov.llnl.rtk.quality.FaultLevel;
 import gov.llnl.rtk.quality.FaultSet;
-import gov.llnl.rtk.quality.QualityCheck;
 import gov.llnl.utility.annotation.Internal;
 import gov.llnl.utility.xml.bind.Reader;
 
@@ -25,18 +22,23 @@ import gov.llnl.utility.xml.bind.Reader;
 @Internal
 @Reader.Declaration(pkg = RtkPackage.class, name = "lowEnergyCheck",
         referenceable=true)
-public class LowEnergyCheck implements QualityCheck<GammaMeasurement>
+public class LowEnergyCheck implements ChannelCheck
 {
   private double fractionBelowLLD;
   private int lldChannel;
 
   @Override
-  public boolean execute(FaultSet faultSet, GammaMeasurement measurement)
+  public void prepare(ChannelSummary summary)
   {
-    IntegerSpectrum spectrum = (IntegerSpectrum) measurement.getSample();
-    int totalCounts = (int) spectrum.getCounts();
-    int countsBelowLLD = IntegerArray.sumRange(spectrum.toArray(), 0, lldChannel);
-    double frac = (double) countsBelowLLD / totalCounts;
+    summary.addThreshold(lldChannel);
+  }
+
+  @Override
+  public boolean evaluate(FaultSet faultSet, GammaMeasurement measurement, ChannelSummary summary)
+  {
+    int totalCounts = (int) summary.getCounts();
+    double countsBelowLLD = summary.getCountsBelow(lldChannel);
+    double frac = countsBelowLLD / totalCounts;
     if (frac < fractionBelowLLD)
       return true;
     faultSet.add(new FaultImpl(FaultLevel.ERROR, FaultCategory.LOW_ENERGY_NOISE, "too many counts below lld " + frac, this, true));
@@ -12,7 +12,6 @@ import gov.llnl.rtk.impl.FaultImpl;
 import gov.llnl.rtk.quality.FaultCategory;
 import gov.llnl.rtk.quality.FaultLevel;
 import gov.llnl.rtk.quality.FaultSet;
-import gov.llnl.rtk.quality.QualityCheck;
 import gov.llnl.utility.annotation.Internal;
 import gov.llnl.utility.xml.bind.Reader;
 
@@ -23,17 +22,30 @@ import gov.llnl.utility.xml.bind.Reader;
 @Internal
 @Reader.Declaration(pkg = RtkPackage.class, name = "saturationCheck",
         referenceable = true)
-public class SaturationCheck implements QualityCheck<GammaMeasurement>
+public class SaturationCheck implements ChannelCheck
 {
   double maximumCountRate = Double.MAX_VALUE;
 
   @Override
   public boolean execute(FaultSet fault, GammaMeasurement measurement)
   {
-    if (measurement.getSample().getRate() < maximumCountRate)
+    return check(fault, measurement, measurement.getSample().getRate());
+  }
+
+  @Override
+  public boolean evaluate(FaultSet fault, GammaMeasurement measurement, ChannelSummary summary)
+  {
+    double livetime = measurement.getSample().getLiveTime();
+    double rate = (livetime <= 0) ? 0 : summary.getCounts() / livetime;
+    return check(fault, measurement, rate);
+  }
+
+  private boolean check(FaultSet fault, GammaMeasurement measurement, double rate)
+  {
+    if (rate < maximumCountRate)
       return true;
     fault.add(new FaultImpl(FaultLevel.ERROR, FaultCategory.SATURATION, 
-            "Count Rate in Satuation Region " + measurement.getSample().getRate(), 
+            "Count Rate in Satuation Region " + rate, 
             measurement, true));
     return false;
   }
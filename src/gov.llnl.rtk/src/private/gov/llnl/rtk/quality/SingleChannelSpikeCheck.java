@@ -8,12 +8,10 @@ package gov.llnl.rtk.quality;
 
 import gov.llnl.rtk.RtkPackage;
 import gov.llnl.rtk.data.GammaMeasurement;
-import gov.llnl.rtk.data.Spectrum;
 import gov.llnl.rtk.impl.FaultImpl;
 import gov.llnl.rtk.quality.FaultCategory;
 import gov.llnl.rtk.quality.FaultLevel;
 import gov.llnl.rtk.quality.FaultSet;
-import gov.llnl.rtk.quality.QualityCheck;
 import gov.llnl.utility.annotation.Internal;
 import gov.llnl.utility.xml.bind.Reader;
 
@@ -24,23 +22,21 @@ import gov.llnl.utility.xml.bind.Reader;
 @Internal
 @Reader.Declaration(pkg = RtkPackage.class, name = "singleChannelSpikeCheck",
         referenceable=true)
-public class SingleChannelSpikeCheck implements QualityCheck<GammaMeasurement>
+public class SingleChannelSpikeCheck implements ChannelCheck
 {
   FaultImpl SPIKE_FAULT = new FaultImpl(FaultLevel.ERROR, FaultCategory.INVALID_CHANNEL_COUNT_SPIKE, "Single Channel Spike", this, true);
   double singleChannelFraction = Double.MAX_VALUE;
 
   @Override
-  public boolean execute(FaultSet fault, GammaMeasurement measurement)
+  public boolean evaluate(FaultSet fault, GammaMeasurement measurement, ChannelSummary summary)
   {
-    Spectrum spectrum = measurement.getSample();
-    int counts = (int) spectrum.getCounts();
-    for (double d : spectrum.toDoubles())
+    // The largest ratio of any channel to the total counts
+    int counts = (int) summary.getCounts();
+    double peak = (counts >= 0) ? summary.getMaximum() : summary.getMinimum();
+    if (peak / counts > singleChannelFraction)
     {
-      if (d / counts > singleChannelFraction)
-      {
-        fault.add(SPIKE_FAULT);
-        return false;
-      }
+      fault.add(SPIKE_FAULT);
+      return false;
     }
     return true;
   }
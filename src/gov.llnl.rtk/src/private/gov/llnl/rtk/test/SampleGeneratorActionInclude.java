@@ -38,7 +38,10 @@ import gov.llnl.rtk.data.DoubleSpectrum;
       sample.multiplyAssign(scaling);
       sample.setLiveTime(0);
       sample.setRealTime(0);
-      return accumulator.addAssign(sample);
+      accumulator.addAssign(sample);
+      if (generator.getBufferPool() != null)
+        generator.getBufferPool().release(sample);
+      return accumulator;
     }
     catch (RebinUtilities.RebinException | MathExceptions.SizeException ex)
     {
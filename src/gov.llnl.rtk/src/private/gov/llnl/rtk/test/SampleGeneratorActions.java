@@ -14,6 +14,7 @@ import gov.llnl.rtk.test.SampleGenerator.Action;
 import gov.llnl.rtk.test.SampleGenerator.SampleException;
 import gov.llnl.rtk.data.Spectrum;
 import gov.llnl.rtk.data.SpectrumAttributes;
+import gov.llnl.rtk.data.SpectrumBufferPool;
 import java.util.List;
 import gov.llnl.rtk.model.GammaSensorModel;
 
@@ -47,13 +48,23 @@ import gov.llnl.rtk.model.GammaSensorModel;
         if (sample.getEnergyScale() == null)
           throw new SampleException("Unable to add spectrum without energy scale");
         sample.rebinAssign(generator.getGammaDetectorModel().getEnergyScale());
+        SpectrumBufferPool pool = generator.getBufferPool();
         if (accumulator == null)
         {
           if (sample.getAttribute(SpectrumAttributes.DISTANCE)==null)
             sample.setAttribute(SpectrumAttributes.DISTANCE, 1.0);
-          return new DoubleSpectrum(sample);
+          if (pool == null)
+            return new DoubleSpectrum(sample);
+          accumulator = pool.copyAsDouble(sample);
         }
-        return accumulator.addAssign(sample);
+        else
+        {
+          accumulator.addAssign(sample);
+        }
+        // Only recycles samples that were produced from the pool
+        if (pool != null)
+          pool.release(sample);
+        return accumulator;
       }
       catch (RebinUtilities.RebinException ex)
       {
@@ -102,6 +113,9 @@ import gov.llnl.rtk.model.GammaSensorModel;
     public DoubleSpectrum evaluate(SampleGenerator generator)
             throws SampleGenerator.SampleException
     {
+      SpectrumBufferPool pool = generator.getBufferPool();
+      if (pool != null)
+        return pool.copyAsDouble(sample);
       return new DoubleSpectrum(sample);
     }
   }
@@ -224,6 +238,12 @@ import gov.llnl.rtk.model.GammaSensorModel;
     {
       return proxy.getGammaDetectorModel();
     }
+
+    @Override
+    public SpectrumBufferPool getBufferPool()
+    {
+      return parent.getBufferPool();
+    }
   }
 //</editor-fold>
 }
@@ -12,6 +12,7 @@ import gov.llnl.math.random.RandomGenerator;
 import gov.llnl.rtk.data.DoubleSpectrum;
 import gov.llnl.rtk.data.IntegerSpectrum;
 import gov.llnl.rtk.data.SpectrumAttributes;
+import gov.llnl.rtk.data.SpectrumBufferPool;
 import gov.llnl.rtk.test.SampleGeneratorActions.Add;
 import gov.llnl.rtk.test.SampleGeneratorActions.Deferred;
 import gov.llnl.rtk.test.SampleGeneratorActions.Fixed;
@@ -34,6 +35,7 @@ import java.util.List;
   RandomGenerator randomGenerator = RandomFactory.getDefaultGenerator();
   final List<SampleGenerator.Action> actions = new LinkedList<>();
   boolean poisson = false;
+  SpectrumBufferPool pool = null;
 
   public SampleGeneratorBuilderImpl(GammaSensorModel gammaModel) throws SampleGenerator.SampleException
   {
@@ -209,10 +211,18 @@ import java.util.List;
     return this;
   }
 
+  @Override
+  public SampleGeneratorBuilderImpl bufferPool(SpectrumBufferPool pool)
+  {
+    this.pool = pool;
+    return this;
+  }
+
   @Override
   public SampleGenerator create() throws SampleGenerator.SampleException
   {
     SampleGeneratorImpl sg = new SampleGeneratorImpl(this.gammaModel, this.randomGenerator, this.actions);
+    sg.pool = pool;
     actions.clear();
     sg.setParameter("poisson", poisson);
     poisson = false;
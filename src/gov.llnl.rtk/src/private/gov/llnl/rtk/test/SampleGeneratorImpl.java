@@ -9,6 +9,7 @@ package gov.llnl.rtk.test;
 import gov.llnl.math.random.RandomGenerator;
 import gov.llnl.rtk.data.DoubleSpectrum;
 import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.SpectrumBufferPool;
 import gov.llnl.rtk.model.GammaPileupModel;
 import java.util.ArrayList;
 import java.util.List;
@@ -25,6 +26,7 @@ class SampleGeneratorImpl implements SampleGenerator
   SampleGeneratorActionPoissonDraw draw;
   final ArrayList<SampleGenerator.Action> actions;
   private final GammaSensorModel gammaModel;
+  transient SpectrumBufferPool pool = null;
 
   SampleGeneratorImpl(GammaSensorModel gammaModel, RandomGenerator randomGenerator, List<Action> actions)
           throws SampleException
@@ -44,7 +46,11 @@ class SampleGeneratorImpl implements SampleGenerator
     // Apply any pileup to distort the spectrum here
     // FIXME
     // Convert the sample to an integer spectrum
-    IntegerSpectrum sample = SampleGeneratorUtilities.convert(draw.evaluate(this));
+    IntegerSpectrum sample = SampleGeneratorUtilities.convert(draw.evaluate(this), pool);
+
+    // The accumulator is no longer needed once converted
+    if (pool != null && pool.release(accumulator))
+      accumulator = null;
 
     // Apply the post draw actions to compute the livetime
     if (pm != null)
@@ -111,6 +117,12 @@ class SampleGeneratorImpl implements SampleGenerator
     return actions;
   }
 
+  @Override
+  public SpectrumBufferPool getBufferPool()
+  {
+    return pool;
+  }
+
   @Override
   public RandomGenerator getRandomGenerator()
   {
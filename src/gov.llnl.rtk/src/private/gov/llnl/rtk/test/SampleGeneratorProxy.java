@@ -9,6 +9,7 @@ package gov.llnl.rtk.test;
 import gov.llnl.math.random.RandomGenerator;
 import gov.llnl.rtk.data.DoubleSpectrum;
 import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.SpectrumBufferPool;
 import java.util.List;
 import gov.llnl.rtk.model.GammaSensorModel;
 
@@ -95,4 +96,10 @@ import gov.llnl.rtk.model.GammaSensorModel;
     return parent.getGammaDetectorModel();
   }
 
+  @Override
+  public SpectrumBufferPool getBufferPool()
+  {
+    return parent.getBufferPool();
+  }
+
 }
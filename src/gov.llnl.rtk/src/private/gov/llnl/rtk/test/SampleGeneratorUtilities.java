@@ -8,6 +8,7 @@ package gov.llnl.rtk.test;
 
 import gov.llnl.rtk.data.IntegerSpectrum;
 import gov.llnl.rtk.data.Spectrum;
+import gov.llnl.rtk.data.SpectrumBufferPool;
 
 /**
  *
@@ -18,24 +19,29 @@ class SampleGeneratorUtilities
   // Impl
   static public IntegerSpectrum convert(Spectrum<double[]> sample) throws SampleGenerator.SampleException
   {
-    // Apply the conversion
-    IntegerSpectrum out = new IntegerSpectrum();
-    out.copyAttributes(sample);
-    out.setEnergyScale(sample.getEnergyScale());
-    out.setLiveTime(sample.getLiveTime());
-    out.setRealTime(sample.getRealTime());
-    out.setMinimumValidChannel(sample.getMinimumValidChannel());
-    out.setMaximumValidChannel(sample.getMaximumValidChannel());
+    return convert(sample, null);
+  }
 
+  static public IntegerSpectrum convert(Spectrum<double[]> sample, SpectrumBufferPool pool)
+          throws SampleGenerator.SampleException
+  {
+    // Apply the conversion
     double[] v = sample.toDoubles();
-    out.resize(v.length);
-    int[] w = out.toArray();
+    int[] w = (pool != null) ? pool.takeIntegers(v.length) : new int[v.length];
     for (int i = 0; i < v.length; ++i)
     {
       if ((int) v[i] != v[i])
+      {
+        if (pool != null)
+          pool.release(w);
         throw new SampleGenerator.SampleException("Poisson not called");
+      }
       w[i] = (int) v[i];
     }
+
+    IntegerSpectrum out = new IntegerSpectrum(w, sample.getLiveTime(), sample.getRealTime());
+    out.copyAttributes(sample);
+    out.setEnergyScale(sample.getEnergyScale());
     double u1 = sample.getOverRangeCounts();
     double u2 = sample.getUnderRangeCounts();
     out.setOverRange((int) u1);
@@ -6,14 +6,18 @@
  */
 package gov.llnl.rtk;
 
-import gov.llnl.math.DoubleArray;
 import gov.llnl.math.RebinUtilities;
+import gov.llnl.rtk.data.ChannelView;
 import gov.llnl.rtk.data.EnergyScale;
+import gov.llnl.rtk.data.SpectraList;
 import gov.llnl.rtk.data.Spectrum;
 import gov.llnl.rtk.model.PileupCorrection;
 import gov.llnl.utility.xml.bind.ReaderInfo;
 import gov.llnl.utility.xml.bind.WriterInfo;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  *
@@ -26,6 +30,9 @@ public class SpectrumDoseCalculator implements Serializable
   double[] doseTable;
   EnergyScale energyScale;
   PileupCorrection pileupCorrection = null;
+  // Weights for each input scale keyed by the identity of the edges
+  transient Map<double[], double[]> compiled;
+  transient volatile Compiled lastCompiled;
 
   public double computeDoseRate(Spectrum spectrum)
   {
@@ -38,20 +45,14 @@ public class SpectrumDoseCalculator implements Serializable
     if (this.energyScale == null)
       throw new RuntimeException("Dose calculator bins not set");
 
-    double[] channelData = spectrum.toDoubles();
-    double rate;
-    double[] out;
-    try
-    {
-      // FIXME add corrections for saturation effects
-      out = RebinUtilities.rebin(channelData, energyScale.getEdges(), this.energyScale.getEdges());
-    }
-    catch (RebinUtilities.RebinException ex)
-    {
-      throw new RuntimeException("unable to rebin", ex);
-    }
-
-    rate = DoubleArray.multiplyInner(out, doseTable) / livetime;
+    // FIXME add corrections for saturation effects
+    // The rebin and dose table are folded into one weight per input channel
+    double[] weights = getWeights(energyScale);
+    ChannelView view = spectrum.getChannelView();
+    if (view.size() != weights.length)
+      throw new RuntimeException("unable to rebin",
+              new RebinUtilities.RebinException("Size mismatch " + view.size() + "!=" + weights.length));
+    double rate = view.dot(weights) / livetime;
 
     if (pileupCorrection != null)
       rate = rate * pileupCorrection.compute(spectrum);
@@ -59,16 +60,67 @@ public class SpectrumDoseCalculator implements Serializable
     return rate;
   }
 
+  /**
+   * Compute the dose rate for each spectrum in a list.
+   *
+   * Spectra are read through views so that packed lists are not copied.
+   *
+   * @param spectra
+   * @return the dose rate for each spectrum.
+   */
+  public double[] computeDoseRate(SpectraList<?> spectra)
+  {
+    double[] out = new double[spectra.size()];
+    for (int i = 0; i < out.length; ++i)
+      out[i] = computeDoseRate(spectra.getView(i));
+    return out;
+  }
+
+  /**
+   * Get the dose per count for each channel of an energy scale.
+   *
+   * This is the dose table mapped back through the rebin from the input
+   * scale to the dose table scale. The weights are computed once for each
+   * input scale and held until the dose table or its scale are changed.
+   * Energy scales are assumed not to be altered once they are in use.
+   *
+   * @param scale is the energy scale of the input spectra.
+   * @return the weights which must not be modified.
+   */
+  public double[] getWeights(EnergyScale scale)
+  {
+    double[] edges = scale.getEdges();
+    Compiled last = this.lastCompiled;
+    if (last != null && last.edges == edges)
+      return last.weights;
+
+    synchronized (this)
+    {
+      if (compiled == null)
+        compiled = new WeakHashMap<>();
+      double[] weights = compiled.get(edges);
+      if (weights == null)
+      {
+        weights = compile(edges);
+        compiled.put(edges, weights);
+      }
+      this.lastCompiled = new Compiled(edges, weights);
+      return weights;
+    }
+  }
+
   public void setEnergyScale(EnergyScale energyScale)
   {
     if (energyScale == null)
       throw new NullPointerException("Null Energy Scale");
     this.energyScale = energyScale;
+    invalidate();
   }
 
   public void setDoseTable(double[] d)
   {
     this.doseTable = d;
+    invalidate();
   }
 
   public EnergyScale getEnergyScale()
@@ -90,4 +142,166 @@ public class SpectrumDoseCalculator implements Serializable
   {
     return pileupCorrection;
   }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private synchronized void invalidate()
+  {
+    compiled = null;
+    lastCompiled = null;
+  }
+
+  private double[] compile(double[] inputEdges)
+  {
+    double[] weights = new double[inputEdges.length - 1];
+    try
+    {
+      RebinUtilities.execute(new WeightOutputWrapper(doseTable, weights),
+              new SizeInputWrapper(weights.length),
+              new RebinUtilities.ArrayBinEdges(inputEdges),
+              new RebinUtilities.ArrayBinEdges(this.energyScale.getEdges()));
+    }
+    catch (RebinUtilities.RebinException ex)
+    {
+      throw new RuntimeException("unable to rebin", ex);
+    }
+    return weights;
+  }
+
+  private static class Compiled
+  {
+    final double[] edges;
+    final double[] weights;
+
+    Compiled(double[] edges, double[] weights)
+    {
+      this.edges = edges;
+      this.weights = weights;
+    }
+  }
+
+  /**
+   * Input to a rebin which only supplies the number of channels.
+   */
+  private static class SizeInputWrapper implements RebinUtilities.InputWrapper
+  {
+    final int size;
+
+    SizeInputWrapper(int size)
+    {
+      this.size = size;
+    }
+
+    @Override
+    public void verifyDimensions(int rows) throws RebinUtilities.RebinException
+    {
+      if (size != rows)
+        throw new RebinUtilities.RebinException("Size mismatch " + size + "!=" + rows);
+    }
+
+    @Override
+    public int getColumns()
+    {
+      return 1;
+    }
+
+    @Override
+    public int size()
+    {
+      return size;
+    }
+
+    @Override
+    public double get(int r, int c)
+    {
+      return 0;
+    }
+  }
+
+  /**
+   * Output of a rebin which tracks the coefficient of each input channel
+   * rather than the values.
+   *
+   * The rebin is linear so each output channel is a weighted sum of input
+   * channels. Each time an output is stored the coefficients are multiplied
+   * by its dose factor and added to the weight of the input channel.
+   */
+  private static class WeightOutputWrapper implements RebinUtilities.OutputWrapper
+  {
+    final double[] table;
+    final double[] weights;
+    int current;
+    double remainder;
+    int[] terms = new int[16];
+    double[] coefficients = new double[16];
+    int count;
+
+    WeightOutputWrapper(double[] table, double[] weights)
+    {
+      this.table = table;
+      this.weights = weights;
+    }
+
+    @Override
+    public void verifyDimensions(int rows, int columns) throws RebinUtilities.RebinException
+    {
+      if (table.length != rows || columns != 1)
+        throw new RebinUtilities.RebinException("Size mismatch " + table.length + " " + rows);
+    }
+
+    @Override
+    public int size()
+    {
+      return table.length;
+    }
+
+    @Override
+    public void initialize(double fraction, RebinUtilities.InputWrapper in, int index)
+    {
+      current = index;
+      remainder = fraction;
+    }
+
+    @Override
+    public void take()
+    {
+      add(current, remainder);
+      remainder = 0;
+    }
+
+    @Override
+    public void take(double fraction)
+    {
+      remainder -= fraction;
+      add(current, fraction);
+    }
+
+    @Override
+    public void accumulate(RebinUtilities.InputWrapper in, int index)
+    {
+      add(index, 1.0);
+    }
+
+    @Override
+    public void apply(int index)
+    {
+      double factor = table[index];
+      for (int i = 0; i < count; ++i)
+        weights[terms[i]] += coefficients[i] * factor;
+      count = 0;
+    }
+
+    private void add(int index, double coefficient)
+    {
+      if (index < 0 || index >= weights.length)
+        return;
+      if (count == terms.length)
+      {
+        terms = Arrays.copyOf(terms, count * 2);
+        coefficients = Arrays.copyOf(coefficients, count * 2);
+      }
+      terms[count] = index;
+      coefficients[count++] = coefficient;
+    }
+  }
+//</editor-fold>
 }
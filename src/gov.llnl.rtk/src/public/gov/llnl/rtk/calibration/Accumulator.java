@@ -8,6 +8,7 @@ package gov.llnl.rtk.calibration;
 
 import gov.llnl.math.MathExceptions;
 import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.SpectrumBufferPool;
 
 /**
  *
@@ -18,6 +19,7 @@ public class Accumulator
   int sz;
   int counter;
   IntegerSpectrum data = null;
+  SpectrumBufferPool pool = null;
 
   public Accumulator(int samples)
   {
@@ -34,7 +36,7 @@ public class Accumulator
     try
     {
       if (data == null)
-        data = new IntegerSpectrum(sample);
+        data = (pool != null) ? pool.copyOf(sample) : new IntegerSpectrum(sample);
       else
         data.addAssign(sample);
 
@@ -47,6 +49,24 @@ public class Accumulator
     }
   }
 
+  /**
+   * Set a pool to supply the storage for the accumulated spectrum.
+   *
+   * The spectrum returned by {@link #get()} may be returned to the pool once
+   * the caller is done with it.
+   *
+   * @param pool is the pool or null to allocate.
+   */
+  public void setBufferPool(SpectrumBufferPool pool)
+  {
+    this.pool = pool;
+  }
+
+  public SpectrumBufferPool getBufferPool()
+  {
+    return pool;
+  }
+
   // empty the buffer, called when full
   public IntegerSpectrum get()
   {
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.calibration;
+
+import gov.llnl.rtk.data.GammaMeasurement;
+import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.RadiationProcessorInput;
+import gov.llnl.rtk.data.RadiationSensor;
+import gov.llnl.rtk.data.SensorType;
+import gov.llnl.rtk.data.Spectrum;
+import gov.llnl.rtk.data.SpectrumBufferPool;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Calibrates the gamma measurements for an array of detectors.
+ *
+ * The service holds one calibrator for each gamma sensor. Each input is
+ * split by sensor and the sensors are processed concurrently on an executor.
+ * The work for a single sensor is always done in the order the inputs were
+ * submitted, so inputs may be pipelined with {@link #submit} without waiting
+ * for the previous time slice to finish.
+ *
+ * For each measurement the raw spectrum is incorporated into the calibrator
+ * and then the calibration is applied.
+ *
+ * When a buffer pool is set, it is passed to the calibrators so that the
+ * storage for calibrated spectra can be recycled with {@link #release}.
+ */
+public class CalibrationService
+{
+  private final Map<Integer, Lane> lanes = new TreeMap<>();
+  private final Executor executor;
+  private SpectrumBufferPool pool = null;
+
+  /**
+   * Create a service which uses the common pool.
+   */
+  public CalibrationService()
+  {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Create a service.
+   *
+   * @param executor is used to process the sensors.
+   */
+  public CalibrationService(Executor executor)
+  {
+    this.executor = executor;
+  }
+
+  /**
+   * Add a calibrator for a sensor.
+   *
+   * The calibrator should already be initialized.
+   *
+   * @param sensor is a gamma sensor.
+   * @param calibrator is the calibrator which will be owned by the service.
+   */
+  public synchronized void add(RadiationSensor sensor, DetectorCalibrator calibrator)
+  {
+    if (sensor.getSensorType() != SensorType.Gamma)
+      throw new IllegalArgumentException("Sensor is not a gamma sensor " + sensor.getSensorType());
+    calibrator.setSensor(sensor);
+    calibrator.setBufferPool(pool);
+    lanes.put(sensor.getSensorIndex(), new Lane(calibrator));
+  }
+
+  /**
+   * Get the calibrator for a sensor.
+   *
+   * @param sensor
+   * @return the calibrator or null if the sensor is not known.
+   */
+  public synchronized DetectorCalibrator getCalibrator(RadiationSensor sensor)
+  {
+    Lane lane = getLane(sensor);
+    return (lane == null) ? null : lane.calibrator;
+  }
+
+  /**
+   * @return the number of sensors serviced.
+   */
+  public synchronized int size()
+  {
+    return lanes.size();
+  }
+
+  /**
+   * Set a pool to supply the storage for calibrated spectra.
+   *
+   * @param pool is the pool or null to allocate.
+   */
+  public synchronized void setBufferPool(SpectrumBufferPool pool)
+  {
+    this.pool = pool;
+    for (Lane lane : lanes.values())
+      lane.calibrator.setBufferPool(pool);
+  }
+
+  public synchronized SpectrumBufferPool getBufferPool()
+  {
+    return pool;
+  }
+
+  /**
+   * Calibrate the gamma measurements in an input.
+   *
+   * This waits for the results.
+   *
+   * @param input
+   * @return the results in the order of the gamma measurements in the input.
+   * Measurements from sensors without a calibrator are skipped.
+   */
+  public List<CalibratorResult> process(RadiationProcessorInput input)
+  {
+    try
+    {
+      return submit(input).join();
+    }
+    catch (CompletionException ex)
+    {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException)
+        throw (RuntimeException) cause;
+      throw ex;
+    }
+  }
+
+  /**
+   * Queue the gamma measurements in an input for calibration.
+   *
+   * Sensors are processed concurrently. Each sensor processes its
+   * measurements in the order they are submitted, even if an earlier
+   * measurement failed.
+   *
+   * @param input
+   * @return a future holding the results in the order of the gamma
+   * measurements in the input.
+   */
+  public CompletableFuture<List<CalibratorResult>> submit(RadiationProcessorInput input)
+  {
+    List<GammaMeasurement> measurements = input.getGammaMeasurements();
+    List<CompletableFuture<CalibratorResult>> futures = new ArrayList<>(measurements.size());
+    synchronized (this)
+    {
+      for (GammaMeasurement measurement : measurements)
+      {
+        Lane lane = getLane(measurement.getSensor());
+        if (lane == null)
+          continue;
+        futures.add(lane.submit(measurement.getSample()));
+      }
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+            .thenApply(p ->
+            {
+              List<CalibratorResult> out = new ArrayList<>(futures.size());
+              for (CompletableFuture<CalibratorResult> future : futures)
+                out.add(future.join());
+              return out;
+            });
+  }
+
+  /**
+   * Return the storage for calibrated spectra to the buffer pool.
+   *
+   * The results must not be used after they are released.
+   *
+   * @param results
+   */
+  public void release(List<CalibratorResult> results)
+  {
+    SpectrumBufferPool current = getBufferPool();
+    if (current == null)
+      return;
+    for (CalibratorResult result : results)
+    {
+      if (result != null)
+        current.release(result.getSample());
+    }
+  }
+
+  /**
+   * Reset all of the calibrators.
+   *
+   * This waits for any queued work to complete.
+   */
+  public void reset()
+  {
+    List<CompletableFuture<?>> futures = new ArrayList<>();
+    synchronized (this)
+    {
+      for (Lane lane : lanes.values())
+        futures.add(lane.reset());
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private Lane getLane(RadiationSensor sensor)
+  {
+    if (sensor == null || sensor.getSensorType() != SensorType.Gamma)
+      return null;
+    return lanes.get(sensor.getSensorIndex());
+  }
+
+  /**
+   * Serializes the work for one sensor.
+   */
+  private class Lane
+  {
+    final DetectorCalibrator calibrator;
+    CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+    Lane(DetectorCalibrator calibrator)
+    {
+      this.calibrator = calibrator;
+    }
+
+    synchronized CompletableFuture<CalibratorResult> submit(Spectrum sample)
+    {
+      CompletableFuture<CalibratorResult> next = tail
+              .handle((p, ex) -> null)
+              .thenApplyAsync(p -> calibrate(sample), executor);
+      tail = next;
+      return next;
+    }
+
+    synchronized CompletableFuture<?> reset()
+    {
+      CompletableFuture<?> next = tail
+              .handle((p, ex) -> null)
+              .thenRunAsync(calibrator::reset, executor);
+      tail = next;
+      return next;
+    }
+
+    CalibratorResult calibrate(Spectrum sample)
+    {
+      if (sample == null)
+        return null;
+      IntegerSpectrum raw = (sample instanceof IntegerSpectrum)
+              ? (IntegerSpectrum) sample
+              : new IntegerSpectrum(sample);
+      calibrator.incorporate(raw);
+      return calibrator.applyCalibration(sample);
+    }
+  }
+//</editor-fold>
+}
@@ -13,6 +13,7 @@ package gov.llnl.rtk.calibration;
  * Terms and conditions are given in "Notice" file.
  */
 import gov.llnl.rtk.RtkPackage;
+import gov.llnl.rtk.data.ChannelView;
 import gov.llnl.rtk.data.Spectrum;
 import gov.llnl.utility.xml.bind.Reader;
 import java.io.Serializable;
@@ -87,7 +88,15 @@ public class CumulativePeakFinder implements PeakFinder, Serializable
   // Other methods
   public static double[] inverseCumulativeSum(Spectrum spectrum)
   {
-    return inverseCumulativeSum(spectrum.toDoubles());
+    ChannelView view = spectrum.getChannelView();
+    double[] cumuSum = new double[view.size()];
+    double prevCumul = 0;
+    for (int i = (cumuSum.length - 1); i >= 0; --i)
+    {
+      cumuSum[i] = prevCumul + -1 * view.getAsDouble(i);
+      prevCumul = cumuSum[i];
+    }
+    return cumuSum;
   }
 
   public static double[] inverseCumulativeSum(double[] specArray)
@@ -15,6 +15,7 @@ import gov.llnl.rtk.data.EnergyScaleMapper;
 import gov.llnl.rtk.data.IntegerSpectrum;
 import gov.llnl.rtk.data.RadiationSensor;
 import gov.llnl.rtk.data.Spectrum;
+import gov.llnl.rtk.data.SpectrumBufferPool;
 import gov.llnl.rtk.impl.FaultImpl;
 import gov.llnl.rtk.quality.Fault;
 import gov.llnl.rtk.quality.FaultCategory;
@@ -43,6 +44,17 @@ public interface DetectorCalibrator extends InitializeInterface, QualityControll
    */
   void setRandomGenerator(RandomGenerator randomGenerator);
 
+  /**
+   * Set a pool to supply the storage for calibrated spectra.
+   *
+   * Calibrators which do not support pooling ignore this.
+   *
+   * @param pool is the pool or null to allocate.
+   */
+  default void setBufferPool(SpectrumBufferPool pool)
+  {
+  }
+
   /**
    * Push energy scale into calibrator which in turn will push into it's
    * components.
@@ -11,11 +11,6 @@ import gov.llnl.math.MathConstants;
 import gov.llnl.math.MathExceptions.ConvergenceException;
 import gov.llnl.math.SpecialFunctions;
 import gov.llnl.math.function.LinearFunction;
-import gov.llnl.math.matrix.Matrix;
-import gov.llnl.math.matrix.MatrixColumnArray;
-import gov.llnl.math.matrix.MatrixFactory;
-import gov.llnl.math.matrix.MatrixOps;
-import gov.llnl.math.matrix.MatrixViews;
 import gov.llnl.math.optimize.LinearRegression;
 import gov.llnl.rtk.calibration.PeakFitter.PeakFitterResult;
 import gov.llnl.rtk.data.ChannelRegionOfInterestImpl;
@@ -27,6 +22,7 @@ import gov.llnl.utility.annotation.Debug;
 import gov.llnl.utility.xml.bind.ReaderInfo;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Arrays;
 
 /**
  * This is used to estimate the parameters for a Gaussian peak on a slope.
@@ -48,6 +44,7 @@ public class GaussianFitter implements PeakFitter
   double endChannelFraction;
   // Internal
   double[] input;
+  transient Workspace workspace;
 
   /**
    * Explicitely set the region of interest to analyze.
@@ -82,11 +79,6 @@ public class GaussianFitter implements PeakFitter
     double[] in = spectrum.toDoubles();
     try
     {
-      double mu;
-      double sigma;
-      double intensity;
-      double linear1;
-      double linear2;
       input = in;
       if (regionEnd > in.length)
         regionEnd = in.length;
@@ -97,227 +89,10 @@ public class GaussianFitter implements PeakFitter
       if (end < start)
         return null;
 
-      // Compute the minimum k4
-      double mink4 = (1.0 / (end - start) / (end - start));
-
-      // Set up limits
-      double[][] limits = new double[][]
-      {
-        DoubleArray.newArray(-0.1, 5.0, 0.5, 0),
-        DoubleArray.newArray(-0.1, 5.0, 0.5, 0),
-        DoubleArray.newArray(1e-8, 2.0, 1e-3, 0),
-        DoubleArray.newArray(start - 10, end + 10, (start + end) / 2, 0),
-        DoubleArray.newArray(mink4, 0.1, (4 * mink4 + 0.1) / 5, 0)
-      };
-      int[] violation = new int[5];
-
-      // Auto scale problem to the point we have tested
-      double[] working = DoubleArray.copyOf(in);
-      double norm = Math.sqrt(DoubleArray.sumSqrRange(working, start, end));
-      DoubleArray.divideAssignRange(working, start, end, norm);
-
-      {
-        // Set up the initial guess.
-        LinearRegression lr = new LinearRegression();
-        for (int i = start; i < end; ++i)
-          lr.add(i, working[i]);
-        LinearFunction pf = lr.compute();
-        for (int j = 0; j < 3; ++j)
-        {
-          lr.clear();
-          for (int i = start; i < end; ++i)
-          {
-            lr.add(i, working[i],
-                    SpecialFunctions.logistic(pf.applyAsDouble(i), working[i], 100));
-          }
-          pf = lr.compute();
-        }
-
-        double s0 = 0;
-        double s1 = 0;
-        double s2 = 0;
-        intensity = 0;
-        for (int i = start; i < end; ++i)
-        {
-          double d = working[i] - pf.applyAsDouble(i);
-          if (d > intensity)
-            intensity = d;
-          if (d > 0)
-          {
-            s0 += d;
-            s1 += d * i;
-            s2 += d * i * i;
-          }
-        }
-        linear1 = pf.applyAsDouble(start);
-        linear2 = pf.applyAsDouble(end - 1);
-        mu = s1 / s0;
-        sigma = Math.sqrt(s2 / s0 - mu * mu) / 2;
-      }
-
-      double k[] = new double[]
-      {
-        linear1, linear2, intensity, mu, 0.5 / sigma / sigma
-      };
-
-      // Apply initial limits
-      for (int i = 0; i < 5; i++)
-      {
-        if (k[i] < limits[i][0])
-          k[i] = limits[i][0];
-        if (k[i] > limits[i][1])
-          k[i] = limits[i][1];
-      }
-
-      Matrix q1 = new MatrixColumnArray(5, 1);
-      Matrix q2 = new MatrixColumnArray(5, 5);
-
-      // Standard Gauss-Newton gradiant descent
-      double dk = 0;
-      double err = 0;
-      double previousErr = Double.MAX_VALUE;
-      for (int i1 = 0; i1 < iterations; ++i1)
-      {
-        // Fill with zeros between computation
-        MatrixOps.fill(q1, 0);
-        MatrixOps.fill(q2, 0);
-
-        err = 0;
-        for (int i2 = start; i2 < end; ++i2)
-        {
-          // Compute the fit error
-          double g = Math.exp(-k[4] * (i2 - k[3]) * (i2 - k[3]));
-          double h = (i2 - start) / (end - 1.0 - start);
-          double f = ((k[0] * (1 - h) + k[1] * h + k[2] * g) - working[i2]);
-          err += f * f;
-
-          // Compute the derivative
-          Matrix df = MatrixFactory.wrapColumnVector(new double[]
-          {
-            (1 - h),
-            h,
-            g,
-            2 * g * k[2] * k[4] * (i2 - k[3]),
-            -g * k[2] * (i2 - k[3]) * (i2 - k[3])
-          });
-
-          // Update the (df'*df) and (df'*f) matrix
-          MatrixOps.addAssignScaled(q1, df, f);
-          MatrixOps.addAssign(q2, MatrixOps.multiplyVectorOuter(df, df));
-        }
-
-//      System.out.println("err=" + err);
-        if (err < previousErr && previousErr - err < 1e-5 * err)
-          break;
-        previousErr = err;
-
-        for (int i = 0; i < 5; ++i)
-        {
-          double lambda = limits[i][3];
-          double v1 = q1.get(i, 0);
-          double v2 = q2.get(i, i);
-          q1.set(i, 0, v1 + lambda * (k[i] - limits[i][2]));
-          q2.set(i, i, v2 + lambda);
-        }
-
-        // Levenberg–Marquardt algorithm
-        Matrix v = MatrixViews.diagonal(q2);
-        MatrixOps.addAssignScaled(v, v, 0.01);
-
-        // Solve for the gradiant
-        Matrix update = MatrixOps.divideLeft(q2, q1);
-
-        // Impose barrier conditions
-        boolean good = false;
-        int count = 0;
-
-        while (true)
-        {
-          good = true;
-
-          // Check the limits
-          for (int i = 0; i < 5; i++)
-          {
-            if (limits[i] == null)
-              continue;
-
-            double revised = k[i] - alpha * update.get(i, 0);
-            if (revised >= limits[i][0] && revised < limits[i][1])
-            {
-              violation[i] = 0;
-              continue;
-            }
-
-            // Determine the appriate lambda
-            double lambda = limits[i][3];
-            if (lambda == 0)
-              lambda = 1e-4;
-            if (violation[i] != 0)
-              lambda *= 4;
-            limits[i][3] = lambda;
-            if (limits[i][3] > 1000)
-              limits[i][3] = 1000;
-
-            // Apply addition constraint to stay in the limits
-            good = false;
-            double v1 = q1.get(i, 0);
-            double v2 = q2.get(i, i);
-            q1.set(i, 0, v1 + lambda * (revised - limits[i][2]) / alpha);
-            q2.set(i, i, v2 + lambda);
-            violation[i] = 1;
-          }
-
-          // If all values in limit range
-          if (good)
-            break;
-
-          // Otherwise revise
-          update = MatrixOps.divideLeft(q2, q1);
-
-          count++;
-          if (count > 40)
-          {
-            MatrixOps.dump(System.out, q1);
-            MatrixOps.dump(System.out, q2);
-            MatrixOps.dump(System.out, MatrixOps.divideLeft(q2, q1));
-
-            throw new ConvergenceException("Failed in updating limits");
-          }
-        }
-
-        // Clear the violation
-        for (int i = 0; i < 5; i++)
-        {
-          violation[i] = 0;
-        }
-
-        // Apply the update
-        dk = 0;
-        for (int i3 = 0; i3 < 5; ++i3)
-        {
-          double delta = update.get(i3, 0);
-
-          // Handle NaN
-          if (delta != delta)
-          {
-            throw new ConvergenceException("NaN in operation");
-          }
-          dk += delta * delta;
-          k[i3] -= alpha * delta;
-        }
-
-        // Check for convergence
-        if (dk < 1e-6)
-          break;
-      }
-
-      // Project the results back to the space we are interested in
-      GaussianFitterResult parameters
-              = new GaussianFitterResult(norm * k[0], norm * k[1], norm * k[2], k[3], Math.sqrt(0.5 / k[4]),
-                      new ChannelRegionOfInterestImpl(start, end),
-                      err / (end - start),
-                      input);
-      return parameters;
+      if (workspace == null)
+        workspace = new Workspace();
+      workspace.fit(in, 0, start, end, false, alpha, iterations);
+      return workspace.toResult(input);
     }
     catch (Exception ex)
     {
@@ -518,4 +293,357 @@ public class GaussianFitter implements PeakFitter
 
   }
 
+
+  /**
+   * Working storage for fitting a Gaussian on a slope.
+   *
+   * The normal equations for the five parameters are accumulated and solved
+   * in preallocated arrays so that repeated fits do not allocate. The
+   * solution from the previous fit is retained so that a fit on slowly
+   * changing data can be started from it.
+   */
+  static class Workspace
+  {
+    // Solution in normalized units
+    final double[] k = new double[5];
+    final double[][] limits = new double[5][4];
+    final int[] violation = new int[5];
+    final double[] df = new double[5];
+    final double[] q1 = new double[5];
+    final double[] q2 = new double[25];
+    final double[] a = new double[25];
+    final double[] update = new double[5];
+    double[] working = new double[0];
+    double norm;
+    double err;
+    int start;
+    int end;
+    boolean solved = false;
+
+    /**
+     * Fit the peak in a region.
+     *
+     * @param in holds the counts with in[0] corresponding to offset.
+     * @param offset is the channel of the first entry of in.
+     * @param start is the first channel of the region.
+     * @param end is the last channel of the region (exclusive).
+     * @param warm uses the previous solution as the initial guess if
+     * available.
+     * @param alpha is the descent rate.
+     * @param iterations is the maximum number of iterations.
+     * @throws ConvergenceException if the fit fails.
+     */
+    void fit(double[] in, int offset, int start, int end, boolean warm,
+            double alpha, int iterations) throws ConvergenceException
+    {
+      double previousNorm = this.norm;
+      boolean restart = warm && solved;
+      this.solved = false;
+      this.start = start;
+      this.end = end;
+      int n = end - start;
+      if (working.length < n)
+        working = new double[n];
+
+      // Compute the minimum k4
+      double mink4 = (1.0 / (end - start) / (end - start));
+
+      // Set up limits
+      setLimit(0, -0.1, 5.0, 0.5);
+      setLimit(1, -0.1, 5.0, 0.5);
+      setLimit(2, 1e-8, 2.0, 1e-3);
+      setLimit(3, start - 10, end + 10, (start + end) / 2);
+      setLimit(4, mink4, 0.1, (4 * mink4 + 0.1) / 5);
+      Arrays.fill(violation, 0);
+
+      // Auto scale problem to the point we have tested
+      double sum2 = 0;
+      for (int i = 0; i < n; ++i)
+      {
+        double v = in[start - offset + i];
+        working[i] = v;
+        sum2 += v * v;
+      }
+      norm = Math.sqrt(sum2);
+      for (int i = 0; i < n; ++i)
+        working[i] /= norm;
+
+      if (restart)
+      {
+        // Rescale the previous solution to the new normalization
+        double scale = previousNorm / norm;
+        k[0] *= scale;
+        k[1] *= scale;
+        k[2] *= scale;
+      }
+      else
+        guess();
+
+      // Apply initial limits
+      for (int i = 0; i < 5; i++)
+      {
+        if (k[i] < limits[i][0])
+          k[i] = limits[i][0];
+        if (k[i] > limits[i][1])
+          k[i] = limits[i][1];
+      }
+
+      // Standard Gauss-Newton gradiant descent
+      double dk = 0;
+      err = 0;
+      double previousErr = Double.MAX_VALUE;
+      for (int i1 = 0; i1 < iterations; ++i1)
+      {
+        // Fill with zeros between computation
+        Arrays.fill(q1, 0);
+        Arrays.fill(q2, 0);
+
+        err = 0;
+        for (int i2 = start; i2 < end; ++i2)
+        {
+          // Compute the fit error
+          double g = Math.exp(-k[4] * (i2 - k[3]) * (i2 - k[3]));
+          double h = (i2 - start) / (end - 1.0 - start);
+          double f = ((k[0] * (1 - h) + k[1] * h + k[2] * g) - working[i2 - start]);
+          err += f * f;
+
+          // Compute the derivative
+          df[0] = 1 - h;
+          df[1] = h;
+          df[2] = g;
+          df[3] = 2 * g * k[2] * k[4] * (i2 - k[3]);
+          df[4] = -g * k[2] * (i2 - k[3]) * (i2 - k[3]);
+
+          // Update the (df'*df) and (df'*f) matrix
+          for (int r = 0; r < 5; ++r)
+          {
+            q1[r] += df[r] * f;
+            for (int c = 0; c < 5; ++c)
+              q2[r * 5 + c] += df[r] * df[c];
+          }
+        }
+
+        if (err < previousErr && previousErr - err < 1e-5 * err)
+          break;
+        previousErr = err;
+
+        for (int i = 0; i < 5; ++i)
+        {
+          double lambda = limits[i][3];
+          q1[i] += lambda * (k[i] - limits[i][2]);
+          q2[i * 6] += lambda;
+        }
+
+        // Levenberg–Marquardt algorithm
+        for (int i = 0; i < 5; ++i)
+          q2[i * 6] += 0.01 * q2[i * 6];
+
+        // Solve for the gradiant
+        solve();
+
+        // Impose barrier conditions
+        boolean good = false;
+        int count = 0;
+
+        while (true)
+        {
+          good = true;
+
+          // Check the limits
+          for (int i = 0; i < 5; i++)
+          {
+            double revised = k[i] - alpha * update[i];
+            if (revised >= limits[i][0] && revised < limits[i][1])
+            {
+              violation[i] = 0;
+              continue;
+            }
+
+            // Determine the appriate lambda
+            double lambda = limits[i][3];
+            if (lambda == 0)
+              lambda = 1e-4;
+            if (violation[i] != 0)
+              lambda *= 4;
+            limits[i][3] = lambda;
+            if (limits[i][3] > 1000)
+              limits[i][3] = 1000;
+
+            // Apply addition constraint to stay in the limits
+            good = false;
+            q1[i] += lambda * (revised - limits[i][2]) / alpha;
+            q2[i * 6] += lambda;
+            violation[i] = 1;
+          }
+
+          // If all values in limit range
+          if (good)
+            break;
+
+          // Otherwise revise
+          solve();
+
+          count++;
+          if (count > 40)
+            throw new ConvergenceException("Failed in updating limits");
+        }
+
+        // Clear the violation
+        Arrays.fill(violation, 0);
+
+        // Apply the update
+        dk = 0;
+        for (int i3 = 0; i3 < 5; ++i3)
+        {
+          double delta = update[i3];
+
+          // Handle NaN
+          if (delta != delta)
+          {
+            throw new ConvergenceException("NaN in operation");
+          }
+          dk += delta * delta;
+          k[i3] -= alpha * delta;
+        }
+
+        // Check for convergence
+        if (dk < 1e-6)
+          break;
+      }
+      solved = true;
+    }
+
+    /**
+     * Project the results back to the space we are interested in.
+     *
+     * @param input is the spectrum that was fit.
+     * @return a new result.
+     */
+    GaussianFitterResult toResult(double[] input)
+    {
+      return new GaussianFitterResult(norm * k[0], norm * k[1], norm * k[2], k[3], Math.sqrt(0.5 / k[4]),
+              new ChannelRegionOfInterestImpl(start, end),
+              err / (end - start),
+              input);
+    }
+
+    double getPeakLocation()
+    {
+      return k[3];
+    }
+
+    double getPeakIntensity()
+    {
+      return norm * k[2];
+    }
+
+    /**
+     * Forget the previous solution.
+     */
+    void reset()
+    {
+      solved = false;
+    }
+
+    private void setLimit(int i, double lower, double upper, double center)
+    {
+      limits[i][0] = lower;
+      limits[i][1] = upper;
+      limits[i][2] = center;
+      limits[i][3] = 0;
+    }
+
+    /**
+     * Set up the initial guess from a regression on the continuum.
+     */
+    private void guess()
+    {
+      LinearRegression lr = new LinearRegression();
+      for (int i = start; i < end; ++i)
+        lr.add(i, working[i - start]);
+      LinearFunction pf = lr.compute();
+      for (int j = 0; j < 3; ++j)
+      {
+        lr.clear();
+        for (int i = start; i < end; ++i)
+        {
+          double w = working[i - start];
+          lr.add(i, w, SpecialFunctions.logistic(pf.applyAsDouble(i), w, 100));
+        }
+        pf = lr.compute();
+      }
+
+      double s0 = 0;
+      double s1 = 0;
+      double s2 = 0;
+      double intensity = 0;
+      for (int i = start; i < end; ++i)
+      {
+        double d = working[i - start] - pf.applyAsDouble(i);
+        if (d > intensity)
+          intensity = d;
+        if (d > 0)
+        {
+          s0 += d;
+          s1 += d * i;
+          s2 += d * i * i;
+        }
+      }
+      double mu = s1 / s0;
+      double sigma = Math.sqrt(s2 / s0 - mu * mu) / 2;
+      k[0] = pf.applyAsDouble(start);
+      k[1] = pf.applyAsDouble(end - 1);
+      k[2] = intensity;
+      k[3] = mu;
+      k[4] = 0.5 / sigma / sigma;
+    }
+
+    /**
+     * Solve q2*update=q1 by Gaussian elimination with partial pivoting.
+     *
+     * q2 and q1 are preserved as the barrier conditions revise them.
+     */
+    private void solve()
+    {
+      System.arraycopy(q2, 0, a, 0, 25);
+      System.arraycopy(q1, 0, update, 0, 5);
+      for (int c = 0; c < 5; ++c)
+      {
+        int pivot = c;
+        for (int r = c + 1; r < 5; ++r)
+          if (Math.abs(a[r * 5 + c]) > Math.abs(a[pivot * 5 + c]))
+            pivot = r;
+        if (pivot != c)
+        {
+          for (int j = 0; j < 5; ++j)
+          {
+            double t = a[c * 5 + j];
+            a[c * 5 + j] = a[pivot * 5 + j];
+            a[pivot * 5 + j] = t;
+          }
+          double t = update[c];
+          update[c] = update[pivot];
+          update[pivot] = t;
+        }
+        double d = a[c * 6];
+        for (int r = c + 1; r < 5; ++r)
+        {
+          double m = a[r * 5 + c] / d;
+          if (m == 0)
+            continue;
+          for (int j = c; j < 5; ++j)
+            a[r * 5 + j] -= m * a[c * 5 + j];
+          update[r] -= m * update[c];
+        }
+      }
+      for (int r = 4; r >= 0; --r)
+      {
+        double v = update[r];
+        for (int j = r + 1; j < 5; ++j)
+          v -= a[r * 5 + j] * update[j];
+        update[r] = v / a[r * 6];
+      }
+    }
+  }
+
 }
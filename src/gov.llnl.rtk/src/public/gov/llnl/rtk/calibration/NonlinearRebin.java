@@ -9,7 +9,9 @@ package gov.llnl.rtk.calibration;
 import gov.llnl.math.random.BinomialRandom;
 import gov.llnl.math.random.RandomGenerator;
 import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.SpectrumBufferPool;
 import gov.llnl.utility.annotation.Debug;
+import java.util.Arrays;
 
 /**
  *
@@ -18,6 +20,18 @@ import gov.llnl.utility.annotation.Debug;
 public class NonlinearRebin
 {
   transient BinomialRandom brand = new BinomialRandom();
+  transient SpectrumBufferPool pool = null;
+
+  // Channel mapping for the last set of edges
+  private static final byte OVER = 0;
+  private static final byte UNDER = 1;
+  private static final byte SINGLE = 2;
+  private static final byte SPLIT = 3;
+  private static final byte SPREAD = 4;
+  transient double[] mappingEdges;
+  transient byte[] mappingCase;
+  transient int[] mappingBin;
+  transient double[] mappingSplit;
 
   /**
    * Specialized integer rebin for converting from nonlinearly distorted.
@@ -32,10 +46,11 @@ public class NonlinearRebin
     int inChannelMin = spectrum.getMinimumValidChannel();
     int inChannelMax = spectrum.getMaximumValidChannel();
 
-    IntegerSpectrum output = new IntegerSpectrum(spectrum);
     int outputChannels = N - 1;
+    prepare(inputEdges, outputChannels);
 
-    int[] outputCounts = new int[outputChannels];
+    // Output is filled directly so the input counts are not copied
+    int[] outputCounts = (pool != null) ? pool.takeIntegers(outputChannels) : new int[outputChannels];
     int underrange = 0;
     int overrange = 0;
 
@@ -47,8 +62,6 @@ public class NonlinearRebin
     int[] inputCounts = spectrum.toArray();
     for (int i = 0; i < N - 1; i++)
     {
-      double channelStart = inputEdges[i];
-      double channelEnd = inputEdges[i + 1];
       int counts = inputCounts[i];
 
       // if we have no counts, no need to consider anything
@@ -57,13 +70,14 @@ public class NonlinearRebin
         continue;
       }
 
-      if (channelStart >= outputCounts.length || i >= inChannelMax)
+      byte mapping = mappingCase[i];
+      if (mapping == OVER || i >= inChannelMax)
       {
         overrange += counts;
         continue;
       }
 
-      if (channelEnd <= 0 || i < inChannelMin)
+      if (mapping == UNDER || i < inChannelMin)
       {
         underrange += counts;
         continue;
@@ -71,27 +85,18 @@ public class NonlinearRebin
 
       // Okay we need to push those counts over the specified range of channels.
       // Case 1: all of the counts belong in the same channel
-      if ((int) channelStart == (int) channelEnd)
+      if (mapping == SINGLE)
       {
-        int bin = (int) channelStart;
-        if (bin < 0)
-        {
-          underrange += counts;
-        }
-        else
-        {
-          outputCounts[(int) channelStart] += counts;
-        }
+        outputCounts[mappingBin[i]] += counts;
         continue;
       }
 
       // Case 2: split the counts between to channels
-      if ((int) channelStart + 1 == (int) channelEnd)
+      if (mapping == SPLIT)
       {
-        int split = (int) channelEnd;
-        double p = (split - channelStart) / (channelEnd - channelStart);
+        int split = mappingBin[i];
         // Take Binomial draw with probability of P to go in the first bin
-        int c0 = (int) brand.newVariable(counts, p).next();
+        int c0 = (int) brand.newVariable(counts, mappingSplit[i]).next();
         int c1 = counts - c0;
 
         if (split - 1 < 0)
@@ -114,6 +119,9 @@ public class NonlinearRebin
         continue;
       }
 
+      double channelStart = inputEdges[i];
+      double channelEnd = inputEdges[i + 1];
+
       // Case 3, we are splitting over more than 2 channels.  
       // This is a very hard case to do efficienctly
       // Drawing repeated binomials biases the distribution.
@@ -179,8 +187,10 @@ public class NonlinearRebin
       }
     }
 
-    // Copy the counts into the spectrum.
-    output.assign(outputCounts);
+    // Wrap the counts in a spectrum.
+    IntegerSpectrum output = new IntegerSpectrum(outputCounts, spectrum.getLiveTime(), spectrum.getRealTime());
+    output.copyAttributes(spectrum);
+    output.setEnergyScale(spectrum.getEnergyScale());
 
     // Bookkeeping to manage valid ranges
     output.setUnderRange(overrange + (int) spectrum.getOverRangeCounts());
@@ -194,8 +204,76 @@ public class NonlinearRebin
     return output;
   }
 
+  /**
+   * Set a pool to supply the storage for rebinned spectra.
+   *
+   * Spectra produced by {@link #rebin} may be returned to the pool once the
+   * caller is done with them.
+   *
+   * @param pool is the pool or null to allocate.
+   */
+  public void setBufferPool(SpectrumBufferPool pool)
+  {
+    this.pool = pool;
+  }
+
+  public SpectrumBufferPool getBufferPool()
+  {
+    return pool;
+  }
+
   public void setGenerator(RandomGenerator rg)
   {
     this.brand.setGenerator(rg);
   }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  /**
+   * Compute how each input channel maps to the output channels.
+   *
+   * The table only depends on the edges, so it is kept until the edges
+   * change. Callers that apply the same correction to a series of spectra
+   * only pay for the table once.
+   */
+  private void prepare(double[] inputEdges, int outputChannels)
+  {
+    if (Arrays.equals(mappingEdges, inputEdges))
+      return;
+
+    int n = inputEdges.length - 1;
+    if (mappingCase == null || mappingCase.length != n)
+    {
+      mappingCase = new byte[n];
+      mappingBin = new int[n];
+      mappingSplit = new double[n];
+    }
+    for (int i = 0; i < n; ++i)
+    {
+      double channelStart = inputEdges[i];
+      double channelEnd = inputEdges[i + 1];
+      mappingBin[i] = 0;
+      mappingSplit[i] = 0;
+      if (channelStart >= outputChannels)
+        mappingCase[i] = OVER;
+      else if (channelEnd <= 0)
+        mappingCase[i] = UNDER;
+      else if ((int) channelStart == (int) channelEnd)
+      {
+        int bin = (int) channelStart;
+        mappingCase[i] = (bin < 0) ? UNDER : SINGLE;
+        mappingBin[i] = bin;
+      }
+      else if ((int) channelStart + 1 == (int) channelEnd)
+      {
+        int split = (int) channelEnd;
+        mappingCase[i] = SPLIT;
+        mappingBin[i] = split;
+        mappingSplit[i] = (split - channelStart) / (channelEnd - channelStart);
+      }
+      else
+        mappingCase[i] = SPREAD;
+    }
+    mappingEdges = inputEdges.clone();
+  }
+//</editor-fold>
 }
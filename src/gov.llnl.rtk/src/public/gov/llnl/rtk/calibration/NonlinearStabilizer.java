@@ -19,6 +19,7 @@ import gov.llnl.rtk.data.IntegerSpectrum;
 import gov.llnl.rtk.data.RadiationSensor;
 import gov.llnl.rtk.data.Spectrum;
 import gov.llnl.rtk.data.SpectrumAttributes;
+import gov.llnl.rtk.data.SpectrumBufferPool;
 import gov.llnl.rtk.data.EnergyPairsScaleImpl;
 import gov.llnl.rtk.quality.FaultSetImpl;
 import gov.llnl.rtk.physics.Quantity;
@@ -53,6 +54,10 @@ public class NonlinearStabilizer extends ExpandableObject implements DetectorCal
   EnergyScale targetEnergyScale;
   RadiationSensor sensor = null;
   NonlinearRebin rebin = new NonlinearRebin();
+  transient SpectrumBufferPool pool = null;
+  transient double edgesGain = Double.NaN;
+  transient double edgesTemperature = Double.NaN;
+  transient int edgesRevision = -1;
 
 //<editor-fold desc="loader">
   @Override
@@ -64,11 +69,13 @@ public class NonlinearStabilizer extends ExpandableObject implements DetectorCal
   public void setTemperatureMap(NonlinearityMap nm)
   {
     this.temperatureMap = nm;
+    this.inputEdges = null;
   }
 
   public void setRateMap(NonlinearityMap nm)
   {
     this.rateMap = nm;
+    this.inputEdges = null;
   }
 
   /**
@@ -107,8 +114,15 @@ public class NonlinearStabilizer extends ExpandableObject implements DetectorCal
       return null;
     }
 
-    // Copy the data so that we do not mess up the original.
-    IntegerSpectrum is = new IntegerSpectrum(measurement);
+    double location = peakTracker.getPeakLocation();
+    boolean locked = peakTracker.isLocked();
+
+    // Rebinning does not alter the input so integer data can be used directly
+    IntegerSpectrum is;
+    if (locked && measurement instanceof IntegerSpectrum)
+      is = (IntegerSpectrum) measurement;
+    else
+      is = copy(measurement);
 
 //    CalibrationSensor det = detector;
 //    int overrangeChannels = det.getOverRangeChannels();
@@ -118,8 +132,6 @@ public class NonlinearStabilizer extends ExpandableObject implements DetectorCal
 //      is.clearOverRange(overrangeChannels);
 //    if (underrangeChannels > 0)
 //      is.clearUnderRange(underrangeChannels);
-    double location = peakTracker.getPeakLocation();
-    boolean locked = peakTracker.isLocked();
     if (locked)
     {
       is = this.correct(is, target.getChannel() / location);
@@ -175,8 +187,30 @@ public class NonlinearStabilizer extends ExpandableObject implements DetectorCal
   {
     this.rebin.setGenerator(rg);
   }
+
+  /**
+   * Set a pool to supply the storage for calibrated spectra.
+   *
+   * @param pool is the pool or null to allocate.
+   */
+  @Override
+  public void setBufferPool(SpectrumBufferPool pool)
+  {
+    this.pool = pool;
+    this.rebin.setBufferPool(pool);
+  }
 //<editor-fold desc="internal">  
 
+  private IntegerSpectrum copy(Spectrum measurement)
+  {
+    if (measurement instanceof IntegerSpectrum)
+    {
+      IntegerSpectrum in = (IntegerSpectrum) measurement;
+      return (pool != null) ? pool.copyOf(in) : new IntegerSpectrum(in);
+    }
+    return new IntegerSpectrum(measurement);
+  }
+
   @Override
   public EnergyScale getFieldEnergyScale()
   {
@@ -213,6 +247,19 @@ public class NonlinearStabilizer extends ExpandableObject implements DetectorCal
       // number of edges in the input 
       int N = spectrum.size() + 1;
 
+      double temperature = Double.NaN;
+      if (temperatureMap != null && spectrum.hasAttribute(SpectrumAttributes.TEMPERATURE))
+        temperature = spectrum.getAttribute(SpectrumAttributes.TEMPERATURE, Quantity.class).get();
+
+      // The edges only change with the gain, temperature and temperature
+      // correction unless there is a rate correction, so reuse them along
+      // with the rebin tables. Replacing a map clears the edges.
+      int revision = (temperatureMap != null) ? temperatureMap.getRevision() : 0;
+      if (rateMap == null && inputEdges != null && inputEdges.length == N
+              && edgesGain == gain && Double.compare(edgesTemperature, temperature) == 0
+              && edgesRevision == revision)
+        return this.rebin.rebin(spectrum, inputEdges);
+
       inputEdges = new double[N];
       for (int i = 0; i < N; ++i)
       {
@@ -220,10 +267,9 @@ public class NonlinearStabilizer extends ExpandableObject implements DetectorCal
       }
 
       // Construct a channel to channel correction for the temperature
-      if (temperatureMap != null && spectrum.hasAttribute(SpectrumAttributes.TEMPERATURE))
+      if (!Double.isNaN(temperature))
       {
-        Quantity temperature = spectrum.getAttribute(SpectrumAttributes.TEMPERATURE, Quantity.class);
-        Spline correction = temperatureMap.getCorrectionSpline(temperature.get());
+        Spline correction = temperatureMap.getCorrectionSpline(temperature);
         inputEdges = correction.evaluateRangeOrdered(inputEdges, 0, N);
       }
 
@@ -241,6 +287,9 @@ public class NonlinearStabilizer extends ExpandableObject implements DetectorCal
       {
         inputEdges[i] *= gain;
       }
+      edgesGain = gain;
+      edgesTemperature = temperature;
+      edgesRevision = revision;
       IntegerSpectrum output = this.rebin.rebin(spectrum, inputEdges);
 
       // Deal with computing the valid range in the resulting spectrum
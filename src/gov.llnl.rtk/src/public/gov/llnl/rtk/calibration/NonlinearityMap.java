@@ -25,6 +25,7 @@ import java.util.Comparator;
 public class NonlinearityMap implements Serializable
 {
   ArrayList<ControlMapping> control = new ArrayList<>();
+  transient int revision = 0;
 
   public Spline getCorrectionSpline(double observable)
   {
@@ -64,10 +65,24 @@ public class NonlinearityMap implements Serializable
     return chs;
   }
 
+  /**
+   * Get a count of the changes to the control points.
+   *
+   * This is used by users of the map to tell when a correction computed
+   * earlier is no longer valid.
+   *
+   * @return the number of control points added.
+   */
+  public int getRevision()
+  {
+    return revision;
+  }
+
   @Reader.Element(name = "control")
   public void addControl(ControlMapping cm)
   {
     this.control.add(cm);
+    this.revision++;
     // We need to keep this collection in order to make everything work
     Collections.sort(this.control, new Comparator<ControlMapping>()
     {
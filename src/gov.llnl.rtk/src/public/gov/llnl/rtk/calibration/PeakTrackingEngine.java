@@ -0,0 +1,276 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.calibration;
+
+import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.utility.ExecutorUtilities;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Services the peak trackers for a set of detectors.
+ *
+ * Each call to {@link #incorporate(List)} passes one sample to each detector.
+ * Detectors are processed in parallel on a shared executor, while the samples
+ * for a single detector are always processed in order. The time taken by each
+ * tracker is recorded in a latency histogram for monitoring.
+ */
+public class PeakTrackingEngine
+{
+  private final PeakTracker[] trackers;
+  private final LatencyHistogram[] latency;
+
+  /**
+   * Create an engine for a set of trackers.
+   *
+   * The trackers should already be initialized. Each tracker must only be
+   * used by this engine.
+   *
+   * @param trackers is one tracker for each detector.
+   */
+  public PeakTrackingEngine(List<? extends PeakTracker> trackers)
+  {
+    this.trackers = trackers.toArray(new PeakTracker[trackers.size()]);
+    this.latency = new LatencyHistogram[this.trackers.length];
+    for (int i = 0; i < this.trackers.length; ++i)
+      this.latency[i] = new LatencyHistogram();
+  }
+
+  /**
+   * Get the number of detectors.
+   *
+   * @return the number of trackers.
+   */
+  public int size()
+  {
+    return trackers.length;
+  }
+
+  public PeakTracker getTracker(int detector)
+  {
+    return trackers[detector];
+  }
+
+  /**
+   * Pass a sample to the tracker for one detector.
+   *
+   * @param detector
+   * @param sample
+   * @return the current peak location for the detector.
+   */
+  public double incorporate(int detector, IntegerSpectrum sample)
+  {
+    PeakTracker tracker = trackers[detector];
+    synchronized (tracker)
+    {
+      long t0 = System.nanoTime();
+      tracker.incorporate(sample);
+      latency[detector].record(System.nanoTime() - t0);
+      return tracker.getPeakLocation();
+    }
+  }
+
+  /**
+   * Pass one sample to each detector.
+   *
+   * Detectors are processed in parallel using the common pool.
+   *
+   * @param samples holds one sample for each detector. Detectors with a null
+   * sample are skipped.
+   * @return the current peak location for each detector.
+   */
+  public double[] incorporate(List<IntegerSpectrum> samples)
+  {
+    return incorporate(samples, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Pass one sample to each detector.
+   *
+   * @param samples holds one sample for each detector. Detectors with a null
+   * sample are skipped.
+   * @param executor is used to process the detectors.
+   * @return the current peak location for each detector.
+   */
+  public double[] incorporate(List<IntegerSpectrum> samples, ExecutorService executor)
+  {
+    if (samples.size() != trackers.length)
+      throw new IllegalArgumentException("Size mismatch " + samples.size() + "!=" + trackers.length);
+    double[] out = new double[trackers.length];
+    ExecutorUtilities.executeEach(trackers.length, 1, executor, i ->
+    {
+      IntegerSpectrum sample = samples.get(i);
+      out[i] = (sample == null) ? trackers[i].getPeakLocation() : incorporate(i, sample);
+    });
+    return out;
+  }
+
+  /**
+   * Get the locked state of each detector.
+   *
+   * @return true for each detector which is locked.
+   */
+  public boolean[] getLocked()
+  {
+    boolean[] out = new boolean[trackers.length];
+    for (int i = 0; i < trackers.length; ++i)
+    {
+      synchronized (trackers[i])
+      {
+        out[i] = trackers[i].isLocked();
+      }
+    }
+    return out;
+  }
+
+  /**
+   * Get the time spent processing samples for a detector.
+   *
+   * @param detector
+   * @return the latency histogram for the detector.
+   */
+  public LatencyHistogram getLatency(int detector)
+  {
+    return latency[detector];
+  }
+
+  /**
+   * Clear the accumulated latency histograms.
+   */
+  public void resetStatistics()
+  {
+    for (LatencyHistogram h : latency)
+      h.reset();
+  }
+
+  /**
+   * Histogram of processing times.
+   *
+   * Times are binned by powers of two in nanoseconds so that recording does
+   * not allocate. Percentiles are reported as the upper edge of the bin.
+   */
+  public static class LatencyHistogram
+  {
+    private static final int BINS = 64;
+    private final AtomicLongArray counts = new AtomicLongArray(BINS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong maximum = new AtomicLong();
+
+    void record(long nanos)
+    {
+      if (nanos < 0)
+        nanos = 0;
+      counts.incrementAndGet(bin(nanos));
+      total.addAndGet(nanos);
+      maximum.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return the number of samples recorded.
+     */
+    public long getCount()
+    {
+      long n = 0;
+      for (int i = 0; i < BINS; ++i)
+        n += counts.get(i);
+      return n;
+    }
+
+    /**
+     * @return the mean time per sample in nanoseconds.
+     */
+    public double getMeanNanos()
+    {
+      long n = getCount();
+      return (n == 0) ? 0 : (double) total.get() / n;
+    }
+
+    /**
+     * @return the longest time for a sample in nanoseconds.
+     */
+    public long getMaximumNanos()
+    {
+      return maximum.get();
+    }
+
+    /**
+     * Get an upper bound on a percentile of the time per sample.
+     *
+     * @param percentile from 0 to 100.
+     * @return the upper edge of the bin holding the percentile in nanoseconds.
+     */
+    public long getPercentileNanos(double percentile)
+    {
+      long[] c = getCounts();
+      long n = 0;
+      for (long v : c)
+        n += v;
+      if (n == 0)
+        return 0;
+      long rank = (long) Math.ceil(percentile / 100.0 * n);
+      long sum = 0;
+      for (int i = 0; i < BINS; ++i)
+      {
+        sum += c[i];
+        if (sum >= rank && c[i] > 0)
+          return Math.min(getUpperEdge(i), maximum.get());
+      }
+      return maximum.get();
+    }
+
+    /**
+     * Get the counts in each bin. Bin i holds times below 2^i nanoseconds
+     * and at or above the previous bin edge.
+     *
+     * @return a copy of the counts.
+     */
+    public long[] getCounts()
+    {
+      long[] out = new long[BINS];
+      for (int i = 0; i < BINS; ++i)
+        out[i] = counts.get(i);
+      return out;
+    }
+
+    /**
+     * Get the upper edge of a bin.
+     *
+     * @param bin
+     * @return the edge in nanoseconds.
+     */
+    public static long getUpperEdge(int bin)
+    {
+      if (bin >= BINS - 1)
+        return Long.MAX_VALUE;
+      return 1L << bin;
+    }
+
+    public void reset()
+    {
+      for (int i = 0; i < BINS; ++i)
+        counts.set(i, 0);
+      total.set(0);
+      maximum.set(0);
+    }
+
+    @Override
+    public String toString()
+    {
+      return String.format("count=%d mean=%.1f ns p50=%d ns p99=%d ns max=%d ns",
+              getCount(), getMeanNanos(), getPercentileNanos(50), getPercentileNanos(99),
+              getMaximumNanos());
+    }
+
+    private static int bin(long nanos)
+    {
+      return Math.min(BINS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+  }
+}
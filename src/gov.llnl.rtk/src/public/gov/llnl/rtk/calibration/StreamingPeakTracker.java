@@ -0,0 +1,438 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.calibration;
+
+import static gov.llnl.math.TimeUtilities.convertTimeConstant;
+import gov.llnl.math.MathExceptions.ConvergenceException;
+import gov.llnl.rtk.data.ChannelView;
+import gov.llnl.rtk.data.DoubleSpectrum;
+import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.utility.InitializeException;
+import gov.llnl.utility.UUIDUtilities;
+import gov.llnl.utility.annotation.Debug;
+import gov.llnl.utility.xml.bind.ReaderInfo;
+
+/**
+ * Peak tracker which updates its state incrementally with each sample.
+ *
+ * This follows the same short and long term smoothing and bias correction as
+ * {@link PredictivePeakTracker} but only the channels in a window around the
+ * target peak are retained. Each sample is folded into exponentially weighted
+ * buffers for the window along with the weighted moments of the window, so no
+ * spectra are copied. Every decimation samples the peak is fit with a
+ * {@link GaussianFitter} using preallocated storage, starting from the
+ * previous solution once the tracker has warmed up.
+ *
+ * The smoothing is applied per sample, which is equivalent to smoothing the
+ * decimated sums with the same time constants.
+ *
+ * A fit which fails to converge counts as a failed test rather than
+ * propagating the exception.
+ */
+@ReaderInfo(StreamingPeakTrackerReader.class)
+public class StreamingPeakTracker implements PeakTracker
+{
+  private static final long serialVersionUID = UUIDUtilities.createLong("StreamingPeakTracker-v1");
+
+  // Parameters
+  int decimation = 30;
+  double meanTimeConstant = 60.0;
+  double biasTimeConstant = 300.0;
+  double spectralTimeConstant1 = 60; // time window short
+  double spectralTimeConstant2 = 1200;  // time window long
+  double windowMargin = 0.25;
+  double trust = 15;
+  int maxFailCount = 4;
+  GaussianFitter fitter = null;
+  PeakFinder finder = null;
+  PeakTester tester = null;
+  StabilizerTarget target = null;
+
+  // State variables
+  int total = 0;
+  int counter = 0;
+  double mean = 0;
+  double bias = 0;
+  double alpha;
+  double beta;
+  double biasFactor;
+  double decay1;
+  double decay2;
+  boolean locked = false;
+  int currentFailCount;
+  double location;
+  int windowStart;
+  int windowEnd;
+  double[] window1;
+  DoubleSpectrum window2;
+  double moment0;
+  double moment1;
+  double moment2;
+  transient GaussianFitter.Workspace fit1;
+  transient GaussianFitter.Workspace fit2;
+
+  @Debug public double peaks1;
+  @Debug public double peaks2;
+
+  @Override
+  public void clearHistory()
+  {
+    double expectedChannel = this.target.getChannel();
+    alpha = convertTimeConstant(biasTimeConstant, decimation);
+    beta = convertTimeConstant(meanTimeConstant, decimation);
+    decay1 = 1 - convertTimeConstant(spectralTimeConstant1, 1);
+    decay2 = 1 - convertTimeConstant(spectralTimeConstant2, 1);
+    biasFactor = 1 / (1 - spectralTimeConstant1 / spectralTimeConstant2);
+    mean = expectedChannel;
+    bias = 0;
+    total = 0;
+    counter = 0;
+    locked = false;
+    peaks1 = expectedChannel;
+    peaks2 = expectedChannel;
+    currentFailCount = maxFailCount;
+    location = expectedChannel;
+    moment0 = 0;
+    moment1 = 0;
+    moment2 = 0;
+    // Buffers are sized on the next sample
+    window1 = null;
+    window2 = null;
+    fit1 = new GaussianFitter.Workspace();
+    fit2 = new GaussianFitter.Workspace();
+  }
+
+  @Override
+  public double getPeakLocation()
+  {
+    return location;
+  }
+
+  @Override
+  public void incorporate(IntegerSpectrum sample)
+  {
+    ChannelView view = sample.getChannelView();
+    if (fit1 == null)
+    {
+      // Workspaces are not serialized
+      fit1 = new GaussianFitter.Workspace();
+      fit2 = new GaussianFitter.Workspace();
+    }
+    if (total == 0 || window2 == null || window2.size() != view.size())
+    {
+      clearHistory();
+      allocate(view.size());
+    }
+    if (total < spectralTimeConstant2)
+      total++;
+
+    // Fold the sample into the smoothed windows
+    double[] data2 = window2.toArray();
+    double s0 = 0;
+    double s1 = 0;
+    double s2 = 0;
+    for (int i = windowStart; i < windowEnd; ++i)
+    {
+      double c = view.getAsDouble(i);
+      window1[i - windowStart] = decay1 * window1[i - windowStart] + c;
+      data2[i] = decay2 * data2[i] + c;
+      s0 += c;
+      s1 += c * i;
+      s2 += c * i * i;
+    }
+    window2.clearCache();
+    window2.setLiveTime(decay2 * window2.getLiveTime() + sample.getLiveTime());
+    window2.setRealTime(decay2 * window2.getRealTime() + sample.getRealTime());
+    moment0 = decay2 * moment0 + s0;
+    moment1 = decay2 * moment1 + s1;
+    moment2 = decay2 * moment2 + s2;
+
+    // determining if time to update
+    counter++;
+    if (decimation > 0 && counter < decimation)
+      return;
+    counter = 0;
+
+    // Warmup period
+    if (total < spectralTimeConstant1)
+    {
+      double expected = this.target.getChannel();
+      if (finder != null)
+      {
+        finder.setExpectedChannel(expected);
+        PeakFinder.PeakFinderResult peakFinderResult = finder.initialSearch(window2);
+        if (peakFinderResult == null)
+          return;
+        expected = peakFinderResult.getPeakLocation();
+      }
+      if (!fit(fit2, data2, 0, expected, false))
+        return;
+      bias = 0;
+      mean = fit2.getPeakLocation();
+      peaks2 = mean;
+      test(fit2);
+      return;
+    }
+
+    // Start from the previous solution once the windows are established
+    double expected = locked ? peaks2 : mean;
+    if (!fit(fit1, window1, windowStart, expected, true)
+            || !fit(fit2, data2, 0, expected, true))
+    {
+      fail();
+      return;
+    }
+
+    peaks1 = fit1.getPeakLocation();
+    peaks2 = fit2.getPeakLocation();
+
+    //double exponential smoothing filter
+    if (total < spectralTimeConstant2 / 2)
+      mean = peaks2;
+    else
+      mean = (1 - beta) * mean + beta * peaks2;
+    double err = biasFactor * (mean - peaks1);
+    if (Math.abs(err) < trust)
+      bias = (1 - alpha) * bias + alpha * err;
+
+    test(fit2);
+  }
+
+  /**
+   * Get the centroid of the long term window.
+   *
+   * This is computed from the weighted moments and does not require a fit.
+   *
+   * @return the centroid in channels, or the target channel if no counts
+   * have been seen.
+   */
+  public double getCentroid()
+  {
+    if (moment0 <= 0)
+      return this.target.getChannel();
+    return moment1 / moment0;
+  }
+
+  /**
+   * Get the standard deviation of the counts in the long term window.
+   *
+   * @return the width in channels.
+   */
+  public double getCentroidWidth()
+  {
+    if (moment0 <= 0)
+      return 0;
+    double m = moment1 / moment0;
+    return Math.sqrt(Math.max(0, moment2 / moment0 - m * m));
+  }
+
+  /**
+   * Get the first channel of the window held by the tracker.
+   *
+   * @return the first channel (inclusive).
+   */
+  public int getWindowStart()
+  {
+    return windowStart;
+  }
+
+  /**
+   * Get the end of the window held by the tracker.
+   *
+   * @return the last channel (exclusive).
+   */
+  public int getWindowEnd()
+  {
+    return windowEnd;
+  }
+
+  /**
+   * @param decimation is the number of samples between fits.
+   */
+  public void setDecimation(int decimation)
+  {
+    this.decimation = decimation;
+  }
+
+  /**
+   * @param meanTimeConstant the meanTimeConstant to set
+   */
+  public void setMeanTimeConstant(double meanTimeConstant)
+  {
+    this.meanTimeConstant = meanTimeConstant;
+  }
+
+  /**
+   * @param biasTimeConstant the biasTimeConstant to set
+   */
+  public void setBiasTimeConstant(double biasTimeConstant)
+  {
+    this.biasTimeConstant = biasTimeConstant;
+  }
+
+  /**
+   * @param spectralTimeConstant1 the spectrumTimeConstant1 to set
+   */
+  public void setSpectralTimeConstant1(double spectralTimeConstant1)
+  {
+    this.spectralTimeConstant1 = spectralTimeConstant1;
+  }
+
+  /**
+   * @param spectralTimeConstant2 the spectrumTimeConstant2 to set
+   */
+  public void setSpectralTimeConstant2(double spectralTimeConstant2)
+  {
+    this.spectralTimeConstant2 = spectralTimeConstant2;
+  }
+
+  /**
+   * Set the extra channels held beyond the fit region for the target.
+   *
+   * @param windowMargin is the fraction of the target channel to add on each
+   * side of the fit region.
+   */
+  public void setWindowMargin(double windowMargin)
+  {
+    this.windowMargin = windowMargin;
+  }
+
+  /**
+   * @param fitter must be a GaussianFitter.
+   */
+  public void setFitter(PeakFitter fitter)
+  {
+    this.fitter = (GaussianFitter) fitter;
+  }
+
+  public void setFinder(PeakFinder finder)
+  {
+    this.finder = finder;
+  }
+
+  public void setTester(PeakTester tester)
+  {
+    this.tester = tester;
+  }
+
+  @Override
+  public PeakFinder getFinder()
+  {
+    return this.finder;
+  }
+
+  @Override
+  public PeakFitter getFitter()
+  {
+    return this.fitter;
+  }
+
+  @Override
+  public PeakTester getTester()
+  {
+    return this.tester;
+  }
+
+  @Override
+  public void initialize() throws InitializeException
+  {
+    if (this.spectralTimeConstant1 > this.spectralTimeConstant2)
+      throw new InitializeException("Time constant 1 is greater than time constant 2.");
+    if (this.target == null)
+      throw new InitializeException("Target not set.");
+    if (this.fitter == null)
+      throw new InitializeException("Fitter not set.");
+    this.currentFailCount = this.maxFailCount;
+  }
+
+  @Override
+  public void setTarget(StabilizerTarget target)
+  {
+    this.target = target;
+  }
+
+  /**
+   * Get if the system is locked. This has a hysteresis to prevent problems.
+   *
+   * @return
+   */
+  @Override
+  public boolean isLocked()
+  {
+    return currentFailCount < maxFailCount;
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private void allocate(int channels)
+  {
+    double expected = this.target.getChannel();
+    fitter.setExpectedChannel(expected);
+    int margin = (int) Math.ceil(windowMargin * expected);
+    windowStart = Math.max(0, fitter.regionStart - margin);
+    windowEnd = Math.min(channels, fitter.regionEnd + margin);
+    if (windowEnd < windowStart)
+      windowEnd = windowStart;
+    window1 = new double[windowEnd - windowStart];
+    window2 = new DoubleSpectrum(new double[channels], 0, 0);
+  }
+
+  /**
+   * Fit the peak in the region for an expected channel.
+   *
+   * @return true if the fit converged.
+   */
+  private boolean fit(GaussianFitter.Workspace workspace, double[] data, int offset,
+          double expected, boolean warm)
+  {
+    fitter.setExpectedChannel(expected);
+    int start = Math.max(fitter.regionStart, windowStart);
+    int end = Math.min(fitter.regionEnd, windowEnd);
+    if (end - start < 2)
+      return false;
+    try
+    {
+      workspace.fit(data, offset, start, end, warm, fitter.alpha, fitter.iterations);
+      double peak = workspace.getPeakLocation();
+      return !Double.isNaN(peak);
+    }
+    catch (ConvergenceException ex)
+    {
+      workspace.reset();
+      return false;
+    }
+  }
+
+  private void test(GaussianFitter.Workspace workspace)
+  {
+    if (currentFailCount < maxFailCount)
+      currentFailCount++;
+
+    // The result is only produced when a tester needs it
+    locked = true;
+    if (tester != null)
+    {
+      PeakFitter.PeakFitterResult result = workspace.toResult(window2.toArray());
+      locked = tester.testPeakFit(window2, result).isPassed();
+    }
+
+    if (locked == true)
+    {
+      currentFailCount = 0;
+      this.location = mean - bias;
+    }
+  }
+
+  private void fail()
+  {
+    if (currentFailCount < maxFailCount)
+      currentFailCount++;
+    locked = false;
+    fit1.reset();
+    fit2.reset();
+  }
+//</editor-fold>
+}
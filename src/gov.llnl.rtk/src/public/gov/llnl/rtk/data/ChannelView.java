@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+/**
+ * Read only access to the channels of a spectrum as doubles.
+ *
+ * Spectra that store their counts in another type implement this directly on
+ * their storage so that callers can read the counts without promoting the
+ * whole array with {@code toDoubles()}.
+ *
+ * The view reflects the current contents of the spectrum. Derived quantities
+ * such as the cumulative sum are cached by the spectrum and are cleared with
+ * {@code clearCache()}.
+ */
+public interface ChannelView
+{
+  /**
+   * Get the number of channels.
+   *
+   * @return the number of channels.
+   */
+  int size();
+
+  /**
+   * Get the counts in one channel.
+   *
+   * @param channel
+   * @return the counts in the channel.
+   */
+  double getAsDouble(int channel);
+
+  /**
+   * Sum the counts in a range of channels.
+   *
+   * @param begin is the first channel (inclusive).
+   * @param end is the last channel (exclusive).
+   * @return the total counts in the range.
+   */
+  default double sumRange(int begin, int end)
+  {
+    double sum = 0;
+    for (int i = begin; i < end; ++i)
+      sum += getAsDouble(i);
+    return sum;
+  }
+
+  /**
+   * Get the sum of all channels below a channel.
+   *
+   * @param channel is the first channel excluded, from 0 to size().
+   * @return the total counts below the channel.
+   */
+  default double getCumulative(int channel)
+  {
+    return sumRange(0, channel);
+  }
+
+  /**
+   * Copy the counts into an array.
+   *
+   * @param out is the destination, or null to allocate a new array.
+   * @return the array holding the counts, which is out if it was large enough.
+   */
+  default double[] copyTo(double[] out)
+  {
+    int n = size();
+    if (out == null || out.length < n)
+      out = new double[n];
+    for (int i = 0; i < n; ++i)
+      out[i] = getAsDouble(i);
+    return out;
+  }
+
+  /**
+   * Compute the weighted sum of the channels.
+   *
+   * @param weights must have at least size() entries.
+   * @return the sum of the counts times the weights.
+   */
+  default double dot(double[] weights)
+  {
+    int n = size();
+    double sum = 0;
+    for (int i = 0; i < n; ++i)
+      sum += getAsDouble(i) * weights[i];
+    return sum;
+  }
+}
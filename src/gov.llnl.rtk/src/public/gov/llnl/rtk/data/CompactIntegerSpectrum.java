@@ -0,0 +1,552 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import gov.llnl.math.DoubleArray;
+import gov.llnl.math.MathExceptions.MathException;
+import gov.llnl.utility.UUIDUtilities;
+import gov.llnl.utility.xml.bind.ReaderInfo;
+import gov.llnl.utility.xml.bind.WriterInfo;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Integer spectrum stored with 16 bits per channel.
+ *
+ * Channels with counts from 0 to 65534 are held directly. Channels outside of
+ * that range are marked and their counts are held in a sorted side table.
+ * Measured spectra rarely have more than a handful of channels that overflow,
+ * so the storage is close to a quarter of a double spectrum.
+ *
+ * The storage is not exposed; {@code toArray()} is not supported. Use
+ * {@link #get(int)}, {@link #toIntegers()} or the channel view to read the
+ * counts. Generic operations in {@link SpectrumOps} handle compact spectra
+ * through the channel view and the count class.
+ */
+@ReaderInfo(CompactIntegerSpectrumReader.class)
+@WriterInfo(CompactIntegerSpectrumWriter.class)
+public class CompactIntegerSpectrum extends SpectrumBase<int[]> implements ChannelView, Serializable
+{
+  private static final long serialVersionUID = UUIDUtilities.createLong("CompactIntegerSpectrum-v1");
+  private static final int ESCAPE = 0xffff;
+  private static final int[] EMPTY = new int[0];
+
+  private short[] data = null;
+  private int[] overflowChannels = EMPTY;
+  private int[] overflowValues = EMPTY;
+  private int overflowSize = 0;
+  private int underrange;
+  private int overrange;
+  // Cache
+  private long counts = Long.MIN_VALUE;
+  private transient long[] cumulative = null;
+
+  public CompactIntegerSpectrum()
+  {
+    super();
+  }
+
+  /**
+   *
+   * @param data
+   * @param lt is the livetime in seconds.
+   * @param rt is the realtime in seconds.
+   */
+  public CompactIntegerSpectrum(int[] data, double lt, double rt)
+  {
+    super(lt, rt);
+    encode(data);
+    this.setValidRange(0, data.length);
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param obj must hold integer counts.
+   * @throws RuntimeException if the spectrum has fractional counts.
+   */
+  public CompactIntegerSpectrum(Spectrum obj)
+  {
+    super(obj);
+    if (obj instanceof CompactIntegerSpectrum)
+    {
+      CompactIntegerSpectrum in = (CompactIntegerSpectrum) obj;
+      this.data = (in.data == null) ? null : in.data.clone();
+      this.overflowChannels = Arrays.copyOf(in.overflowChannels, in.overflowSize);
+      this.overflowValues = Arrays.copyOf(in.overflowValues, in.overflowSize);
+      this.overflowSize = in.overflowSize;
+    }
+    else
+    {
+      double[] values = obj.getChannelView().copyTo(null);
+      try
+      {
+        DoubleArray.assertIntegerArray(values);
+      }
+      catch (MathException ex)
+      {
+        throw new RuntimeException("Cannot create integer spectrum from double array", ex);
+      }
+      int[] ints = new int[values.length];
+      for (int i = 0; i < values.length; ++i)
+        ints[i] = (int) values[i];
+      encode(ints);
+    }
+    this.underrange = (int) obj.getUnderRangeCounts();
+    this.overrange = (int) obj.getOverRangeCounts();
+  }
+
+  /**
+   * Copy values into the spectrum.
+   *
+   * @param values
+   */
+  public void assign(int[] values)
+  {
+    encode(values);
+    clearCache();
+  }
+
+  /**
+   * Get the counts in a channel.
+   *
+   * @param channel
+   * @return the counts.
+   */
+  public int get(int channel)
+  {
+    int v = data[channel] & 0xffff;
+    if (v != ESCAPE)
+      return v;
+    return overflowValues[Arrays.binarySearch(overflowChannels, 0, overflowSize, channel)];
+  }
+
+  /**
+   * Set the counts in a channel.
+   *
+   * @param channel
+   * @param value
+   */
+  public void set(int channel, int value)
+  {
+    boolean escaped = (data[channel] & 0xffff) == ESCAPE;
+    if (value >= 0 && value < ESCAPE)
+    {
+      if (escaped)
+        removeOverflow(Arrays.binarySearch(overflowChannels, 0, overflowSize, channel));
+      data[channel] = (short) value;
+    }
+    else
+    {
+      data[channel] = (short) ESCAPE;
+      int k = escaped ? Arrays.binarySearch(overflowChannels, 0, overflowSize, channel)
+              : -Arrays.binarySearch(overflowChannels, 0, overflowSize, channel) - 1;
+      if (escaped)
+        overflowValues[k] = value;
+      else
+        insertOverflow(k, channel, value);
+    }
+    clearCache();
+  }
+
+  /**
+   * Get a copy of the counts.
+   *
+   * @return a new array holding the counts.
+   */
+  public int[] toIntegers()
+  {
+    int n = size();
+    int[] out = new int[n];
+    int k = 0;
+    for (int i = 0; i < n; ++i)
+    {
+      int v = data[i] & 0xffff;
+      out[i] = (v != ESCAPE) ? v : overflowValues[k++];
+    }
+    return out;
+  }
+
+  /**
+   * Get the number of channels held in the side table.
+   *
+   * @return the number of channels outside of the 16 bit range.
+   */
+  public int getOverflowSize()
+  {
+    return overflowSize;
+  }
+
+//<editor-fold desc="math">
+  /**
+   * Add an integer spectrum to the this spectrum. Increases the livetime and
+   * realtime accordingly.
+   *
+   * @param obj must hold integer counts.
+   * @return this spectrum.
+   */
+  @Override
+  public <T> CompactIntegerSpectrum addAssign(Spectrum<T> obj)
+  {
+    return combine(obj, 1);
+  }
+
+  public <T> CompactIntegerSpectrum subtractAssign(Spectrum<T> obj)
+  {
+    return combine(obj, -1);
+  }
+
+  /**
+   * Multiply the counts in each channel by a factor.
+   *
+   * The counts are rounded to the nearest integer. The livetime, realtime and
+   * the out of range counts are not altered.
+   *
+   * @param factor
+   * @return this spectrum.
+   */
+  public CompactIntegerSpectrum scaleCounts(double factor)
+  {
+    if (data == null)
+      return this;
+    if (overflowSize == 0 && factor >= 0 && factor <= 1)
+    {
+      // Counts only shrink so no channel can overflow
+      for (int i = 0; i < data.length; ++i)
+        data[i] = (short) Math.round((data[i] & 0xffff) * factor);
+    }
+    else
+    {
+      int[] values = toIntegers();
+      for (int i = 0; i < values.length; ++i)
+        values[i] = (int) Math.round(values[i] * factor);
+      encode(values);
+    }
+    clearCache();
+    return this;
+  }
+//</editor-fold>
+
+  /**
+   * Compute the total counts in the valid region of the spectrum.
+   *
+   * @return the total counts.
+   */
+  @Override
+  public double getCounts()
+  {
+    if (counts == Long.MIN_VALUE)
+      counts = sum(this.getMinimumValidChannel(), this.getMaximumValidChannel());
+    return counts;
+  }
+
+  @Override
+  public double getRate()
+  {
+    double livetime = this.getLiveTime();
+    if (livetime <= 0)
+      return 0;
+    return getCounts() / livetime;
+  }
+
+  @Override
+  public void clear()
+  {
+    super.clear();
+    if (data != null)
+      Arrays.fill(data, (short) 0);
+    this.overflowSize = 0;
+    this.underrange = 0;
+    this.overrange = 0;
+  }
+
+  @Override
+  public int size()
+  {
+    if (data == null)
+      return 0;
+    return data.length;
+  }
+
+  @Override
+  public void resize(int size)
+  {
+    if (size <= 0)
+      throw new RuntimeException("bad size " + size);
+    data = new short[size];
+    overflowSize = 0;
+    this.setValidRange(0, size);
+    clearCache();
+  }
+
+  /**
+   * The storage of a compact spectrum is not exposed.
+   *
+   * @return never.
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public int[] toArray() throws UnsupportedOperationException
+  {
+    throw new UnsupportedOperationException("Compact spectra do not expose storage");
+  }
+
+  @Override
+  public void clearCache()
+  {
+    this.counts = Long.MIN_VALUE;
+    this.cumulative = null;
+  }
+
+  @Override
+  public double[] toDoubles()
+  {
+    return copyTo(null);
+  }
+
+  @Override
+  public Class getCountClass()
+  {
+    return int[].class;
+  }
+
+  @Override
+  protected void assignData(Object obj)
+  {
+    if (obj instanceof int[])
+      encode((int[]) obj);
+    else
+      throw new UnsupportedOperationException("Unable to assign data from " + obj.getClass());
+    clearCache();
+  }
+
+  @Override
+  public double getCounts(RegionOfInterest roi)
+  {
+    // if there is no roi set we just want total counts
+    if (roi == null)
+      return this.getCounts();
+
+    int minimumValidChannel = this.getMinimumValidChannel();
+    int maximumValidChannel = this.getMaximumValidChannel();
+    EnergyScale bins = this.getEnergyScale();
+
+    int[] channels = roi.getChannels(bins);
+    // otherwise convert the roi to channels
+    int lower = channels[0];
+    if (lower < minimumValidChannel)
+      lower = minimumValidChannel;
+
+    int upper = channels[1];
+    if (upper > maximumValidChannel)
+      upper = maximumValidChannel;
+
+    return sumRange(lower, upper);
+  }
+
+  @Override
+  public double getRate(RegionOfInterest roi)
+  {
+    double livetime = getLiveTime();
+    if (roi == null)
+      return this.getRate();
+    if (livetime <= 0)
+      return 0;
+    return this.getCounts(roi) / livetime;
+  }
+
+//<editor-fold desc="channel view">
+  @Override
+  public ChannelView getChannelView()
+  {
+    return this;
+  }
+
+  @Override
+  public double getAsDouble(int channel)
+  {
+    return get(channel);
+  }
+
+  @Override
+  public double sumRange(int begin, int end)
+  {
+    long[] c = this.cumulative;
+    if (c != null)
+      return c[end] - c[begin];
+    return sum(begin, end);
+  }
+
+  /**
+   * Get the sum of all channels below a channel.
+   *
+   * The cumulative sum is computed on first use and held until
+   * {@code clearCache} is called.
+   *
+   * @param channel is the first channel excluded, from 0 to size().
+   * @return the total counts below the channel.
+   */
+  @Override
+  public double getCumulative(int channel)
+  {
+    long[] c = this.cumulative;
+    if (c == null)
+    {
+      int n = size();
+      c = new long[n + 1];
+      int k = 0;
+      for (int i = 0; i < n; ++i)
+      {
+        int v = data[i] & 0xffff;
+        c[i + 1] = c[i] + ((v != ESCAPE) ? v : overflowValues[k++]);
+      }
+      this.cumulative = c;
+    }
+    return c[channel];
+  }
+
+  @Override
+  public double[] copyTo(double[] out)
+  {
+    int n = size();
+    if (out == null || out.length < n)
+      out = new double[n];
+    int k = 0;
+    for (int i = 0; i < n; ++i)
+    {
+      int v = data[i] & 0xffff;
+      out[i] = (v != ESCAPE) ? v : overflowValues[k++];
+    }
+    return out;
+  }
+//</editor-fold>
+//<editor-fold desc="out-of-range">
+  @Override
+  public double getUnderRangeCounts()
+  {
+    return this.underrange;
+  }
+
+  @Override
+  public void setUnderRange(double value)
+  {
+    this.underrange = (int) value;
+  }
+
+  @Override
+  public double getOverRangeCounts()
+  {
+    return this.overrange;
+  }
+
+  @Override
+  public void setOverRange(double value)
+  {
+    this.overrange = (int) value;
+  }
+//</editor-fold>
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private void encode(int[] values)
+  {
+    int n = values.length;
+    short[] d = (data != null && data.length == n) ? data : new short[n];
+    int escapes = 0;
+    for (int i = 0; i < n; ++i)
+    {
+      int v = values[i];
+      if (v >= 0 && v < ESCAPE)
+        d[i] = (short) v;
+      else
+      {
+        d[i] = (short) ESCAPE;
+        escapes++;
+      }
+    }
+    int[] channels = (escapes == 0) ? EMPTY : new int[escapes];
+    int[] overflow = (escapes == 0) ? EMPTY : new int[escapes];
+    for (int i = 0, k = 0; k < escapes; ++i)
+    {
+      if ((d[i] & 0xffff) == ESCAPE)
+      {
+        channels[k] = i;
+        overflow[k++] = values[i];
+      }
+    }
+    this.data = d;
+    this.overflowChannels = channels;
+    this.overflowValues = overflow;
+    this.overflowSize = escapes;
+  }
+
+  private long sum(int begin, int end)
+  {
+    // Find the first overflow at or after the start of the range
+    int k = Arrays.binarySearch(overflowChannels, 0, overflowSize, begin);
+    if (k < 0)
+      k = -k - 1;
+    long sum = 0;
+    for (int i = begin; i < end; ++i)
+    {
+      int v = data[i] & 0xffff;
+      sum += (v != ESCAPE) ? v : overflowValues[k++];
+    }
+    return sum;
+  }
+
+  private <T> CompactIntegerSpectrum combine(Spectrum<T> obj, int sign)
+  {
+    if (obj == null)
+      return this;
+    if (!int[].class.equals(obj.getCountClass()))
+      throw new UnsupportedOperationException("Unable to handle non-integer spectrum types");
+    ChannelView view = obj.getChannelView();
+    int n = view.size();
+    if (data == null)
+      data = new short[n];
+    if (n != data.length)
+      throw new IllegalArgumentException("Size mismatch " + n + "!=" + data.length);
+    if (sign > 0)
+      super.addAssignBase(obj);
+    else
+      super.subtractAssignBase(obj);
+    for (int i = 0; i < n; ++i)
+    {
+      int u = (int) view.getAsDouble(i);
+      if (u == 0)
+        continue;
+      int v = (data[i] & 0xffff) + sign * u;
+      if ((data[i] & 0xffff) != ESCAPE && v >= 0 && v < ESCAPE)
+        data[i] = (short) v;
+      else
+        set(i, get(i) + sign * u);
+    }
+    return this;
+  }
+
+  private void insertOverflow(int k, int channel, int value)
+  {
+    if (overflowSize == overflowChannels.length)
+    {
+      int capacity = Math.max(4, overflowSize * 2);
+      overflowChannels = Arrays.copyOf(overflowChannels, capacity);
+      overflowValues = Arrays.copyOf(overflowValues, capacity);
+    }
+    System.arraycopy(overflowChannels, k, overflowChannels, k + 1, overflowSize - k);
+    System.arraycopy(overflowValues, k, overflowValues, k + 1, overflowSize - k);
+    overflowChannels[k] = channel;
+    overflowValues[k] = value;
+    overflowSize++;
+  }
+
+  private void removeOverflow(int k)
+  {
+    System.arraycopy(overflowChannels, k + 1, overflowChannels, k, overflowSize - k - 1);
+    System.arraycopy(overflowValues, k + 1, overflowValues, k, overflowSize - k - 1);
+    overflowSize--;
+  }
+//</editor-fold>
+}
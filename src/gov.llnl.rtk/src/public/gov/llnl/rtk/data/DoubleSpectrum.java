@@ -21,7 +21,7 @@ import java.util.Arrays;
  * @author nelson85
  */
 @ReaderInfo(DoubleSpectrumReader.class)
-public class DoubleSpectrum extends SpectrumBase<double[]> implements Serializable
+public class DoubleSpectrum extends SpectrumBase<double[]> implements ChannelView, Serializable
 {
   private static final long serialVersionUID = UUIDUtilities.createLong("DoubleSpectrum-v2");
   private double[] data;
@@ -29,6 +29,7 @@ public class DoubleSpectrum extends SpectrumBase<double[]> implements Serializab
   private double underRangeCounts;
   // Cache for efficiency
   private double counts = Double.NEGATIVE_INFINITY;
+  private transient double[] cumulative = null;
 
   public DoubleSpectrum()
   {
@@ -63,6 +64,21 @@ public class DoubleSpectrum extends SpectrumBase<double[]> implements Serializab
     underRangeCounts = in.getUnderRangeCounts();
   }
 
+  /**
+   * Copy constructor using supplied storage.
+   *
+   * @param in
+   * @param storage must have the same length as in.
+   */
+  <T> DoubleSpectrum(Spectrum<T> in, double[] storage)
+  {
+    super(in);
+    data = in.getChannelView().copyTo(storage);
+    this.setValidRange(0, data.length);
+    overRangeCounts = in.getOverRangeCounts();
+    underRangeCounts = in.getUnderRangeCounts();
+  }
+
   /**
    * Set the gamma data to a fixed array. Clears underrange, overrange, and
    * valid range data.
@@ -75,6 +91,7 @@ public class DoubleSpectrum extends SpectrumBase<double[]> implements Serializab
     this.setValidRange(0, data.length);
     this.underRangeCounts = 0;
     this.overRangeCounts = 0;
+    clearCache();
   }
 
 //<editor-fold desc="math">
@@ -100,6 +117,7 @@ public class DoubleSpectrum extends SpectrumBase<double[]> implements Serializab
       DoubleArray.addAssign(data, objdata);
     this.overRangeCounts += obj.getOverRangeCounts();
     this.underRangeCounts += obj.getUnderRangeCounts();
+    clearCache();
     return this;
   }
 
@@ -193,6 +211,7 @@ public class DoubleSpectrum extends SpectrumBase<double[]> implements Serializab
   public void clearCache()
   {
     counts = Double.NEGATIVE_INFINITY;
+    cumulative = null;
   }
 
   @Override
@@ -226,6 +245,7 @@ public class DoubleSpectrum extends SpectrumBase<double[]> implements Serializab
     else
       throw new UnsupportedOperationException("Unable to assign data from " + obj.getClass());
     this.setValidRange(0, this.data.length);
+    clearCache();
   }
 
   @Override
@@ -262,6 +282,74 @@ public class DoubleSpectrum extends SpectrumBase<double[]> implements Serializab
     return this.getCounts(roi) / livetime;
   }
 
+//<editor-fold desc="channel view">
+  @Override
+  public ChannelView getChannelView()
+  {
+    return this;
+  }
+
+  @Override
+  public double getAsDouble(int channel)
+  {
+    return data[channel];
+  }
+
+  @Override
+  public double sumRange(int begin, int end)
+  {
+    return DoubleArray.sumRange(data, begin, end);
+  }
+
+  /**
+   * Get the sum of all channels below a channel.
+   *
+   * The cumulative sum is computed on first use and held until
+   * {@code clearCache} is called.
+   *
+   * @param channel is the first channel excluded, from 0 to size().
+   * @return the total counts below the channel.
+   */
+  @Override
+  public double getCumulative(int channel)
+  {
+    double[] c = this.cumulative;
+    if (c == null)
+    {
+      int n = size();
+      c = new double[n + 1];
+      double sum = 0;
+      for (int i = 0; i < n; ++i)
+      {
+        sum += data[i];
+        c[i + 1] = sum;
+      }
+      this.cumulative = c;
+    }
+    return c[channel];
+  }
+
+  @Override
+  public double[] copyTo(double[] out)
+  {
+    int n = size();
+    if (out == null || out.length < n)
+      out = new double[n];
+    if (n > 0)
+      System.arraycopy(data, 0, out, 0, n);
+    return out;
+  }
+
+  @Override
+  public double dot(double[] weights)
+  {
+    int n = size();
+    double sum = 0;
+    for (int i = 0; i < n; ++i)
+      sum += data[i] * weights[i];
+    return sum;
+  }
+//</editor-fold>
 //<editor-fold desc="out-of-range">
   @Override
   public double getUnderRangeCounts()
@@ -341,6 +429,7 @@ public class DoubleSpectrum extends SpectrumBase<double[]> implements Serializab
     double[] b1 = this.getEnergyScale().getEdges();
     double[] b2 = bins.getEdges();
     data = RebinUtilities.rebin(data, b1, b2);
+    clearCache();
     double oldEMin = this.getEnergyScale().getEnergyOfEdge(this.getMinimumValidChannel());
     double oldEMax = this.getEnergyScale().getEnergyOfEdge(this.getMaximumValidChannel());
     
@@ -86,6 +86,21 @@ public interface EnergyScale extends Expandable, Serializable
    * @return fractional bins
    */
   double findBin(double energy);
+
+  /**
+   * Find the fractional bins for many energies.
+   *
+   * This is equivalent to calling {@link #findBin} for each energy, but
+   * implementations may share work between calls. No storage is allocated.
+   *
+   * @param energies
+   * @param out must be at least as long as energies.
+   */
+  default void convertEnergyToEdge(double[] energies, double[] out)
+  {
+    for (int i = 0; i < energies.length; ++i)
+      out[i] = findBin(energies[i]);
+  }
   
   /** 
    * Get the highest energy that is in scale.
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import gov.llnl.utility.UUIDUtilities;
+import gov.llnl.utility.xml.bind.ReaderInfo;
+import gov.llnl.utility.xml.bind.WriterInfo;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Spectrum with counts stored in single precision.
+ *
+ * This is used for large libraries of spectral shapes where the storage of
+ * the counts dominates. Sums over the channels are accumulated in double
+ * precision.
+ */
+@ReaderInfo(FloatSpectrumReader.class)
+@WriterInfo(FloatSpectrumWriter.class)
+public class FloatSpectrum extends SpectrumBase<float[]> implements ChannelView, Serializable
+{
+  private static final long serialVersionUID = UUIDUtilities.createLong("FloatSpectrum-v1");
+  private float[] data;
+  private double overRangeCounts;
+  private double underRangeCounts;
+  // Cache
+  private double counts = Double.NEGATIVE_INFINITY;
+  private transient double[] cumulative = null;
+
+  public FloatSpectrum()
+  {
+  }
+
+  /**
+   *
+   * @param data
+   * @param livetime is the livetime in seconds.
+   * @param realtime is the realtime in seconds.
+   */
+  public FloatSpectrum(float[] data, double livetime, double realtime)
+  {
+    super(livetime, realtime);
+    this.data = data;
+    this.setValidRange(0, data.length);
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * The counts are converted to single precision.
+   *
+   * @param in
+   */
+  public FloatSpectrum(Spectrum in)
+  {
+    super(in);
+    ChannelView view = in.getChannelView();
+    data = new float[view.size()];
+    for (int i = 0; i < data.length; ++i)
+      data[i] = (float) view.getAsDouble(i);
+    overRangeCounts = in.getOverRangeCounts();
+    underRangeCounts = in.getUnderRangeCounts();
+  }
+
+//<editor-fold desc="math">
+  /**
+   * Add the counts of another spectrum to this spectrum. Increases the
+   * livetime and realtime accordingly.
+   *
+   * @param obj can be any type of spectrum with the same number of channels.
+   * @return this spectrum.
+   */
+  @Override
+  public <T> FloatSpectrum addAssign(Spectrum<T> obj)
+  {
+    if (obj == null)
+      return this;
+    ChannelView view = obj.getChannelView();
+    if (data == null)
+      data = new float[view.size()];
+    if (view.size() != data.length)
+      throw new IllegalArgumentException("Size mismatch " + view.size() + "!=" + data.length);
+    super.addAssignBase(obj);
+    for (int i = 0; i < data.length; ++i)
+      data[i] += view.getAsDouble(i);
+    return this;
+  }
+
+  public <T> FloatSpectrum subtractAssign(Spectrum<T> obj)
+  {
+    if (obj == null)
+      return this;
+    ChannelView view = obj.getChannelView();
+    if (data == null)
+      data = new float[view.size()];
+    if (view.size() != data.length)
+      throw new IllegalArgumentException("Size mismatch " + view.size() + "!=" + data.length);
+    super.subtractAssignBase(obj);
+    for (int i = 0; i < data.length; ++i)
+      data[i] -= view.getAsDouble(i);
+    return this;
+  }
+
+  public FloatSpectrum multiplyAssign(double d)
+  {
+    for (int i = 0; i < data.length; ++i)
+      data[i] *= d;
+    this.setLiveTime(getLiveTime() * d);
+    this.setRealTime(getRealTime() * d);
+    this.overRangeCounts *= d;
+    this.underRangeCounts *= d;
+    this.clearCache();
+    return this;
+  }
+//</editor-fold>
+
+  @Override
+  public double getCounts()
+  {
+    if (counts == Double.NEGATIVE_INFINITY)
+      counts = sumRange(this.getMinimumValidChannel(), this.getMaximumValidChannel());
+    return counts;
+  }
+
+  @Override
+  public double getRate()
+  {
+    double livetime = getLiveTime();
+    if (livetime <= 0)
+      return 0;
+    return getCounts() / livetime;
+  }
+
+  @Override
+  public int size()
+  {
+    if (data == null)
+      return 0;
+    return data.length;
+  }
+
+  @Override
+  public void resize(int size)
+  {
+    if (size <= 0)
+      throw new RuntimeException("bad size " + size);
+    data = new float[size];
+    this.setValidRange(0, size);
+    clearCache();
+  }
+
+  /**
+   * Get the spectrum data. This is not a copy of the data. {@code clearCache}
+   * should be called after modifying the contents.
+   *
+   * @return the underlying array holding the data.
+   */
+  @Override
+  public float[] toArray()
+  {
+    return data;
+  }
+
+  @Override
+  public void clearCache()
+  {
+    counts = Double.NEGATIVE_INFINITY;
+    cumulative = null;
+  }
+
+  @Override
+  public void clear()
+  {
+    super.clear();
+    if (data != null)
+      Arrays.fill(data, 0);
+    this.underRangeCounts = 0;
+    this.overRangeCounts = 0;
+  }
+
+  @Override
+  public double[] toDoubles()
+  {
+    return copyTo(null);
+  }
+
+  @Override
+  public Class getCountClass()
+  {
+    return float[].class;
+  }
+
+  @Override
+  protected void assignData(Object obj)
+  {
+    if (obj instanceof float[])
+      this.data = (float[]) obj;
+    else if (obj instanceof double[])
+    {
+      double[] in = (double[]) obj;
+      this.data = new float[in.length];
+      for (int i = 0; i < in.length; ++i)
+        this.data[i] = (float) in[i];
+    }
+    else if (obj instanceof int[])
+    {
+      int[] in = (int[]) obj;
+      this.data = new float[in.length];
+      for (int i = 0; i < in.length; ++i)
+        this.data[i] = in[i];
+    }
+    else
+      throw new UnsupportedOperationException("Unable to assign data from " + obj.getClass());
+    this.setValidRange(0, this.data.length);
+    clearCache();
+  }
+
+  @Override
+  public double getCounts(RegionOfInterest roi)
+  {
+    // if there is no roi set we just want total counts
+    if (roi == null)
+      return this.getCounts();
+
+    int minimumValidChannel = this.getMinimumValidChannel();
+    int maximumValidChannel = this.getMaximumValidChannel();
+
+    // otherwise convert the roi to channels
+    int[] channels = roi.getChannels(this.getEnergyScale());
+    int lower = channels[0];
+    if (lower < minimumValidChannel)
+      lower = minimumValidChannel;
+
+    int upper = channels[1];
+    if (upper > maximumValidChannel)
+      upper = maximumValidChannel;
+
+    return sumRange(lower, upper);
+  }
+
+  @Override
+  public double getRate(RegionOfInterest roi)
+  {
+    double livetime = this.getLiveTime();
+    if (roi == null)
+      return this.getRate();
+    if (livetime <= 0)
+      return 0;
+    return this.getCounts(roi) / livetime;
+  }
+
+//<editor-fold desc="channel view">
+  @Override
+  public ChannelView getChannelView()
+  {
+    return this;
+  }
+
+  @Override
+  public double getAsDouble(int channel)
+  {
+    return data[channel];
+  }
+
+  @Override
+  public double sumRange(int begin, int end)
+  {
+    double sum = 0;
+    for (int i = begin; i < end; ++i)
+      sum += data[i];
+    return sum;
+  }
+
+  /**
+   * Get the sum of all channels below a channel.
+   *
+   * The cumulative sum is computed in double precision on first use and held
+   * until {@code clearCache} is called.
+   *
+   * @param channel is the first channel excluded, from 0 to size().
+   * @return the total counts below the channel.
+   */
+  @Override
+  public double getCumulative(int channel)
+  {
+    double[] c = this.cumulative;
+    if (c == null)
+    {
+      int n = size();
+      c = new double[n + 1];
+      double sum = 0;
+      for (int i = 0; i < n; ++i)
+      {
+        sum += data[i];
+        c[i + 1] = sum;
+      }
+      this.cumulative = c;
+    }
+    return c[channel];
+  }
+
+  @Override
+  public double[] copyTo(double[] out)
+  {
+    int n = size();
+    if (out == null || out.length < n)
+      out = new double[n];
+    for (int i = 0; i < n; ++i)
+      out[i] = data[i];
+    return out;
+  }
+
+  @Override
+  public double dot(double[] weights)
+  {
+    int n = size();
+    double sum = 0;
+    for (int i = 0; i < n; ++i)
+      sum += data[i] * weights[i];
+    return sum;
+  }
+//</editor-fold>
+//<editor-fold desc="out-of-range">
+  @Override
+  public double getUnderRangeCounts()
+  {
+    return this.underRangeCounts;
+  }
+
+  @Override
+  public void setUnderRange(double value)
+  {
+    this.underRangeCounts = value;
+  }
+
+  @Override
+  public double getOverRangeCounts()
+  {
+    return this.overRangeCounts;
+  }
+
+  @Override
+  public void setOverRange(double value)
+  {
+    this.overRangeCounts = value;
+  }
+//</editor-fold>
+}
@@ -17,7 +17,7 @@ import java.io.Serializable;
  *
  * @author nelson85
  */
-public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, Serializable
+public class IntegerSpectrum extends SpectrumBase<int[]> implements ChannelView, Cloneable, Serializable
 {
   private static final long serialVersionUID = UUIDUtilities.createLong("IntegerSpectrum-v1");
   // It is important that all of the types in here be integer because we
@@ -27,6 +27,7 @@ public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, S
   private int overrange;
   // Cache
   private int counts = Integer.MIN_VALUE;
+  private transient long[] cumulative = null;
 
   public IntegerSpectrum()
   {
@@ -54,6 +55,22 @@ public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, S
     this.overrange = (int) obj.getOverRangeCounts();
   }
 
+  /**
+   * Copy constructor using supplied storage.
+   *
+   * @param obj
+   * @param storage must have the same length as obj.
+   */
+  IntegerSpectrum(IntegerSpectrum obj, int[] storage)
+  {
+    super(obj);
+    if (obj.data != null)
+      System.arraycopy(obj.data, 0, storage, 0, storage.length);
+    this.data = storage;
+    this.underrange = (int) obj.getUnderRangeCounts();
+    this.overrange = (int) obj.getOverRangeCounts();
+  }
+
   public IntegerSpectrum(Spectrum obj)
   {
     super(obj);
@@ -99,13 +116,14 @@ public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, S
   public void assign(int[] obj)
   {
     data = IntegerArray.copyOf(obj);
+    clearCache();
   }
 
   /**
    * Add an integer spectrum to the this spectrum. Increases the livetime and
    * realtime accordingly.
    *
-   * @param obj
+   * @param obj must hold integer counts.
    * @return
    * @throws MathExceptions.SizeException
    */
@@ -117,7 +135,19 @@ public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, S
       return this;
     if (!(obj instanceof IntegerSpectrum))
     {
-      throw new UnsupportedOperationException("Unable to handle non-IntegerSpectrum types");
+      if (!int[].class.equals(obj.getCountClass()))
+        throw new UnsupportedOperationException("Unable to handle non-IntegerSpectrum types");
+
+      // Other integer spectra are read through the channel view
+      ChannelView view = obj.getChannelView();
+      if (data == null)
+        data = new int[view.size()];
+      if (view.size() != data.length)
+        throw new MathExceptions.SizeException("Size mismatch " + view.size() + "!=" + data.length);
+      super.addAssignBase(obj);
+      for (int i = 0; i < data.length; ++i)
+        data[i] += (int) view.getAsDouble(i);
+      return this;
     }
     IntegerSpectrum base = (IntegerSpectrum) obj;
     if (data == null)
@@ -231,6 +261,7 @@ public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, S
   public void clearOverRange()
   {
     this.data[data.length - 1] = 0;
+    clearCache();
   }
 
   public void clearOverRange(int channels)
@@ -240,6 +271,7 @@ public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, S
       this.overrange += this.data[data.length - 1 - i];
       this.data[data.length - 1 - i] = 0;
     }
+    clearCache();
     this.setMaximumValidChannel(data.length - 1 - channels);
   }
 
@@ -250,6 +282,7 @@ public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, S
       this.underrange += this.data[i];
       this.data[i] = 0;
     }
+    clearCache();
     this.setMinimumValidChannel(channels);
   }
 
@@ -257,6 +290,7 @@ public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, S
   public void clearCache()
   {
     this.counts = Integer.MIN_VALUE;
+    this.cumulative = null;
   }
 
   @Override
@@ -278,6 +312,7 @@ public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, S
       this.data = (int[]) obj;
     else
       throw new UnsupportedOperationException("Unable to assign data from " + obj.getClass());
+    clearCache();
   }
 
   @Override
@@ -315,6 +350,86 @@ public class IntegerSpectrum extends SpectrumBase<int[]> implements Cloneable, S
     return this.getCounts(roi) / livetime;
   }
 
+//<editor-fold desc="channel view">
+  @Override
+  public ChannelView getChannelView()
+  {
+    return this;
+  }
+
+  @Override
+  public double getAsDouble(int channel)
+  {
+    return data[channel];
+  }
+
+  /**
+   * Sum the counts in a range of channels.
+   *
+   * Uses the cumulative sum if it has been computed.
+   *
+   * @param begin is the first channel (inclusive).
+   * @param end is the last channel (exclusive).
+   * @return the total counts in the range.
+   */
+  @Override
+  public double sumRange(int begin, int end)
+  {
+    long[] c = this.cumulative;
+    if (c != null)
+      return c[end] - c[begin];
+    long sum = 0;
+    for (int i = begin; i < end; ++i)
+      sum += data[i];
+    return sum;
+  }
+
+  /**
+   * Get the sum of all channels below a channel.
+   *
+   * The cumulative sum is computed on first use and held until
+   * {@code clearCache} is called. It is kept as integers so that differences
+   * are exact.
+   *
+   * @param channel is the first channel excluded, from 0 to size().
+   * @return the total counts below the channel.
+   */
+  @Override
+  public double getCumulative(int channel)
+  {
+    long[] c = this.cumulative;
+    if (c == null)
+    {
+      int n = size();
+      c = new long[n + 1];
+      for (int i = 0; i < n; ++i)
+        c[i + 1] = c[i] + data[i];
+      this.cumulative = c;
+    }
+    return c[channel];
+  }
+
+  @Override
+  public double[] copyTo(double[] out)
+  {
+    int n = size();
+    if (out == null || out.length < n)
+      out = new double[n];
+    for (int i = 0; i < n; ++i)
+      out[i] = data[i];
+    return out;
+  }
+
+  @Override
+  public double dot(double[] weights)
+  {
+    int n = size();
+    double sum = 0;
+    for (int i = 0; i < n; ++i)
+      sum += data[i] * weights[i];
+    return sum;
+  }
+//</editor-fold>
 //<editor-fold desc="out-of-range">
   @Override
   public double getUnderRangeCounts()
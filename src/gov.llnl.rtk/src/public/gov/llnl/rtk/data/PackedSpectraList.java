@@ -0,0 +1,1060 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import gov.llnl.math.MathExceptions.ResizeException;
+import gov.llnl.math.MathExceptions.WriteAccessException;
+import gov.llnl.math.matrix.Matrix;
+import gov.llnl.math.matrix.MatrixFactory;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+/**
+ * List of spectra with the counts held in one contiguous buffer.
+ *
+ * Every spectrum in the list has the same number of channels. The counts are
+ * stored row major as int, float or double in a direct buffer or a memory
+ * mapped file, while the live time, real time, energy scale and attributes
+ * are held in parallel arrays. Adding a spectrum copies its counts into the
+ * buffer, and {@link #get(int)} produces a new spectrum holding a copy of the
+ * row.
+ *
+ * {@link #getView(int)} produces a spectrum which reads and writes the buffer
+ * directly. Column operations such as {@link #getSum()} and
+ * {@link #getVariance()} and the {@link #toMatrix()} view scan the buffer
+ * without creating any spectra.
+ *
+ * A mapped file holds only the counts. It is intended as scratch space for
+ * lists larger than the heap rather than as a storage format. Use
+ * {@code SpectraArchiveWriter} to save a list.
+ *
+ * This class is not thread safe.
+ *
+ * @param <T> is the type of spectrum produced by get.
+ */
+public class PackedSpectraList<T extends SpectrumBase> extends AbstractList<T>
+        implements SpectraList<T>, RandomAccess
+{
+  private static final int TYPE_INT = 0;
+  private static final int TYPE_FLOAT = 1;
+  private static final int TYPE_DOUBLE = 2;
+
+  private final Class<T> spectrumClass;
+  private final Class countClass;
+  private final int type;
+  private final int channels;
+  private final int rowBytes;
+  private final Path path;
+
+  private ByteBuffer buffer;
+  private IntBuffer ints;
+  private FloatBuffer floats;
+  private DoubleBuffer doubles;
+  private int capacity;
+  private int rows;
+
+  private double[] liveTime;
+  private double[] realTime;
+  private double[] underRange;
+  private double[] overRange;
+  private int[] minimumValid;
+  private int[] maximumValid;
+  private EnergyScale[] scales;
+  private Map<String, Serializable>[] attributes;
+
+  private PackedSpectraList(Class<T> spectrumClass, Class countClass, int channels, int capacity, Path path)
+  {
+    if (spectrumClass != IntegerSpectrum.class
+            && spectrumClass != DoubleSpectrum.class
+            && spectrumClass != FloatSpectrum.class)
+      throw new IllegalArgumentException("Unsupported spectrum class " + spectrumClass);
+    if (countClass == int[].class)
+      this.type = TYPE_INT;
+    else if (countClass == float[].class)
+      this.type = TYPE_FLOAT;
+    else if (countClass == double[].class)
+      this.type = TYPE_DOUBLE;
+    else
+      throw new IllegalArgumentException("Unsupported count class " + countClass);
+    if (channels <= 0)
+      throw new IllegalArgumentException("bad size " + channels);
+    this.spectrumClass = spectrumClass;
+    this.countClass = countClass;
+    this.channels = channels;
+    this.rowBytes = channels * ((type == TYPE_DOUBLE) ? 8 : 4);
+    this.path = path;
+    this.liveTime = new double[0];
+    this.realTime = new double[0];
+    this.underRange = new double[0];
+    this.overRange = new double[0];
+    this.minimumValid = new int[0];
+    this.maximumValid = new int[0];
+    this.scales = new EnergyScale[0];
+    @SuppressWarnings("unchecked")
+    Map<String, Serializable>[] a = new Map[0];
+    this.attributes = a;
+    reserve(Math.max(capacity, 1));
+  }
+
+  /**
+   * Create a list held in a direct buffer.
+   *
+   * @param <T>
+   * @param spectrumClass is IntegerSpectrum, FloatSpectrum or DoubleSpectrum.
+   * @param countClass is the storage type, either int[].class, float[].class
+   * or double[].class.
+   * @param channels is the number of channels in each spectrum.
+   * @param capacity is the number of spectra to reserve space for.
+   * @return a new empty list.
+   */
+  public static <T extends SpectrumBase> PackedSpectraList<T> allocate(
+          Class<T> spectrumClass, Class countClass, int channels, int capacity)
+  {
+    return new PackedSpectraList<>(spectrumClass, countClass, channels, capacity, null);
+  }
+
+  /**
+   * Create a list with the counts held in a memory mapped file.
+   *
+   * The file is created if it does not exist and is extended as the list
+   * grows. An existing file is truncated so any previous contents are
+   * discarded.
+   *
+   * @param <T>
+   * @param path is the file to hold the counts.
+   * @param spectrumClass is IntegerSpectrum, FloatSpectrum or DoubleSpectrum.
+   * @param countClass is the storage type, either int[].class, float[].class
+   * or double[].class.
+   * @param channels is the number of channels in each spectrum.
+   * @param capacity is the number of spectra to reserve space for.
+   * @return a new empty list.
+   * @throws IOException if the file cannot be mapped.
+   */
+  public static <T extends SpectrumBase> PackedSpectraList<T> map(Path path,
+          Class<T> spectrumClass, Class countClass, int channels, int capacity)
+          throws IOException
+  {
+    // Truncate so that no stale bytes remain past the end of the list
+    FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING).close();
+    try
+    {
+      return new PackedSpectraList<>(spectrumClass, countClass, channels, capacity, path);
+    }
+    catch (UncheckedIOException ex)
+    {
+      throw ex.getCause();
+    }
+  }
+
+  /**
+   * Copy a collection of spectra into a new list held in a direct buffer.
+   *
+   * @param <T>
+   * @param spectra must all have the same number of channels.
+   * @param spectrumClass is IntegerSpectrum, FloatSpectrum or DoubleSpectrum.
+   * @param countClass is the storage type, either int[].class, float[].class
+   * or double[].class.
+   * @return a new list.
+   */
+  public static <T extends SpectrumBase> PackedSpectraList<T> copyOf(
+          List<? extends Spectrum> spectra, Class<T> spectrumClass, Class countClass)
+  {
+    if (spectra.isEmpty())
+      throw new IllegalArgumentException("Unable to determine the number of channels");
+    PackedSpectraList<T> out = allocate(spectrumClass, countClass, spectra.get(0).size(), spectra.size());
+    for (Spectrum spectrum : spectra)
+      out.append(spectrum);
+    return out;
+  }
+
+  @Override
+  public Class<T> getSpectrumClass()
+  {
+    return spectrumClass;
+  }
+
+  /**
+   * Get the storage class for the counts.
+   *
+   * @return int[].class, float[].class or double[].class.
+   */
+  public Class getCountClass()
+  {
+    return countClass;
+  }
+
+  /**
+   * Get the number of channels in every spectrum of the list.
+   *
+   * @return the number of channels.
+   */
+  public int getChannels()
+  {
+    return channels;
+  }
+
+  @Override
+  public int size()
+  {
+    return rows;
+  }
+
+  /**
+   * Copy a spectrum from the list. The counts are copied into a new spectrum
+   * which may be modified freely.
+   *
+   * @param index is the row to retrieve.
+   * @return a new spectrum.
+   */
+  @Override
+  public T get(int index)
+  {
+    View view = getView(index);
+    SpectrumBase out;
+    if (spectrumClass == IntegerSpectrum.class)
+    {
+      if (type == TYPE_INT)
+      {
+        int[] data = new int[channels];
+        IntBuffer ib = ints.duplicate();
+        ib.position(view.base);
+        ib.get(data);
+        out = new IntegerSpectrum(data, view.getLiveTime(), view.getRealTime());
+        out.setValidRange(view.getMinimumValidChannel(), view.getMaximumValidChannel());
+        out.setUnderRange(view.getUnderRangeCounts());
+        out.setOverRange(view.getOverRangeCounts());
+        out.setEnergyScale(view.getEnergyScale());
+        out.getAttributes().putAll(view.getAttributes());
+      }
+      else
+        out = new IntegerSpectrum(view);
+    }
+    else if (spectrumClass == FloatSpectrum.class)
+      out = new FloatSpectrum(view);
+    else
+      out = new DoubleSpectrum(view);
+    return spectrumClass.cast(out);
+  }
+
+  /**
+   * Replace a spectrum in the list.
+   *
+   * @param index is the row to replace.
+   * @param spectrum must have the same number of channels as the list.
+   * @return a copy of the previous contents of the row.
+   */
+  @Override
+  public T set(int index, T spectrum)
+  {
+    checkIndex(index);
+    T previous = get(index);
+    write(index, spectrum);
+    return previous;
+  }
+
+  /**
+   * Insert a spectrum into the list.
+   *
+   * Appending is cheap. Inserting elsewhere moves all of the following rows.
+   *
+   * @param index is the position to insert at.
+   * @param spectrum must have the same number of channels as the list.
+   */
+  @Override
+  public void add(int index, T spectrum)
+  {
+    if (index < 0 || index > rows)
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + rows);
+    checkSize(spectrum);
+    reserve(rows + 1);
+    move(index, index + 1, rows - index);
+    rows++;
+    write(index, spectrum);
+    modCount++;
+  }
+
+  /**
+   * Append a copy of any spectrum to the list.
+   *
+   * Unlike {@link #add(Object)} this accepts any type of spectrum. Counts
+   * are converted to the storage type of the list.
+   *
+   * @param spectrum must have the same number of channels as the list.
+   */
+  public void append(Spectrum spectrum)
+  {
+    checkSize(spectrum);
+    reserve(rows + 1);
+    rows++;
+    write(rows - 1, spectrum);
+    modCount++;
+  }
+
+  @Override
+  public T remove(int index)
+  {
+    checkIndex(index);
+    T previous = get(index);
+    move(index + 1, index, rows - index - 1);
+    rows--;
+    clearRow(rows);
+    modCount++;
+    return previous;
+  }
+
+  @Override
+  public void clear()
+  {
+    for (int i = 0; i < rows; ++i)
+      clearRow(i);
+    rows = 0;
+    modCount++;
+  }
+
+  /**
+   * Get a spectrum which reads and writes a row of the list directly.
+   *
+   * The view refers to a position in the list. It is not updated when rows
+   * are inserted or removed before it.
+   *
+   * @param index is the row to retrieve.
+   * @return a view of the row.
+   */
+  @Override
+  public View getView(int index)
+  {
+    checkIndex(index);
+    return new View(index);
+  }
+
+  /**
+   * Write any buffered changes to the mapped file.
+   *
+   * This has no effect on lists held in a direct buffer.
+   */
+  public void flush()
+  {
+    if (buffer instanceof MappedByteBuffer)
+      ((MappedByteBuffer) buffer).force();
+  }
+
+//<editor-fold desc="column">
+  /**
+   * Sum the counts in each channel over all spectra.
+   *
+   * @return the total counts in each channel, or null if the list is empty.
+   */
+  @Override
+  public double[] getSum()
+  {
+    if (rows == 0)
+      return null;
+    double[] out = new double[channels];
+    int n = rows * channels;
+    switch (type)
+    {
+      case TYPE_INT:
+        for (int k = 0; k < n;)
+          for (int j = 0; j < channels; ++j, ++k)
+            out[j] += ints.get(k);
+        break;
+      case TYPE_FLOAT:
+        for (int k = 0; k < n;)
+          for (int j = 0; j < channels; ++j, ++k)
+            out[j] += floats.get(k);
+        break;
+      default:
+        for (int k = 0; k < n;)
+          for (int j = 0; j < channels; ++j, ++k)
+            out[j] += doubles.get(k);
+    }
+    return out;
+  }
+
+  /**
+   * Get the rate in each channel over all spectra.
+   *
+   * @return the total counts in each channel divided by the total live time,
+   * or null if the list is empty.
+   */
+  @Override
+  public double[] getMean()
+  {
+    double[] out = getSum();
+    if (out == null)
+      return null;
+    double lt = 0;
+    for (int i = 0; i < rows; ++i)
+      lt += liveTime[i];
+    if (lt > 0)
+      for (int j = 0; j < channels; ++j)
+        out[j] /= lt;
+    return out;
+  }
+
+  /**
+   * Get the mean spectrum.
+   *
+   * @return the average counts in each channel, or null if the list is empty.
+   */
+  public double[] getAverage()
+  {
+    double[] out = getSum();
+    if (out == null)
+      return null;
+    for (int j = 0; j < channels; ++j)
+      out[j] /= rows;
+    return out;
+  }
+
+  /**
+   * Get the sample variance of the counts in each channel.
+   *
+   * This uses a single pass over the buffer with Welford's update, so it is
+   * stable for spectra with large counts.
+   *
+   * @return the variance of each channel, or null if the list is empty.
+   */
+  public double[] getVariance()
+  {
+    if (rows == 0)
+      return null;
+    double[] mean = new double[channels];
+    double[] m2 = new double[channels];
+    for (int i = 0, k = 0; i < rows; ++i)
+    {
+      double w = 1.0 / (i + 1);
+      for (int j = 0; j < channels; ++j, ++k)
+      {
+        double v = value(k);
+        double d = v - mean[j];
+        mean[j] += d * w;
+        m2[j] += d * (v - mean[j]);
+      }
+    }
+    if (rows > 1)
+      for (int j = 0; j < channels; ++j)
+        m2[j] /= rows - 1;
+    else
+      Arrays.fill(m2, 0);
+    return m2;
+  }
+
+  /**
+   * Get a matrix view of the counts.
+   *
+   * Each row of the matrix is a spectrum and each column is a channel. The
+   * view reads and writes the buffer directly. Values written to integer
+   * storage are rounded.
+   *
+   * @return a matrix sharing the counts of this list.
+   */
+  public Matrix toMatrix()
+  {
+    return new MatrixView();
+  }
+//</editor-fold>
+//<editor-fold desc="attributes">
+  @Override
+  public Object[] getAttributes(String name)
+  {
+    Object[] out = new Object[rows];
+    for (int i = 0; i < rows; ++i)
+      out[i] = (attributes[i] == null) ? null : attributes[i].get(name);
+    return out;
+  }
+
+  @Override
+  public double[] getAttributesDouble(String name)
+  {
+    double[] out = new double[rows];
+    for (int i = 0; i < rows; ++i)
+      out[i] = (double) attributes[i].get(name);
+    return out;
+  }
+
+  @Override
+  public String[] getTitles()
+  {
+    String[] out = new String[rows];
+    for (int i = 0; i < rows; ++i)
+      out[i] = (attributes[i] == null) ? null : (String) attributes[i].get(SpectrumAttributes.TITLE);
+    return out;
+  }
+//</editor-fold>
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private void checkIndex(int index)
+  {
+    if (index < 0 || index >= rows)
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + rows);
+  }
+
+  private void checkSize(Spectrum spectrum)
+  {
+    if (spectrum.size() != channels)
+      throw new IllegalArgumentException("Size mismatch " + spectrum.size() + "!=" + channels);
+  }
+
+  private double value(int index)
+  {
+    switch (type)
+    {
+      case TYPE_INT:
+        return ints.get(index);
+      case TYPE_FLOAT:
+        return floats.get(index);
+      default:
+        return doubles.get(index);
+    }
+  }
+
+  private void store(int index, double value)
+  {
+    switch (type)
+    {
+      case TYPE_INT:
+        ints.put(index, (int) Math.round(value));
+        break;
+      case TYPE_FLOAT:
+        floats.put(index, (float) value);
+        break;
+      default:
+        doubles.put(index, value);
+    }
+  }
+
+  private void write(int row, Spectrum spectrum)
+  {
+    checkSize(spectrum);
+    int base = row * channels;
+    // Spectra which do not expose storage are copied through the channel view
+    Object data = null;
+    if (spectrum.getCountClass() == countClass)
+      data = SpectrumOps.getStorage(spectrum);
+    if (data instanceof int[])
+    {
+      IntBuffer ib = ints.duplicate();
+      ib.position(base);
+      ib.put((int[]) data);
+    }
+    else if (data instanceof float[])
+    {
+      FloatBuffer fb = floats.duplicate();
+      fb.position(base);
+      fb.put((float[]) data);
+    }
+    else if (data instanceof double[])
+    {
+      DoubleBuffer db = doubles.duplicate();
+      db.position(base);
+      db.put((double[]) data);
+    }
+    else
+    {
+      ChannelView view = spectrum.getChannelView();
+      for (int j = 0; j < channels; ++j)
+      {
+        double v = view.getAsDouble(j);
+        if (type == TYPE_INT && v != Math.rint(v))
+          throw new IllegalArgumentException("Non-integer counts in channel " + j);
+        store(base + j, v);
+      }
+    }
+
+    liveTime[row] = spectrum.getLiveTime();
+    realTime[row] = spectrum.getRealTime();
+    underRange[row] = spectrum.getUnderRangeCounts();
+    overRange[row] = spectrum.getOverRangeCounts();
+    minimumValid[row] = spectrum.getMinimumValidChannel();
+    maximumValid[row] = spectrum.getMaximumValidChannel();
+    scales[row] = spectrum.getEnergyScale();
+    Map<String, Serializable> a = spectrum.getAttributes();
+    attributes[row] = (a == null || a.isEmpty()) ? null : new TreeMap<>(a);
+  }
+
+  private void clearRow(int row)
+  {
+    scales[row] = null;
+    attributes[row] = null;
+  }
+
+  /**
+   * Move a range of rows including their metadata.
+   */
+  private void move(int from, int to, int count)
+  {
+    if (count <= 0 || from == to)
+      return;
+    byte[] scratch = new byte[rowBytes];
+    ByteBuffer src = buffer.duplicate();
+    ByteBuffer dst = buffer.duplicate();
+    // Copy in the direction that does not overwrite rows still to be moved
+    for (int n = 0; n < count; ++n)
+    {
+      int i = (from < to) ? count - 1 - n : n;
+      src.position((from + i) * rowBytes);
+      src.get(scratch);
+      dst.position((to + i) * rowBytes);
+      dst.put(scratch);
+    }
+    System.arraycopy(liveTime, from, liveTime, to, count);
+    System.arraycopy(realTime, from, realTime, to, count);
+    System.arraycopy(underRange, from, underRange, to, count);
+    System.arraycopy(overRange, from, overRange, to, count);
+    System.arraycopy(minimumValid, from, minimumValid, to, count);
+    System.arraycopy(maximumValid, from, maximumValid, to, count);
+    System.arraycopy(scales, from, scales, to, count);
+    System.arraycopy(attributes, from, attributes, to, count);
+  }
+
+  private void reserve(int needed)
+  {
+    if (needed <= capacity)
+      return;
+    long limit = Integer.MAX_VALUE / rowBytes;
+    if (needed > limit)
+      throw new IllegalStateException("Packed spectra list exceeds " + limit + " spectra");
+    int next = (int) Math.min(limit, Math.max(needed, capacity + (capacity >> 1)));
+    try
+    {
+      ByteBuffer region;
+      if (path == null)
+      {
+        region = ByteBuffer.allocateDirect(next * rowBytes);
+        if (buffer != null)
+        {
+          ByteBuffer src = buffer.duplicate();
+          src.position(0);
+          src.limit(rows * rowBytes);
+          region.put(src);
+          region.clear();
+        }
+      }
+      else
+      {
+        // Remapping a larger region keeps the existing contents of the file
+        try (FileChannel fc = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+          region = fc.map(FileChannel.MapMode.READ_WRITE, 0, (long) next * rowBytes);
+        }
+      }
+      region.order(ByteOrder.nativeOrder());
+      this.buffer = region;
+      this.ints = (type == TYPE_INT) ? region.asIntBuffer() : null;
+      this.floats = (type == TYPE_FLOAT) ? region.asFloatBuffer() : null;
+      this.doubles = (type == TYPE_DOUBLE) ? region.asDoubleBuffer() : null;
+    }
+    catch (IOException ex)
+    {
+      throw new UncheckedIOException(ex);
+    }
+    liveTime = Arrays.copyOf(liveTime, next);
+    realTime = Arrays.copyOf(realTime, next);
+    underRange = Arrays.copyOf(underRange, next);
+    overRange = Arrays.copyOf(overRange, next);
+    minimumValid = Arrays.copyOf(minimumValid, next);
+    maximumValid = Arrays.copyOf(maximumValid, next);
+    scales = Arrays.copyOf(scales, next);
+    attributes = Arrays.copyOf(attributes, next);
+    capacity = next;
+  }
+//</editor-fold>
+
+  /**
+   * Spectrum referencing a row of the list.
+   *
+   * Reads and writes go directly to the buffer. Calling toArray on a view is
+   * not supported.
+   */
+  public class View implements Spectrum<Object>, ChannelView
+  {
+    final int row;
+    final int base;
+
+    View(int row)
+    {
+      this.row = row;
+      this.base = row * channels;
+    }
+
+    /**
+     * Get the row of the list referenced by this view.
+     *
+     * @return the row index.
+     */
+    public int getIndex()
+    {
+      return row;
+    }
+
+    /**
+     * Get the counts in one channel.
+     *
+     * @param channel
+     * @return the counts in the channel.
+     */
+    public double get(int channel)
+    {
+      if (channel < 0 || channel >= channels)
+        throw new IndexOutOfBoundsException();
+      return value(base + channel);
+    }
+
+    /**
+     * Set the counts in one channel. Values written to integer storage are
+     * rounded.
+     *
+     * @param channel
+     * @param value
+     */
+    public void set(int channel, double value)
+    {
+      if (channel < 0 || channel >= channels)
+        throw new IndexOutOfBoundsException();
+      store(base + channel, value);
+    }
+
+    @Override
+    public double getAsDouble(int channel)
+    {
+      return get(channel);
+    }
+
+    @Override
+    public ChannelView getChannelView()
+    {
+      return this;
+    }
+
+    @Override
+    public double sumRange(int begin, int end)
+    {
+      begin = Math.max(begin, 0);
+      end = Math.min(end, channels);
+      double sum = 0;
+      switch (type)
+      {
+        case TYPE_INT:
+          for (int i = begin; i < end; ++i)
+            sum += ints.get(base + i);
+          break;
+        case TYPE_FLOAT:
+          for (int i = begin; i < end; ++i)
+            sum += floats.get(base + i);
+          break;
+        default:
+          for (int i = begin; i < end; ++i)
+            sum += doubles.get(base + i);
+      }
+      return sum;
+    }
+
+    @Override
+    public double[] copyTo(double[] out)
+    {
+      if (out == null || out.length < channels)
+        out = new double[channels];
+      if (type == TYPE_DOUBLE)
+      {
+        DoubleBuffer db = doubles.duplicate();
+        db.position(base);
+        db.get(out, 0, channels);
+      }
+      else
+      {
+        for (int i = 0; i < channels; ++i)
+          out[i] = value(base + i);
+      }
+      return out;
+    }
+
+    @Override
+    public double[] toDoubles()
+    {
+      return copyTo(null);
+    }
+
+    @Override
+    public int size()
+    {
+      return channels;
+    }
+
+    @Override
+    public String getTitle()
+    {
+      return (String) getAttribute(SpectrumAttributes.TITLE);
+    }
+
+    @Override
+    public double getLiveTime()
+    {
+      return liveTime[row];
+    }
+
+    @Override
+    public double getRealTime()
+    {
+      return realTime[row];
+    }
+
+    @Override
+    public Instant getStartTime()
+    {
+      return (Instant) getAttribute(SpectrumAttributes.TIMESTAMP);
+    }
+
+    @Override
+    public Instant getEndTime()
+    {
+      Instant date = this.getStartTime();
+      if (date == null)
+        return null;
+      long ts = (long) (date.toEpochMilli() + this.getRealTime() * 1000.0);
+      return Instant.ofEpochMilli(ts);
+    }
+
+    @Override
+    public double getCounts()
+    {
+      return sumRange(getMinimumValidChannel(), getMaximumValidChannel());
+    }
+
+    @Override
+    public double getRate()
+    {
+      double livetime = this.getLiveTime();
+      if (livetime <= 0)
+        return 0;
+      return getCounts() / livetime;
+    }
+
+    @Override
+    public double getCounts(RegionOfInterest roi)
+    {
+      if (roi == null)
+        return this.getCounts();
+      int[] range = roi.getChannels(this.getEnergyScale());
+      int lower = Math.max(range[0], getMinimumValidChannel());
+      int upper = Math.min(range[1], getMaximumValidChannel());
+      return sumRange(lower, upper);
+    }
+
+    @Override
+    public double getRate(RegionOfInterest roi)
+    {
+      double livetime = this.getLiveTime();
+      if (roi == null)
+        return this.getRate();
+      if (livetime <= 0)
+        return 0;
+      return this.getCounts(roi) / livetime;
+    }
+
+    /**
+     * Not supported as the counts are held in the list buffer.
+     *
+     * @return never
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public Object toArray() throws UnsupportedOperationException
+    {
+      throw new UnsupportedOperationException("Packed spectra views do not have an array");
+    }
+
+    @Override
+    public void setEnergyScale(EnergyScale bins)
+    {
+      scales[row] = bins;
+    }
+
+    @Override
+    public EnergyScale getEnergyScale()
+    {
+      return scales[row];
+    }
+
+    @Override
+    public Class getCountClass()
+    {
+      return countClass;
+    }
+
+    @Override
+    public double getUnderRangeCounts()
+    {
+      return underRange[row];
+    }
+
+    @Override
+    public double getOverRangeCounts()
+    {
+      return overRange[row];
+    }
+
+    @Override
+    public int getMinimumValidChannel()
+    {
+      return minimumValid[row];
+    }
+
+    @Override
+    public int getMaximumValidChannel()
+    {
+      return maximumValid[row];
+    }
+
+    @Override
+    public void clearCache()
+    {
+    }
+
+    @Override
+    public Map<String, Serializable> getAttributes()
+    {
+      if (attributes[row] == null)
+        attributes[row] = new TreeMap<>();
+      return attributes[row];
+    }
+
+    @Override
+    public Serializable getAttribute(String name)
+    {
+      Map<String, Serializable> a = attributes[row];
+      return (a == null) ? null : a.get(name);
+    }
+
+    @Override
+    public <S extends Serializable> void setAttribute(String name, S value)
+    {
+      getAttributes().put(name, value);
+    }
+  }
+
+  /**
+   * Matrix view of the counts.
+   */
+  private class MatrixView implements Matrix
+  {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int rows()
+    {
+      return rows;
+    }
+
+    @Override
+    public int columns()
+    {
+      return channels;
+    }
+
+    @Override
+    public void set(int r, int c, double v) throws WriteAccessException, IndexOutOfBoundsException
+    {
+      check(r, c);
+      store(r * channels + c, v);
+    }
+
+    @Override
+    public double get(int r, int c) throws IndexOutOfBoundsException
+    {
+      check(r, c);
+      return value(r * channels + c);
+    }
+
+    @Override
+    public void mutable() throws WriteAccessException
+    {
+    }
+
+    @Override
+    public Object sync()
+    {
+      return PackedSpectraList.this;
+    }
+
+    @Override
+    public Matrix assign(Matrix matrix) throws ResizeException, WriteAccessException
+    {
+      if (matrix.rows() != rows || matrix.columns() != channels)
+        throw new ResizeException("Resize not supported for this type.");
+      double[] row = new double[channels];
+      for (int i = 0; i < rows; ++i)
+      {
+        matrix.copyRowTo(row, 0, i);
+        for (int j = 0; j < channels; ++j)
+          store(i * channels + j, row[j]);
+      }
+      return this;
+    }
+
+    @Override
+    public Matrix copyOf()
+    {
+      return MatrixFactory.newMatrix(this);
+    }
+
+    @Override
+    public double[] copyRowTo(double[] destination, int offset, int index)
+            throws IndexOutOfBoundsException
+    {
+      check(index, 0);
+      int base = index * channels;
+      if (type == TYPE_DOUBLE)
+      {
+        DoubleBuffer db = doubles.duplicate();
+        db.position(base);
+        db.get(destination, offset, channels);
+      }
+      else
+      {
+        for (int j = 0; j < channels; ++j)
+          destination[offset + j] = value(base + j);
+      }
+      return destination;
+    }
+
+    @Override
+    public double[] copyColumnTo(double[] destination, int offset, int index)
+            throws IndexOutOfBoundsException
+    {
+      if (index < 0 || index >= channels)
+        throw new IndexOutOfBoundsException();
+      for (int i = 0, k = index; i < rows; ++i, k += channels)
+        destination[offset + i] = value(k);
+      return destination;
+    }
+
+    private void check(int r, int c)
+    {
+      if (r < 0 || r >= rows || c < 0 || c >= channels)
+        throw new IndexOutOfBoundsException();
+    }
+  }
+}
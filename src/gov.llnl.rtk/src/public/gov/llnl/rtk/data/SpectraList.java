@@ -23,6 +23,20 @@ public interface SpectraList<T extends SpectrumBase> extends List<T>
 {
   Class<T> getSpectrumClass();
 
+  /**
+   * Get read access to a spectrum without copying it.
+   *
+   * Lists which hold their counts outside of spectrum objects return a view
+   * of the storage which should be treated as read only.
+   *
+   * @param index
+   * @return the spectrum or a view of it.
+   */
+  default Spectrum getView(int index)
+  {
+    return get(index);
+  }
+
   @Matlab
   default Object[] getAttributes(String name)
   {
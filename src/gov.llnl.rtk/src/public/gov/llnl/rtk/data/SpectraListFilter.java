@@ -8,14 +8,28 @@ package gov.llnl.rtk.data;
 
 import gov.llnl.rtk.RtkPackage;
 import gov.llnl.rtk.physics.Quantity;
+import gov.llnl.utility.ExecutorUtilities;
 import gov.llnl.utility.annotation.Matlab;
 import gov.llnl.utility.xml.bind.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiPredicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
+ * Selects spectra from a list using a set of rules.
+ *
+ * The rules are evaluated in a compiled form by {@link #select(List)}. The
+ * fields used by the rules are extracted once into primitive columns which
+ * can be reused between filters with {@link Columns}. The selection is
+ * evaluated in parallel and returns the indices of the matching spectra.
  *
  * @author nelson85
  */
@@ -104,7 +118,7 @@ public class SpectraListFilter
   @Reader.Element(name = "exclude")
   public void addExclude(RuleImpl rule)
   {
-    this.rules.add((s) -> !rule.evaluate(s));
+    this.rules.add(new ExcludeRule(rule));
   }
 
   @Matlab
@@ -119,17 +133,80 @@ public class SpectraListFilter
 
   public DoubleSpectraList filter(DoubleSpectraList list)
   {
-    int items = 0;
     DoubleSpectraList out = new DoubleSpectraList();
-    for (DoubleSpectrum entry : list)
+    for (int index : select(list))
+      out.add(list.get(index));
+    return out;
+  }
+
+  /**
+   * Find the spectra which match the rules.
+   *
+   * The rules are evaluated in parallel using the common pool.
+   *
+   * @param list
+   * @return the indices of the matching spectra in increasing order, limited
+   * to the first limit matches if a limit is set.
+   */
+  public int[] select(List<? extends Spectrum> list)
+  {
+    return select(new Columns(list), ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Find the spectra which match the rules using previously extracted
+   * columns.
+   *
+   * The rules are evaluated in parallel using the common pool.
+   *
+   * @param columns
+   * @return the indices of the matching spectra in increasing order.
+   */
+  public int[] select(Columns columns)
+  {
+    return select(columns, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Find the spectra which match the rules using previously extracted
+   * columns.
+   *
+   * Columns needed by the rules that have not already been extracted are
+   * added to the table.
+   *
+   * @param columns
+   * @param executor is used to evaluate the rules.
+   * @return the indices of the matching spectra in increasing order.
+   */
+  public int[] select(Columns columns, ExecutorService executor)
+  {
+    Kernel[] kernels = compile(columns, executor);
+    int n = columns.size();
+    int[][] blocks = new int[(n + BLOCK_SIZE - 1) / BLOCK_SIZE][];
+    ExecutorUtilities.executeBlocks(n, BLOCK_SIZE, executor, (begin, end) ->
     {
-      if (this.matches(entry) == true)
-      {
-        out.add(entry);
-        items++;
-        if (limit > 0 && items >= limit)
-          return out;
-      }
+      int[] matched = new int[end - begin];
+      int count = 0;
+      for (int i = begin; i < end; ++i)
+        if (test(kernels, columns, i))
+          matched[count++] = i;
+      blocks[begin / BLOCK_SIZE] = Arrays.copyOf(matched, count);
+    });
+
+    int total = 0;
+    for (int[] block : blocks)
+      total += block.length;
+    if (limit > 0 && total > limit)
+      total = limit;
+    int[] out = new int[total];
+    int k = 0;
+    for (int[] block : blocks)
+    {
+      int m = Math.min(block.length, total - k);
+      System.arraycopy(block, 0, out, k, m);
+      k += m;
+      if (k == total)
+        break;
     }
     return out;
   }
@@ -156,6 +233,63 @@ public class SpectraListFilter
     public boolean evaluate(Spectrum spectrum);
   }
 
+  /**
+   * Rule which rejects the spectra matched by an include rule.
+   */
+  static class ExcludeRule implements Rule
+  {
+    final RuleImpl rule;
+
+    ExcludeRule(RuleImpl rule)
+    {
+      this.rule = rule;
+    }
+
+    @Override
+    public boolean evaluate(Spectrum spectrum)
+    {
+      return !rule.evaluate(spectrum);
+    }
+  }
+
+  /**
+   * Table of fields extracted from a list of spectra.
+   *
+   * Titles are parsed and region of interest sums are computed once when a
+   * rule first needs them. Reusing the table for several filters over the
+   * same list avoids extracting the fields again. The list must not be
+   * modified while the table is in use.
+   */
+  static public class Columns
+  {
+    final List<? extends Spectrum> list;
+    final Map<ColumnKey, Column> columns = new HashMap<>();
+    String[] titles;
+    double[] liveTime;
+
+    public Columns(List<? extends Spectrum> list)
+    {
+      this.list = list;
+    }
+
+    /**
+     * Get the number of spectra in the table.
+     *
+     * @return the number of rows.
+     */
+    public int size()
+    {
+      return list.size();
+    }
+
+    Spectrum getSpectrum(int index)
+    {
+      if (list instanceof SpectraList)
+        return ((SpectraList<?>) list).getView(index);
+      return list.get(index);
+    }
+  }
+
   @Reader.Declaration(pkg = RtkPackage.class, name = "rule", referenceable = true)
   static public class RuleImpl implements Rule
   {
@@ -225,7 +359,344 @@ public class SpectraListFilter
     }
   }
 
+//<editor-fold desc="compiled">
+  private static final int BLOCK_SIZE = 4096;
+
+  /**
+   * Primitive values for one field. Missing values are treated as a match as
+   * they are for the interpreted rules.
+   */
+  static class Column
+  {
+    final double[] values;
+    final boolean[] missing;
+
+    Column(int n)
+    {
+      this.values = new double[n];
+      this.missing = new boolean[n];
+    }
+  }
+
+  static class ColumnKey
+  {
+    final Field field;
+    final EnergyRegionOfInterest roi;
+
+    ColumnKey(Field field, EnergyRegionOfInterest roi)
+    {
+      this.field = field;
+      this.roi = roi;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+      if (!(obj instanceof ColumnKey))
+        return false;
+      ColumnKey key = (ColumnKey) obj;
+      return field == key.field && roi == key.roi;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return 31 * field.hashCode() + System.identityHashCode(roi);
+    }
+  }
+
+  static abstract class Kernel
+  {
+    boolean negate;
+
+    abstract boolean test(Columns columns, int index);
+  }
+
+  static class NumericKernel extends Kernel
+  {
+    final Column column;
+    final Operation op;
+    final double value;
+
+    NumericKernel(Column column, Operation op, double value)
+    {
+      this.column = column;
+      this.op = op;
+      this.value = value;
+    }
+
+    @Override
+    boolean test(Columns columns, int index)
+    {
+      if (column.missing[index])
+        return true;
+      double v = column.values[index];
+      switch (op)
+      {
+        case GT:
+          return v > value;
+        case LT:
+          return v < value;
+        case GE:
+          return v >= value;
+        case EQ:
+          return v == value;
+        case NE:
+          return v != value;
+        default:
+          return v <= value;
+      }
+    }
+  }
+
+  static class PatternKernel extends Kernel
+  {
+    final Pattern pattern;
+
+    PatternKernel(String pattern)
+    {
+      this.pattern = Pattern.compile(pattern);
+    }
+
+    @Override
+    boolean test(Columns columns, int index)
+    {
+      String title = columns.titles[index];
+      if (title == null)
+        return true;
+      // Both operations match anywhere in the title as in the interpreted rule
+      return pattern.matcher(title).find();
+    }
+  }
+
+  static class RuleKernel extends Kernel
+  {
+    final Rule rule;
+
+    RuleKernel(Rule rule)
+    {
+      this.rule = rule;
+    }
+
+    @Override
+    boolean test(Columns columns, int index)
+    {
+      return rule.evaluate(columns.getSpectrum(index));
+    }
+  }
+
+  static boolean test(Kernel[] kernels, Columns columns, int index)
+  {
+    for (Kernel kernel : kernels)
+      if (kernel.test(columns, index) == kernel.negate)
+        return false;
+    return true;
+  }
+
+  /**
+   * Convert the rules to kernels, extracting any columns they need.
+   */
+  Kernel[] compile(Columns columns, ExecutorService executor)
+  {
+    // Rules on titles and numeric fields are compiled, anything else is
+    // evaluated on the spectrum
+    RuleImpl[] compiled = new RuleImpl[rules.size()];
+    ArrayList<ColumnKey> needed = new ArrayList<>();
+    boolean needTitles = false;
+    for (int i = 0; i < compiled.length; ++i)
+    {
+      Rule rule = rules.get(i);
+      if (rule instanceof ExcludeRule)
+        rule = ((ExcludeRule) rule).rule;
+      if (!(rule instanceof RuleImpl))
+        continue;
+      RuleImpl impl = (RuleImpl) rule;
+      if (isPattern(impl))
+      {
+        compiled[i] = impl;
+        needTitles = true;
+      }
+      else if (isNumeric(impl))
+      {
+        compiled[i] = impl;
+        ColumnKey key = new ColumnKey(impl.field, impl.roi);
+        if (!needed.contains(key))
+          needed.add(key);
+      }
+    }
+
+    extract(columns, needed, needTitles, executor);
+
+    Kernel[] out = new Kernel[compiled.length];
+    for (int i = 0; i < out.length; ++i)
+    {
+      RuleImpl impl = compiled[i];
+      if (impl == null)
+        out[i] = new RuleKernel(rules.get(i));
+      else
+      {
+        if (isPattern(impl))
+          out[i] = new PatternKernel((String) impl.value);
+        else
+          out[i] = new NumericKernel(columns.columns.get(new ColumnKey(impl.field, impl.roi)),
+                  impl.op, (Double) impl.value);
+        out[i].negate = rules.get(i) instanceof ExcludeRule;
+      }
+    }
+    return out;
+  }
+
+  private static boolean isPattern(RuleImpl impl)
+  {
+    return impl.field == Field.TITLE
+            && (impl.op == Operation.RE_CONTAINS || impl.op == Operation.RE_MATCHES)
+            && impl.value instanceof String;
+  }
+
+  private static boolean isNumeric(RuleImpl impl)
+  {
+    return impl.field != null && impl.field != Field.TITLE
+            && impl.op != null && impl.op != Operation.RE_CONTAINS && impl.op != Operation.RE_MATCHES
+            && impl.value instanceof Double;
+  }
+
+  /**
+   * Extract the missing columns in a single pass over the spectra.
+   *
+   * Each spectrum is visited by one thread so spectra which cache their sums
+   * are safe to use.
+   */
+  static void extract(Columns columns, List<ColumnKey> keys, boolean needTitles,
+          ExecutorService executor)
+  {
+    int n = columns.size();
+    synchronized (columns)
+    {
+      // Derived fields share the counts columns
+      ArrayList<ColumnKey> pending = new ArrayList<>();
+      for (ColumnKey key : keys)
+      {
+        if (columns.columns.containsKey(key))
+          continue;
+        if (key.field == Field.RATE || key.field == Field.COUNT_FRACTION)
+        {
+          addPending(columns, pending, new ColumnKey(Field.COUNTS, key.roi));
+          if (key.field == Field.COUNT_FRACTION)
+            addPending(columns, pending, new ColumnKey(Field.COUNTS, null));
+        }
+        else
+          addPending(columns, pending, key);
+      }
+      boolean needLiveTime = columns.liveTime == null
+              && keys.stream().anyMatch(p -> p.field == Field.RATE);
+      needTitles |= pending.stream().anyMatch(p -> p.field == Field.Z || p.field == Field.AD);
+      needTitles &= columns.titles == null;
+
+      if (!pending.isEmpty() || needLiveTime || needTitles)
+      {
+        Column[] out = new Column[pending.size()];
+        for (int j = 0; j < out.length; ++j)
+          out[j] = new Column(n);
+        boolean parseTitles = needTitles;
+        String[] titles = needTitles ? new String[n] : columns.titles;
+        double[] liveTime = needLiveTime ? new double[n] : null;
+        ExecutorUtilities.executeBlocks(n, BLOCK_SIZE, executor, (begin, end) ->
+        {
+          for (int i = begin; i < end; ++i)
+          {
+            Spectrum spectrum = columns.getSpectrum(i);
+            if (parseTitles)
+              titles[i] = spectrum.getTitle();
+            if (liveTime != null)
+              liveTime[i] = spectrum.getLiveTime();
+            String[] za = null;
+            for (int j = 0; j < out.length; ++j)
+            {
+              ColumnKey key = pending.get(j);
+              switch (key.field)
+              {
+                case COUNTS:
+                  out[j].values[i] = spectrum.getCounts(key.roi);
+                  break;
+                case Z:
+                case AD:
+                  if (za == null)
+                    za = splitZAD(titles[i]);
+                  if (za == null)
+                    out[j].missing[i] = true;
+                  else
+                    out[j].values[i] = Double.parseDouble((key.field == Field.Z) ? za[0] : za[1]);
+                  break;
+                default:
+                  Object v = key.field.get(spectrum, key.roi);
+                  if (v == null)
+                    out[j].missing[i] = true;
+                  else
+                    out[j].values[i] = (double) v;
+              }
+            }
+          }
+        });
+        for (int j = 0; j < out.length; ++j)
+          columns.columns.put(pending.get(j), out[j]);
+        columns.titles = titles;
+        if (liveTime != null)
+          columns.liveTime = liveTime;
+      }
+
+      // Fill in the derived columns
+      for (ColumnKey key : keys)
+      {
+        if (columns.columns.containsKey(key))
+          continue;
+        Column counts = columns.columns.get(new ColumnKey(Field.COUNTS, key.roi));
+        Column column = new Column(n);
+        if (key.field == Field.RATE)
+        {
+          for (int i = 0; i < n; ++i)
+          {
+            double lt = columns.liveTime[i];
+            column.values[i] = (lt <= 0) ? 0 : counts.values[i] / lt;
+          }
+        }
+        else
+        {
+          Column total = columns.columns.get(new ColumnKey(Field.COUNTS, null));
+          for (int i = 0; i < n; ++i)
+            column.values[i] = counts.values[i] / total.values[i];
+        }
+        columns.columns.put(key, column);
+      }
+    }
+  }
+
+  private static void addPending(Columns columns, List<ColumnKey> pending, ColumnKey key)
+  {
+    if (!columns.columns.containsKey(key) && !pending.contains(key))
+      pending.add(key);
+  }
+//</editor-fold>
 //<editor-fold desc="internal">
+  private static final Pattern ZAD_PATTERN = Pattern.compile("\\{(\\S*),(\\S*)\\}");
+
+  /**
+   * Find the Z and AD text in a title with a single match.
+   *
+   * This matches the same text as getZ and getAD.
+   */
+  static String[] splitZAD(String str)
+  {
+    if (str == null)
+      return null;
+    Matcher m = ZAD_PATTERN.matcher(str);
+    if (!m.find())
+      return null;
+    return new String[]
+    {
+      m.group(1), m.group(2)
+    };
+  }
+
   static Double getZ(String str)
   {
     if (str == null)
@@ -116,6 +116,33 @@ public interface Spectrum<Type> extends RadiationData<Type>
    */
   Type toArray() throws UnsupportedOperationException;
 
+  /**
+   * Get read only access to the channels.
+   *
+   * Spectra that hold their counts as doubles or integers return themselves.
+   * Other spectra are promoted with {@code toDoubles()}.
+   *
+   * @return a view of the current channel contents.
+   */
+  default ChannelView getChannelView()
+  {
+    double[] values = toDoubles();
+    return new ChannelView()
+    {
+      @Override
+      public int size()
+      {
+        return values.length;
+      }
+
+      @Override
+      public double getAsDouble(int channel)
+      {
+        return values[channel];
+      }
+    };
+  }
+
   /**
    * Clear the cached valued. This must be called if the spectrum data is
    * altered.
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Pool of channel arrays for recycling spectrum storage.
+ *
+ * Sample generation and calibration produce a new spectrum for every
+ * measurement. When a pool is supplied the channel arrays are taken from the
+ * pool and can be returned with {@link #release(Spectrum)} once the spectrum
+ * is no longer needed.
+ *
+ * Only arrays issued by the pool are recycled. Releasing a spectrum that was
+ * not created by the pool has no effect, so it is safe to release anything a
+ * pooled component returns. Arrays taken from the pool are always zeroed.
+ *
+ * The pool is thread safe.
+ */
+public class SpectrumBufferPool
+{
+  private final int capacity;
+  private final Map<Integer, ArrayDeque<int[]>> integers = new HashMap<>();
+  private final Map<Integer, ArrayDeque<double[]>> doubles = new HashMap<>();
+  private final Map<Integer, ArrayDeque<float[]>> floats = new HashMap<>();
+  // Arrays are compared by identity so this tracks outstanding buffers
+  private final Set<Object> issued = Collections.newSetFromMap(new WeakHashMap<>());
+  private long allocated = 0;
+  private long reused = 0;
+
+  public SpectrumBufferPool()
+  {
+    this(16);
+  }
+
+  /**
+   * Create a pool.
+   *
+   * @param capacity is the maximum number of free arrays held for each type
+   * and size.
+   */
+  public SpectrumBufferPool(int capacity)
+  {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Get a zeroed integer array.
+   *
+   * @param channels
+   * @return an array of the requested length.
+   */
+  public int[] takeIntegers(int channels)
+  {
+    int[] out = take(integers, channels, int[]::new);
+    Arrays.fill(out, 0);
+    return out;
+  }
+
+  /**
+   * Get a zeroed double array.
+   *
+   * @param channels
+   * @return an array of the requested length.
+   */
+  public double[] takeDoubles(int channels)
+  {
+    double[] out = take(doubles, channels, double[]::new);
+    Arrays.fill(out, 0);
+    return out;
+  }
+
+  /**
+   * Get a zeroed float array.
+   *
+   * @param channels
+   * @return an array of the requested length.
+   */
+  public float[] takeFloats(int channels)
+  {
+    float[] out = take(floats, channels, float[]::new);
+    Arrays.fill(out, 0);
+    return out;
+  }
+
+  /**
+   * Copy an integer spectrum into pooled storage.
+   *
+   * @param spectrum
+   * @return a new spectrum with the same contents.
+   */
+  public IntegerSpectrum copyOf(IntegerSpectrum spectrum)
+  {
+    return new IntegerSpectrum(spectrum, takeIntegers(spectrum.size()));
+  }
+
+  /**
+   * Copy a spectrum into a double spectrum with pooled storage.
+   *
+   * This is equivalent to {@code new DoubleSpectrum(spectrum)}.
+   *
+   * @param spectrum
+   * @return a new spectrum with the same contents.
+   */
+  public DoubleSpectrum copyAsDouble(Spectrum spectrum)
+  {
+    return new DoubleSpectrum(spectrum, takeDoubles(spectrum.size()));
+  }
+
+  /**
+   * Return an array to the pool.
+   *
+   * @param array
+   * @return true if the array was issued by this pool and has been recycled.
+   */
+  public boolean release(Object array)
+  {
+    if (array == null)
+      return false;
+    synchronized (this)
+    {
+      if (!issued.remove(array))
+        return false;
+      if (array instanceof int[])
+        put(integers, ((int[]) array).length, (int[]) array);
+      else if (array instanceof double[])
+        put(doubles, ((double[]) array).length, (double[]) array);
+      else if (array instanceof float[])
+        put(floats, ((float[]) array).length, (float[]) array);
+      return true;
+    }
+  }
+
+  /**
+   * Return the storage of a spectrum to the pool.
+   *
+   * The spectrum must not be used after it has been released.
+   *
+   * @param spectrum
+   * @return true if the storage was recycled.
+   */
+  public boolean release(Spectrum spectrum)
+  {
+    // Spectra which do not expose storage never hold pooled arrays
+    return release(SpectrumOps.getStorage(spectrum));
+  }
+
+  /**
+   * Discard all of the free arrays.
+   */
+  public synchronized void clear()
+  {
+    integers.clear();
+    doubles.clear();
+    floats.clear();
+  }
+
+  /**
+   * @return the number of arrays that had to be allocated.
+   */
+  public synchronized long getAllocated()
+  {
+    return allocated;
+  }
+
+  /**
+   * @return the number of arrays that were recycled.
+   */
+  public synchronized long getReused()
+  {
+    return reused;
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private synchronized <T> T take(Map<Integer, ArrayDeque<T>> free, int channels, IntFunction<T> create)
+  {
+    ArrayDeque<T> queue = free.get(channels);
+    T out = (queue != null) ? queue.pollFirst() : null;
+    if (out == null)
+    {
+      out = create.apply(channels);
+      allocated++;
+    }
+    else
+    {
+      reused++;
+    }
+    issued.add(out);
+    return out;
+  }
+
+  private <T> void put(Map<Integer, ArrayDeque<T>> free, int channels, T array)
+  {
+    ArrayDeque<T> queue = free.computeIfAbsent(channels, p -> new ArrayDeque<>());
+    if (queue.size() < capacity)
+      queue.addFirst(array);
+  }
+//</editor-fold>
+}
@@ -16,27 +16,80 @@ public class SpectrumOps
 {
   static public Spectrum<?> addAssign(Spectrum<?> a, Spectrum<?> b)
   {
-    if (a instanceof IntegerSpectrum && b instanceof IntegerSpectrum)
+    if (a instanceof IntegerSpectrum && int[].class.equals(b.getCountClass()))
     {
-      return ((IntegerSpectrum) a).addAssign((IntegerSpectrum) b);
+      return ((IntegerSpectrum) a).addAssign(b);
     }
     if (a instanceof DoubleSpectrum)
     {
       return ((DoubleSpectrum) a).addAssign(b);
     }
+    if (a instanceof FloatSpectrum)
+    {
+      return ((FloatSpectrum) a).addAssign(b);
+    }
+    if (a instanceof CompactIntegerSpectrum)
+    {
+      return ((CompactIntegerSpectrum) a).addAssign(b);
+    }
     throw new UnsupportedOperationException("Unable to handle unknown spectrum type");
   }
-  
+
+  /**
+   * Multiply the counts of a spectrum by a factor.
+   *
+   * Integer counts are rounded to the nearest integer. The livetime and
+   * realtime are not altered.
+   *
+   * @param spectrum
+   * @param s is the factor.
+   * @return the spectrum.
+   */
   static public Spectrum scaleCounts(Spectrum spectrum, double s)
   {
-    Object u = spectrum.toArray();
+    if (spectrum instanceof CompactIntegerSpectrum)
+    {
+      return ((CompactIntegerSpectrum) spectrum).scaleCounts(s);
+    }
+    Object u = getStorage(spectrum);
     if (u instanceof double[])
     {
       DoubleArray.multiplyAssign((double[]) u, s);
     }
+    else if (u instanceof float[])
+    {
+      float[] f = (float[]) u;
+      for (int i = 0; i < f.length; ++i)
+        f[i] *= s;
+    }
+    else if (u instanceof int[])
+    {
+      int[] d = (int[]) u;
+      for (int i = 0; i < d.length; ++i)
+        d[i] = (int) Math.round(d[i] * s);
+    }
     else
-      throw new UnsupportedOperationException("Can not scale "+u.getClass()+ " spectra");
+      throw new UnsupportedOperationException("Can not scale " + spectrum.getCountClass() + " spectra");
+    spectrum.clearCache();
     return spectrum;
   }
- 
+
+  /**
+   * Get the array holding the counts of a spectrum.
+   *
+   * Only spectra which own an array of counts expose it. Compact spectra and
+   * views of lists or archives should be read with the channel view.
+   *
+   * @param spectrum
+   * @return the storage or null if the storage is not exposed.
+   */
+  static public Object getStorage(Spectrum spectrum)
+  {
+    if (spectrum instanceof IntegerSpectrum
+            || spectrum instanceof DoubleSpectrum
+            || spectrum instanceof FloatSpectrum)
+      return spectrum.toArray();
+    return null;
+  }
+
 }
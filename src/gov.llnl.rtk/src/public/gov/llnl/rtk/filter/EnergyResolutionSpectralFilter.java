@@ -11,6 +11,7 @@ import static gov.llnl.math.SpecialFunctions.erf;
 import gov.llnl.math.matrix.Matrix;
 import gov.llnl.math.matrix.MatrixColumnTable;
 import gov.llnl.rtk.RtkPackage;
+import gov.llnl.rtk.data.ChannelView;
 import gov.llnl.rtk.data.DoubleSpectrum;
 import gov.llnl.rtk.data.Spectrum;
 import gov.llnl.utility.annotation.Debug;
@@ -87,16 +88,21 @@ public class EnergyResolutionSpectralFilter implements SpectralFilter, Serializa
   {
     int minc = spectrum.getMinimumValidChannel();
     int maxc = spectrum.getMaximumValidChannel();
-    double[] in = spectrum.toDoubles();
+    ChannelView in = spectrum.getChannelView();
+    int n = in.size();
 
     // Rebuild the filters
-    if (filters.size() < in.length)
-      rebuildFilters(in.length);
+    if (filters.size() < n)
+      rebuildFilters(n);
 
-    double[] out = new double[in.length];
+    double[] out = new double[n];
     for (int i = minc; i < maxc; ++i)
     {
-      filters.get(i).apply(out, 0, in.length, in[i]);
+      double v = in.getAsDouble(i);
+      // Empty channels contribute nothing
+      if (v == 0)
+        continue;
+      filters.get(i).apply(out, 0, n, v);
     }
     DoubleSpectrum outSpectrum = new DoubleSpectrum(spectrum);
     outSpectrum.setGammaData(out);
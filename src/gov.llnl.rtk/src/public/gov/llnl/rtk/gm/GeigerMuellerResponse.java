@@ -0,0 +1,338 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.gm;
+
+import gov.llnl.rtk.flux.Flux;
+import gov.llnl.rtk.flux.FluxGroup;
+import gov.llnl.rtk.flux.FluxLine;
+import gov.llnl.rtk.flux.FluxSpectrum;
+import gov.llnl.utility.ExecutorUtilities;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Accelerated evaluation of the response of a GeigerMuellerModel.
+ *
+ * The model evaluates its efficiency spline for every line and group of every
+ * flux. This tabulates the efficiency on the energy grid of a flux once and
+ * then computes the rate as a dot product with the flux. For a
+ * {@link FluxSpectrum} the table is keyed by the identity of the edges of the
+ * energy scale, so fluxes which share a scale share a table. Other fluxes are
+ * keyed by the energies of their lines and groups.
+ *
+ * The response at a distance is a geometric factor times the response per
+ * steradian, so a flux evaluated at many distances is only integrated once.
+ *
+ * The results agree with {@link GeigerMuellerModel#computeGammaIdealRate}
+ * to rounding. This class is thread safe.
+ */
+public class GeigerMuellerResponse
+{
+  private static final int MAX_GRIDS = 64;
+  private static final int CHUNK = 64;
+  private final GeigerMuellerModel model;
+  // Arrays use identity for equals so this is keyed by scale identity
+  private final Map<double[], double[]> scaleTables = new WeakHashMap<>();
+  private final Map<Grid, double[]> gridTables = new LinkedHashMap<Grid, double[]>(16, 0.75f, true)
+  {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Grid, double[]> eldest)
+    {
+      return size() > MAX_GRIDS;
+    }
+  };
+
+  public GeigerMuellerResponse(GeigerMuellerModel model)
+  {
+    this.model = model;
+    if (model.efficiencyFunction == null)
+      model.initialize();
+  }
+
+  public GeigerMuellerModel getModel()
+  {
+    return model;
+  }
+
+  /**
+   * Compute the efficiency weighted flux.
+   *
+   * @param flux
+   * @return the rate per steradian if there were no recovery time.
+   */
+  public double computeGammaResponse(Flux flux)
+  {
+    if (flux instanceof FluxSpectrum)
+    {
+      FluxSpectrum spectrum = (FluxSpectrum) flux;
+      double[] counts = spectrum.getGammaCounts();
+      if (counts == null || counts.length == 0)
+        return 0;
+      double[] table = getTable(spectrum.getGammaScale().getEdges());
+      double sum = 0;
+      for (int i = 0; i < counts.length; ++i)
+        sum += counts[i] * table[i];
+      return sum;
+    }
+
+    List<? extends FluxLine> lines = flux.getPhotonLines();
+    List<? extends FluxGroup> groups = flux.getPhotonGroups();
+    int n1 = lines.size();
+    double[] energies = new double[n1 + groups.size()];
+    double[] counts = new double[energies.length];
+    int i = 0;
+    for (FluxLine line : lines)
+    {
+      energies[i] = line.getEnergy();
+      counts[i++] = line.getIntensity();
+    }
+    for (FluxGroup group : groups)
+    {
+      energies[i] = group.getEnergyAverage();
+      counts[i++] = group.getCounts();
+    }
+    double[] table = getTable(new Grid(energies));
+    double sum = 0;
+    for (i = 0; i < energies.length; ++i)
+      sum += counts[i] * table[i];
+    return sum;
+  }
+
+  /**
+   * Compute the rate observed if there were no recovery time.
+   *
+   * @param flux
+   * @param distance
+   * @return the ideal rate.
+   */
+  public double computeGammaIdealRate(Flux flux, double distance)
+  {
+    return getSolidAngle(distance) * computeGammaResponse(flux);
+  }
+
+  /**
+   * Compute the rate observed including the recovery time.
+   *
+   * @param flux
+   * @param distance
+   * @return the expected rate.
+   */
+  public double computeGammaExpectedRate(Flux flux, double distance)
+  {
+    return toExpected(computeGammaIdealRate(flux, distance));
+  }
+
+  /**
+   * Compute the ideal rate for one flux at many distances.
+   *
+   * @param flux
+   * @param distances
+   * @return the ideal rate for each distance.
+   */
+  public double[] computeGammaIdealRate(Flux flux, double[] distances)
+  {
+    double response = computeGammaResponse(flux);
+    double[] out = new double[distances.length];
+    for (int i = 0; i < distances.length; ++i)
+      out[i] = getSolidAngle(distances[i]) * response;
+    return out;
+  }
+
+  /**
+   * Compute the expected rate for one flux at many distances.
+   *
+   * @param flux
+   * @param distances
+   * @return the expected rate for each distance.
+   */
+  public double[] computeGammaExpectedRate(Flux flux, double[] distances)
+  {
+    double[] out = computeGammaIdealRate(flux, distances);
+    for (int i = 0; i < out.length; ++i)
+      out[i] = toExpected(out[i]);
+    return out;
+  }
+
+  /**
+   * Compute the ideal rate for many fluxes at many distances.
+   *
+   * Fluxes are evaluated in parallel using the common pool.
+   *
+   * @param fluxes
+   * @param distances
+   * @return the ideal rate indexed by flux and then distance.
+   */
+  public double[][] computeGammaIdealRate(List<? extends Flux> fluxes, double[] distances)
+  {
+    return computeGammaIdealRate(fluxes, distances, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Compute the ideal rate for many fluxes at many distances.
+   *
+   * @param fluxes
+   * @param distances
+   * @param executor is used to evaluate the fluxes.
+   * @return the ideal rate indexed by flux and then distance.
+   */
+  public double[][] computeGammaIdealRate(List<? extends Flux> fluxes, double[] distances,
+          ExecutorService executor)
+  {
+    double[][] out = new double[fluxes.size()][];
+    ExecutorUtilities.executeEach(fluxes.size(), CHUNK, executor,
+            i -> out[i] = computeGammaIdealRate(fluxes.get(i), distances));
+    return out;
+  }
+
+  /**
+   * Compute the expected rate for many fluxes at many distances.
+   *
+   * Fluxes are evaluated in parallel using the common pool.
+   *
+   * @param fluxes
+   * @param distances
+   * @return the expected rate indexed by flux and then distance.
+   */
+  public double[][] computeGammaExpectedRate(List<? extends Flux> fluxes, double[] distances)
+  {
+    return computeGammaExpectedRate(fluxes, distances, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Compute the expected rate for many fluxes at many distances.
+   *
+   * @param fluxes
+   * @param distances
+   * @param executor is used to evaluate the fluxes.
+   * @return the expected rate indexed by flux and then distance.
+   */
+  public double[][] computeGammaExpectedRate(List<? extends Flux> fluxes, double[] distances,
+          ExecutorService executor)
+  {
+    double[][] out = new double[fluxes.size()][];
+    ExecutorUtilities.executeEach(fluxes.size(), CHUNK, executor,
+            i -> out[i] = computeGammaExpectedRate(fluxes.get(i), distances));
+    return out;
+  }
+
+  /**
+   * Compute the ideal rate for pairs of fluxes and distances.
+   *
+   * @param fluxes
+   * @param distances must be the same length as fluxes.
+   * @return the ideal rate for each pair.
+   */
+  public double[] computeGammaIdealRatePairs(List<? extends Flux> fluxes, double[] distances)
+  {
+    if (fluxes.size() != distances.length)
+      throw new IllegalArgumentException("Size mismatch " + fluxes.size() + "!=" + distances.length);
+    double[] out = new double[distances.length];
+    ExecutorUtilities.executeEach(out.length, CHUNK, ForkJoinPool.commonPool(),
+            i -> out[i] = computeGammaIdealRate(fluxes.get(i), distances[i]));
+    return out;
+  }
+
+  /**
+   * Discard the cached efficiency tables.
+   */
+  public void clear()
+  {
+    synchronized (scaleTables)
+    {
+      scaleTables.clear();
+    }
+    synchronized (gridTables)
+    {
+      gridTables.clear();
+    }
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private double getSolidAngle(double distance)
+  {
+    return model.diameter * model.diameter / 4 * Math.PI / distance / distance;
+  }
+
+  private double toExpected(double rate)
+  {
+    return rate / (1 + model.recoveryTime * rate);
+  }
+
+  private double[] getTable(double[] edges)
+  {
+    synchronized (scaleTables)
+    {
+      double[] table = scaleTables.get(edges);
+      if (table != null)
+        return table;
+    }
+    int n = edges.length - 1;
+    double[] table = new double[Math.max(n, 0)];
+    for (int i = 0; i < n; ++i)
+      table[i] = model.efficiencyFunction.applyAsDouble((edges[i] + edges[i + 1]) / 2);
+    synchronized (scaleTables)
+    {
+      scaleTables.put(edges, table);
+    }
+    return table;
+  }
+
+  private double[] getTable(Grid grid)
+  {
+    synchronized (gridTables)
+    {
+      double[] table = gridTables.get(grid);
+      if (table != null)
+        return table;
+    }
+    double[] energies = grid.energies;
+    double[] table = new double[energies.length];
+    for (int i = 0; i < energies.length; ++i)
+      table[i] = model.efficiencyFunction.applyAsDouble(energies[i]);
+    synchronized (gridTables)
+    {
+      gridTables.put(grid, table);
+    }
+    return table;
+  }
+
+  /**
+   * Energies of the lines and groups of a flux.
+   */
+  private static class Grid
+  {
+    final double[] energies;
+    final int hash;
+
+    Grid(double[] energies)
+    {
+      this.energies = energies;
+      this.hash = Arrays.hashCode(energies);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+      if (!(obj instanceof Grid))
+        return false;
+      Grid other = (Grid) obj;
+      return hash == other.hash && Arrays.equals(energies, other.energies);
+    }
+  }
+//</editor-fold>
+}
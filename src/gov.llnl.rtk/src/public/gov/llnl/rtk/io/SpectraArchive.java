@@ -0,0 +1,876 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved.
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.io;
+
+import gov.llnl.rtk.data.ChannelView;
+import gov.llnl.rtk.data.DoubleSpectraList;
+import gov.llnl.rtk.data.DoubleSpectrum;
+import gov.llnl.rtk.data.EnergyScale;
+import gov.llnl.rtk.data.EnergyScaleFactory;
+import gov.llnl.rtk.data.IntegerSpectraList;
+import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.RegionOfInterest;
+import gov.llnl.rtk.data.SpectraList;
+import gov.llnl.rtk.data.Spectrum;
+import gov.llnl.rtk.data.SpectrumAttributes;
+import gov.llnl.rtk.data.SpectrumBase;
+import static gov.llnl.rtk.io.SpectraArchiveFormat.*;
+import gov.llnl.utility.Serializer;
+import gov.llnl.utility.io.ReaderException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+
+/**
+ * Read only list of spectra backed by a spectra archive.
+ *
+ * Opening an archive only reads the footer index and maps the blocks into
+ * memory. No spectra are decoded until accessed. {@link #get(int)} produces a
+ * new {@link IntegerSpectrum} or {@link DoubleSpectrum} for the requested row,
+ * while {@link #getView(int)} produces a read only spectrum which reads
+ * directly from the mapped file without copying the counts.
+ *
+ * Archives are written with {@link SpectraArchiveWriter}.
+ *
+ * @param <T> is the type of spectrum produced by get.
+ */
+public class SpectraArchive<T extends SpectrumBase> extends AbstractList<T>
+        implements SpectraList<T>, RandomAccess
+{
+  final Class<T> spectrumClass;
+  final int type;
+  final int channels;
+  final int rows;
+  final int rowsPerBlock;
+  final EnergyScale[] scales;
+  final Block[] blocks;
+
+  SpectraArchive(Class<T> spectrumClass, Header header)
+  {
+    this.spectrumClass = spectrumClass;
+    this.type = header.type;
+    this.channels = header.channels;
+    this.rows = header.rows;
+    this.rowsPerBlock = header.rowsPerBlock;
+    this.scales = header.scales;
+    this.blocks = header.blocks;
+  }
+
+  /**
+   * Open an archive using the spectrum type it was written with.
+   *
+   * @param path is the archive to open.
+   * @return a new list backed by the file.
+   * @throws IOException if the file cannot be mapped.
+   * @throws ReaderException if the file is not a valid archive.
+   */
+  public static SpectraArchive<?> open(Path path) throws IOException, ReaderException
+  {
+    Header header = Header.map(path);
+    if (header.type == TYPE_INT)
+      return new SpectraArchive<>(IntegerSpectrum.class, header);
+    return new SpectraArchive<>(DoubleSpectrum.class, header);
+  }
+
+  /**
+   * Open an archive producing a specific spectrum type.
+   *
+   * @param <T>
+   * @param path is the archive to open.
+   * @param cls is either IntegerSpectrum or DoubleSpectrum.
+   * @return a new list backed by the file.
+   * @throws IOException if the file cannot be mapped.
+   * @throws ReaderException if the file is not a valid archive.
+   */
+  public static <T extends SpectrumBase> SpectraArchive<T> open(Path path, Class<T> cls)
+          throws IOException, ReaderException
+  {
+    checkClass(cls);
+    return new SpectraArchive<>(cls, Header.map(path));
+  }
+
+  /**
+   * Wrap an archive held in memory.
+   *
+   * @param buffer holding the complete archive.
+   * @return a new list backed by the buffer.
+   * @throws ReaderException if the buffer is not a valid archive.
+   */
+  public static SpectraArchive<?> wrap(ByteBuffer buffer) throws ReaderException
+  {
+    Header header = Header.wrap(buffer);
+    if (header.type == TYPE_INT)
+      return new SpectraArchive<>(IntegerSpectrum.class, header);
+    return new SpectraArchive<>(DoubleSpectrum.class, header);
+  }
+
+  @Override
+  public Class<T> getSpectrumClass()
+  {
+    return spectrumClass;
+  }
+
+  /**
+   * Get the number of channels in every spectrum of the archive.
+   *
+   * @return the number of channels.
+   */
+  public int getChannels()
+  {
+    return channels;
+  }
+
+  /**
+   * Get the storage class for the counts, either int[].class or
+   * double[].class.
+   *
+   * @return the storage class.
+   */
+  public Class getCountClass()
+  {
+    return type == TYPE_INT ? int[].class : double[].class;
+  }
+
+  /**
+   * Get the table of energy scales shared by the spectra in this archive.
+   *
+   * @return the energy scales.
+   */
+  public EnergyScale[] getEnergyScales()
+  {
+    return scales.clone();
+  }
+
+  @Override
+  public int size()
+  {
+    return rows;
+  }
+
+  /**
+   * Decode a spectrum from the archive. The counts are copied into a new
+   * spectrum which may be modified freely.
+   *
+   * @param index is the row to retrieve.
+   * @return a new spectrum.
+   */
+  @Override
+  public T get(int index)
+  {
+    View view = getView(index);
+    SpectrumBase out;
+    if (spectrumClass == IntegerSpectrum.class)
+    {
+      int[] data = new int[channels];
+      if (type == TYPE_INT)
+      {
+        IntBuffer ib = view.block.counts().asIntBuffer();
+        ib.position(view.base);
+        ib.get(data);
+      }
+      else
+      {
+        // Convert in place rather than through intermediate spectra
+        DoubleBuffer db = view.block.counts().asDoubleBuffer();
+        for (int i = 0; i < channels; ++i)
+        {
+          double v = db.get(view.base + i);
+          if (v != (int) v)
+            throw new RuntimeException("Cannot create integer spectrum from double array");
+          data[i] = (int) v;
+        }
+      }
+      out = new IntegerSpectrum(data, view.getLiveTime(), view.getRealTime());
+    }
+    else
+    {
+      out = new DoubleSpectrum(view.toDoubles(), view.getLiveTime(), view.getRealTime());
+    }
+    out.setEnergyScale(view.getEnergyScale());
+    out.setValidRange(view.getMinimumValidChannel(), view.getMaximumValidChannel());
+    out.setUnderRange(view.getUnderRangeCounts());
+    out.setOverRange(view.getOverRangeCounts());
+    out.getAttributes().putAll(view.getAttributes());
+    return spectrumClass.cast(out);
+  }
+
+  /**
+   * Get a read only view of a spectrum in the archive.
+   *
+   * The view reads the counts directly from the archive. For uncompressed
+   * archives the counts are never copied. Calling toArray on a view is not
+   * supported.
+   *
+   * @param index is the row to retrieve.
+   * @return a read only spectrum.
+   */
+  @Override
+  public View getView(int index)
+  {
+    if (index < 0 || index >= rows)
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + rows);
+    Block block = blocks[index / rowsPerBlock];
+    return new View(block, index - block.firstRow);
+  }
+
+  /**
+   * Decode the whole archive into memory.
+   *
+   * @return a list holding a copy of every spectrum.
+   */
+  public SpectraList<T> toSpectraList()
+  {
+    SpectraList out;
+    if (spectrumClass == IntegerSpectrum.class)
+      out = new IntegerSpectraList();
+    else
+      out = new DoubleSpectraList();
+    for (int i = 0; i < rows; ++i)
+      out.add(get(i));
+    @SuppressWarnings("unchecked")
+    SpectraList<T> result = (SpectraList<T>) out;
+    return result;
+  }
+
+  @Override
+  public double[] getSum()
+  {
+    if (rows == 0)
+      return null;
+    double[] out = new double[channels];
+    for (Block block : blocks)
+      block.sumInto(out);
+    return out;
+  }
+
+  @Override
+  public double[] getMean()
+  {
+    double[] out = getSum();
+    if (out == null)
+      return null;
+    double lt = 0;
+    for (Block block : blocks)
+    {
+      DoubleBuffer liveTime = block.column(LIVE_TIME).asDoubleBuffer();
+      for (int i = 0; i < block.rows; ++i)
+        lt += liveTime.get(i);
+    }
+    if (lt > 0)
+      for (int i = 0; i < channels; ++i)
+        out[i] /= lt;
+    return out;
+  }
+
+  @Override
+  public String[] getTitles()
+  {
+    String[] out = new String[rows];
+    for (int i = 0; i < rows; ++i)
+      out[i] = getView(i).getTitle();
+    return out;
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private static void checkClass(Class<?> cls)
+  {
+    if (cls != IntegerSpectrum.class && cls != DoubleSpectrum.class)
+      throw new IllegalArgumentException("Unsupported spectrum class " + cls);
+  }
+
+  /**
+   * Contents of the footer along with the mapped blocks.
+   */
+  static class Header
+  {
+    int type;
+    int channels;
+    int rows;
+    int rowsPerBlock;
+    EnergyScale[] scales;
+    Block[] blocks;
+
+    static Header map(Path path) throws IOException, ReaderException
+    {
+      try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ))
+      {
+        long size = fc.size();
+        if (size < HEADER_SIZE + TRAILER_SIZE)
+          throw new ReaderException("File too short for spectra archive");
+        ByteBuffer header = allocate(HEADER_SIZE);
+        readFully(fc, header, 0);
+        checkHeader(header);
+        ByteBuffer trailer = allocate(TRAILER_SIZE);
+        readFully(fc, trailer, size - TRAILER_SIZE);
+        long footerOffset = trailer.getLong();
+        int footerLength = trailer.getInt();
+        checkMagic(trailer);
+        if (footerOffset < HEADER_SIZE || footerOffset + footerLength > size - TRAILER_SIZE)
+          throw new ReaderException("Corrupt spectra archive footer");
+        ByteBuffer footer = allocate(footerLength);
+        readFully(fc, footer, footerOffset);
+        Header out = new Header();
+        BlockIndex[] index = out.parse(footer);
+
+        // Map each block separately so that archives larger than 2GB are supported.
+        // The mappings remain valid after the channel is closed.
+        out.blocks = new Block[index.length];
+        for (int i = 0; i < index.length; ++i)
+        {
+          long start = index[i].getStart();
+          long length = index[i].getEnd() - start;
+          ByteBuffer region = fc.map(FileChannel.MapMode.READ_ONLY, start, length).order(ORDER);
+          out.blocks[i] = new Block(out, index[i], region, start);
+        }
+        return out;
+      }
+    }
+
+    static Header wrap(ByteBuffer buffer) throws ReaderException
+    {
+      ByteBuffer bb = buffer.duplicate().order(ORDER);
+      int size = bb.remaining();
+      int base = bb.position();
+      if (size < HEADER_SIZE + TRAILER_SIZE)
+        throw new ReaderException("Buffer too short for spectra archive");
+      checkHeader(bb.duplicate().order(ORDER));
+      ByteBuffer trailer = bb.duplicate().order(ORDER);
+      trailer.position(base + size - TRAILER_SIZE);
+      long footerOffset = trailer.getLong();
+      int footerLength = trailer.getInt();
+      checkMagic(trailer);
+      if (footerOffset < HEADER_SIZE || footerOffset + footerLength > size - TRAILER_SIZE)
+        throw new ReaderException("Corrupt spectra archive footer");
+      ByteBuffer footer = bb.duplicate().order(ORDER);
+      footer.position(base + (int) footerOffset);
+      footer.limit(base + (int) footerOffset + footerLength);
+      Header out = new Header();
+      BlockIndex[] index = out.parse(footer.slice().order(ORDER));
+      out.blocks = new Block[index.length];
+      for (int i = 0; i < index.length; ++i)
+      {
+        ByteBuffer region = bb.duplicate();
+        region.position(base + (int) index[i].getStart());
+        region.limit(base + (int) index[i].getEnd());
+        out.blocks[i] = new Block(out, index[i], region.slice().order(ORDER), index[i].getStart());
+      }
+      return out;
+    }
+
+    private BlockIndex[] parse(ByteBuffer footer) throws ReaderException
+    {
+      try
+      {
+        type = footer.getInt();
+        channels = footer.getInt();
+        rows = footer.getInt();
+        rowsPerBlock = footer.getInt();
+        if (type != TYPE_INT && type != TYPE_DOUBLE)
+          throw new ReaderException("Unknown count type " + type);
+        int nScales = footer.getInt();
+        scales = new EnergyScale[nScales];
+        for (int i = 0; i < nScales; ++i)
+        {
+          double[] edges = new double[footer.getInt()];
+          footer.asDoubleBuffer().get(edges);
+          footer.position(footer.position() + 8 * edges.length);
+          scales[i] = EnergyScaleFactory.newScale(edges);
+        }
+        int nBlocks = footer.getInt();
+        BlockIndex[] index = new BlockIndex[nBlocks];
+        for (int i = 0; i < nBlocks; ++i)
+        {
+          BlockIndex entry = new BlockIndex();
+          entry.firstRow = footer.getInt();
+          entry.rows = footer.getInt();
+          for (int j = 0; j < COLUMNS; ++j)
+          {
+            entry.codec[j] = footer.getInt();
+            entry.offset[j] = footer.getLong();
+            entry.stored[j] = footer.getInt();
+            entry.raw[j] = footer.getInt();
+          }
+          if (entry.firstRow != i * rowsPerBlock)
+            throw new ReaderException("Corrupt spectra archive index");
+          index[i] = entry;
+        }
+        return index;
+      }
+      catch (BufferUnderflowException ex)
+      {
+        throw new ReaderException("Truncated spectra archive footer", ex);
+      }
+    }
+
+    private static void readFully(FileChannel fc, ByteBuffer buffer, long position) throws IOException
+    {
+      while (buffer.hasRemaining())
+      {
+        int n = fc.read(buffer, position);
+        if (n < 0)
+          throw new IOException("Unexpected end of file");
+        position += n;
+      }
+      buffer.flip();
+    }
+
+    private static void checkHeader(ByteBuffer header) throws ReaderException
+    {
+      checkMagic(header);
+      int version = header.getInt();
+      if (version != VERSION)
+        throw new ReaderException("Unsupported spectra archive version " + version);
+    }
+
+    private static void checkMagic(ByteBuffer bb) throws ReaderException
+    {
+      byte[] magic = new byte[MAGIC.length];
+      bb.get(magic);
+      if (!Arrays.equals(magic, MAGIC))
+        throw new ReaderException("Bad magic for spectra archive");
+    }
+  }
+
+  /**
+   * A block of rows held in the archive.
+   *
+   * Uncompressed chunks are returned as slices of the mapped region.
+   * Compressed chunks are inflated on demand and held softly.
+   */
+  static class Block
+  {
+    final Header header;
+    final BlockIndex index;
+    final ByteBuffer region;
+    final long start;
+    final int firstRow;
+    final int rows;
+    @SuppressWarnings("unchecked")
+    final SoftReference<ByteBuffer>[] inflated = new SoftReference[COLUMNS];
+    int[] titleOffsets;
+    int[] attributeOffsets;
+
+    Block(Header header, BlockIndex index, ByteBuffer region, long start)
+    {
+      this.header = header;
+      this.index = index;
+      this.region = region;
+      this.start = start;
+      this.firstRow = index.firstRow;
+      this.rows = index.rows;
+    }
+
+    ByteBuffer counts()
+    {
+      return column(COUNTS);
+    }
+
+    /**
+     * Get the contents of a column as a buffer positioned at zero.
+     *
+     * @param column
+     * @return a new buffer sharing the contents.
+     */
+    ByteBuffer column(int column)
+    {
+      ByteBuffer stored = region.duplicate();
+      int offset = (int) (index.offset[column] - start);
+      stored.position(offset);
+      stored.limit(offset + index.stored[column]);
+      if (index.codec[column] == CODEC_NONE)
+        return stored.slice().order(ORDER);
+
+      synchronized (this)
+      {
+        SoftReference<ByteBuffer> ref = inflated[column];
+        ByteBuffer out = (ref == null) ? null : ref.get();
+        if (out == null)
+        {
+          try
+          {
+            out = inflate(stored, index.raw[column]);
+          }
+          catch (DataFormatException ex)
+          {
+            throw new UncheckedIOException(new IOException("Corrupt spectra archive block", ex));
+          }
+          inflated[column] = new SoftReference<>(out);
+        }
+        return out.duplicate().order(ORDER);
+      }
+    }
+
+    synchronized int[] offsets(int column)
+    {
+      int[] out = (column == TITLES) ? titleOffsets : attributeOffsets;
+      if (out != null)
+        return out;
+      ByteBuffer bb = column(column);
+      out = new int[rows + 1];
+      int position = 4 * rows;
+      for (int i = 0; i < rows; ++i)
+      {
+        out[i] = position;
+        int length = bb.getInt(4 * i);
+        if (length > 0)
+          position += length;
+      }
+      out[rows] = position;
+      if (column == TITLES)
+        titleOffsets = out;
+      else
+        attributeOffsets = out;
+      return out;
+    }
+
+    byte[] variable(int column, int row)
+    {
+      ByteBuffer bb = column(column);
+      int length = bb.getInt(4 * row);
+      if (length < 0)
+        return null;
+      byte[] out = new byte[length];
+      bb.position(offsets(column)[row]);
+      bb.get(out);
+      return out;
+    }
+
+    void sumInto(double[] out)
+    {
+      int channels = header.channels;
+      ByteBuffer counts = counts();
+      if (header.type == TYPE_INT)
+      {
+        IntBuffer ib = counts.asIntBuffer();
+        for (int i = 0, k = 0; i < rows; ++i)
+          for (int j = 0; j < channels; ++j, ++k)
+            out[j] += ib.get(k);
+      }
+      else
+      {
+        DoubleBuffer db = counts.asDoubleBuffer();
+        for (int i = 0, k = 0; i < rows; ++i)
+          for (int j = 0; j < channels; ++j, ++k)
+            out[j] += db.get(k);
+      }
+    }
+  }
+//</editor-fold>
+
+  /**
+   * Read only spectrum referencing a row of the archive.
+   *
+   * Attributes are decoded on first request.
+   */
+  public static class View implements Spectrum<Object>, ChannelView
+  {
+    final Block block;
+    final int row;
+    final int base;
+    private Map<String, Serializable> attributes;
+
+    View(Block block, int row)
+    {
+      this.block = block;
+      this.row = row;
+      this.base = row * block.header.channels;
+    }
+
+    /**
+     * Get the counts in one channel.
+     *
+     * @param channel
+     * @return the counts in the channel.
+     */
+    public double get(int channel)
+    {
+      if (channel < 0 || channel >= block.header.channels)
+        throw new IndexOutOfBoundsException();
+      ByteBuffer counts = block.counts();
+      if (block.header.type == TYPE_INT)
+        return counts.getInt(4 * (base + channel));
+      return counts.getDouble(8 * (base + channel));
+    }
+
+    @Override
+    public double getAsDouble(int channel)
+    {
+      return get(channel);
+    }
+
+    @Override
+    public ChannelView getChannelView()
+    {
+      return this;
+    }
+
+    /**
+     * Sum the counts in a range of channels.
+     *
+     * @param begin is the first channel (inclusive).
+     * @param end is the last channel (exclusive).
+     * @return the total counts in the range.
+     */
+    @Override
+    public double sumRange(int begin, int end)
+    {
+      begin = Math.max(begin, 0);
+      end = Math.min(end, block.header.channels);
+      double sum = 0;
+      ByteBuffer counts = block.counts();
+      if (block.header.type == TYPE_INT)
+      {
+        IntBuffer ib = counts.asIntBuffer();
+        for (int i = begin; i < end; ++i)
+          sum += ib.get(base + i);
+      }
+      else
+      {
+        DoubleBuffer db = counts.asDoubleBuffer();
+        for (int i = begin; i < end; ++i)
+          sum += db.get(base + i);
+      }
+      return sum;
+    }
+
+    @Override
+    public int size()
+    {
+      return block.header.channels;
+    }
+
+    @Override
+    public String getTitle()
+    {
+      byte[] bytes = block.variable(TITLES, row);
+      if (bytes == null)
+        return null;
+      return new String(bytes, UTF_8);
+    }
+
+    @Override
+    public double getLiveTime()
+    {
+      return block.column(LIVE_TIME).getDouble(8 * row);
+    }
+
+    @Override
+    public double getRealTime()
+    {
+      return block.column(REAL_TIME).getDouble(8 * row);
+    }
+
+    @Override
+    public Instant getStartTime()
+    {
+      long seconds = block.column(START_SECONDS).getLong(8 * row);
+      if (seconds == Long.MIN_VALUE)
+        return null;
+      return Instant.ofEpochSecond(seconds, block.column(START_NANOS).getInt(4 * row));
+    }
+
+    @Override
+    public Instant getEndTime()
+    {
+      Instant date = this.getStartTime();
+      if (date == null)
+        return null;
+      long ts = (long) (date.toEpochMilli() + this.getRealTime() * 1000.0);
+      return Instant.ofEpochMilli(ts);
+    }
+
+    @Override
+    public double getCounts()
+    {
+      return sumRange(getMinimumValidChannel(), getMaximumValidChannel());
+    }
+
+    @Override
+    public double getRate()
+    {
+      double livetime = this.getLiveTime();
+      if (livetime <= 0)
+        return 0;
+      return getCounts() / livetime;
+    }
+
+    @Override
+    public double getCounts(RegionOfInterest roi)
+    {
+      if (roi == null)
+        return this.getCounts();
+      int[] channels = roi.getChannels(this.getEnergyScale());
+      int lower = Math.max(channels[0], getMinimumValidChannel());
+      int upper = Math.min(channels[1], getMaximumValidChannel());
+      return sumRange(lower, upper);
+    }
+
+    @Override
+    public double getRate(RegionOfInterest roi)
+    {
+      double livetime = this.getLiveTime();
+      if (roi == null)
+        return this.getRate();
+      if (livetime <= 0)
+        return 0;
+      return this.getCounts(roi) / livetime;
+    }
+
+    /**
+     * Copy the counts to a new array.
+     *
+     * @return a new array holding the counts.
+     */
+    @Override
+    public double[] toDoubles()
+    {
+      int channels = block.header.channels;
+      double[] out = new double[channels];
+      ByteBuffer counts = block.counts();
+      if (block.header.type == TYPE_INT)
+      {
+        IntBuffer ib = counts.asIntBuffer();
+        for (int i = 0; i < channels; ++i)
+          out[i] = ib.get(base + i);
+      }
+      else
+      {
+        DoubleBuffer db = counts.asDoubleBuffer();
+        db.position(base);
+        db.get(out);
+      }
+      return out;
+    }
+
+    /**
+     * Not supported as the counts are held in the archive.
+     *
+     * @return never
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public Object toArray() throws UnsupportedOperationException
+    {
+      throw new UnsupportedOperationException("Spectra archive views are read only");
+    }
+
+    @Override
+    public void setEnergyScale(EnergyScale bins)
+    {
+      throw new UnsupportedOperationException("Spectra archive views are read only");
+    }
+
+    @Override
+    public EnergyScale getEnergyScale()
+    {
+      int index = block.column(SCALE).getInt(4 * row);
+      if (index < 0)
+        return null;
+      return block.header.scales[index];
+    }
+
+    @Override
+    public Class getCountClass()
+    {
+      return block.header.type == TYPE_INT ? int[].class : double[].class;
+    }
+
+    @Override
+    public double getUnderRangeCounts()
+    {
+      return block.column(OUT_OF_RANGE).getDouble(16 * row);
+    }
+
+    @Override
+    public double getOverRangeCounts()
+    {
+      return block.column(OUT_OF_RANGE).getDouble(16 * row + 8);
+    }
+
+    @Override
+    public int getMinimumValidChannel()
+    {
+      return block.column(VALID_RANGE).getInt(8 * row);
+    }
+
+    @Override
+    public int getMaximumValidChannel()
+    {
+      return block.column(VALID_RANGE).getInt(8 * row + 4);
+    }
+
+    @Override
+    public void clearCache()
+    {
+    }
+
+//<editor-fold desc="attributes">
+    @Override
+    public synchronized Map<String, Serializable> getAttributes()
+    {
+      if (attributes != null)
+        return attributes;
+      TreeMap<String, Serializable> out = new TreeMap<>();
+      byte[] bytes = block.variable(ATTRIBUTES, row);
+      if (bytes != null)
+      {
+        try
+        {
+          @SuppressWarnings("unchecked")
+          Map<String, Serializable> stored = (Map<String, Serializable>) new Serializer().unpack(bytes);
+          out.putAll(stored);
+        }
+        catch (IOException ex)
+        {
+          throw new UncheckedIOException(ex);
+        }
+        catch (ClassNotFoundException ex)
+        {
+          throw new RuntimeException(ex);
+        }
+      }
+      String title = getTitle();
+      if (title != null)
+        out.put(SpectrumAttributes.TITLE, title);
+      Instant start = getStartTime();
+      if (start != null)
+        out.put(SpectrumAttributes.TIMESTAMP, start);
+      attributes = Collections.unmodifiableMap(out);
+      return attributes;
+    }
+
+    @Override
+    public Serializable getAttribute(String name)
+    {
+      return getAttributes().get(name);
+    }
+
+    @Override
+    public <T extends Serializable> void setAttribute(String name, T value)
+    {
+      throw new UnsupportedOperationException("Spectra archive views are read only");
+    }
+//</editor-fold>
+  }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved.
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.io;
+
+import gov.llnl.rtk.data.EnergyScale;
+import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.SpectraList;
+import gov.llnl.rtk.data.SpectrumAttributes;
+import gov.llnl.rtk.data.SpectrumBase;
+import static gov.llnl.rtk.io.SpectraArchiveFormat.*;
+import gov.llnl.utility.Serializer;
+import gov.llnl.utility.io.DataFileWriter;
+import gov.llnl.utility.io.WriterException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writer for the binary columnar spectra archive.
+ *
+ * The archive stores a list of spectra with a fixed number of channels as
+ * blocks of rows. Counts are stored as a row major matrix so that an
+ * uncompressed archive can be memory mapped and viewed without copying. Titles,
+ * times and energy scales are stored as separate columns. Energy scales are
+ * shared through a table in the footer. Any remaining attributes are stored
+ * using serialization and are only decoded when requested.
+ *
+ * Use {@link SpectraArchive#open(java.nio.file.Path)} to read an archive.
+ */
+public class SpectraArchiveWriter implements DataFileWriter<SpectraList<?>>
+{
+  private int rowsPerBlock = DEFAULT_ROWS_PER_BLOCK;
+  private boolean compress = false;
+
+  /**
+   * Set the number of spectra held in each block.
+   *
+   * Smaller blocks give finer granularity for decompression at the cost of a
+   * larger footer.
+   *
+   * @param rowsPerBlock
+   */
+  public void setRowsPerBlock(int rowsPerBlock)
+  {
+    if (rowsPerBlock <= 0)
+      throw new IllegalArgumentException("rows per block must be positive");
+    this.rowsPerBlock = rowsPerBlock;
+  }
+
+  public int getRowsPerBlock()
+  {
+    return rowsPerBlock;
+  }
+
+  /**
+   * Set if blocks should be compressed.
+   *
+   * Compressed count blocks must be inflated when accessed and thus cannot be
+   * viewed without copying. Chunks which do not shrink are always stored
+   * uncompressed.
+   *
+   * @param compress
+   */
+  public void setCompress(boolean compress)
+  {
+    this.compress = compress;
+  }
+
+  public boolean isCompress()
+  {
+    return compress;
+  }
+
+  @Override
+  public void saveFile(Path path, SpectraList<?> list) throws IOException, WriterException
+  {
+    this.saveStream(Files.newOutputStream(path), list);
+  }
+
+  @Override
+  public void saveStream(OutputStream stream, SpectraList<?> list) throws IOException, WriterException
+  {
+    try (WritableByteChannel channel = Channels.newChannel(stream))
+    {
+      write(channel, list);
+    }
+  }
+
+  /**
+   * Write an archive to a channel. The channel is not closed.
+   *
+   * @param channel
+   * @param list
+   * @throws IOException
+   * @throws WriterException
+   */
+  public void write(WritableByteChannel channel, SpectraList<?> list) throws IOException, WriterException
+  {
+    Output output = new Output(channel);
+    int type = IntegerSpectrum.class.isAssignableFrom(list.getSpectrumClass()) ? TYPE_INT : TYPE_DOUBLE;
+    int rows = list.size();
+    int channels = rows > 0 ? list.get(0).size() : 0;
+
+    // Header
+    ByteBuffer header = allocate(HEADER_SIZE);
+    header.put(MAGIC);
+    header.putInt(VERSION);
+    header.flip();
+    output.write(header);
+
+    // Blocks
+    ScaleTable scales = new ScaleTable();
+    List<BlockIndex> blocks = new ArrayList<>();
+    for (int first = 0; first < rows; first += rowsPerBlock)
+    {
+      List<? extends SpectrumBase> sublist = list.subList(first, Math.min(rows, first + rowsPerBlock));
+      BlockIndex index = new BlockIndex();
+      index.firstRow = first;
+      index.rows = sublist.size();
+      ByteBuffer[] chunks = encodeBlock(sublist, type, channels, scales);
+      for (int i = 0; i < COLUMNS; ++i)
+      {
+        ByteBuffer chunk = chunks[i];
+        index.raw[i] = chunk.remaining();
+        index.codec[i] = CODEC_NONE;
+        if (compress)
+        {
+          byte[] packed = deflate(chunk);
+          if (packed != null)
+          {
+            chunk = ByteBuffer.wrap(packed);
+            index.codec[i] = CODEC_DEFLATE;
+          }
+        }
+        index.offset[i] = output.position;
+        index.stored[i] = chunk.remaining();
+        output.write(chunk);
+      }
+      blocks.add(index);
+    }
+
+    // Footer
+    int size = 4 * 4 + 4 + 4 + blocks.size() * (8 + COLUMNS * (4 + 8 + 4 + 4));
+    for (double[] edges : scales.edges)
+      size += 4 + 8 * edges.length;
+    ByteBuffer footer = allocate(size);
+    footer.putInt(type);
+    footer.putInt(channels);
+    footer.putInt(rows);
+    footer.putInt(rowsPerBlock);
+    footer.putInt(scales.edges.size());
+    for (double[] edges : scales.edges)
+    {
+      footer.putInt(edges.length);
+      footer.asDoubleBuffer().put(edges);
+      footer.position(footer.position() + 8 * edges.length);
+    }
+    footer.putInt(blocks.size());
+    for (BlockIndex index : blocks)
+    {
+      footer.putInt(index.firstRow);
+      footer.putInt(index.rows);
+      for (int i = 0; i < COLUMNS; ++i)
+      {
+        footer.putInt(index.codec[i]);
+        footer.putLong(index.offset[i]);
+        footer.putInt(index.stored[i]);
+        footer.putInt(index.raw[i]);
+      }
+    }
+    footer.flip();
+    long footerOffset = output.position;
+    output.write(footer);
+
+    ByteBuffer trailer = allocate(TRAILER_SIZE);
+    trailer.putLong(footerOffset);
+    trailer.putInt(size);
+    trailer.put(MAGIC);
+    trailer.flip();
+    output.write(trailer);
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private ByteBuffer[] encodeBlock(List<? extends SpectrumBase> rows,
+          int type, int channels, ScaleTable scales) throws WriterException
+  {
+    int n = rows.size();
+    ByteBuffer[] chunks = new ByteBuffer[COLUMNS];
+    ByteBuffer counts = allocate(n * channels * (type == TYPE_INT ? 4 : 8));
+    ByteBuffer liveTime = allocate(8 * n);
+    ByteBuffer realTime = allocate(8 * n);
+    ByteBuffer startSeconds = allocate(8 * n);
+    ByteBuffer startNanos = allocate(4 * n);
+    ByteBuffer scale = allocate(4 * n);
+    ByteBuffer validRange = allocate(8 * n);
+    ByteBuffer outOfRange = allocate(16 * n);
+    byte[][] titles = new byte[n][];
+    byte[][] attributes = new byte[n][];
+
+    Serializer serializer = new Serializer();
+    int i = 0;
+    for (SpectrumBase spectrum : rows)
+    {
+      if (spectrum.size() != channels)
+        throw new WriterException("All spectra must have the same number of channels, "
+                + spectrum.size() + "!=" + channels);
+      if (type == TYPE_INT)
+        counts.asIntBuffer().put((int[]) spectrum.toArray());
+      else
+        counts.asDoubleBuffer().put(spectrum.toDoubles());
+      counts.position(counts.position() + channels * (type == TYPE_INT ? 4 : 8));
+
+      liveTime.putDouble(spectrum.getLiveTime());
+      realTime.putDouble(spectrum.getRealTime());
+      Instant start = spectrum.getStartTime();
+      startSeconds.putLong(start == null ? Long.MIN_VALUE : start.getEpochSecond());
+      startNanos.putInt(start == null ? 0 : start.getNano());
+      scale.putInt(scales.indexOf(spectrum.getEnergyScale()));
+      validRange.putInt(spectrum.getMinimumValidChannel());
+      validRange.putInt(spectrum.getMaximumValidChannel());
+      outOfRange.putDouble(spectrum.getUnderRangeCounts());
+      outOfRange.putDouble(spectrum.getOverRangeCounts());
+
+      String title = spectrum.getTitle();
+      titles[i] = (title == null) ? null : title.getBytes(UTF_8);
+      attributes[i] = packAttributes(serializer, spectrum.getAttributes());
+      i++;
+    }
+
+    chunks[COUNTS] = counts;
+    chunks[LIVE_TIME] = liveTime;
+    chunks[REAL_TIME] = realTime;
+    chunks[START_SECONDS] = startSeconds;
+    chunks[START_NANOS] = startNanos;
+    chunks[SCALE] = scale;
+    chunks[VALID_RANGE] = validRange;
+    chunks[OUT_OF_RANGE] = outOfRange;
+    chunks[TITLES] = encodeVariable(titles);
+    chunks[ATTRIBUTES] = encodeVariable(attributes);
+    for (ByteBuffer chunk : chunks)
+      chunk.flip();
+    return chunks;
+  }
+
+  private static byte[] packAttributes(Serializer serializer, Map<String, Serializable> attributes)
+          throws WriterException
+  {
+    // Title and timestamp are held in their own columns
+    TreeMap<String, Serializable> remaining = new TreeMap<>(attributes);
+    remaining.remove(SpectrumAttributes.TITLE);
+    remaining.remove(SpectrumAttributes.TIMESTAMP);
+    if (remaining.isEmpty())
+      return null;
+    try
+    {
+      return serializer.pack(remaining);
+    }
+    catch (IOException | RuntimeException ex)
+    {
+      throw new WriterException("Unable to store attributes " + remaining.keySet(), ex);
+    }
+  }
+
+  private static ByteBuffer encodeVariable(byte[][] values)
+  {
+    int size = 4 * values.length;
+    for (byte[] value : values)
+      if (value != null)
+        size += value.length;
+    ByteBuffer out = allocate(size);
+    for (byte[] value : values)
+      out.putInt(value == null ? -1 : value.length);
+    for (byte[] value : values)
+      if (value != null)
+        out.put(value);
+    return out;
+  }
+
+  /**
+   * Table of distinct energy scales. Scales are matched first by identity and
+   * then by their edges.
+   */
+  private static class ScaleTable
+  {
+    final IdentityHashMap<EnergyScale, Integer> identity = new IdentityHashMap<>();
+    final List<double[]> edges = new ArrayList<>();
+
+    int indexOf(EnergyScale scale)
+    {
+      if (scale == null)
+        return -1;
+      Integer index = identity.get(scale);
+      if (index != null)
+        return index;
+      double[] e = scale.getEdges();
+      index = -1;
+      for (int i = 0; i < edges.size(); ++i)
+      {
+        if (Arrays.equals(edges.get(i), e))
+        {
+          index = i;
+          break;
+        }
+      }
+      if (index == -1)
+      {
+        index = edges.size();
+        edges.add(e.clone());
+      }
+      identity.put(scale, index);
+      return index;
+    }
+  }
+
+  /**
+   * Channel which tracks the number of bytes written.
+   */
+  private static class Output
+  {
+    final WritableByteChannel channel;
+    long position = 0;
+
+    Output(WritableByteChannel channel)
+    {
+      this.channel = channel;
+    }
+
+    void write(ByteBuffer buffer) throws IOException
+    {
+      while (buffer.hasRemaining())
+        position += channel.write(buffer);
+    }
+  }
+//</editor-fold>
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.physics;
+
+/**
+ * Source of photon mass attenuation coefficients.
+ *
+ * Coefficients are in SI (m^2/kg) so that multiplying by a density in kg/m^3
+ * and a length in m gives the number of mean free paths. Energies are in keV
+ * to match the flux representations.
+ */
+public interface AttenuationLibrary
+{
+  /**
+   * Get the total mass attenuation coefficient for an element.
+   *
+   * @param element
+   * @param energy in keV.
+   * @return the mass attenuation in m^2/kg.
+   */
+  double getMassAttenuation(Element element, double energy);
+
+  /**
+   * Get the mass attenuation coefficient for an element at many energies.
+   *
+   * @param element
+   * @param energies in keV.
+   * @param out must be at least as long as energies.
+   */
+  default void getMassAttenuation(Element element, double[] energies, double[] out)
+  {
+    for (int i = 0; i < energies.length; ++i)
+      out[i] = getMassAttenuation(element, energies[i]);
+  }
+
+  /**
+   * Get the mass attenuation coefficient for a material.
+   *
+   * The coefficient is the mass fraction weighted sum over the components.
+   * Mass fractions are normalized so they need not sum to one.
+   *
+   * @param material
+   * @param energy in keV.
+   * @return the mass attenuation in m^2/kg.
+   */
+  default double getMassAttenuation(Material material, double energy)
+  {
+    double weight = 0;
+    double sum = 0;
+    for (Component component : material)
+    {
+      double fraction = component.getMassFraction();
+      if (fraction == 0)
+        continue;
+      weight += fraction;
+      sum += fraction * getMassAttenuation(component.getNuclide().getElement(), energy);
+    }
+    if (weight == 0)
+      return 0;
+    return sum / weight;
+  }
+
+  /**
+   * Get the mass attenuation coefficient for a material at many energies.
+   *
+   * @param material
+   * @param energies in keV.
+   * @param out must be at least as long as energies.
+   */
+  default void getMassAttenuation(Material material, double[] energies, double[] out)
+  {
+    int n = energies.length;
+    double[] work = new double[n];
+    double weight = 0;
+    for (int i = 0; i < n; ++i)
+      out[i] = 0;
+    for (Component component : material)
+    {
+      double fraction = component.getMassFraction();
+      if (fraction == 0)
+        continue;
+      weight += fraction;
+      getMassAttenuation(component.getNuclide().getElement(), energies, work);
+      for (int i = 0; i < n; ++i)
+        out[i] += fraction * work[i];
+    }
+    if (weight == 0)
+      return;
+    for (int i = 0; i < n; ++i)
+      out[i] /= weight;
+  }
+}
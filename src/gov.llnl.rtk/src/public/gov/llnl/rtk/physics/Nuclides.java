@@ -70,6 +70,52 @@ public interface Nuclides
     return MANAGER.natural(element);
   }
 
+  /**
+   * Get the dense index of a nuclide by name.
+   *
+   * Every nuclide in the library has an index from 0 to getCount()-1 so that
+   * tables can be held in arrays rather than maps. This accepts the same
+   * names as get(String) but does not allocate, so it is suitable for tight
+   * loops. Natural elements do not have an index.
+   *
+   * @param name
+   * @return the index or -1 if the name is not in the library.
+   */
+  static int indexOf(CharSequence name)
+  {
+    return MANAGER.indexOf(name);
+  }
+
+  /**
+   * Get the dense index of a nuclide.
+   *
+   * @param nuclide
+   * @return the index or -1 if the nuclide is not in the library.
+   */
+  static int indexOf(Nuclide nuclide)
+  {
+    return MANAGER.indexOf(nuclide);
+  }
+
+  /**
+   * Get a nuclide by its dense index.
+   *
+   * @param index is from 0 to getCount()-1.
+   * @return the nuclide.
+   */
+  static Nuclide getByIndex(int index)
+  {
+    return MANAGER.getByIndex(index);
+  }
+
+  /**
+   * @return the number of nuclides in the library.
+   */
+  static int getCount()
+  {
+    return MANAGER.getNuclideCount();
+  }
+
 //<editor-fold desc="internal" defaultstate="collapsed">
   interface NuclideManager
   {
@@ -80,6 +126,14 @@ public interface Nuclides
     ArrayList<String> getNuclideNames();
 
     Nuclide natural(Element element);
+
+    int indexOf(CharSequence name);
+
+    int indexOf(Nuclide nuclide);
+
+    Nuclide getByIndex(int index);
+
+    int getNuclideCount();
   }
 
   NuclideManager MANAGER
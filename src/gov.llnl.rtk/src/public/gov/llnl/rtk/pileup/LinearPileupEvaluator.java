@@ -9,6 +9,7 @@ package gov.llnl.rtk.pileup;
 import gov.llnl.math.IntegerArray;
 import gov.llnl.math.random.Random48;
 import gov.llnl.math.random.RandomGenerator;
+import gov.llnl.rtk.data.ChannelView;
 import gov.llnl.rtk.data.DoubleSpectrum;
 import gov.llnl.rtk.data.EnergyScale;
 import gov.llnl.rtk.data.IntegerSpectrum;
@@ -66,15 +67,16 @@ public class LinearPileupEvaluator implements PileupEvaluator
   public int[] draw(DoubleSpectrum spectrum, double countScalar, double timeScalar)
   {
     double time = spectrum.getRealTime();
-    double[] distribution = spectrum.toDoubles();
+    ChannelView distribution = spectrum.getChannelView();
+    int channels = distribution.size();
     double total = spectrum.getCounts();
     this.realTime = time * timeScalar;
     this.overflow = 0;
     this.energyScale = spectrum.getEnergyScale();
 
     // reuse the output array if possible.
-    if (output == null || output.length != distribution.length)
-      output = new int[distribution.length];
+    if (output == null || output.length != channels)
+      output = new int[channels];
     else
       IntegerArray.fill(output, 0);
 
@@ -141,11 +143,14 @@ public class LinearPileupEvaluator implements PileupEvaluator
    *
    * The photons are in sorted order.
    *
+   * The cumulative sum of the spectrum is cached by the spectrum so it is only
+   * computed once for repeated draws.
+   *
    * @param N
    * @param spectrum
    * @param total
    */
-  private void produce(int N, double[] spectrum, double total)
+  private void produce(int N, ChannelView spectrum, double total)
   {
     // Fill with new randoms
     for (int i = 0; i < N; i++)
@@ -158,10 +163,10 @@ public class LinearPileupEvaluator implements PileupEvaluator
 
     // Convert to channels
     int j = 0;
-    double sum = 0;
-    for (int i = 0; i < spectrum.length; i++)
+    int channels = spectrum.size();
+    for (int i = 0; i < channels; i++)
     {
-      sum += spectrum[i];
+      double sum = spectrum.getCumulative(i + 1);
       while (j < N && working[j] < sum)
       {
         working[j] = i;
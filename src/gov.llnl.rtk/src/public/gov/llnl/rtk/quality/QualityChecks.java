@@ -23,4 +23,14 @@ public class QualityChecks extends ArrayList<QualityCheck>
   {
   }
 
+  /**
+   * Create an engine to execute these checks.
+   *
+   * @return a new engine with its own per detector state.
+   */
+  public QualityControlEngine compile()
+  {
+    return new QualityControlEngine(this);
+  }
+
 }
@@ -0,0 +1,435 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.quality;
+
+import gov.llnl.rtk.data.GammaMeasurement;
+import gov.llnl.rtk.data.RadiationMeasurement;
+import gov.llnl.rtk.data.RadiationProcessorInput;
+import gov.llnl.rtk.data.RadiationSensor;
+import gov.llnl.utility.ExecutorUtilities;
+import gov.llnl.utility.Serializer;
+import java.io.NotSerializableException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executes a list of quality checks against all of the measurements in an
+ * input.
+ *
+ * The checks that examine the channel data share a single pass over each
+ * spectrum. The pass works directly on the int[] or double[] held by the
+ * spectrum so no promoted copy is made. The remaining checks are executed in
+ * the configured order.
+ *
+ * Each detector is given its own copy of the checks so that checks which hold
+ * state, such as the timestamp ordering, track each detector independently.
+ * Detectors are processed in parallel. Checks for a detector stop at the first
+ * failure.
+ *
+ * The time spent in each check is accumulated and can be retrieved with
+ * {@link #getStatistics()}.
+ */
+public class QualityControlEngine
+{
+  private final QualityCheck[] checks;
+  private final Class<?>[] types;
+  private final Statistics[] statistics;
+  private final Statistics channelPass = new Statistics("channel pass");
+  private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+  /**
+   * Create an engine for a list of checks.
+   *
+   * The configuration of the checks is copied when each detector is first
+   * seen. Changes to the checks after that point are not observed.
+   *
+   * @param checks
+   */
+  public QualityControlEngine(List<? extends QualityCheck> checks)
+  {
+    this.checks = checks.toArray(new QualityCheck[checks.size()]);
+    this.types = new Class<?>[this.checks.length];
+    this.statistics = new Statistics[this.checks.length];
+    for (int i = 0; i < this.checks.length; ++i)
+    {
+      this.types[i] = getMeasurementType(this.checks[i].getClass());
+      this.statistics[i] = new Statistics(this.checks[i].getClass().getSimpleName());
+    }
+  }
+
+  /**
+   * Check a single measurement.
+   *
+   * @param measurement
+   * @return the result of the checks.
+   */
+  public Result execute(RadiationMeasurement measurement)
+  {
+    return getLane(measurement).execute(measurement);
+  }
+
+  /**
+   * Check all of the measurements in an input.
+   *
+   * Detectors are processed in parallel using the common pool.
+   *
+   * @param input
+   * @return the results in the same order as the measurements.
+   * @throws QualityControlException if interrupted.
+   */
+  public List<Result> execute(RadiationProcessorInput input) throws QualityControlException
+  {
+    return execute(input, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Check all of the measurements in an input.
+   *
+   * @param input
+   * @param executor is used to process the detectors.
+   * @return the results in the same order as the measurements.
+   * @throws QualityControlException if interrupted.
+   */
+  public List<Result> execute(RadiationProcessorInput input, ExecutorService executor)
+          throws QualityControlException
+  {
+    List<RadiationMeasurement> measurements = input.getMeasurements();
+    ArrayList<Result> out = new ArrayList<>(measurements.size());
+    if (measurements.size() < 2)
+    {
+      for (RadiationMeasurement measurement : measurements)
+        out.add(execute(measurement));
+      return out;
+    }
+
+    List<Callable<Result>> tasks = new ArrayList<>(measurements.size());
+    for (RadiationMeasurement measurement : measurements)
+      tasks.add(() -> execute(measurement));
+    try
+    {
+      out.addAll(ExecutorUtilities.invokeAll(executor, tasks));
+    }
+    catch (InterruptedException ex)
+    {
+      Thread.currentThread().interrupt();
+      throw (QualityControlException) new QualityControlException("Interrupted").initCause(ex);
+    }
+    catch (ExecutionException ex)
+    {
+      throw ExecutorUtilities.unwrap(ex);
+    }
+    return out;
+  }
+
+  /**
+   * Get the time spent in each check.
+   *
+   * The first entry is the shared pass over the channels followed by one
+   * entry for each check in the order configured.
+   *
+   * @return the statistics for each check.
+   */
+  public List<Statistics> getStatistics()
+  {
+    ArrayList<Statistics> out = new ArrayList<>(statistics.length + 1);
+    out.add(channelPass);
+    out.addAll(Arrays.asList(statistics));
+    return Collections.unmodifiableList(out);
+  }
+
+  /**
+   * Clear the accumulated statistics.
+   */
+  public void resetStatistics()
+  {
+    channelPass.reset();
+    for (Statistics s : statistics)
+      s.reset();
+  }
+
+//<editor-fold desc="classes" defaultstate="collapsed">
+  /**
+   * Outcome of the checks for one measurement.
+   */
+  public static class Result
+  {
+    private final RadiationMeasurement measurement;
+    private final FaultSet faultSet;
+    private final boolean accepted;
+    private final QualityControlException exception;
+
+    Result(RadiationMeasurement measurement, FaultSet faultSet, boolean accepted,
+            QualityControlException exception)
+    {
+      this.measurement = measurement;
+      this.faultSet = faultSet;
+      this.accepted = accepted;
+      this.exception = exception;
+    }
+
+    public RadiationMeasurement getMeasurement()
+    {
+      return measurement;
+    }
+
+    /**
+     * Get the faults produced by the checks.
+     *
+     * @return the faults for this measurement.
+     */
+    public FaultSet getFaultSet()
+    {
+      return faultSet;
+    }
+
+    /**
+     * Determine if all of the checks passed.
+     *
+     * @return false if a check failed and the measurement should not be
+     * processed further.
+     */
+    public boolean isAccepted()
+    {
+      return accepted;
+    }
+
+    /**
+     * Get the exception thrown by a check.
+     *
+     * @return the exception or null if no check threw.
+     */
+    public QualityControlException getException()
+    {
+      return exception;
+    }
+  }
+
+  /**
+   * Latency counters for one check.
+   *
+   * Counters are updated concurrently as detectors are processed.
+   */
+  public static class Statistics
+  {
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    Statistics(String name)
+    {
+      this.name = name;
+    }
+
+    public String getName()
+    {
+      return name;
+    }
+
+    /**
+     * @return the number of times the check was executed.
+     */
+    public long getCalls()
+    {
+      return calls.sum();
+    }
+
+    /**
+     * @return the number of times the check failed.
+     */
+    public long getFailures()
+    {
+      return failures.sum();
+    }
+
+    /**
+     * @return the total time spent in the check in nanoseconds.
+     */
+    public long getTotalNanos()
+    {
+      return nanos.sum();
+    }
+
+    /**
+     * @return the mean time per call in nanoseconds.
+     */
+    public double getMeanNanos()
+    {
+      long n = calls.sum();
+      return (n == 0) ? 0 : (double) nanos.sum() / n;
+    }
+
+    @Override
+    public String toString()
+    {
+      return String.format("%s: calls=%d failures=%d mean=%.1f ns",
+              name, getCalls(), getFailures(), getMeanNanos());
+    }
+
+    void record(long elapsed, boolean passed)
+    {
+      calls.increment();
+      nanos.add(elapsed);
+      if (!passed)
+        failures.increment();
+    }
+
+    void reset()
+    {
+      calls.reset();
+      failures.reset();
+      nanos.reset();
+    }
+  }
+//</editor-fold>
+//<editor-fold desc="internal" defaultstate="collapsed">
+  /**
+   * Checks and working storage for one detector.
+   */
+  private class Lane
+  {
+    final QualityCheck[] checks;
+    final ChannelSummary summary = new ChannelSummary();
+
+    Lane(QualityCheck[] configured)
+    {
+      checks = new QualityCheck[configured.length];
+      for (int i = 0; i < checks.length; ++i)
+      {
+        checks[i] = copy(configured[i]);
+        if (checks[i] instanceof ChannelCheck)
+          ((ChannelCheck) checks[i]).prepare(summary);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized Result execute(RadiationMeasurement measurement)
+    {
+      FaultSetImpl faultSet = new FaultSetImpl();
+      boolean summarized = false;
+      for (int i = 0; i < checks.length; ++i)
+      {
+        if (measurement != null && !types[i].isInstance(measurement))
+          continue;
+        QualityCheck check = checks[i];
+        long start = System.nanoTime();
+        boolean passed;
+        try
+        {
+          if (check instanceof ChannelCheck && measurement != null)
+          {
+            GammaMeasurement gamma = (GammaMeasurement) measurement;
+            if (!summarized)
+            {
+              summary.compute(gamma.getSample());
+              summarized = true;
+              long now = System.nanoTime();
+              channelPass.record(now - start, true);
+              start = now;
+            }
+            passed = ((ChannelCheck) check).evaluate(faultSet, gamma, summary);
+          }
+          else
+          {
+            passed = check.execute(faultSet, measurement);
+          }
+        }
+        catch (QualityControlException ex)
+        {
+          statistics[i].record(System.nanoTime() - start, false);
+          return new Result(measurement, faultSet, false, ex);
+        }
+        statistics[i].record(System.nanoTime() - start, passed);
+        if (!passed)
+          return new Result(measurement, faultSet, false, null);
+      }
+      return new Result(measurement, faultSet, true, null);
+    }
+  }
+
+  private Lane getLane(RadiationMeasurement measurement)
+  {
+    long key = -1;
+    RadiationSensor sensor = (measurement != null) ? measurement.getSensor() : null;
+    if (sensor != null)
+      key = ((long) sensor.getSensorType().ordinal() << 32) | (sensor.getSensorIndex() & 0xffffffffL);
+    return lanes.computeIfAbsent(key, p -> new Lane(checks));
+  }
+
+  private static QualityCheck copy(QualityCheck check)
+  {
+    try
+    {
+      return Serializer.copy(check);
+    }
+    catch (NotSerializableException | RuntimeException ex)
+    {
+      // Fall back to sharing the check between detectors
+      return check;
+    }
+  }
+
+  /**
+   * Find the measurement type accepted by a check.
+   *
+   * @param cls
+   * @return the type parameter given to QualityCheck or Object if not known.
+   */
+  static Class<?> getMeasurementType(Class<?> cls)
+  {
+    for (Class<?> c = cls; c != null; c = c.getSuperclass())
+    {
+      Class<?> out = getMeasurementType(c.getGenericInterfaces());
+      if (out != null)
+        return out;
+    }
+    return Object.class;
+  }
+
+  private static Class<?> getMeasurementType(Type[] interfaces)
+  {
+    for (Type type : interfaces)
+    {
+      Class<?> raw = null;
+      if (type instanceof ParameterizedType)
+      {
+        ParameterizedType pt = (ParameterizedType) type;
+        raw = (Class<?>) pt.getRawType();
+        if (raw == QualityCheck.class)
+        {
+          Type arg = pt.getActualTypeArguments()[0];
+          if (arg instanceof Class)
+            return (Class<?>) arg;
+          if (arg instanceof ParameterizedType)
+            return (Class<?>) ((ParameterizedType) arg).getRawType();
+          return Object.class;
+        }
+      }
+      else if (type instanceof Class)
+        raw = (Class<?>) type;
+      if (raw != null)
+      {
+        Class<?> out = getMeasurementType(raw.getGenericInterfaces());
+        if (out != null)
+          return out;
+      }
+    }
+    return null;
+  }
+//</editor-fold>
+}
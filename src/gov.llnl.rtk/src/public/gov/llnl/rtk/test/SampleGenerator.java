@@ -10,6 +10,7 @@ import gov.llnl.math.random.RandomGenerator;
 import gov.llnl.rtk.data.DoubleSpectrum;
 import gov.llnl.rtk.data.IntegerSpectrum;
 import gov.llnl.rtk.data.Spectrum;
+import gov.llnl.rtk.data.SpectrumBufferPool;
 import gov.llnl.rtk.model.GammaSensorModel;
 import java.io.Serializable;
 import java.util.List;
@@ -109,6 +110,19 @@ public interface SampleGenerator extends Serializable
 
   public GammaSensorModel getGammaDetectorModel();
 
+  /**
+   * Get the pool used for the storage of samples.
+   *
+   * Samples drawn from a generator with a pool may be returned to the pool
+   * once the caller is done with them.
+   *
+   * @return the pool or null if samples are allocated.
+   */
+  default SpectrumBufferPool getBufferPool()
+  {
+    return null;
+  }
+
 //</editor-fold>
 //<editor-fold desc="interfaces" defaultstate="collapsed">
   /**
@@ -301,6 +315,14 @@ public interface SampleGenerator extends Serializable
      * @return
      */
     Builder poisson(boolean usePoisson);
+
+    /**
+     * Recycle the storage of intermediate spectra through a pool.
+     *
+     * @param pool is the pool or null to allocate each sample.
+     * @return the builder for chaining.
+     */
+    Builder bufferPool(SpectrumBufferPool pool);
   }
 
 //</editor-fold>
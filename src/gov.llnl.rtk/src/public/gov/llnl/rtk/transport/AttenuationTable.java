@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.transport;
+
+import gov.llnl.rtk.flux.FluxGroup;
+import gov.llnl.utility.UUIDUtilities;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Mass attenuation coefficient tabulated on a uniform log energy grid.
+ *
+ * Values are interpolated linearly in log-log space. Because the grid is
+ * uniform, the interval for an energy is computed directly without a search.
+ * Absorption edges are smeared over one grid interval. Energies outside the
+ * grid are extrapolated from the end intervals.
+ *
+ * Tables are immutable and may be shared between threads.
+ */
+public class AttenuationTable implements Serializable
+{
+  private static final long serialVersionUID = UUIDUtilities.createLong("AttenuationTable-v1");
+  private final double logEnergyMin;
+  private final double logStep;
+  private final double[] logValues;
+
+  /**
+   * Create a table.
+   *
+   * @param energyMin is the first energy of the grid in keV.
+   * @param logStep is the spacing of the grid in natural log units.
+   * @param values is the mass attenuation at each grid point in m^2/kg.
+   */
+  public AttenuationTable(double energyMin, double logStep, double[] values)
+  {
+    if (values.length < 2)
+      throw new IllegalArgumentException("Table requires at least two points");
+    this.logEnergyMin = Math.log(energyMin);
+    this.logStep = logStep;
+    this.logValues = new double[values.length];
+    for (int i = 0; i < values.length; ++i)
+      this.logValues[i] = Math.log(values[i]);
+  }
+
+  /**
+   * Get the energy of a grid point.
+   *
+   * @param index
+   * @return the energy in keV.
+   */
+  public double getEnergy(int index)
+  {
+    return Math.exp(logEnergyMin + index * logStep);
+  }
+
+  /**
+   * @return the number of grid points.
+   */
+  public int size()
+  {
+    return logValues.length;
+  }
+
+  /**
+   * Get the mass attenuation coefficient.
+   *
+   * @param energy in keV.
+   * @return the mass attenuation in m^2/kg.
+   */
+  public double getMassAttenuation(double energy)
+  {
+    double x = (Math.log(energy) - logEnergyMin) / logStep;
+    int last = logValues.length - 2;
+    int i = (int) x;
+    if (x < 0)
+      i = 0;
+    else if (i > last)
+      i = last;
+    double f = x - i;
+    return Math.exp(logValues[i] + f * (logValues[i + 1] - logValues[i]));
+  }
+
+  /**
+   * Get the mass attenuation coefficient at many energies.
+   *
+   * @param energies in keV.
+   * @param out must be at least as long as energies.
+   */
+  public void getMassAttenuation(double[] energies, double[] out)
+  {
+    for (int i = 0; i < energies.length; ++i)
+      out[i] = getMassAttenuation(energies[i]);
+  }
+
+  /**
+   * Get the mass attenuation coefficient at the center of each group.
+   *
+   * @param groups
+   * @param out must be at least as long as groups.
+   */
+  public void getMassAttenuation(List<? extends FluxGroup> groups, double[] out)
+  {
+    int i = 0;
+    for (FluxGroup group : groups)
+      out[i++] = getMassAttenuation(group.getEnergyAverage());
+  }
+}
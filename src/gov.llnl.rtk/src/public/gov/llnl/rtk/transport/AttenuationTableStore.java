@@ -0,0 +1,299 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.transport;
+
+import gov.llnl.rtk.flux.FluxGroup;
+import gov.llnl.rtk.physics.AttenuationLibrary;
+import gov.llnl.rtk.physics.Component;
+import gov.llnl.rtk.physics.Element;
+import gov.llnl.rtk.physics.Elements;
+import gov.llnl.rtk.physics.Material;
+import gov.llnl.utility.Serializer;
+import gov.llnl.utility.UUIDUtilities;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of attenuation tables for materials.
+ *
+ * Computing the attenuation for a material requires evaluating the cross
+ * sections for each element and mixing them. Sweeps over shielding
+ * configurations reuse a small number of materials, so this store tabulates
+ * each distinct composition once on a fixed log energy grid and interpolates
+ * the table afterward.
+ *
+ * Materials are keyed by the mass fractions of their elements. Isotopes of an
+ * element are combined and the fractions are normalized. The mass attenuation
+ * coefficient does not depend on density, so materials which differ only in
+ * density share a table.
+ *
+ * The store is an AttenuationLibrary itself so it can be used in place of the
+ * library that it caches. The store is thread safe. It can be saved to disk
+ * so that a later run can skip building the tables. A saved store should only
+ * be loaded into a store for the same library.
+ */
+public class AttenuationTableStore implements AttenuationLibrary
+{
+  /**
+   * First energy of the grid in keV.
+   */
+  public static final double ENERGY_MIN = 1;
+  /**
+   * Last energy of the grid in keV.
+   */
+  public static final double ENERGY_MAX = 20000;
+  /**
+   * Grid points per decade of energy.
+   */
+  public static final int POINTS_PER_DECADE = 200;
+
+  private final AttenuationLibrary library;
+  private final Map<Key, AttenuationTable> tables = new ConcurrentHashMap<>();
+
+  /**
+   * Create a store.
+   *
+   * @param library is used to compute the tables.
+   */
+  public AttenuationTableStore(AttenuationLibrary library)
+  {
+    this.library = library;
+  }
+
+  public AttenuationLibrary getLibrary()
+  {
+    return library;
+  }
+
+  /**
+   * Get the table for a material.
+   *
+   * @param material
+   * @return the table or null if the material has no components.
+   */
+  public AttenuationTable getTable(Material material)
+  {
+    Key key = Key.of(material);
+    if (key.elements.length == 0)
+      return null;
+    return tables.computeIfAbsent(key, this::build);
+  }
+
+  /**
+   * Get the table for an element.
+   *
+   * @param element
+   * @return the table.
+   */
+  public AttenuationTable getTable(Element element)
+  {
+    Key key = new Key(new int[]
+    {
+      element.getAtomicNumber()
+    }, new double[]
+    {
+      1
+    });
+    return tables.computeIfAbsent(key, this::build);
+  }
+
+  @Override
+  public double getMassAttenuation(Element element, double energy)
+  {
+    return getTable(element).getMassAttenuation(energy);
+  }
+
+  @Override
+  public void getMassAttenuation(Element element, double[] energies, double[] out)
+  {
+    getTable(element).getMassAttenuation(energies, out);
+  }
+
+  @Override
+  public double getMassAttenuation(Material material, double energy)
+  {
+    AttenuationTable table = getTable(material);
+    if (table == null)
+      return 0;
+    return table.getMassAttenuation(energy);
+  }
+
+  @Override
+  public void getMassAttenuation(Material material, double[] energies, double[] out)
+  {
+    AttenuationTable table = getTable(material);
+    if (table == null)
+    {
+      Arrays.fill(out, 0, energies.length, 0);
+      return;
+    }
+    table.getMassAttenuation(energies, out);
+  }
+
+  /**
+   * Get the mass attenuation for a material at the center of each group.
+   *
+   * @param material
+   * @param groups
+   * @param out must be at least as long as groups.
+   */
+  public void getMassAttenuation(Material material, List<? extends FluxGroup> groups, double[] out)
+  {
+    AttenuationTable table = getTable(material);
+    if (table == null)
+    {
+      Arrays.fill(out, 0, groups.size(), 0);
+      return;
+    }
+    table.getMassAttenuation(groups, out);
+  }
+
+  /**
+   * @return the number of tables held.
+   */
+  public int size()
+  {
+    return tables.size();
+  }
+
+  /**
+   * Discard all of the tables.
+   */
+  public void clear()
+  {
+    tables.clear();
+  }
+
+  /**
+   * Save the tables to a file.
+   *
+   * The file is compressed if the name ends with .gz.
+   *
+   * @param file
+   * @throws IOException
+   */
+  public void save(Path file) throws IOException
+  {
+    new Serializer().save(file, new HashMap<>(tables));
+  }
+
+  /**
+   * Load tables from a file.
+   *
+   * Tables in the file are added to the store, replacing any with the same
+   * composition.
+   *
+   * @param file
+   * @throws IOException if the file cannot be read or does not hold tables.
+   */
+  @SuppressWarnings("unchecked")
+  public void load(Path file) throws IOException
+  {
+    Object object;
+    try
+    {
+      object = new Serializer().load(file);
+    }
+    catch (ClassNotFoundException ex)
+    {
+      throw new IOException("Unable to load attenuation tables", ex);
+    }
+    if (!(object instanceof Map))
+      throw new IOException("File does not hold attenuation tables " + file);
+    for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet())
+    {
+      if (!(entry.getKey() instanceof Key) || !(entry.getValue() instanceof AttenuationTable))
+        throw new IOException("File does not hold attenuation tables " + file);
+      tables.put((Key) entry.getKey(), (AttenuationTable) entry.getValue());
+    }
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private AttenuationTable build(Key key)
+  {
+    double logStep = Math.log(10) / POINTS_PER_DECADE;
+    int n = (int) Math.ceil(Math.log(ENERGY_MAX / ENERGY_MIN) / logStep) + 1;
+    double[] energies = new double[n];
+    for (int i = 0; i < n; ++i)
+      energies[i] = ENERGY_MIN * Math.exp(i * logStep);
+    double[] values = new double[n];
+    double[] work = new double[n];
+    for (int j = 0; j < key.elements.length; ++j)
+    {
+      library.getMassAttenuation(Elements.getElement(key.elements[j]), energies, work);
+      for (int i = 0; i < n; ++i)
+        values[i] += key.fractions[j] * work[i];
+    }
+    return new AttenuationTable(ENERGY_MIN, logStep, values);
+  }
+
+  /**
+   * Normalized elemental composition of a material.
+   */
+  static class Key implements Serializable
+  {
+    private static final long serialVersionUID = UUIDUtilities.createLong("AttenuationTableStore.Key-v1");
+    final int[] elements;
+    final double[] fractions;
+    final int hash;
+
+    Key(int[] elements, double[] fractions)
+    {
+      this.elements = elements;
+      this.fractions = fractions;
+      this.hash = 31 * Arrays.hashCode(elements) + Arrays.hashCode(fractions);
+    }
+
+    static Key of(Material material)
+    {
+      TreeMap<Integer, Double> mass = new TreeMap<>();
+      double total = 0;
+      for (Component component : material)
+      {
+        double fraction = component.getMassFraction();
+        if (fraction == 0)
+          continue;
+        total += fraction;
+        mass.merge(component.getNuclide().getAtomicNumber(), fraction, Double::sum);
+      }
+      int[] elements = new int[mass.size()];
+      double[] fractions = new double[mass.size()];
+      int i = 0;
+      for (Map.Entry<Integer, Double> entry : mass.entrySet())
+      {
+        elements[i] = entry.getKey();
+        fractions[i++] = entry.getValue() / total;
+      }
+      return new Key(elements, fractions);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+      if (!(obj instanceof Key))
+        return false;
+      Key other = (Key) obj;
+      return hash == other.hash
+              && Arrays.equals(elements, other.elements)
+              && Arrays.equals(fractions, other.fractions);
+    }
+  }
+//</editor-fold>
+}
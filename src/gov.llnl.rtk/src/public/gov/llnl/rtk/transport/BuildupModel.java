@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.transport;
+
+import gov.llnl.rtk.physics.Material;
+
+/**
+ * Buildup factor for photons penetrating a shield.
+ *
+ * The buildup factor is the ratio of the total response to the uncollided
+ * response. It accounts for photons which scatter in the shield and still
+ * reach the detector.
+ */
+@FunctionalInterface
+public interface BuildupModel
+{
+  /**
+   * No buildup so that only the uncollided flux is counted.
+   */
+  static final BuildupModel NONE = (material, energy, mfp) -> 1;
+
+  /**
+   * Linear buildup 1+mfp.
+   *
+   * This is the usual hand calculation estimate. It is reasonable for low Z
+   * shields near 1 MeV and overestimates the buildup for high Z shields.
+   */
+  static final BuildupModel LINEAR = (material, energy, mfp) -> 1 + mfp;
+
+  /**
+   * Compute the buildup factor.
+   *
+   * @param material is the material that dominates the scattering, usually
+   * the outermost layer.
+   * @param energy is the source energy in keV.
+   * @param mfp is the total number of mean free paths.
+   * @return the buildup factor which is at least 1.
+   */
+  double getBuildup(Material material, double energy, double mfp);
+
+  /**
+   * Create a Berger form buildup 1+a*mfp*exp(b*mfp).
+   *
+   * The coefficients depend on the material and energy, so this is suitable
+   * when a sweep varies only the thickness.
+   *
+   * @param a
+   * @param b
+   * @return a new buildup model.
+   */
+  static BuildupModel berger(double a, double b)
+  {
+    return (material, energy, mfp) -> 1 + a * mfp * Math.exp(b * mfp);
+  }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.transport;
+
+import gov.llnl.rtk.flux.Flux;
+import gov.llnl.rtk.flux.FluxBinned;
+import gov.llnl.rtk.flux.FluxGroup;
+import gov.llnl.rtk.flux.FluxGroupBin;
+import gov.llnl.rtk.flux.FluxLine;
+import gov.llnl.rtk.flux.FluxLineStep;
+import gov.llnl.rtk.physics.AttenuationLibrary;
+import gov.llnl.rtk.physics.Layer;
+import gov.llnl.rtk.physics.Material;
+import gov.llnl.rtk.physics.SphericalModel;
+import gov.llnl.utility.ExecutorUtilities;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Photon attenuation through the layers of a SphericalModel.
+ *
+ * This is a fast alternative to running a transport code when only the
+ * penetrating flux is required. The source is at the center of the model and
+ * each layer attenuates by exp(-mu*t) where mu is computed from the
+ * composition of the layer material. The path through each layer is its
+ * thickness, which is exact for spherical shells and for slabs at normal
+ * incidence.
+ *
+ * If self shielding is enabled, the innermost layer is treated as a uniformly
+ * emitting sphere rather than a shield and the flux is reduced by the escape
+ * probability for the sphere.
+ *
+ * Two outputs are available. The uncollided flux holds only photons which
+ * have not interacted. The buildup flux multiplies the uncollided flux by a
+ * buildup factor for the outermost layer evaluated at the total number of
+ * mean free paths. Scattered photons are kept at the source energy, so the
+ * buildup flux is suitable for integral quantities such as dose or gross
+ * counts but not for spectral shape.
+ *
+ * Neutron groups are not transported. This class is thread safe if the
+ * buildup model is not changed during use.
+ */
+public class LayeredAttenuation
+{
+  private static final int CHUNK = 16;
+  private final AttenuationLibrary library;
+  private BuildupModel buildup = BuildupModel.LINEAR;
+  private boolean selfShielding = false;
+
+  public LayeredAttenuation(AttenuationLibrary library)
+  {
+    this.library = library;
+  }
+
+  public AttenuationLibrary getLibrary()
+  {
+    return library;
+  }
+
+  public BuildupModel getBuildupModel()
+  {
+    return buildup;
+  }
+
+  /**
+   * @param buildup is the model used for the buildup outputs.
+   */
+  public void setBuildupModel(BuildupModel buildup)
+  {
+    this.buildup = buildup;
+  }
+
+  public boolean isSelfShielding()
+  {
+    return selfShielding;
+  }
+
+  /**
+   * Set whether the innermost layer is the source.
+   *
+   * @param selfShielding is true if the first layer is a uniform source.
+   */
+  public void setSelfShielding(boolean selfShielding)
+  {
+    this.selfShielding = selfShielding;
+  }
+
+  /**
+   * Compute the number of mean free paths through a layer.
+   *
+   * @param layer
+   * @param energies in keV.
+   * @return the mean free paths at each energy.
+   */
+  public double[] computeOpticalDepth(Layer layer, double[] energies)
+  {
+    double[] out = new double[energies.length];
+    Material material = layer.getMaterial();
+    if (material == null || !(layer.getThickness() > 0))
+      return out;
+    library.getMassAttenuation(material, energies, out);
+    double areal = layer.getDensity() * layer.getThickness();
+    for (int i = 0; i < out.length; ++i)
+      out[i] *= areal;
+    return out;
+  }
+
+  /**
+   * Compute the number of mean free paths through each layer of a model.
+   *
+   * @param model
+   * @param energies in keV.
+   * @return the mean free paths indexed by layer and then energy.
+   */
+  public double[][] computeOpticalDepth(SphericalModel model, double[] energies)
+  {
+    List<Layer> layers = model.getLayers();
+    double[][] out = new double[layers.size()][];
+    for (int i = 0; i < out.length; ++i)
+      out[i] = computeOpticalDepth(layers.get(i), energies);
+    return out;
+  }
+
+  /**
+   * Compute the fraction of photons which escape without interacting.
+   *
+   * @param model
+   * @param energies in keV.
+   * @return the uncollided transmission at each energy.
+   */
+  public double[] computeTransmission(SphericalModel model, double[] energies)
+  {
+    return computeTransmission(model, energies, false);
+  }
+
+  /**
+   * Compute the transmission including buildup.
+   *
+   * @param model
+   * @param energies in keV.
+   * @return the buildup corrected transmission at each energy.
+   */
+  public double[] computeBuildupTransmission(SphericalModel model, double[] energies)
+  {
+    return computeTransmission(model, energies, true);
+  }
+
+  /**
+   * Compute the uncollided photon flux leaving a model.
+   *
+   * Groups are attenuated using the transmission at the center of the group.
+   *
+   * @param model
+   * @param flux is the flux emitted at the center.
+   * @return a new flux holding the attenuated photon lines and groups.
+   */
+  public FluxBinned computeUncollided(SphericalModel model, Flux flux)
+  {
+    return transport(model, flux, false);
+  }
+
+  /**
+   * Compute the buildup corrected photon flux leaving a model.
+   *
+   * @param model
+   * @param flux is the flux emitted at the center.
+   * @return a new flux holding the attenuated photon lines and groups.
+   */
+  public FluxBinned computeBuildup(SphericalModel model, Flux flux)
+  {
+    return transport(model, flux, true);
+  }
+
+  /**
+   * Compute the uncollided flux for many models.
+   *
+   * Models are evaluated in parallel using the common pool.
+   *
+   * @param models
+   * @param flux is the flux emitted at the center.
+   * @return the uncollided flux for each model.
+   */
+  public List<FluxBinned> computeUncollided(List<? extends SphericalModel> models, Flux flux)
+  {
+    return computeUncollided(models, flux, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Compute the uncollided flux for many models.
+   *
+   * @param models
+   * @param flux is the flux emitted at the center.
+   * @param executor is used to evaluate the models.
+   * @return the uncollided flux for each model.
+   */
+  public List<FluxBinned> computeUncollided(List<? extends SphericalModel> models, Flux flux,
+          ExecutorService executor)
+  {
+    FluxBinned[] out = new FluxBinned[models.size()];
+    ExecutorUtilities.executeEach(out.length, CHUNK, executor,
+            i -> out[i] = transport(models.get(i), flux, false));
+    return Arrays.asList(out);
+  }
+
+  /**
+   * Compute the buildup corrected flux for many models.
+   *
+   * Models are evaluated in parallel using the common pool.
+   *
+   * @param models
+   * @param flux is the flux emitted at the center.
+   * @return the buildup corrected flux for each model.
+   */
+  public List<FluxBinned> computeBuildup(List<? extends SphericalModel> models, Flux flux)
+  {
+    return computeBuildup(models, flux, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Compute the buildup corrected flux for many models.
+   *
+   * @param models
+   * @param flux is the flux emitted at the center.
+   * @param executor is used to evaluate the models.
+   * @return the buildup corrected flux for each model.
+   */
+  public List<FluxBinned> computeBuildup(List<? extends SphericalModel> models, Flux flux,
+          ExecutorService executor)
+  {
+    FluxBinned[] out = new FluxBinned[models.size()];
+    ExecutorUtilities.executeEach(out.length, CHUNK, executor,
+            i -> out[i] = transport(models.get(i), flux, true));
+    return Arrays.asList(out);
+  }
+
+  /**
+   * Compute the probability that a photon escapes a uniformly emitting
+   * sphere.
+   *
+   * @param mfp is the radius of the sphere in mean free paths.
+   * @return the escape probability.
+   */
+  public static double computeEscapeProbability(double mfp)
+  {
+    if (!(mfp > 0))
+      return 1;
+    // Series avoids cancellation for thin spheres
+    if (mfp < 0.01)
+      return 1 - mfp * (0.75 - mfp * (0.4 - mfp * (1.0 / 6 - mfp * 2.0 / 35)));
+    double m2 = mfp * mfp;
+    return 3 / (8 * m2 * mfp) * (2 * m2 - 1 + (1 + 2 * mfp) * Math.exp(-2 * mfp));
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private double[] computeTransmission(SphericalModel model, double[] energies, boolean withBuildup)
+  {
+    List<Layer> layers = model.getLayers();
+    int n = energies.length;
+    double[] shield = new double[n];
+    double[] escape = null;
+    int first = 0;
+    if (selfShielding && !layers.isEmpty())
+    {
+      escape = computeOpticalDepth(layers.get(0), energies);
+      for (int i = 0; i < n; ++i)
+        escape[i] = computeEscapeProbability(escape[i]);
+      first = 1;
+    }
+
+    Material outer = null;
+    for (int j = first; j < layers.size(); ++j)
+    {
+      Layer layer = layers.get(j);
+      double[] depth = computeOpticalDepth(layer, energies);
+      for (int i = 0; i < n; ++i)
+        shield[i] += depth[i];
+      if (layer.getMaterial() != null && layer.getThickness() > 0)
+        outer = layer.getMaterial();
+    }
+
+    double[] out = new double[n];
+    for (int i = 0; i < n; ++i)
+    {
+      double t = Math.exp(-shield[i]);
+      if (withBuildup && outer != null)
+        t *= buildup.getBuildup(outer, energies[i], shield[i]);
+      if (escape != null)
+        t *= escape[i];
+      out[i] = t;
+    }
+    return out;
+  }
+
+  private FluxBinned transport(SphericalModel model, Flux flux, boolean withBuildup)
+  {
+    List<? extends FluxLine> lines = flux.getPhotonLines();
+    List<? extends FluxGroup> groups = flux.getPhotonGroups();
+    double[] energies = new double[lines.size() + groups.size()];
+    int i = 0;
+    for (FluxLine line : lines)
+      energies[i++] = line.getEnergy();
+    for (FluxGroup group : groups)
+      energies[i++] = group.getEnergyAverage();
+    double[] transmission = computeTransmission(model, energies, withBuildup);
+
+    FluxBinned out = new FluxBinned();
+    i = 0;
+    for (FluxLine line : lines)
+    {
+      double t = transmission[i++];
+      out.addPhotonLine(new FluxLineStep(line.getEnergy(), t * line.getIntensity(), t * line.getStep()));
+    }
+    for (FluxGroup group : groups)
+    {
+      double t = transmission[i++];
+      double uncertainty = (group instanceof FluxGroupBin) ? ((FluxGroupBin) group).getUncertainty() : 0;
+      out.addPhotonGroup(new FluxGroupBin(group.getEnergyLower(), group.getEnergyUpper(),
+              t * group.getCounts(), t * uncertainty));
+    }
+    return out;
+  }
+//</editor-fold>
+}
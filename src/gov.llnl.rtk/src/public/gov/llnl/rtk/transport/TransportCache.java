@@ -0,0 +1,473 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.transport;
+
+import gov.llnl.rtk.RtkPackage;
+import gov.llnl.rtk.flux.FluxBinned;
+import gov.llnl.rtk.flux.FluxGroupBin;
+import gov.llnl.utility.Serializer;
+import gov.llnl.utility.UUIDUtilities;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On disk cache of transport results.
+ *
+ * Template generation reruns the same geometry and source many times and each
+ * transport run can take hours. A run is identified by a hash of its fully
+ * rendered input, such as an MCNP deck or a GEANT4 macro, together with the
+ * number of particles and the random seed. If the same input is seen again,
+ * the tallies from the earlier run are returned without running the code.
+ *
+ * Each entry is written to a temporary file and then moved into place, so a
+ * reader never sees a partial entry even if several processes share the
+ * directory. Entries are compressed with a checksum. An entry which cannot be
+ * read is deleted and treated as a miss.
+ *
+ * The cache is bounded by the total size of its files. When the bound is
+ * exceeded, the entries used least recently are removed.
+ *
+ * In verify mode the code is run even on a hit and the new tallies are
+ * compared with the stored ones. A mismatch is counted and the entry is
+ * replaced. This is used to check that the key captures all of the inputs.
+ */
+public class TransportCache
+{
+  private static final String SUFFIX = ".flux.gz";
+  private final Path directory;
+  private volatile long maxBytes = Long.MAX_VALUE;
+  private volatile boolean verify = false;
+  private volatile double tolerance = 0;
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+  private final AtomicInteger mismatches = new AtomicInteger();
+
+  /**
+   * Create a cache.
+   *
+   * @param directory holds the entries and is created if needed.
+   * @throws IOException if the directory cannot be created.
+   */
+  public TransportCache(Path directory) throws IOException
+  {
+    this.directory = directory;
+    Files.createDirectories(directory);
+  }
+
+  public Path getDirectory()
+  {
+    return directory;
+  }
+
+  /**
+   * Set the largest total size of the entries.
+   *
+   * @param maxBytes
+   */
+  public void setMaxBytes(long maxBytes)
+  {
+    if (maxBytes < 0)
+      throw new IllegalArgumentException("Size must not be negative");
+    this.maxBytes = maxBytes;
+  }
+
+  public long getMaxBytes()
+  {
+    return maxBytes;
+  }
+
+  /**
+   * Set whether hits are checked by running the code again.
+   *
+   * @param verify
+   */
+  public void setVerify(boolean verify)
+  {
+    this.verify = verify;
+  }
+
+  public boolean isVerify()
+  {
+    return verify;
+  }
+
+  /**
+   * Set the relative difference allowed when verifying.
+   *
+   * Runs with the same seed are normally identical, so the default is 0.
+   *
+   * @param tolerance
+   */
+  public void setTolerance(double tolerance)
+  {
+    this.tolerance = tolerance;
+  }
+
+  public double getTolerance()
+  {
+    return tolerance;
+  }
+
+  /**
+   * Create the key for a run.
+   *
+   * @param input is the fully rendered input to the code.
+   * @param particles is the number of source particles.
+   * @param seed is the random seed.
+   * @return the key as a hex string.
+   */
+  public static String createKey(String input, long particles, long seed)
+  {
+    try
+    {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(input.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      digest.update(Long.toString(particles).getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      digest.update(Long.toString(seed).getBytes(StandardCharsets.UTF_8));
+      StringBuilder sb = new StringBuilder();
+      for (byte b : digest.digest())
+        sb.append(String.format("%02x", b));
+      return sb.toString();
+    }
+    catch (NoSuchAlgorithmException ex)
+    {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * Get the tallies for a run.
+   *
+   * @param key
+   * @return the tallies or null if the run is not in the cache.
+   */
+  public List<FluxBinned> get(String key)
+  {
+    Path file = getPath(key);
+    byte[] bytes;
+    try
+    {
+      bytes = Files.readAllBytes(file);
+    }
+    catch (IOException ex)
+    {
+      return null;
+    }
+    try
+    {
+      Object object = new Serializer().unpack(bytes);
+      if (!(object instanceof Entry) || !((Entry) object).key.equals(key))
+        throw new IOException("Bad cache entry " + file);
+      touch(file);
+      return ((Entry) object).tallies;
+    }
+    catch (IOException | ClassNotFoundException | RuntimeException ex)
+    {
+      delete(file);
+      return null;
+    }
+  }
+
+  /**
+   * Store the tallies for a run.
+   *
+   * @param key
+   * @param tallies
+   * @throws IOException if the entry cannot be written.
+   */
+  public void put(String key, List<FluxBinned> tallies) throws IOException
+  {
+    Serializer serializer = new Serializer();
+    serializer.setCompress(true);
+    byte[] bytes = serializer.pack(new Entry(key, new ArrayList<>(tallies)));
+    Path file = getPath(key);
+    Path temp = Files.createTempFile(directory, key, ".tmp");
+    try
+    {
+      Files.write(temp, bytes);
+      try
+      {
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      }
+      catch (AtomicMoveNotSupportedException ex)
+      {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    finally
+    {
+      Files.deleteIfExists(temp);
+    }
+    evict();
+  }
+
+  /**
+   * Get the tallies for a run, running the code on a miss.
+   *
+   * @param key
+   * @param transport runs the code and returns the tallies.
+   * @return the tallies.
+   * @throws Exception if the code fails.
+   */
+  public List<FluxBinned> compute(String key, Callable<List<FluxBinned>> transport) throws Exception
+  {
+    List<FluxBinned> cached = get(key);
+    if (cached != null && !verify)
+    {
+      hits.incrementAndGet();
+      return cached;
+    }
+    List<FluxBinned> out = transport.call();
+    if (cached == null)
+      misses.incrementAndGet();
+    else if (matches(cached, out, tolerance))
+    {
+      hits.incrementAndGet();
+      return out;
+    }
+    else
+      mismatches.incrementAndGet();
+    try
+    {
+      put(key, out);
+    }
+    catch (IOException ex)
+    {
+      // The tallies are still valid if they cannot be stored
+      RtkPackage.getInstance().getLogger().warning("Unable to store transport result " + ex.getMessage());
+    }
+    return out;
+  }
+
+  /**
+   * Remove an entry.
+   *
+   * @param key
+   */
+  public void remove(String key)
+  {
+    delete(getPath(key));
+  }
+
+  /**
+   * Remove all entries.
+   *
+   * @throws IOException
+   */
+  public void clear() throws IOException
+  {
+    for (Path file : listEntries())
+      delete(file);
+  }
+
+  /**
+   * @return the total size of the entries in bytes.
+   * @throws IOException
+   */
+  public long size() throws IOException
+  {
+    long total = 0;
+    for (Path file : listEntries())
+      total += sizeOf(file);
+    return total;
+  }
+
+  /**
+   * @return the number of runs served from the cache.
+   */
+  public int getHitCount()
+  {
+    return hits.get();
+  }
+
+  /**
+   * @return the number of runs not found in the cache.
+   */
+  public int getMissCount()
+  {
+    return misses.get();
+  }
+
+  /**
+   * @return the number of verified runs which differed from the cache.
+   */
+  public int getMismatchCount()
+  {
+    return mismatches.get();
+  }
+
+  /**
+   * Check if two sets of tallies agree.
+   *
+   * @param a
+   * @param b
+   * @param tolerance is the relative difference allowed in each group.
+   * @return true if the tallies have the same groups and values.
+   */
+  public static boolean matches(List<FluxBinned> a, List<FluxBinned> b, double tolerance)
+  {
+    if (a.size() != b.size())
+      return false;
+    for (int i = 0; i < a.size(); ++i)
+    {
+      if (!matchGroups(a.get(i).getPhotonGroups(), b.get(i).getPhotonGroups(), tolerance)
+              || !matchGroups(a.get(i).getNeutronGroups(), b.get(i).getNeutronGroups(), tolerance))
+        return false;
+    }
+    return true;
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private Path getPath(String key)
+  {
+    return directory.resolve(key + SUFFIX);
+  }
+
+  private List<Path> listEntries() throws IOException
+  {
+    List<Path> out = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX))
+    {
+      for (Path file : stream)
+        out.add(file);
+    }
+    return out;
+  }
+
+  private void evict() throws IOException
+  {
+    long limit = maxBytes;
+    List<Path> files = listEntries();
+    List<Stat> entries = new ArrayList<>(files.size());
+    long total = 0;
+    for (Path file : files)
+    {
+      try
+      {
+        Stat stat = new Stat(file, Files.size(file), Files.getLastModifiedTime(file));
+        entries.add(stat);
+        total += stat.size;
+      }
+      catch (NoSuchFileException ex)
+      {
+        // Removed by another process
+      }
+    }
+    if (total <= limit)
+      return;
+    entries.sort(Comparator.comparing(e -> e.time));
+    for (Stat entry : entries)
+    {
+      if (total <= limit)
+        break;
+      delete(entry.file);
+      total -= entry.size;
+    }
+  }
+
+  private static long sizeOf(Path file)
+  {
+    try
+    {
+      return Files.size(file);
+    }
+    catch (IOException ex)
+    {
+      return 0;
+    }
+  }
+
+  private static void touch(Path file)
+  {
+    try
+    {
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+    }
+    catch (IOException ex)
+    {
+      // Only affects the eviction order
+    }
+  }
+
+  private static void delete(Path file)
+  {
+    try
+    {
+      Files.deleteIfExists(file);
+    }
+    catch (IOException ex)
+    {
+      // Another process may hold the file
+    }
+  }
+
+  private static boolean matchGroups(List<FluxGroupBin> a, List<FluxGroupBin> b, double tolerance)
+  {
+    if (a.size() != b.size())
+      return false;
+    for (int i = 0; i < a.size(); ++i)
+    {
+      FluxGroupBin g1 = a.get(i);
+      FluxGroupBin g2 = b.get(i);
+      if (g1.getEnergyLower() != g2.getEnergyLower() || g1.getEnergyUpper() != g2.getEnergyUpper())
+        return false;
+      double c1 = g1.getCounts();
+      double c2 = g2.getCounts();
+      if (Math.abs(c1 - c2) > tolerance * Math.max(Math.abs(c1), Math.abs(c2)))
+        return false;
+    }
+    return true;
+  }
+
+  private static class Stat
+  {
+    final Path file;
+    final long size;
+    final FileTime time;
+
+    Stat(Path file, long size, FileTime time)
+    {
+      this.file = file;
+      this.size = size;
+      this.time = time;
+    }
+  }
+
+  /**
+   * Stored tallies with the key they belong to.
+   */
+  static class Entry implements Serializable
+  {
+    private static final long serialVersionUID = UUIDUtilities.createLong("TransportCache.Entry-v1");
+    final String key;
+    final ArrayList<FluxBinned> tallies;
+
+    Entry(String key, ArrayList<FluxBinned> tallies)
+    {
+      this.key = key;
+      this.tallies = tallies;
+    }
+  }
+//</editor-fold>
+}
@@ -0,0 +1,14 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved.
+ * 
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.transport;
+
+/**
+ * This package holds fast deterministic estimates of the flux penetrating a
+ * model. These are intended for sweeps over many shielding configurations
+ * where running a full transport code for each is too expensive. It also
+ * holds a cache for the results of full transport runs.
+ */
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk;
+
+import gov.llnl.math.DoubleArray;
+import gov.llnl.math.RebinUtilities;
+import gov.llnl.rtk.data.EnergyScale;
+import gov.llnl.rtk.data.EnergyScaleFactory;
+import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.PackedSpectraList;
+import gov.llnl.rtk.data.Spectrum;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for SpectrumDoseCalculator.
+ */
+public class SpectrumDoseCalculatorNGTest
+{
+
+  public SpectrumDoseCalculatorNGTest()
+  {
+  }
+
+  static SpectrumDoseCalculator newCalculator(Random random)
+  {
+    double[] edges = new double[101];
+    for (int i = 0; i < edges.length; ++i)
+      edges[i] = 20 + 30 * i;
+    double[] table = new double[100];
+    for (int i = 0; i < table.length; ++i)
+      table[i] = random.nextDouble();
+    SpectrumDoseCalculator calculator = new SpectrumDoseCalculator();
+    calculator.setEnergyScale(EnergyScaleFactory.newScale(edges));
+    calculator.setDoseTable(table);
+    return calculator;
+  }
+
+  static EnergyScale newScale(int channels, double offset, double gain)
+  {
+    double[] edges = new double[channels + 1];
+    for (int i = 0; i < edges.length; ++i)
+      edges[i] = offset + gain * i + 1e-4 * i * i;
+    return EnergyScaleFactory.newScale(edges);
+  }
+
+  static IntegerSpectrum newSpectrum(Random random, EnergyScale scale)
+  {
+    int[] counts = new int[scale.getChannels()];
+    for (int i = 0; i < counts.length; ++i)
+      counts[i] = random.nextInt(100);
+    IntegerSpectrum out = new IntegerSpectrum(counts, 2, 2);
+    out.setEnergyScale(scale);
+    return out;
+  }
+
+  static double expected(SpectrumDoseCalculator calculator, Spectrum spectrum) throws Exception
+  {
+    double[] out = RebinUtilities.rebin(spectrum.toDoubles(),
+            spectrum.getEnergyScale().getEdges(),
+            calculator.getEnergyScale().getEdges());
+    return DoubleArray.multiplyInner(out, calculator.getDoseTable()) / spectrum.getLiveTime();
+  }
+
+  @Test
+  public void testComputeDoseRate() throws Exception
+  {
+    Random random = new Random(1);
+    SpectrumDoseCalculator calculator = newCalculator(random);
+    EnergyScale[] scales =
+    {
+      // Finer, coarser, offset and extending beyond the table
+      newScale(1024, 0, 3),
+      newScale(64, 0, 50),
+      newScale(512, 100, 2.5),
+      newScale(256, 0, 20),
+      newScale(100, 20, 30)
+    };
+    for (EnergyScale scale : scales)
+    {
+      for (int j = 0; j < 3; ++j)
+      {
+        IntegerSpectrum spectrum = newSpectrum(random, scale);
+        double expected = expected(calculator, spectrum);
+        assertEquals(calculator.computeDoseRate(spectrum), expected, 1e-10 * expected);
+      }
+    }
+
+    // Changing the table must invalidate the weights
+    IntegerSpectrum spectrum = newSpectrum(random, scales[0]);
+    double[] table = calculator.getDoseTable().clone();
+    DoubleArray.multiplyAssign(table, 2);
+    double before = calculator.computeDoseRate(spectrum);
+    calculator.setDoseTable(table);
+    assertEquals(calculator.computeDoseRate(spectrum), 2 * before, 1e-10 * before);
+  }
+
+  @Test
+  public void testComputeDoseRateList() throws Exception
+  {
+    Random random = new Random(2);
+    SpectrumDoseCalculator calculator = newCalculator(random);
+    EnergyScale scale1 = newScale(512, 0, 6);
+    EnergyScale scale2 = newScale(512, 10, 5.5);
+    List<IntegerSpectrum> spectra = new ArrayList<>();
+    for (int i = 0; i < 20; ++i)
+      spectra.add(newSpectrum(random, (i % 3 == 0) ? scale2 : scale1));
+    PackedSpectraList<IntegerSpectrum> packed = PackedSpectraList.copyOf(spectra, IntegerSpectrum.class, int[].class);
+    double[] result = calculator.computeDoseRate(packed);
+    for (int i = 0; i < spectra.size(); ++i)
+    {
+      double expected = expected(calculator, spectra.get(i));
+      assertEquals(result[i], expected, 1e-10 * expected);
+    }
+  }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.calibration;
+
+import gov.llnl.math.random.Random48;
+import gov.llnl.rtk.data.GammaMeasurement;
+import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.RadiationMeasurement;
+import gov.llnl.rtk.data.RadiationProcessorInput;
+import gov.llnl.rtk.data.RadiationSensor;
+import gov.llnl.rtk.data.SensorType;
+import gov.llnl.rtk.data.SpectrumBufferPool;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for CalibrationService.
+ */
+public class CalibrationServiceNGTest
+{
+
+  public CalibrationServiceNGTest()
+  {
+  }
+
+  static IntegerSpectrum newSpectrum(Random random)
+  {
+    int[] counts = new int[128];
+    for (int i = 0; i < counts.length; ++i)
+      counts[i] = random.nextInt(40);
+    return new IntegerSpectrum(counts, 1, 1);
+  }
+
+  static double[] newEdges(int channels, double gain)
+  {
+    double[] edges = new double[channels + 1];
+    for (int i = 0; i < edges.length; ++i)
+      edges[i] = i * gain;
+    return edges;
+  }
+
+  static NonlinearStabilizer newStabilizer(int index) throws Exception
+  {
+    StabilizerTarget target = new StabilizerTarget();
+    target.setChannel(64);
+    ExternalPeakTracker tracker = new ExternalPeakTracker();
+    NonlinearStabilizer stabilizer = new NonlinearStabilizer();
+    stabilizer.setTarget(target);
+    stabilizer.setPeakTracker(tracker);
+    stabilizer.initialize();
+    tracker.setPeakLocation(64 * (0.9 + 0.03 * index));
+    stabilizer.setRandomGenerator(new Random48(index + 1));
+    return stabilizer;
+  }
+
+  static List<RadiationProcessorInput> newInputs(int sensors, int count)
+  {
+    Random random = new Random(3);
+    List<RadiationProcessorInput> out = new ArrayList<>();
+    for (int j = 0; j < count; ++j)
+    {
+      List<RadiationMeasurement> measurements = new ArrayList<>();
+      for (int i = 0; i < sensors; ++i)
+        measurements.add(GammaMeasurement.of(RadiationSensor.of(SensorType.Gamma, i), newSpectrum(random)));
+      out.add(RadiationProcessorInput.of(Instant.ofEpochSecond(j), null, measurements));
+    }
+    return out;
+  }
+
+  /**
+   * The cached channel mapping must give the same draws as a fresh rebin.
+   */
+  @Test
+  public void testRebinMapping()
+  {
+    Random random = new Random(1);
+    Random48 rg1 = new Random48(7);
+    Random48 rg2 = new Random48(7);
+    NonlinearRebin cached = new NonlinearRebin();
+    cached.setGenerator(rg1);
+    double[] gains =
+    {
+      1.05, 1.05, 0.93, 1.05, 2.7, 2.7, 0.4
+    };
+    for (double gain : gains)
+    {
+      IntegerSpectrum in = newSpectrum(random);
+      double[] edges = newEdges(in.size(), gain);
+      NonlinearRebin fresh = new NonlinearRebin();
+      fresh.setGenerator(rg2);
+      IntegerSpectrum expected = fresh.rebin(in, edges);
+      IntegerSpectrum result = cached.rebin(in, edges);
+      assertEquals(result.toArray(), expected.toArray());
+      assertEquals(result.getOverRangeCounts(), expected.getOverRangeCounts());
+      assertEquals(result.getUnderRangeCounts(), expected.getUnderRangeCounts());
+    }
+  }
+
+  @Test
+  public void testProcess() throws Exception
+  {
+    int sensors = 8;
+    List<RadiationProcessorInput> inputs = newInputs(sensors, 20);
+
+    // Reference done sequentially
+    List<List<int[]>> expected = new ArrayList<>();
+    List<NonlinearStabilizer> reference = new ArrayList<>();
+    for (int i = 0; i < sensors; ++i)
+      reference.add(newStabilizer(i));
+    for (RadiationProcessorInput input : inputs)
+    {
+      List<int[]> row = new ArrayList<>();
+      for (GammaMeasurement m : input.getGammaMeasurements())
+      {
+        NonlinearStabilizer stabilizer = reference.get(m.getSensor().getSensorIndex());
+        stabilizer.incorporate((IntegerSpectrum) m.getSample());
+        row.add(((IntegerSpectrum) stabilizer.applyCalibration(m.getSample()).getSample()).toArray());
+      }
+      expected.add(row);
+    }
+
+    // Skip one sensor to check that unknown sensors are ignored
+    CalibrationService service = new CalibrationService();
+    SpectrumBufferPool pool = new SpectrumBufferPool();
+    service.setBufferPool(pool);
+    for (int i = 0; i < sensors - 1; ++i)
+      service.add(RadiationSensor.of(SensorType.Gamma, i), newStabilizer(i));
+    assertEquals(service.size(), sensors - 1);
+
+    // Pipeline the first half
+    List<CompletableFuture<List<CalibratorResult>>> futures = new ArrayList<>();
+    for (int j = 0; j < 10; ++j)
+      futures.add(service.submit(inputs.get(j)));
+    for (int j = 0; j < 10; ++j)
+      check(futures.get(j).join(), expected.get(j), sensors - 1);
+
+    for (int j = 10; j < inputs.size(); ++j)
+    {
+      List<CalibratorResult> results = service.process(inputs.get(j));
+      check(results, expected.get(j), sensors - 1);
+      service.release(results);
+    }
+    assertTrue(pool.getReused() > 0);
+  }
+
+  static void check(List<CalibratorResult> results, List<int[]> expected, int sensors)
+  {
+    assertEquals(results.size(), sensors);
+    for (int i = 0; i < sensors; ++i)
+    {
+      CalibratorResult result = results.get(i);
+      assertEquals(result.getSensor().getSensorIndex(), i);
+      assertTrue(result.isCalibrated());
+      assertEquals(((IntegerSpectrum) result.getSample()).toArray(), expected.get(i));
+    }
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.calibration;
+
+import gov.llnl.math.MathExceptions.ConvergenceException;
+import gov.llnl.rtk.calibration.GaussianFitter.GaussianFitterResult;
+import gov.llnl.rtk.data.DoubleSpectrum;
+import java.util.Arrays;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for GaussianFitter.
+ *
+ * The expected values were produced by the matrix based fit used before the
+ * in place workspace (see BenchmarkGaussianFitter) on the same spectra.
+ */
+public class GaussianFitterNGTest
+{
+
+  public GaussianFitterNGTest()
+  {
+  }
+
+  /**
+   * Gaussian peak of width 5 on a falling continuum with Poisson like noise.
+   */
+  static double[] newSpectrum(long seed, double mu)
+  {
+    Random random = new Random(seed);
+    double[] out = new double[256];
+    for (int i = 0; i < out.length; ++i)
+    {
+      double mean = 50 - 30 * i / 255.0 + 400 * Math.exp(-0.5 * (i - mu) * (i - mu) / 25);
+      out[i] = Math.max(0, Math.rint(mean + Math.sqrt(mean) * random.nextGaussian()));
+    }
+    return out;
+  }
+
+  static void assertResult(GaussianFitterResult result, double[] expected, double tolerance)
+  {
+    assertEquals(result.getLinear1(), expected[0], Math.abs(expected[0]) * tolerance);
+    assertEquals(result.getLinear2(), expected[1], Math.abs(expected[1]) * tolerance);
+    assertEquals(result.getPeakIntensity(), expected[2], Math.abs(expected[2]) * tolerance);
+    assertEquals(result.getPeakLocation(), expected[3], Math.abs(expected[3]) * tolerance);
+    assertEquals(result.getWidth(), expected[4], Math.abs(expected[4]) * tolerance);
+    assertEquals(result.getError(), expected[5], Math.abs(expected[5]) * tolerance);
+  }
+
+  // linear1, linear2, intensity, mu, sigma, error
+  final static double[] EXPECTED0 =
+  {
+    41.85742379305857, 33.70428744954516, 396.3173691247534,
+    99.88017348202236, 5.0334670359146205, 4.4119666300283735E-5
+  };
+  final static double[] EXPECTED1 =
+  {
+    42.332907865940705, 36.34984712095012, 398.3871557663885,
+    99.91431593533292, 4.9562012235170965, 6.346287247553874E-5
+  };
+  final static double[] EXPECTED20 =
+  {
+    43.0481286566757, 34.5297631832648, 405.6124558457187,
+    100.9990050523273, 4.93317230924014, 4.710725040034233E-5
+  };
+
+  /**
+   * Test of fitPeak method, of class GaussianFitter.
+   */
+  @Test
+  public void testFitPeak()
+  {
+    GaussianFitter instance = new GaussianFitter();
+    instance.setRegionOfInterest(70, 131);
+    assertResult(instance.fitPeak(new DoubleSpectrum(newSpectrum(0, 100), 1, 1)), EXPECTED0, 1e-10);
+    assertResult(instance.fitPeak(new DoubleSpectrum(newSpectrum(1, 100.05), 1, 1)), EXPECTED1, 1e-10);
+    assertResult(instance.fitPeak(new DoubleSpectrum(newSpectrum(20, 101), 1, 1)), EXPECTED20, 1e-10);
+
+    // Reusing the fitter must not carry state between spectra
+    assertResult(instance.fitPeak(new DoubleSpectrum(newSpectrum(0, 100), 1, 1)), EXPECTED0, 1e-10);
+  }
+
+  /**
+   * Test of Workspace.fit method, of class GaussianFitter.
+   */
+  @Test
+  public void testWorkspaceCold() throws ConvergenceException
+  {
+    double[] spectrum = newSpectrum(20, 101);
+
+    // Only a window of channels is passed by the streaming tracker
+    double[] window = Arrays.copyOfRange(spectrum, 60, 140);
+    GaussianFitter.Workspace workspace = new GaussianFitter.Workspace();
+    workspace.fit(window, 60, 70, 131, false, 0.2, 100);
+    assertResult(workspace.toResult(spectrum), EXPECTED20, 1e-10);
+  }
+
+  /**
+   * Test of Workspace.fit method, of class GaussianFitter.
+   */
+  @Test
+  public void testWorkspaceWarm() throws ConvergenceException
+  {
+    GaussianFitter.Workspace workspace = new GaussianFitter.Workspace();
+    workspace.fit(newSpectrum(0, 100), 0, 70, 131, false, 0.2, 100);
+    assertResult(workspace.toResult(null), EXPECTED0, 1e-10);
+
+    // Warm starts stop at a nearby point of the same minimum
+    double[] spectrum = newSpectrum(1, 100.05);
+    workspace.fit(spectrum, 0, 70, 131, true, 0.2, 100);
+    GaussianFitterResult result = workspace.toResult(spectrum);
+    assertEquals(result.getPeakLocation(), EXPECTED1[3], 0.01);
+    assertEquals(result.getWidth(), EXPECTED1[4], 0.02 * EXPECTED1[4]);
+    assertEquals(result.getPeakIntensity(), EXPECTED1[2], 0.01 * EXPECTED1[2]);
+    assertEquals(result.getError(), EXPECTED1[5], 0.02 * EXPECTED1[5]);
+
+    // Follow a drifting peak over many calls
+    for (int i = 2; i <= 20; ++i)
+      workspace.fit(newSpectrum(i, 100 + 0.05 * i), 0, 70, 131, true, 0.2, 100);
+    result = workspace.toResult(null);
+    assertEquals(result.getPeakLocation(), EXPECTED20[3], 0.01);
+    assertEquals(result.getWidth(), EXPECTED20[4], 0.02 * EXPECTED20[4]);
+    assertEquals(result.getPeakIntensity(), EXPECTED20[2], 0.01 * EXPECTED20[2]);
+    assertTrue(result.getError() <= 1.05 * EXPECTED20[5]);
+
+    // Reset returns to the cold result
+    workspace.reset();
+    workspace.fit(newSpectrum(20, 101), 0, 70, 131, true, 0.2, 100);
+    assertResult(workspace.toResult(null), EXPECTED20, 1e-10);
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.calibration;
+
+import gov.llnl.math.spline.CubicHermiteSplineFactory;
+import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.SpectrumAttributes;
+import gov.llnl.rtk.physics.Quantity;
+import java.util.Arrays;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for NonlinearStabilizer.
+ */
+public class NonlinearStabilizerNGTest
+{
+
+  public NonlinearStabilizerNGTest()
+  {
+  }
+
+  static ControlMapping newControl(double origin, double observed)
+  {
+    ControlMapping cm = new ControlMapping();
+    cm.setOrigin(origin);
+    cm.setSpline(CubicHermiteSplineFactory.createNatural(new double[]
+    {
+      0, 20, 40
+    }, new double[]
+    {
+      observed, observed, observed
+    }));
+    return cm;
+  }
+
+  /**
+   * Map where a peak at origin is observed at origin*scale.
+   */
+  static NonlinearityMap newMap(double scale)
+  {
+    NonlinearityMap map = new NonlinearityMap();
+    map.addControl(newControl(0.5, 0.5));
+    map.addControl(newControl(100, 100 * scale));
+    map.addControl(newControl(256, 256 * scale));
+    return map;
+  }
+
+  static IntegerSpectrum newSpectrum()
+  {
+    int[] counts = new int[256];
+    for (int i = 0; i < counts.length; ++i)
+      counts[i] = 10;
+    IntegerSpectrum out = new IntegerSpectrum(counts, 1, 1);
+    out.setAttribute(SpectrumAttributes.TEMPERATURE, Quantity.of(20, null));
+    return out;
+  }
+
+  /**
+   * Get the edges a newly created stabilizer would use.
+   */
+  static double[] expectedEdges(NonlinearityMap map, double gain)
+  {
+    NonlinearStabilizer instance = new NonlinearStabilizer();
+    instance.setTemperatureMap(map);
+    instance.correct(newSpectrum(), gain);
+    return instance.inputEdges.clone();
+  }
+
+  /**
+   * Test of correct method, of class NonlinearStabilizer.
+   */
+  @Test
+  public void testCorrectReconfigure()
+  {
+    NonlinearStabilizer instance = new NonlinearStabilizer();
+    instance.setTemperatureMap(newMap(1.1));
+    instance.correct(newSpectrum(), 1.0);
+    double[] edges1 = instance.inputEdges;
+    assertEquals(edges1, expectedEdges(newMap(1.1), 1.0));
+
+    // Same configuration reuses the edges
+    instance.correct(newSpectrum(), 1.0);
+    assertSame(instance.inputEdges, edges1);
+
+    // Replacing the temperature map
+    NonlinearityMap map = newMap(0.9);
+    instance.setTemperatureMap(map);
+    instance.correct(newSpectrum(), 1.0);
+    double[] edges2 = instance.inputEdges;
+    assertFalse(Arrays.equals(edges2, edges1));
+    assertEquals(edges2, expectedEdges(newMap(0.9), 1.0));
+
+    // Changing the correction in place
+    map.addControl(newControl(50, 40));
+    instance.correct(newSpectrum(), 1.0);
+    assertNotSame(instance.inputEdges, edges2);
+    assertEquals(instance.inputEdges, expectedEdges(map, 1.0));
+
+    // Removing the temperature correction
+    instance.setTemperatureMap(null);
+    instance.correct(newSpectrum(), 1.0);
+    assertEquals(instance.inputEdges, expectedEdges(null, 1.0));
+  }
+
+  /**
+   * Test of correct method, of class NonlinearStabilizer.
+   */
+  @Test
+  public void testCorrectRateMapRemoved()
+  {
+    NonlinearStabilizer instance = new NonlinearStabilizer();
+    instance.correct(newSpectrum(), 1.0);
+    double[] identity = instance.inputEdges.clone();
+
+    // Any rate correction leaves the edges different from the identity
+    NonlinearityMap rate = new NonlinearityMap();
+    ControlMapping low = new ControlMapping();
+    low.setOrigin(0.5);
+    low.setSpline(CubicHermiteSplineFactory.createNatural(new double[]
+    {
+      0, 1e6, 1e9
+    }, new double[]
+    {
+      0.5, 0.5, 0.5
+    }));
+    ControlMapping high = new ControlMapping();
+    high.setOrigin(256);
+    high.setSpline(CubicHermiteSplineFactory.createNatural(new double[]
+    {
+      0, 1e6, 1e9
+    }, new double[]
+    {
+      200, 200, 200
+    }));
+    rate.addControl(low);
+    rate.addControl(high);
+    instance.setRateMap(rate);
+    instance.correct(newSpectrum(), 1.0);
+    assertFalse(Arrays.equals(instance.inputEdges, identity));
+
+    // Edges computed with the rate correction must not be reused
+    instance.setRateMap(null);
+    instance.correct(newSpectrum(), 1.0);
+    assertEquals(instance.inputEdges, identity);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.calibration;
+
+import gov.llnl.rtk.data.IntegerSpectrum;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for StreamingPeakTracker.
+ */
+public class StreamingPeakTrackerNGTest
+{
+
+  public StreamingPeakTrackerNGTest()
+  {
+  }
+
+  static IntegerSpectrum newSample(Random random, double peak)
+  {
+    int[] counts = new int[256];
+    for (int i = 0; i < counts.length; ++i)
+    {
+      double d = (i + 0.5 - peak) / 5.0;
+      double mean = 0.5 + 4 * Math.exp(-0.5 * d * d);
+      counts[i] = (int) Math.max(0, Math.round(mean + Math.sqrt(mean) * random.nextGaussian()));
+    }
+    return new IntegerSpectrum(counts, 1, 1);
+  }
+
+  static StreamingPeakTracker newTracker() throws Exception
+  {
+    GaussianFitter fitter = new GaussianFitter();
+    fitter.setStartChannelFraction(0.8);
+    fitter.setEndChannelFraction(1.2);
+    StabilizerTarget target = new StabilizerTarget();
+    target.setChannel(100);
+    StreamingPeakTracker tracker = new StreamingPeakTracker();
+    tracker.setDecimation(5);
+    tracker.setSpectralTimeConstant1(20);
+    tracker.setSpectralTimeConstant2(200);
+    tracker.setMeanTimeConstant(20);
+    tracker.setBiasTimeConstant(100);
+    tracker.setFitter(fitter);
+    tracker.setTarget(target);
+    tracker.initialize();
+    return tracker;
+  }
+
+  @Test
+  public void testIncorporate() throws Exception
+  {
+    Random random = new Random(1);
+    StreamingPeakTracker tracker = newTracker();
+    for (int i = 0; i < 400; ++i)
+      tracker.incorporate(newSample(random, 104));
+    assertTrue(tracker.isLocked());
+    assertEquals(tracker.getPeakLocation(), 104, 1.0);
+    assertTrue(tracker.getWindowStart() <= 80);
+    assertTrue(tracker.getWindowEnd() >= 120);
+    assertEquals(tracker.getCentroid(), 104, 3.0);
+  }
+
+  @Test
+  public void testEngine() throws Exception
+  {
+    Random random = new Random(2);
+    double[] peaks =
+    {
+      96, 100, 104, 108
+    };
+    List<StreamingPeakTracker> trackers = new ArrayList<>();
+    for (int i = 0; i < peaks.length; ++i)
+      trackers.add(newTracker());
+    PeakTrackingEngine engine = new PeakTrackingEngine(trackers);
+    double[] result = null;
+    for (int j = 0; j < 400; ++j)
+    {
+      List<IntegerSpectrum> samples = new ArrayList<>();
+      for (int i = 0; i < peaks.length; ++i)
+        samples.add(newSample(random, peaks[i]));
+      // Detectors without data are skipped
+      if (j == 10)
+        samples.set(0, null);
+      result = engine.incorporate(samples);
+    }
+    for (int i = 0; i < peaks.length; ++i)
+    {
+      assertEquals(result[i], peaks[i], 1.0);
+      assertTrue(engine.getLocked()[i]);
+    }
+    assertEquals(engine.getLatency(0).getCount(), 399);
+    assertEquals(engine.getLatency(1).getCount(), 400);
+    PeakTrackingEngine.LatencyHistogram h = engine.getLatency(1);
+    assertTrue(h.getPercentileNanos(50) <= h.getPercentileNanos(99));
+    assertTrue(h.getPercentileNanos(99) <= h.getMaximumNanos());
+    engine.resetStatistics();
+    assertEquals(engine.getLatency(1).getCount(), 0);
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for ChannelView.
+ */
+public class ChannelViewNGTest
+{
+
+  public ChannelViewNGTest()
+  {
+  }
+
+  @Test
+  public void testIntegerSpectrum()
+  {
+    IntegerSpectrum spectrum = new IntegerSpectrum(new int[]
+    {
+      1, 2, 3, 4, 5
+    }, 1, 1);
+    ChannelView view = spectrum.getChannelView();
+    assertSame(view, spectrum);
+    assertEquals(view.size(), 5);
+    assertEquals(view.getAsDouble(2), 3.0);
+    assertEquals(view.sumRange(1, 4), 9.0);
+    assertEquals(view.getCumulative(0), 0.0);
+    assertEquals(view.getCumulative(5), 15.0);
+    assertEquals(view.sumRange(1, 4), 9.0);
+    assertEquals(view.copyTo(null), new double[]
+    {
+      1, 2, 3, 4, 5
+    });
+
+    // Cached sums are recomputed after the data changes
+    spectrum.toArray()[0] = 10;
+    spectrum.clearCache();
+    assertEquals(view.getCumulative(5), 24.0);
+    spectrum.assign(new int[]
+    {
+      1, 1
+    });
+    assertEquals(view.getCumulative(2), 2.0);
+  }
+
+  @Test
+  public void testDoubleSpectrum()
+  {
+    DoubleSpectrum spectrum = new DoubleSpectrum(new double[]
+    {
+      0.5, 1.5, 2
+    });
+    ChannelView view = spectrum.getChannelView();
+    assertSame(view, spectrum);
+    assertEquals(view.getCumulative(2), 2.0);
+    assertEquals(view.sumRange(1, 3), 3.5);
+    double[] out = new double[4];
+    assertSame(view.copyTo(out), out);
+    assertEquals(out[2], 2.0);
+
+    spectrum.setGammaData(new double[]
+    {
+      4, 4
+    });
+    assertEquals(view.getCumulative(2), 8.0);
+  }
+
+  @Test
+  public void testDefaults()
+  {
+    ChannelView view = new ChannelView()
+    {
+      @Override
+      public int size()
+      {
+        return 3;
+      }
+
+      @Override
+      public double getAsDouble(int channel)
+      {
+        return channel + 1;
+      }
+    };
+    assertEquals(view.sumRange(0, 3), 6.0);
+    assertEquals(view.getCumulative(2), 3.0);
+    assertEquals(view.copyTo(new double[1]).length, 3);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import gov.llnl.utility.Serializer;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for CompactIntegerSpectrum.
+ */
+public class CompactIntegerSpectrumNGTest
+{
+
+  public CompactIntegerSpectrumNGTest()
+  {
+  }
+
+  @Test
+  public void testEncode()
+  {
+    int[] counts =
+    {
+      0, 65534, 65535, 100000, -3, 7
+    };
+    CompactIntegerSpectrum instance = new CompactIntegerSpectrum(counts, 1, 1);
+    assertEquals(instance.toIntegers(), counts);
+    assertEquals(instance.getOverflowSize(), 3);
+    assertEquals(instance.get(3), 100000);
+    assertEquals(instance.getCounts(), 65534.0 + 65535 + 100000 - 3 + 7);
+    assertEquals(instance.sumRange(3, 6), 100004.0);
+    assertEquals(instance.getCumulative(4), 65534.0 + 65535 + 100000);
+    assertEquals(instance.sumRange(3, 6), 100004.0);
+  }
+
+  @Test
+  public void testSet()
+  {
+    CompactIntegerSpectrum instance = new CompactIntegerSpectrum(new int[5], 1, 1);
+    instance.set(3, 70000);
+    instance.set(1, 80000);
+    assertEquals(instance.getOverflowSize(), 2);
+    assertEquals(instance.get(1), 80000);
+    instance.set(3, 5);
+    assertEquals(instance.getOverflowSize(), 1);
+    assertEquals(instance.toIntegers(), new int[]
+    {
+      0, 80000, 0, 5, 0
+    });
+    assertEquals(instance.getCounts(), 80005.0);
+  }
+
+  @Test
+  public void testAddAssign()
+  {
+    CompactIntegerSpectrum instance = new CompactIntegerSpectrum(new int[]
+    {
+      65000, 1, 2
+    }, 1, 1);
+    instance.addAssign(new IntegerSpectrum(new int[]
+    {
+      1000, 1, 2
+    }, 1, 1));
+    assertEquals(instance.toIntegers(), new int[]
+    {
+      66000, 2, 4
+    });
+    instance.subtractAssign(new CompactIntegerSpectrum(new int[]
+    {
+      1000, 1, 2
+    }, 1, 1));
+    assertEquals(instance.getOverflowSize(), 0);
+    assertEquals(instance.getCounts(), 65003.0);
+    assertEquals(instance.getLiveTime(), 1.0);
+  }
+
+  @Test
+  public void testCopy() throws Exception
+  {
+    IntegerSpectrum in = new IntegerSpectrum(new int[]
+    {
+      1, 200000, 3
+    }, 2, 3);
+    CompactIntegerSpectrum instance = new CompactIntegerSpectrum(in);
+    assertEquals(instance.toIntegers(), in.toArray());
+    assertEquals(new CompactIntegerSpectrum(instance).toIntegers(), in.toArray());
+    assertEquals(Serializer.copy(instance).toIntegers(), in.toArray());
+    assertEquals(new FloatSpectrum(instance).toDoubles(), in.toDoubles());
+  }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import gov.llnl.rtk.calibration.ChannelEnergyPair;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for EnergyScaleLookup.
+ */
+public class EnergyScaleLookupNGTest
+{
+
+  public EnergyScaleLookupNGTest()
+  {
+  }
+
+  static int floor(double[] values, double energy)
+  {
+    if (energy < values[0])
+      return -1;
+    int index = Arrays.binarySearch(values, energy);
+    if (index < 0)
+      return -index - 2;
+    return index;
+  }
+
+  static int ceiling(double[] values, double energy)
+  {
+    if (energy < values[0])
+      return 0;
+    int index = Arrays.binarySearch(values, energy);
+    if (index < 0)
+      return -index - 1;
+    return index;
+  }
+
+  static double bin(double[] values, double energy)
+  {
+    int lower = floor(values, energy);
+    if (lower < 0)
+      return -0.5;
+    if (lower >= values.length - 1)
+      return values.length + 0.5;
+    return lower + (energy - values[lower]) / (values[lower + 1] - values[lower]);
+  }
+
+  static List<double[]> newScales()
+  {
+    Random random = new Random(1);
+    List<double[]> out = new ArrayList<>();
+    out.add(EnergyScaleFactory.newLinearScale(0, 3000, 1024).getEdges());
+    out.add(EnergyScaleFactory.newLinearScale(15, 3015, 7).getEdges());
+    out.add(EnergyScaleFactory.newSqrtScale(0, 3000, 256).getEdges());
+    out.add(EnergyScaleFactory.newSqrtScale(20, 9000, 1000).getEdges());
+    double[] log = new double[501];
+    for (int i = 0; i < log.length; ++i)
+      log[i] = Math.pow(10, 4.0 * i / 500);
+    out.add(log);
+    double[] rough = new double[300];
+    for (int i = 1; i < rough.length; ++i)
+      rough[i] = rough[i - 1] + 0.01 + 10 * random.nextDouble();
+    out.add(rough);
+    out.add(new double[]
+    {
+      0, 1
+    });
+    return out;
+  }
+
+  @Test
+  public void testLookup()
+  {
+    Random random = new Random(2);
+    for (double[] values : newScales())
+    {
+      EnergyScale scale = EnergyScaleFactory.newScale(values);
+      double e0 = values[0];
+      double e1 = values[values.length - 1];
+      List<Double> energies = new ArrayList<>();
+      for (double v : values)
+        energies.add(v);
+      for (int i = 0; i < 2000; ++i)
+        energies.add(e0 - 10 + (e1 - e0 + 20) * random.nextDouble());
+      energies.add(Double.NaN);
+      energies.add(Double.POSITIVE_INFINITY);
+      energies.add(Double.NEGATIVE_INFINITY);
+
+      double[] in = new double[energies.size()];
+      for (int i = 0; i < in.length; ++i)
+      {
+        double energy = energies.get(i);
+        in[i] = energy;
+        assertEquals(scale.findEdgeFloor(energy), floor(values, energy), "floor " + energy);
+        assertEquals(scale.findEdgeCeiling(energy), ceiling(values, energy), "ceiling " + energy);
+        assertEquals(scale.findBin(energy), bin(values, energy), 1e-12, "bin " + energy);
+      }
+      double[] out = new double[in.length];
+      scale.convertEnergyToEdge(in, out);
+      for (int i = 0; i < in.length; ++i)
+        assertEquals(out[i], scale.findBin(in[i]));
+    }
+  }
+
+  @Test
+  public void testPairs()
+  {
+    List<ChannelEnergyPair> pairs = new ArrayList<>();
+    pairs.add(new ChannelEnergyPair(0, 0));
+    pairs.add(new ChannelEnergyPair(100, 330));
+    pairs.add(new ChannelEnergyPair(400, 1500));
+    pairs.add(new ChannelEnergyPair(1024, 3100));
+    EnergyPairsScale scale = EnergyScaleFactory.newScale(1024, pairs);
+    double[] values = scale.getEdges();
+    Random random = new Random(3);
+    double[] in = new double[500];
+    for (int i = 0; i < in.length; ++i)
+    {
+      double energy = -50 + 3200 * random.nextDouble();
+      in[i] = energy;
+      assertEquals(scale.findEdgeFloor(energy), floor(values, energy));
+      assertEquals(scale.findEdgeCeiling(energy), ceiling(values, energy));
+      double edge = scale.findBin(energy);
+      assertEquals(scale.getEnergyOfEdge(edge), energy, 1e-9);
+    }
+    double[] out = new double[in.length];
+    scale.convertEnergyToEdge(in, out);
+    for (int i = 0; i < in.length; ++i)
+      assertEquals(out[i], scale.findBin(in[i]));
+  }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import gov.llnl.math.matrix.Matrix;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for PackedSpectraList.
+ */
+public class PackedSpectraListNGTest
+{
+
+  public PackedSpectraListNGTest()
+  {
+  }
+
+  static IntegerSpectrum newSpectrum(int seed)
+  {
+    int[] data = new int[8];
+    for (int i = 0; i < data.length; ++i)
+      data[i] = (seed * 7 + i * 3) % 11;
+    IntegerSpectrum out = new IntegerSpectrum(data, seed + 1, seed + 2);
+    out.setTitle("s" + seed);
+    return out;
+  }
+
+  @Test
+  public void testAddGet()
+  {
+    PackedSpectraList<IntegerSpectrum> instance = PackedSpectraList.allocate(IntegerSpectrum.class, int[].class, 8, 1);
+    IntegerSpectraList reference = new IntegerSpectraList();
+    for (int i = 0; i < 10; ++i)
+    {
+      instance.add(newSpectrum(i));
+      reference.add(newSpectrum(i));
+    }
+    assertEquals(instance.size(), 10);
+    for (int i = 0; i < 10; ++i)
+    {
+      IntegerSpectrum s = instance.get(i);
+      assertEquals(s.toArray(), reference.get(i).toArray());
+      assertEquals(s.getLiveTime(), reference.get(i).getLiveTime());
+      assertEquals(s.getTitle(), "s" + i);
+      assertEquals(instance.getView(i).getCounts(), reference.get(i).getCounts());
+    }
+    assertEquals(instance.getSum(), reference.getSum());
+    assertEquals(instance.getMean(), reference.getMean());
+    assertEquals(instance.getTitles(), reference.getTitles());
+
+    instance.add(2, newSpectrum(20));
+    assertEquals(instance.get(2).getTitle(), "s20");
+    assertEquals(instance.get(3).toArray(), reference.get(2).toArray());
+    assertEquals(instance.remove(2).toArray(), newSpectrum(20).toArray());
+    assertEquals(instance.get(2).toArray(), reference.get(2).toArray());
+    assertEquals(instance.get(9).getTitle(), "s9");
+  }
+
+  @Test
+  public void testColumns()
+  {
+    PackedSpectraList<DoubleSpectrum> instance = PackedSpectraList.allocate(DoubleSpectrum.class, float[].class, 8, 4);
+    double[][] rows = new double[5][];
+    for (int i = 0; i < 5; ++i)
+    {
+      instance.append(newSpectrum(i));
+      rows[i] = newSpectrum(i).toDoubles();
+    }
+    double[] average = instance.getAverage();
+    double[] variance = instance.getVariance();
+    for (int j = 0; j < 8; ++j)
+    {
+      double m = 0;
+      for (int i = 0; i < 5; ++i)
+        m += rows[i][j];
+      m /= 5;
+      double v = 0;
+      for (int i = 0; i < 5; ++i)
+        v += (rows[i][j] - m) * (rows[i][j] - m);
+      v /= 4;
+      assertEquals(average[j], m, 1e-12);
+      assertEquals(variance[j], v, 1e-9);
+    }
+  }
+
+  @Test
+  public void testMatrix()
+  {
+    PackedSpectraList<DoubleSpectrum> instance = PackedSpectraList.allocate(DoubleSpectrum.class, double[].class, 8, 4);
+    for (int i = 0; i < 3; ++i)
+      instance.append(newSpectrum(i));
+    Matrix m = instance.toMatrix();
+    assertEquals(m.rows(), 3);
+    assertEquals(m.columns(), 8);
+    assertEquals(m.copyRow(1), newSpectrum(1).toDoubles());
+    assertEquals(m.get(2, 5), newSpectrum(2).toDoubles()[5]);
+    m.set(0, 0, 100);
+    assertEquals(instance.getView(0).get(0), 100.0);
+    assertEquals(instance.get(0).toArray()[0], 100.0);
+    assertEquals(m.copyColumn(0)[0], 100.0);
+  }
+
+  @Test
+  public void testMap() throws Exception
+  {
+    Path path = Files.createTempFile("packed", ".bin");
+    try
+    {
+      PackedSpectraList<IntegerSpectrum> instance = PackedSpectraList.map(path, IntegerSpectrum.class, int[].class, 8, 2);
+      for (int i = 0; i < 20; ++i)
+        instance.add(newSpectrum(i));
+      instance.flush();
+      assertTrue(Files.size(path) >= 20 * 8 * 4);
+      for (int i = 0; i < 20; ++i)
+        assertEquals(instance.get(i).toArray(), newSpectrum(i).toArray());
+      instance.clear();
+      assertTrue(instance.isEmpty());
+      assertNull(instance.getSum());
+    }
+    finally
+    {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test
+  public void testMapTruncates() throws Exception
+  {
+    Path path = Files.createTempFile("packed", ".bin");
+    try
+    {
+      byte[] stale = new byte[1000];
+      Arrays.fill(stale, (byte) 0x55);
+      Files.write(path, stale);
+      PackedSpectraList<IntegerSpectrum> instance = PackedSpectraList.map(path, IntegerSpectrum.class, int[].class, 8, 2);
+      assertEquals(Files.size(path), 2 * 8 * 4);
+      instance.add(newSpectrum(0));
+      instance.flush();
+      byte[] bytes = Files.readAllBytes(path);
+      assertEquals(bytes.length, 2 * 8 * 4);
+      for (int i = 8 * 4; i < bytes.length; ++i)
+        assertEquals(bytes[i], 0);
+    }
+    finally
+    {
+      Files.deleteIfExists(path);
+    }
+  }
+
+}
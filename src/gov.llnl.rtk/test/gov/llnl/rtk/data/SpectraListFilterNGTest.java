@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for SpectraListFilter.
+ */
+public class SpectraListFilterNGTest
+{
+
+  public SpectraListFilterNGTest()
+  {
+  }
+
+  static DoubleSpectraList newLibrary(int n)
+  {
+    EnergyScale scale = EnergyScaleFactory.newLinearScale(0, 3000, 30);
+    DoubleSpectraList out = new DoubleSpectraList();
+    for (int i = 0; i < n; ++i)
+    {
+      double[] data = new double[30];
+      for (int j = 0; j < data.length; ++j)
+        data[j] = (i * 13 + j * 7) % 17;
+      DoubleSpectrum spectrum = new DoubleSpectrum(data, 1 + i % 3, 2);
+      spectrum.setEnergyScale(scale);
+      if (i % 5 != 0)
+        spectrum.setTitle("shield{" + (i % 40) + "," + (i % 23) + "}");
+      out.add(spectrum);
+    }
+    return out;
+  }
+
+  static int[] interpret(SpectraListFilter filter, DoubleSpectraList list)
+  {
+    ArrayList<Integer> out = new ArrayList<>();
+    for (int i = 0; i < list.size(); ++i)
+      if (filter.matches(list.get(i)))
+        out.add(i);
+    return out.stream().mapToInt(p -> p).toArray();
+  }
+
+  @Test
+  public void testSelect()
+  {
+    DoubleSpectraList list = newLibrary(10000);
+    EnergyRegionOfInterest roi = EnergyRegionOfInterest.of(500, 1500);
+
+    SpectraListFilter filter = new SpectraListFilter();
+    filter.createRule("Z", "GT", 10);
+    filter.createRule("AD", "LE", 15);
+    SpectraListFilter.RuleImpl rule = new SpectraListFilter.RuleImpl(SpectraListFilter.Field.RATE, SpectraListFilter.Operation.GT, 40);
+    rule.setEnergyRegionOfInterest(roi);
+    filter.addExclude(rule);
+    SpectraListFilter.RuleImpl fraction = new SpectraListFilter.RuleImpl(SpectraListFilter.Field.COUNT_FRACTION, SpectraListFilter.Operation.GE, 0.3);
+    fraction.setEnergyRegionOfInterest(roi);
+    filter.addRule(fraction);
+    filter.rules.add(s -> s.getLiveTime() < 3);
+
+    int[] expected = interpret(filter, list);
+    assertTrue(expected.length > 0);
+    assertEquals(filter.select(list), expected);
+
+    // Columns can be shared with another filter
+    SpectraListFilter.Columns columns = new SpectraListFilter.Columns(list);
+    assertEquals(filter.select(columns), expected);
+    SpectraListFilter other = new SpectraListFilter();
+    SpectraListFilter.RuleImpl title = new SpectraListFilter.RuleImpl();
+    title.setField(SpectraListFilter.Field.TITLE);
+    title.setPattern("\\{3\\d,");
+    other.addInclude(title);
+    assertEquals(other.select(columns), interpret(other, list));
+
+    filter.setLimit(7);
+    assertEquals(filter.select(list), Arrays.copyOf(expected, 7));
+    assertEquals(filter.filter(list).size(), 7);
+  }
+
+  @Test
+  public void testPacked()
+  {
+    DoubleSpectraList list = newLibrary(100);
+    PackedSpectraList<DoubleSpectrum> packed = PackedSpectraList.copyOf(list, DoubleSpectrum.class, float[].class);
+    SpectraListFilter filter = new SpectraListFilter();
+    filter.createRule("COUNTS", "LT", 240);
+    filter.createRule("Z", "NE", 4);
+    assertEquals(filter.select(packed), interpret(filter, list));
+  }
+
+}
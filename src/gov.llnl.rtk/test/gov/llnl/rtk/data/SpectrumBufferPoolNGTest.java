@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import gov.llnl.math.random.Random48;
+import gov.llnl.rtk.model.GammaSensorModel;
+import gov.llnl.rtk.test.SampleGenerator;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for SpectrumBufferPool.
+ */
+public class SpectrumBufferPoolNGTest
+{
+
+  public SpectrumBufferPoolNGTest()
+  {
+  }
+
+  @Test
+  public void testRelease()
+  {
+    SpectrumBufferPool instance = new SpectrumBufferPool(2);
+    int[] a = instance.takeIntegers(10);
+    a[0] = 5;
+    assertFalse(instance.release(new int[10]));
+    assertTrue(instance.release(a));
+    assertFalse(instance.release(a));
+    int[] b = instance.takeIntegers(10);
+    assertSame(b, a);
+    assertEquals(b[0], 0);
+    assertNotSame(instance.takeIntegers(10), a);
+    assertEquals(instance.getAllocated(), 2);
+    assertEquals(instance.getReused(), 1);
+  }
+
+  @Test
+  public void testCopy()
+  {
+    SpectrumBufferPool instance = new SpectrumBufferPool();
+    IntegerSpectrum in = new IntegerSpectrum(new int[]
+    {
+      1, 2, 3
+    }, 2, 3);
+    in.setValidRange(1, 3);
+    in.setOverRange(4);
+    IntegerSpectrum out = instance.copyOf(in);
+    assertEquals(out.toArray(), in.toArray());
+    assertEquals(out.getCounts(), 5.0);
+    assertEquals(out.getOverRangeCounts(), 4.0);
+    assertTrue(instance.release(out));
+
+    DoubleSpectrum d = instance.copyAsDouble(in);
+    assertEquals(d.toDoubles(), new DoubleSpectrum(in).toDoubles());
+    assertEquals(d.getMinimumValidChannel(), 0);
+  }
+
+  @Test
+  public void testSampleGenerator() throws Exception
+  {
+    EnergyScale scale = EnergyScaleFactory.newLinearScale(0, 3000, 100);
+    GammaSensorModel gdm = GammaSensorModel.withEnergyScale(scale);
+    double[] shape = new double[100];
+    for (int i = 0; i < shape.length; ++i)
+      shape[i] = 100.0 / (i + 1);
+    DoubleSpectrum template = new DoubleSpectrum(shape, 1, 1);
+    template.setEnergyScale(scale);
+
+    SpectrumBufferPool pool = new SpectrumBufferPool();
+    SampleGenerator.Builder b1 = SampleGenerator.newBuilder(gdm);
+    b1.setRandomGenerator(new Random48(1234));
+    SampleGenerator g1 = b1.add(template).create();
+    SampleGenerator.Builder b2 = SampleGenerator.newBuilder(gdm);
+    b2.setRandomGenerator(new Random48(1234));
+    SampleGenerator g2 = b2.add(template).bufferPool(pool).create();
+
+    for (int i = 0; i < 5; ++i)
+    {
+      IntegerSpectrum s1 = g1.drawInteger();
+      IntegerSpectrum s2 = g2.drawInteger();
+      assertEquals(s2.toArray(), s1.toArray());
+      assertTrue(pool.release(s2));
+    }
+    assertEquals(template.toDoubles(), shape);
+    assertTrue(pool.getReused() > 0);
+  }
+
+}
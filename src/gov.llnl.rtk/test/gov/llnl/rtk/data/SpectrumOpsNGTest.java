@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.data;
+
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for SpectrumOps.
+ */
+public class SpectrumOpsNGTest
+{
+
+  public SpectrumOpsNGTest()
+  {
+  }
+
+  static CompactIntegerSpectrum newCompact()
+  {
+    return new CompactIntegerSpectrum(new int[]
+    {
+      1, 2, 70000, 4
+    }, 2, 3);
+  }
+
+  /**
+   * Test of addAssign method, of class SpectrumOps.
+   */
+  @Test
+  public void testAddAssignIntegerCompact()
+  {
+    IntegerSpectrum a = new IntegerSpectrum(new int[]
+    {
+      10, 20, 30, 40
+    }, 1, 1);
+    Spectrum<?> result = SpectrumOps.addAssign(a, newCompact());
+    assertSame(result, a);
+    assertEquals(a.toArray(), new int[]
+    {
+      11, 22, 70030, 44
+    });
+    assertEquals(a.getLiveTime(), 3.0);
+    assertEquals(a.getRealTime(), 4.0);
+    assertEquals(a.getCounts(), 70107.0);
+  }
+
+  /**
+   * Test of addAssign method, of class SpectrumOps.
+   */
+  @Test
+  public void testAddAssignCompactInteger()
+  {
+    CompactIntegerSpectrum a = newCompact();
+    IntegerSpectrum b = new IntegerSpectrum(new int[]
+    {
+      65534, 0, 1, 0
+    }, 1, 1);
+    SpectrumOps.addAssign(a, b);
+    assertEquals(a.toIntegers(), new int[]
+    {
+      65535, 2, 70001, 4
+    });
+    assertEquals(a.getOverflowSize(), 2);
+    assertEquals(a.getLiveTime(), 3.0);
+  }
+
+  /**
+   * Test of addAssign method, of class SpectrumOps.
+   */
+  @Test
+  public void testAddAssignDoubleCompact()
+  {
+    DoubleSpectrum a = new DoubleSpectrum(new double[]
+    {
+      0.5, 0, 0, 0
+    }, 1, 1);
+    SpectrumOps.addAssign(a, newCompact());
+    assertEquals(a.toArray(), new double[]
+    {
+      1.5, 2, 70000, 4
+    });
+  }
+
+  /**
+   * Test of addAssign method, of class SpectrumOps.
+   */
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void testAddAssignIntegerDouble()
+  {
+    IntegerSpectrum a = new IntegerSpectrum(new int[4], 1, 1);
+    SpectrumOps.addAssign(a, new DoubleSpectrum(new double[4], 1, 1));
+  }
+
+  /**
+   * Test of scaleCounts method, of class SpectrumOps.
+   */
+  @Test
+  public void testScaleCountsCompact()
+  {
+    CompactIntegerSpectrum a = newCompact();
+    double counts = a.getCounts();
+    assertSame(SpectrumOps.scaleCounts(a, 0.5), a);
+    assertEquals(a.toIntegers(), new int[]
+    {
+      1, 1, 35000, 2
+    });
+    assertEquals(a.getOverflowSize(), 0);
+    assertNotEquals(a.getCounts(), counts);
+    assertEquals(a.getLiveTime(), 2.0);
+
+    SpectrumOps.scaleCounts(a, 2);
+    assertEquals(a.toIntegers(), new int[]
+    {
+      2, 2, 70000, 4
+    });
+    assertEquals(a.getOverflowSize(), 1);
+    assertEquals(a.getCounts(), 70008.0);
+  }
+
+  /**
+   * Test of scaleCounts method, of class SpectrumOps.
+   */
+  @Test
+  public void testScaleCounts()
+  {
+    DoubleSpectrum d = new DoubleSpectrum(new double[]
+    {
+      1, 2, 3
+    }, 1, 1);
+    SpectrumOps.scaleCounts(d, 2);
+    assertEquals(d.toArray(), new double[]
+    {
+      2, 4, 6
+    });
+    assertEquals(d.getCounts(), 12.0);
+
+    IntegerSpectrum i = new IntegerSpectrum(new int[]
+    {
+      1, 2, 3
+    }, 1, 1);
+    SpectrumOps.scaleCounts(i, 1.5);
+    assertEquals(i.toArray(), new int[]
+    {
+      2, 3, 5
+    });
+  }
+
+  /**
+   * Test of getStorage method, of class SpectrumOps.
+   */
+  @Test
+  public void testGetStorage()
+  {
+    int[] counts = new int[3];
+    assertSame(SpectrumOps.getStorage(new IntegerSpectrum(counts, 1, 1)), counts);
+    assertNull(SpectrumOps.getStorage(newCompact()));
+    assertFalse(new SpectrumBufferPool().release(newCompact()));
+  }
+}
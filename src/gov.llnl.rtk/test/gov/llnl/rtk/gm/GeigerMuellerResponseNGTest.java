@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.gm;
+
+import gov.llnl.rtk.data.EnergyScale;
+import gov.llnl.rtk.data.EnergyScaleFactory;
+import gov.llnl.rtk.flux.Flux;
+import gov.llnl.rtk.flux.FluxBinned;
+import gov.llnl.rtk.flux.FluxGroupBin;
+import gov.llnl.rtk.flux.FluxLineStep;
+import gov.llnl.rtk.flux.FluxSpectrum;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for GeigerMuellerResponse.
+ */
+public class GeigerMuellerResponseNGTest
+{
+
+  public GeigerMuellerResponseNGTest()
+  {
+  }
+
+  static GeigerMuellerModel newModel()
+  {
+    GeigerMuellerModel model = new GeigerMuellerModel();
+    model.energies = GeigerMuellerFactory.energies;
+    model.efficiency = GeigerMuellerFactory.efficiencyCu;
+    model.diameter = 0.01;
+    model.length = 0.05;
+    model.recoveryTime = 1e-4;
+    model.initialize();
+    return model;
+  }
+
+  static List<Flux> newFluxes(Random random, int n)
+  {
+    double[] edges = new double[201];
+    for (int i = 0; i < edges.length; ++i)
+      edges[i] = 15 * i;
+    EnergyScale scale = EnergyScaleFactory.newScale(edges);
+    List<Flux> out = new ArrayList<>();
+    for (int j = 0; j < n; ++j)
+    {
+      if (j % 2 == 0)
+      {
+        double[] counts = new double[edges.length - 1];
+        for (int i = 0; i < counts.length; ++i)
+          counts[i] = 1000 * random.nextDouble();
+        out.add(FluxSpectrum.createGamma(scale, counts));
+      }
+      else
+      {
+        FluxBinned flux = new FluxBinned();
+        for (int i = 0; i < 5; ++i)
+          flux.addPhotonLine(new FluxLineStep(50 + 2400 * random.nextDouble(), 1e4 * random.nextDouble(), 0));
+        for (int i = 0; i < 40; ++i)
+          flux.addPhotonGroup(new FluxGroupBin(60 * i, 60 * i + 60, 500 * random.nextDouble()));
+        out.add(flux);
+      }
+    }
+    return out;
+  }
+
+  @Test
+  public void testComputeGammaIdealRate()
+  {
+    GeigerMuellerModel model = newModel();
+    GeigerMuellerResponse instance = new GeigerMuellerResponse(model);
+    Random random = new Random(1);
+    for (Flux flux : newFluxes(random, 20))
+    {
+      for (double distance : new double[]
+      {
+        0.5, 1, 10
+      })
+      {
+        double expected = model.computeGammaIdealRate(flux, distance);
+        assertEquals(instance.computeGammaIdealRate(flux, distance), expected, 1e-12 * expected);
+        expected = model.computeGammaExpectedRate(flux, distance);
+        assertEquals(instance.computeGammaExpectedRate(flux, distance), expected, 1e-12 * expected);
+      }
+    }
+  }
+
+  @Test
+  public void testBatch()
+  {
+    GeigerMuellerModel model = newModel();
+    GeigerMuellerResponse instance = new GeigerMuellerResponse(model);
+    Random random = new Random(2);
+    List<Flux> fluxes = newFluxes(random, 300);
+    double[] distances =
+    {
+      0.2, 1, 3.5, 20
+    };
+    double[][] ideal = instance.computeGammaIdealRate(fluxes, distances);
+    double[][] expectedRate = instance.computeGammaExpectedRate(fluxes, distances);
+    assertEquals(ideal.length, fluxes.size());
+    for (int i = 0; i < fluxes.size(); ++i)
+    {
+      for (int j = 0; j < distances.length; ++j)
+      {
+        double expected = model.computeGammaIdealRate(fluxes.get(i), distances[j]);
+        assertEquals(ideal[i][j], expected, 1e-12 * expected);
+        expected = model.computeGammaExpectedRate(fluxes.get(i), distances[j]);
+        assertEquals(expectedRate[i][j], expected, 1e-12 * expected);
+      }
+    }
+
+    double[] pairs = new double[fluxes.size()];
+    for (int i = 0; i < pairs.length; ++i)
+      pairs[i] = 1 + i % 7;
+    double[] result = instance.computeGammaIdealRatePairs(fluxes, pairs);
+    for (int i = 0; i < pairs.length; ++i)
+    {
+      double expected = model.computeGammaIdealRate(fluxes.get(i), pairs[i]);
+      assertEquals(result[i], expected, 1e-12 * expected);
+    }
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved.
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.io;
+
+import gov.llnl.rtk.data.DoubleSpectraList;
+import gov.llnl.rtk.data.DoubleSpectrum;
+import gov.llnl.rtk.data.EnergyScale;
+import gov.llnl.rtk.data.EnergyScaleFactory;
+import gov.llnl.rtk.data.IntegerSpectraList;
+import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.SpectraList;
+import gov.llnl.rtk.data.SpectrumAttributes;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for SpectraArchive.
+ */
+public class SpectraArchiveNGTest
+{
+
+  public SpectraArchiveNGTest()
+  {
+  }
+
+  static IntegerSpectraList newIntegerList(int n, int channels)
+  {
+    EnergyScale scale = EnergyScaleFactory.newLinearScale(0, 3000, channels);
+    IntegerSpectraList out = new IntegerSpectraList();
+    for (int i = 0; i < n; ++i)
+    {
+      int[] data = new int[channels];
+      for (int j = 0; j < channels; ++j)
+        data[j] = (i * 7 + j * 3) % 11;
+      IntegerSpectrum spectrum = new IntegerSpectrum(data, 1 + i, 2 + i);
+      spectrum.setEnergyScale(scale);
+      if (i % 3 != 0)
+        spectrum.setTitle("Spectrum " + i);
+      spectrum.setStartTime(Instant.ofEpochSecond(1600000000L + i, 1000 * i));
+      spectrum.setAttribute(SpectrumAttributes.NEUTRONS, (double) i);
+      out.add(spectrum);
+    }
+    return out;
+  }
+
+  static ByteBuffer write(SpectraArchiveWriter writer, SpectraList<?> list) throws Exception
+  {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    writer.saveStream(bos, list);
+    return ByteBuffer.wrap(bos.toByteArray());
+  }
+
+  @Test
+  public void testIntegerRoundTrip() throws Exception
+  {
+    IntegerSpectraList list = newIntegerList(25, 16);
+    SpectraArchiveWriter writer = new SpectraArchiveWriter();
+    writer.setRowsPerBlock(4);
+    SpectraArchive<?> archive = SpectraArchive.wrap(write(writer, list));
+    assertEquals(archive.size(), 25);
+    assertEquals(archive.getSpectrumClass(), IntegerSpectrum.class);
+    assertEquals(archive.getEnergyScales().length, 1);
+    for (int i = 0; i < list.size(); ++i)
+    {
+      IntegerSpectrum expected = list.get(i);
+      IntegerSpectrum result = (IntegerSpectrum) archive.get(i);
+      assertEquals(result.toArray(), expected.toArray());
+      assertEquals(result.getLiveTime(), expected.getLiveTime());
+      assertEquals(result.getRealTime(), expected.getRealTime());
+      assertEquals(result.getTitle(), expected.getTitle());
+      assertEquals(result.getStartTime(), expected.getStartTime());
+      assertEquals(result.getAttribute(SpectrumAttributes.NEUTRONS), (double) i);
+      assertEquals(result.getEnergyScale().getEdges(), expected.getEnergyScale().getEdges());
+    }
+    assertEquals(archive.getSum(), list.getSum(), 0);
+  }
+
+  @Test
+  public void testCompressedRoundTrip() throws Exception
+  {
+    IntegerSpectraList list = newIntegerList(10, 64);
+    SpectraArchiveWriter writer = new SpectraArchiveWriter();
+    writer.setRowsPerBlock(3);
+    writer.setCompress(true);
+    SpectraArchive<?> archive = SpectraArchive.wrap(write(writer, list));
+    for (int i = 0; i < list.size(); ++i)
+    {
+      assertEquals(((IntegerSpectrum) archive.get(i)).toArray(), list.get(i).toArray());
+      assertEquals(archive.getView(i).getCounts(), list.get(i).getCounts());
+    }
+  }
+
+  @Test
+  public void testDoubleMapped() throws Exception
+  {
+    DoubleSpectraList list = new DoubleSpectraList();
+    for (int i = 0; i < 5; ++i)
+      list.add(new DoubleSpectrum(new double[]
+      {
+        i, 0.5, 2 * i, 1.25
+      }, 1, 1));
+    Path path = Files.createTempFile("archive", ".rsa");
+    try
+    {
+      new SpectraArchiveWriter().saveFile(path, list);
+      SpectraArchive<DoubleSpectrum> archive = SpectraArchive.open(path, DoubleSpectrum.class);
+      assertEquals(archive.size(), 5);
+      SpectraArchive.View view = archive.getView(3);
+      assertEquals(view.get(2), 6.0);
+      assertEquals(view.toDoubles(), list.get(3).toDoubles());
+      assertNull(view.getTitle());
+      assertNull(view.getStartTime());
+      assertNull(view.getEnergyScale());
+      assertEquals(archive.get(4).toDoubles(), list.get(4).toDoubles());
+    }
+    finally
+    {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void testViewReadOnly() throws Exception
+  {
+    SpectraArchive<?> archive = SpectraArchive.wrap(write(new SpectraArchiveWriter(), newIntegerList(2, 8)));
+    archive.getView(0).toArray();
+  }
+}
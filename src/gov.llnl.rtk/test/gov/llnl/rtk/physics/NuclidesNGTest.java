@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.physics;
+
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for Nuclides.
+ */
+public class NuclidesNGTest
+{
+  public NuclidesNGTest()
+  {
+  }
+
+  /**
+   * Test of get method, of interface Nuclides.
+   */
+  @Test
+  public void testGet()
+  {
+    Nuclide cs137 = Nuclides.get("Cs137");
+    assertNotNull(cs137);
+    assertEquals(cs137.getAtomicNumber(), 55);
+    assertEquals(cs137.getMassNumber(), 137);
+    for (String name : new String[]
+    {
+      "Cs-137", "137Cs", "137-Cs", "CS137", "cs137", "137CS"
+    })
+      assertSame(Nuclides.get(name), cs137);
+
+    Nuclide tc99m = Nuclides.get("Tc99m");
+    assertNotNull(tc99m);
+    assertEquals(tc99m.getIsomerNumber(), 1);
+    for (String name : new String[]
+    {
+      "Tc-99m", "TC99M", "99TCM", "99Tcm", "99-TcM"
+    })
+      assertSame(Nuclides.get(name), tc99m);
+
+    Nuclide k38m2 = Nuclides.get("K38m2");
+    assertNotNull(k38m2);
+    assertEquals(k38m2.getIsomerNumber(), 2);
+    assertSame(Nuclides.get("k38M2"), k38m2);
+    assertSame(Nuclides.get("38KM2"), k38m2);
+
+    assertNull(Nuclides.get("Cs"));
+    assertNull(Nuclides.get("Cs0137"));
+    assertNull(Nuclides.get("Xx137"));
+    assertNull(Nuclides.get("Cs137m1"));
+    assertNull(Nuclides.get("Cs99999999999"));
+    assertNull(Nuclides.get(""));
+    assertNull(Nuclides.get(null));
+  }
+
+  /**
+   * Test of indexOf method, of interface Nuclides.
+   */
+  @Test
+  public void testIndexOf()
+  {
+    int count = Nuclides.getCount();
+    assertTrue(count > 3000);
+    for (int i = 0; i < count; ++i)
+    {
+      Nuclide nuclide = Nuclides.getByIndex(i);
+      assertEquals(Nuclides.indexOf(nuclide), i);
+      assertEquals(Nuclides.indexOf(nuclide.getName()), i);
+    }
+    assertEquals(Nuclides.indexOf(new StringBuilder("137Cs")), Nuclides.indexOf("Cs137"));
+    assertEquals(Nuclides.indexOf("n1"), Nuclides.indexOf(Nuclides.get("n1")));
+    assertEquals(Nuclides.indexOf("Unknown"), -1);
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.quality;
+
+import gov.llnl.rtk.data.DoubleSpectrum;
+import gov.llnl.rtk.data.GammaMeasurement;
+import gov.llnl.rtk.data.IntegerSpectrum;
+import gov.llnl.rtk.data.RadiationMeasurement;
+import gov.llnl.rtk.data.RadiationProcessorInput;
+import gov.llnl.rtk.data.RadiationSensor;
+import gov.llnl.rtk.data.SensorType;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for QualityControlEngine.
+ */
+public class QualityControlEngineNGTest
+{
+
+  public QualityControlEngineNGTest()
+  {
+  }
+
+  static GammaMeasurement newMeasurement(int index, int[] counts, Instant start)
+  {
+    IntegerSpectrum spectrum = new IntegerSpectrum(counts, 1, 1);
+    spectrum.setStartTime(start);
+    return GammaMeasurement.of(RadiationSensor.of(SensorType.Gamma, index), spectrum);
+  }
+
+  static QualityChecks newChecks()
+  {
+    QualityChecks checks = new QualityChecks();
+    SingleChannelSpikeCheck spike = new SingleChannelSpikeCheck();
+    spike.setSingleChannelFraction(0.5);
+    checks.add(spike);
+    LowEnergyCheck low = new LowEnergyCheck();
+    low.setLldChannel(2);
+    low.setFractionBelowLLD(0.4);
+    checks.add(low);
+    SaturationCheck saturation = new SaturationCheck();
+    saturation.setMaximumCountRate(1000);
+    checks.add(saturation);
+    checks.add(new TimestampOrderingCheck());
+    return checks;
+  }
+
+  /**
+   * Get the faults expected from the first three checks in newChecks.
+   *
+   * Worked out directly from the channel counts with the rules the checks
+   * had before they were compiled into the engine. The live time is one
+   * second so the rate equals the total counts.
+   *
+   * @return the category and description of each fault.
+   */
+  static List<String> expectedFaults(int[] counts)
+  {
+    List<String> out = new ArrayList<>();
+    int total = 0;
+    for (int c : counts)
+      total += c;
+
+    // A single channel holding more than half the counts
+    for (int c : counts)
+    {
+      if ((double) c / total > 0.5)
+      {
+        out.add(FaultCategory.INVALID_CHANNEL_COUNT_SPIKE + ": Single Channel Spike");
+        return out;
+      }
+    }
+
+    // Counts in channels 0 and 1 over 40 percent of the total
+    double fraction = (double) (counts[0] + counts[1]) / total;
+    if (!(fraction < 0.4))
+    {
+      out.add(FaultCategory.LOW_ENERGY_NOISE + ": too many counts below lld " + fraction);
+      return out;
+    }
+
+    // Rate of 1000 or more
+    double rate = total;
+    if (!(rate < 1000))
+      out.add(FaultCategory.SATURATION + ": Count Rate in Satuation Region " + rate);
+    return out;
+  }
+
+  @Test
+  public void testMatchesChecks() throws Exception
+  {
+    int[][] cases =
+    {
+      {
+        10, 10, 10, 10, 10, 10
+      },
+      {
+        1, 1, 100, 1, 1, 1
+      },
+      {
+        50, 50, 10, 10, 10, 10
+      },
+      {
+        500, 500, 500, 10, 10, 10
+      },
+      {
+        300, 300, 300, 300, 300, 300
+      },
+      {
+        19, 20, 20, 20, 10, 10
+      },
+      {
+        0, 0, 0, 0
+      }
+    };
+    for (int[] counts : cases)
+    {
+      GammaMeasurement measurement = newMeasurement(0, counts, null);
+      QualityChecks checks = newChecks();
+      checks.remove(3);
+      List<String> expected = expectedFaults(counts);
+
+      QualityControlEngine.Result result = checks.compile().execute(measurement);
+      List<String> actual = new ArrayList<>();
+      for (Fault fault : result.getFaultSet())
+        actual.add(fault.getName() + ": " + fault.getDescription());
+      assertEquals(actual, expected, Arrays.toString(counts));
+      assertEquals(result.isAccepted(), expected.isEmpty());
+    }
+  }
+
+  @Test
+  public void testChannelSummary()
+  {
+    ChannelSummary summary = new ChannelSummary();
+    summary.addThreshold(3);
+    summary.addThreshold(1);
+    summary.addThreshold(100);
+    DoubleSpectrum spectrum = new DoubleSpectrum(new double[]
+    {
+      1, 2, 3, -4, 5
+    }, 1, 1);
+    spectrum.setValidRange(1, 4);
+    summary.compute(spectrum);
+    assertEquals(summary.getCounts(), 1.0);
+    assertEquals(summary.getMaximum(), 5.0);
+    assertEquals(summary.getMinimum(), -4.0);
+    assertEquals(summary.getCountsBelow(1), 1.0);
+    assertEquals(summary.getCountsBelow(3), 6.0);
+    assertEquals(summary.getCountsBelow(100), 7.0);
+  }
+
+  @Test
+  public void testDetectors() throws Exception
+  {
+    QualityControlEngine engine = newChecks().compile();
+    Instant t0 = Instant.ofEpochSecond(1000);
+    int[] good =
+    {
+      10, 10, 10, 10, 10, 10
+    };
+
+    for (int step = 0; step < 3; ++step)
+    {
+      List<RadiationMeasurement> measurements = new ArrayList<>();
+      for (int i = 0; i < 8; ++i)
+        measurements.add(newMeasurement(i, good, t0.plusSeconds(step)));
+      List<QualityControlEngine.Result> results = engine.execute(
+              RadiationProcessorInput.of(t0, null, measurements));
+      assertEquals(results.size(), 8);
+      for (int i = 0; i < 8; ++i)
+      {
+        // Each detector tracks its own timestamps
+        assertSame(results.get(i).getMeasurement(), measurements.get(i));
+        assertTrue(results.get(i).isAccepted());
+      }
+    }
+
+    // Out of order on one detector only
+    QualityControlEngine.Result result = engine.execute(newMeasurement(3, good, t0));
+    assertFalse(result.isAccepted());
+    assertTrue(engine.execute(newMeasurement(4, good, t0.plusSeconds(3))).isAccepted());
+
+    List<QualityControlEngine.Statistics> statistics = engine.getStatistics();
+    assertEquals(statistics.size(), 5);
+    assertEquals(statistics.get(0).getCalls(), 26);
+    assertEquals(statistics.get(4).getFailures(), 1);
+    engine.resetStatistics();
+    assertEquals(statistics.get(0).getCalls(), 0);
+  }
+
+}
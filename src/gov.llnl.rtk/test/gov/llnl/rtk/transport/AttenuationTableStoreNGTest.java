@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.transport;
+
+import gov.llnl.rtk.flux.FluxGroupBin;
+import gov.llnl.rtk.physics.AttenuationLibrary;
+import gov.llnl.rtk.physics.Element;
+import gov.llnl.rtk.physics.Elements;
+import gov.llnl.rtk.physics.MaterialImpl;
+import gov.llnl.rtk.physics.SphericalModel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for AttenuationTableStore.
+ */
+public class AttenuationTableStoreNGTest
+{
+  public AttenuationTableStoreNGTest()
+  {
+  }
+
+  /**
+   * Smooth library which counts the element evaluations.
+   */
+  static class CountingLibrary implements AttenuationLibrary
+  {
+    final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public double getMassAttenuation(Element element, double energy)
+    {
+      calls.incrementAndGet();
+      return 0.001 * element.getAtomicNumber() * Math.pow(energy / 100, -1.5) + 0.006;
+    }
+  }
+
+  /**
+   * Test of getTable method, of class AttenuationTableStore.
+   */
+  @Test
+  public void testGetTable()
+  {
+    CountingLibrary library = new CountingLibrary();
+    AttenuationTableStore instance = new AttenuationTableStore(library);
+    MaterialImpl m1 = LayeredAttenuationNGTest.newMaterial("Fe", 7870);
+    MaterialImpl m2 = LayeredAttenuationNGTest.newMaterial("Fe", 7000);
+    AttenuationTable t1 = instance.getTable(m1);
+    int calls = library.calls.get();
+    assertTrue(calls > 0);
+
+    // Same composition at a different density shares the table
+    assertSame(instance.getTable(m2), t1);
+    assertSame(instance.getTable(Elements.get("Fe")), t1);
+    assertEquals(library.calls.get(), calls);
+    assertEquals(instance.size(), 1);
+
+    // Empty materials have no attenuation
+    assertNull(instance.getTable(new MaterialImpl()));
+    assertEquals(instance.getMassAttenuation(new MaterialImpl(), 100.0), 0.0);
+
+    instance.clear();
+    assertEquals(instance.size(), 0);
+  }
+
+  /**
+   * Test of getMassAttenuation method, of class AttenuationTableStore.
+   */
+  @Test
+  public void testGetMassAttenuation()
+  {
+    CountingLibrary library = new CountingLibrary();
+    AttenuationTableStore instance = new AttenuationTableStore(library);
+    MaterialImpl material = LayeredAttenuationNGTest.newMaterial("Pb", 11350);
+    double[] energies =
+    {
+      1, 15.3, 100, 661.657, 1332.5, 20000
+    };
+    double[] result = new double[energies.length];
+    double[] expected = new double[energies.length];
+    instance.getMassAttenuation(material, energies, result);
+    library.getMassAttenuation(material, energies, expected);
+    for (int i = 0; i < energies.length; ++i)
+    {
+      assertEquals(result[i], expected[i], 1e-4 * expected[i]);
+      assertEquals(instance.getMassAttenuation(material, energies[i]), result[i]);
+    }
+
+    List<FluxGroupBin> groups = Arrays.asList(new FluxGroupBin(100, 200, 1), new FluxGroupBin(200, 400, 1));
+    double[] out = new double[2];
+    instance.getMassAttenuation(material, groups, out);
+    assertEquals(out[0], instance.getMassAttenuation(material, 150), 0);
+    assertEquals(out[1], instance.getMassAttenuation(material, 300), 0);
+
+    // Engine results agree with the uncached library
+    SphericalModel model = LayeredAttenuationNGTest.newModel(0.01, 0.02);
+    double[] t1 = new LayeredAttenuation(library).computeTransmission(model, energies);
+    double[] t2 = new LayeredAttenuation(instance).computeTransmission(model, energies);
+    for (int i = 0; i < energies.length; ++i)
+      assertEquals(t2[i], t1[i], 1e-3 * t1[i] + 1e-300);
+  }
+
+  /**
+   * Test of save and load methods, of class AttenuationTableStore.
+   */
+  @Test
+  public void testSaveLoad() throws IOException
+  {
+    CountingLibrary library = new CountingLibrary();
+    AttenuationTableStore instance = new AttenuationTableStore(library);
+    MaterialImpl material = LayeredAttenuationNGTest.newMaterial("Al", 2700);
+    double expected = instance.getMassAttenuation(material, 662);
+    instance.getTable(Elements.get("Pb"));
+
+    Path file = Files.createTempFile("attenuation", ".ser.gz");
+    try
+    {
+      instance.save(file);
+      CountingLibrary library2 = new CountingLibrary();
+      AttenuationTableStore restored = new AttenuationTableStore(library2);
+      restored.load(file);
+      assertEquals(restored.size(), 2);
+      assertEquals(restored.getMassAttenuation(material, 662), expected);
+      assertEquals(library2.calls.get(), 0);
+    }
+    finally
+    {
+      Files.deleteIfExists(file);
+    }
+  }
+}
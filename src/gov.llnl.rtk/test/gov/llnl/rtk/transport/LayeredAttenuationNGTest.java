@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.transport;
+
+import gov.llnl.rtk.flux.FluxBinned;
+import gov.llnl.rtk.flux.FluxGroupBin;
+import gov.llnl.rtk.flux.FluxLineStep;
+import gov.llnl.rtk.physics.AttenuationLibrary;
+import gov.llnl.rtk.physics.Component;
+import gov.llnl.rtk.physics.Elements;
+import gov.llnl.rtk.physics.LayerImpl;
+import gov.llnl.rtk.physics.MaterialImpl;
+import gov.llnl.rtk.physics.Nuclide;
+import gov.llnl.rtk.physics.Nuclides;
+import gov.llnl.rtk.physics.SphericalModel;
+import java.util.ArrayList;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for LayeredAttenuation.
+ */
+public class LayeredAttenuationNGTest
+{
+  // 0.01 m^2/kg per unit Z divided by energy in MeV
+  static final AttenuationLibrary LIBRARY = (element, energy) -> 0.0001 * element.getAtomicNumber() * 1000 / energy;
+
+  public LayeredAttenuationNGTest()
+  {
+  }
+
+  static MaterialImpl newMaterial(String symbol, double density)
+  {
+    Nuclide nuclide = Nuclides.natural(Elements.get(symbol));
+    MaterialImpl material = new MaterialImpl();
+    material.setDensity(density);
+    material.addEntry(new Component()
+    {
+      @Override
+      public Nuclide getNuclide()
+      {
+        return nuclide;
+      }
+
+      @Override
+      public double getActivity()
+      {
+        return 0;
+      }
+
+      @Override
+      public double getDoseFraction()
+      {
+        return 0;
+      }
+
+      @Override
+      public double getMassFraction()
+      {
+        return 1;
+      }
+    });
+    return material;
+  }
+
+  static SphericalModel newModel(double... thickness)
+  {
+    SphericalModel model = new SphericalModel();
+    MaterialImpl[] materials =
+    {
+      newMaterial("Al", 2700), newMaterial("Fe", 7870)
+    };
+    for (int i = 0; i < thickness.length; ++i)
+    {
+      LayerImpl layer = new LayerImpl();
+      layer.setMaterial(materials[i % 2]);
+      layer.setThickness(thickness[i]);
+      model.addLayer(layer);
+    }
+    return model;
+  }
+
+  static double getMu(int z, double density, double energy)
+  {
+    return 0.0001 * z * 1000 / energy * density;
+  }
+
+  /**
+   * Test of computeTransmission method, of class LayeredAttenuation.
+   */
+  @Test
+  public void testComputeTransmission()
+  {
+    LayeredAttenuation instance = new LayeredAttenuation(LIBRARY);
+    SphericalModel model = newModel(0.01, 0.02);
+    double[] energies =
+    {
+      100, 662, 1000
+    };
+    double[] result = instance.computeTransmission(model, energies);
+    for (int i = 0; i < energies.length; ++i)
+    {
+      double mfp = getMu(13, 2700, energies[i]) * 0.01 + getMu(26, 7870, energies[i]) * 0.02;
+      assertEquals(result[i], Math.exp(-mfp), 1e-12 * Math.exp(-mfp));
+    }
+
+    double[][] depth = instance.computeOpticalDepth(model, energies);
+    assertEquals(depth.length, 2);
+    assertEquals(depth[1][2], getMu(26, 7870, 1000) * 0.02, 1e-12);
+
+    // Empty model does not attenuate
+    assertEquals(instance.computeTransmission(new SphericalModel(), energies), new double[]
+    {
+      1, 1, 1
+    });
+  }
+
+  /**
+   * Test of computeBuildupTransmission method, of class LayeredAttenuation.
+   */
+  @Test
+  public void testComputeBuildupTransmission()
+  {
+    LayeredAttenuation instance = new LayeredAttenuation(LIBRARY);
+    SphericalModel model = newModel(0.01, 0.02);
+    double[] energies =
+    {
+      662
+    };
+    double mfp = getMu(13, 2700, 662) * 0.01 + getMu(26, 7870, 662) * 0.02;
+    assertEquals(instance.computeBuildupTransmission(model, energies)[0], (1 + mfp) * Math.exp(-mfp), 1e-12);
+
+    // The buildup is for the outermost material
+    List<Object> seen = new ArrayList<>();
+    instance.setBuildupModel((material, energy, x) ->
+    {
+      seen.add(material);
+      return BuildupModel.berger(0.5, 0.1).getBuildup(material, energy, x);
+    });
+    double expected = (1 + 0.5 * mfp * Math.exp(0.1 * mfp)) * Math.exp(-mfp);
+    assertEquals(instance.computeBuildupTransmission(model, energies)[0], expected, 1e-12);
+    assertSame(seen.get(0), model.getLayers().get(1).getMaterial());
+
+    instance.setBuildupModel(BuildupModel.NONE);
+    assertEquals(instance.computeBuildupTransmission(model, energies)[0], Math.exp(-mfp), 1e-12);
+  }
+
+  /**
+   * Test of computeEscapeProbability method, of class LayeredAttenuation.
+   */
+  @Test
+  public void testComputeEscapeProbability()
+  {
+    assertEquals(LayeredAttenuation.computeEscapeProbability(0), 1.0);
+    assertEquals(LayeredAttenuation.computeEscapeProbability(1), 0.5272521936411892, 1e-12);
+    assertEquals(LayeredAttenuation.computeEscapeProbability(5), 0.14700149819768216, 1e-12);
+    // Series and closed form agree at the switch
+    assertEquals(LayeredAttenuation.computeEscapeProbability(0.01 - 1e-12),
+            LayeredAttenuation.computeEscapeProbability(0.01), 1e-9);
+    // Thick spheres approach 3/(4 mfp)
+    assertEquals(LayeredAttenuation.computeEscapeProbability(1000) * 1000, 0.75, 1e-3);
+
+    LayeredAttenuation instance = new LayeredAttenuation(LIBRARY);
+    instance.setSelfShielding(true);
+    SphericalModel model = newModel(0.01, 0.02);
+    double[] energies =
+    {
+      662
+    };
+    double source = getMu(13, 2700, 662) * 0.01;
+    double shield = getMu(26, 7870, 662) * 0.02;
+    assertEquals(instance.computeTransmission(model, energies)[0],
+            LayeredAttenuation.computeEscapeProbability(source) * Math.exp(-shield), 1e-12);
+  }
+
+  /**
+   * Test of computeUncollided method, of class LayeredAttenuation.
+   */
+  @Test
+  public void testComputeUncollided()
+  {
+    LayeredAttenuation instance = new LayeredAttenuation(LIBRARY);
+    SphericalModel model = newModel(0.005, 0.01);
+    FluxBinned flux = new FluxBinned();
+    flux.addPhotonLine(new FluxLineStep(662, 100, 2));
+    flux.addPhotonGroup(new FluxGroupBin(100, 300, 50, 5));
+
+    double[] t = instance.computeTransmission(model, new double[]
+    {
+      662, 200
+    });
+    FluxBinned result = instance.computeUncollided(model, flux);
+    assertEquals(result.getPhotonLines().get(0).getIntensity(), 100 * t[0], 1e-9);
+    assertEquals(result.getPhotonLines().get(0).getStep(), 2 * t[0], 1e-9);
+    assertEquals(result.getPhotonGroups().get(0).getCounts(), 50 * t[1], 1e-9);
+    assertEquals(result.getPhotonGroups().get(0).getUncertainty(), 5 * t[1], 1e-9);
+    assertTrue(result.getNeutronGroups().isEmpty());
+
+    FluxBinned buildup = instance.computeBuildup(model, flux);
+    assertTrue(buildup.getPhotonLines().get(0).getIntensity() > result.getPhotonLines().get(0).getIntensity());
+
+    // Batches match single evaluation
+    List<SphericalModel> models = new ArrayList<>();
+    for (int i = 0; i < 40; ++i)
+      models.add(newModel(0.001 * i, 0.002 * i));
+    List<FluxBinned> batch = instance.computeUncollided(models, flux);
+    List<FluxBinned> batch2 = instance.computeBuildup(models, flux);
+    for (int i = 0; i < models.size(); ++i)
+    {
+      assertEquals(batch.get(i), instance.computeUncollided(models.get(i), flux));
+      assertEquals(batch2.get(i), instance.computeBuildup(models.get(i), flux));
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.rtk.transport;
+
+import gov.llnl.rtk.flux.FluxBinned;
+import gov.llnl.rtk.flux.FluxGroupBin;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for TransportCache.
+ */
+public class TransportCacheNGTest
+{
+  Path directory;
+
+  public TransportCacheNGTest()
+  {
+  }
+
+  @BeforeMethod
+  public void setUp() throws IOException
+  {
+    directory = Files.createTempDirectory("transport");
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException
+  {
+    new TransportCache(directory).clear();
+    Files.deleteIfExists(directory);
+  }
+
+  /**
+   * Stub for a transport code which counts its runs.
+   */
+  static class StubTransport implements Callable<List<FluxBinned>>
+  {
+    final AtomicInteger runs = new AtomicInteger();
+    double value;
+
+    StubTransport(double value)
+    {
+      this.value = value;
+    }
+
+    @Override
+    public List<FluxBinned> call()
+    {
+      runs.incrementAndGet();
+      FluxBinned flux = new FluxBinned();
+      flux.addPhotonGroup(new FluxGroupBin(0, 100, value));
+      flux.addPhotonGroup(new FluxGroupBin(100, 200, 2 * value));
+      return Collections.singletonList(flux);
+    }
+  }
+
+  /**
+   * Test of createKey method, of class TransportCache.
+   */
+  @Test
+  public void testCreateKey()
+  {
+    String key = TransportCache.createKey("deck", 1000, 0);
+    assertEquals(key.length(), 64);
+    assertEquals(TransportCache.createKey("deck", 1000, 0), key);
+    assertNotEquals(TransportCache.createKey("deck ", 1000, 0), key);
+    assertNotEquals(TransportCache.createKey("deck", 1001, 0), key);
+    assertNotEquals(TransportCache.createKey("deck", 1000, 1), key);
+  }
+
+  /**
+   * Test of compute method, of class TransportCache.
+   */
+  @Test
+  public void testCompute() throws Exception
+  {
+    TransportCache instance = new TransportCache(directory);
+    StubTransport transport = new StubTransport(5);
+    String key = TransportCache.createKey("deck", 1000, 0);
+    List<FluxBinned> first = instance.compute(key, transport);
+    List<FluxBinned> second = instance.compute(key, transport);
+    assertEquals(transport.runs.get(), 1);
+    assertEquals(instance.getMissCount(), 1);
+    assertEquals(instance.getHitCount(), 1);
+    assertTrue(TransportCache.matches(first, second, 0));
+    assertEquals(second.get(0).getPhotonGroups().get(1).getCounts(), 10.0);
+
+    // A new cache on the same directory sees the entry
+    TransportCache other = new TransportCache(directory);
+    assertNotNull(other.get(key));
+    assertNull(other.get(TransportCache.createKey("other", 1000, 0)));
+
+    // No temporary files are left behind
+    try (Stream<Path> files = Files.list(directory))
+    {
+      assertEquals(files.count(), 1);
+    }
+  }
+
+  /**
+   * Test of get method with a damaged entry, of class TransportCache.
+   */
+  @Test
+  public void testCorrupt() throws Exception
+  {
+    TransportCache instance = new TransportCache(directory);
+    StubTransport transport = new StubTransport(5);
+    String key = TransportCache.createKey("deck", 1000, 0);
+    instance.compute(key, transport);
+    Path file = directory.resolve(key + ".flux.gz");
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+    assertNull(instance.get(key));
+    assertFalse(Files.exists(file));
+    instance.compute(key, transport);
+    assertEquals(transport.runs.get(), 2);
+  }
+
+  /**
+   * Test of setMaxBytes method, of class TransportCache.
+   */
+  @Test
+  public void testEvict() throws Exception
+  {
+    TransportCache instance = new TransportCache(directory);
+    StubTransport transport = new StubTransport(5);
+    String[] keys = new String[4];
+    for (int i = 0; i < keys.length; ++i)
+    {
+      keys[i] = TransportCache.createKey("deck" + i, 1000, 0);
+      instance.compute(keys[i], transport);
+      Files.setLastModifiedTime(directory.resolve(keys[i] + ".flux.gz"), FileTime.fromMillis(1000000L * (i + 1)));
+    }
+    long entry = instance.size() / keys.length;
+
+    // Using the first entry makes it the most recent
+    assertNotNull(instance.get(keys[0]));
+    instance.setMaxBytes(2 * entry + entry / 2);
+    instance.put(keys[3], transport.call());
+    assertTrue(instance.size() <= instance.getMaxBytes());
+    assertNotNull(instance.get(keys[0]));
+    assertNull(instance.get(keys[1]));
+    assertNull(instance.get(keys[2]));
+    assertNotNull(instance.get(keys[3]));
+  }
+
+  /**
+   * Test of setVerify method, of class TransportCache.
+   */
+  @Test
+  public void testVerify() throws Exception
+  {
+    TransportCache instance = new TransportCache(directory);
+    String key = TransportCache.createKey("deck", 1000, 0);
+    instance.compute(key, new StubTransport(5));
+    instance.setVerify(true);
+
+    StubTransport same = new StubTransport(5);
+    instance.compute(key, same);
+    assertEquals(same.runs.get(), 1);
+    assertEquals(instance.getMismatchCount(), 0);
+
+    StubTransport changed = new StubTransport(6);
+    List<FluxBinned> out = instance.compute(key, changed);
+    assertEquals(instance.getMismatchCount(), 1);
+    assertEquals(out.get(0).getPhotonGroups().get(0).getCounts(), 6.0);
+
+    // The entry was replaced by the new run
+    instance.setVerify(false);
+    assertEquals(instance.get(key).get(0).getPhotonGroups().get(0).getCounts(), 6.0);
+
+    assertTrue(TransportCache.matches(new StubTransport(5).call(), new StubTransport(6).call(), 0.5));
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility;
+
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * Compare the streaming array encoding against the buffered implementation it
+ * replaced for arrays of 1k to 64k elements.
+ */
+public class BenchmarkArrayEncoding extends Benchmarker
+{
+  final static int[] SIZES =
+  {
+    1024, 4096, 16384, 65536
+  };
+
+  static String bufferedEncode(double[] values)
+  {
+    ByteBuffer bb = ByteBuffer.allocate(3 + 4 + values.length * 8);
+    bb.put("[D;".getBytes());
+    bb.putInt(values.length);
+    for (double v : values)
+      bb.putDouble(v);
+    return Base64.getEncoder().encodeToString(ArrayEncoding.deflate(bb.array()));
+  }
+
+  static double[] bufferedDecode(String contents)
+  {
+    byte[] in = ArrayEncoding.inflate(Base64.getDecoder().decode(contents));
+    ByteBuffer bb = ByteBuffer.wrap(in);
+    bb.position(3);
+    int size = bb.getInt();
+    double[] out = new double[size];
+    bb.asDoubleBuffer().get(out, 0, Math.min(size, bb.remaining() / 8));
+    return out;
+  }
+
+  BenchmarkArrayEncoding()
+  {
+    Random random = new Random(0);
+    for (int size : SIZES)
+    {
+      // Spectrum like contents so the deflate stage has something to do
+      double[] values = new double[size];
+      for (int i = 0; i < size; ++i)
+        values[i] = Math.floor(1000 * Math.exp(-i / (double) size) * random.nextDouble());
+      String encoded = ArrayEncoding.encodeDoubles(values);
+
+      this.addTask("buffered decode " + size, (passes) ->
+      {
+        for (int i = 0; i < passes; ++i)
+          bufferedDecode(encoded);
+      });
+      this.addTask("streaming decode " + size, (passes) ->
+      {
+        try
+        {
+          for (int i = 0; i < passes; ++i)
+            ArrayEncoding.decodeDoubles(encoded);
+        }
+        catch (ParseException ex)
+        {
+          throw new RuntimeException(ex);
+        }
+      });
+      this.addTask("buffered encode " + size, (passes) ->
+      {
+        for (int i = 0; i < passes; ++i)
+          bufferedEncode(values);
+      });
+      this.addTask("streaming encode " + size, (passes) ->
+      {
+        for (int i = 0; i < passes; ++i)
+          ArrayEncoding.encodeDoubles(values);
+      });
+    }
+  }
+
+  static public void main(String[] args)
+  {
+    BenchmarkArrayEncoding benchmark = new BenchmarkArrayEncoding();
+    benchmark.test();
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility;
+
+import gov.llnl.utility.annotation.Internal;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Streaming decoder for the arrays produced by ArrayEncoding.
+ *
+ * The base64 text is decoded and inflated a block at a time so that the values
+ * can be transferred directly into the destination array. Values are read in
+ * runs with {@link #next(int, int)} followed by the unchecked get methods.
+ */
+@Internal
+class EncodedArrayReader
+{
+  final static int BLOCK_SIZE = 8192;
+  private final static byte[] DECODE = new byte[128];
+
+  static
+  {
+    Arrays.fill(DECODE, (byte) -1);
+    String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+    for (int i = 0; i < alphabet.length(); ++i)
+      DECODE[alphabet.charAt(i)] = (byte) i;
+  }
+
+  private final String contents;
+  private int cursor;
+  private final byte[] encoded;
+  private Inflater inflater;
+  private byte[] block;
+  private int position;
+  private int limit;
+
+  EncodedArrayReader(String contents) throws ParseException
+  {
+    this.contents = contents;
+    this.encoded = new byte[Math.min(BLOCK_SIZE, contents.length() / 4 * 3 + 3)];
+    int n = decode(encoded, 0, encoded.length);
+
+    // Compressed contents start with a zlib header
+    if (n > 0 && encoded[0] == 0x78)
+    {
+      inflater = new Inflater();
+      inflater.setInput(encoded, 0, n);
+      block = new byte[BLOCK_SIZE];
+    }
+    else
+    {
+      block = encoded;
+      limit = n;
+    }
+  }
+
+  /**
+   * Release the inflater.
+   */
+  void close()
+  {
+    if (inflater != null)
+      inflater.end();
+    inflater = null;
+  }
+
+  /**
+   * Read the type code at the start of the contents.
+   *
+   * @param length is the number of characters in the code.
+   * @return the type code.
+   * @throws ParseException if the contents are truncated.
+   */
+  String getType(int length) throws ParseException
+  {
+    require(length);
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; ++i)
+      sb.append((char) (block[position++] & 0xff));
+    return sb.toString();
+  }
+
+  /**
+   * Read a length or count from the contents.
+   *
+   * @return the value.
+   * @throws ParseException if the contents are truncated.
+   */
+  int getCount() throws ParseException
+  {
+    require(4);
+    int out = nextInt();
+    if (out < 0)
+      throw new ParseException("Bad array length " + out, 0);
+    return out;
+  }
+
+  /**
+   * Make a run of values available.
+   *
+   * @param width is the size of each value in bytes.
+   * @param max is the maximum number of values requested.
+   * @return the number of values that can be read without checks, or 0 if the
+   * contents are exhausted.
+   * @throws ParseException if the compressed data is corrupt.
+   */
+  int next(int width, int max) throws ParseException
+  {
+    if (limit - position < width)
+      fill();
+    return Math.min(max, (limit - position) / width);
+  }
+
+  short nextShort()
+  {
+    int p = position;
+    position = p + 2;
+    return (short) ((block[p] << 8) | (block[p + 1] & 0xff));
+  }
+
+  int nextInt()
+  {
+    int p = position;
+    position = p + 4;
+    return (block[p] << 24) | ((block[p + 1] & 0xff) << 16)
+            | ((block[p + 2] & 0xff) << 8) | (block[p + 3] & 0xff);
+  }
+
+  long nextLong()
+  {
+    long high = nextInt();
+    long low = nextInt() & 0xffffffffL;
+    return (high << 32) | low;
+  }
+
+  float nextFloat()
+  {
+    return Float.intBitsToFloat(nextInt());
+  }
+
+  double nextDouble()
+  {
+    return Double.longBitsToDouble(nextLong());
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private void require(int width) throws ParseException
+  {
+    if (next(width, 1) == 0)
+      throw new ParseException("Truncated array contents", 0);
+  }
+
+  /**
+   * Move any partial value to the start of the block and add more data.
+   */
+  private void fill() throws ParseException
+  {
+    int remaining = limit - position;
+    System.arraycopy(block, position, block, 0, remaining);
+    position = 0;
+    limit = remaining;
+    if (inflater == null)
+    {
+      limit += decode(block, limit, block.length - limit);
+      return;
+    }
+
+    try
+    {
+      while (limit < block.length && !inflater.finished())
+      {
+        if (inflater.needsInput())
+        {
+          int n = decode(encoded, 0, encoded.length);
+          if (n == 0)
+            break;
+          inflater.setInput(encoded, 0, n);
+        }
+        int n = inflater.inflate(block, limit, block.length - limit);
+        if (n == 0 && inflater.needsDictionary())
+          throw new ParseException("Unsupported compressed contents", cursor);
+        limit += n;
+      }
+    }
+    catch (DataFormatException ex)
+    {
+      throw (ParseException) new ParseException("Corrupt compressed contents", cursor).initCause(ex);
+    }
+  }
+
+  /**
+   * Decode base64 characters into a buffer.
+   *
+   * @param out is the destination.
+   * @param offset is the start in the destination.
+   * @param length is the space available, at least 3 bytes.
+   * @return the number of bytes produced.
+   * @throws ParseException if the contents are not base64.
+   */
+  private int decode(byte[] out, int offset, int length) throws ParseException
+  {
+    final String in = this.contents;
+    final int end = in.length();
+    int o = offset;
+    int quads = length / 3;
+    while (quads > 0 && cursor < end)
+    {
+      int accumulator = 0;
+      int shift = 18;
+      while (shift >= 0 && cursor < end)
+      {
+        char c = in.charAt(cursor);
+        if (c == '=')
+          break;
+        int b = (c < 128) ? DECODE[c] : -1;
+        if (b < 0)
+          throw new ParseException("Illegal base64 character " + c, cursor);
+        accumulator |= b << shift;
+        shift -= 6;
+        cursor++;
+      }
+
+      // Full quad
+      if (shift < 0)
+      {
+        out[o++] = (byte) (accumulator >> 16);
+        out[o++] = (byte) (accumulator >> 8);
+        out[o++] = (byte) accumulator;
+        quads--;
+        continue;
+      }
+
+      // Final partial quad with optional padding
+      if (shift == 6)
+        out[o++] = (byte) (accumulator >> 16);
+      else if (shift == 0)
+      {
+        out[o++] = (byte) (accumulator >> 16);
+        out[o++] = (byte) (accumulator >> 8);
+      }
+      else if (shift != 18)
+        throw new ParseException("Bad base64 length", cursor);
+      cursor = end;
+    }
+    return o - offset;
+  }
+//</editor-fold>
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility;
+
+import gov.llnl.utility.annotation.Internal;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.util.zip.Deflater;
+
+/**
+ * Streaming encoder for the arrays produced by ArrayEncoding.
+ *
+ * Values are packed into a fixed block which is deflated and base64 encoded
+ * as it fills. The output is identical to packing the whole array, deflating
+ * and then encoding. Values are written in runs with {@link #next(int, int)}
+ * followed by the unchecked put methods.
+ */
+@Internal
+class EncodedArrayWriter
+{
+  final static int BLOCK_SIZE = 8192;
+  private final static char[] ENCODE
+          = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+  private final Deflater deflater = new Deflater();
+  private final byte[] block;
+  private int position;
+  private final byte[] deflated = new byte[BLOCK_SIZE];
+  private final char[] chars = new char[BLOCK_SIZE / 3 * 4 + 4];
+  private final StringBuilder out;
+
+  // Bytes held back until a full group of three is available
+  private int carry;
+  private int carried;
+
+  /**
+   * Create a new writer.
+   *
+   * @param type is the type code for the contents.
+   * @param length is the number of bytes of contents, used to size the
+   * buffers.
+   */
+  EncodedArrayWriter(String type, int length)
+  {
+    byte[] typeB = type.getBytes(UTF_8);
+    int total = typeB.length + length;
+    this.block = new byte[Math.min(BLOCK_SIZE, Math.max(total, 16))];
+    this.out = new StringBuilder(Math.min(total, 1 << 20) / 3 * 4 + 16);
+    System.arraycopy(typeB, 0, block, 0, typeB.length);
+    position = typeB.length;
+  }
+
+  /**
+   * Make space for a run of values.
+   *
+   * @param width is the size of each value in bytes.
+   * @param max is the maximum number of values to be written.
+   * @return the number of values that can be written without checks.
+   */
+  int next(int width, int max)
+  {
+    if (block.length - position < width)
+      flush();
+    return Math.min(max, (block.length - position) / width);
+  }
+
+  void putShort(short v)
+  {
+    int p = position;
+    block[p] = (byte) (v >> 8);
+    block[p + 1] = (byte) v;
+    position = p + 2;
+  }
+
+  void putInt(int v)
+  {
+    int p = position;
+    block[p] = (byte) (v >> 24);
+    block[p + 1] = (byte) (v >> 16);
+    block[p + 2] = (byte) (v >> 8);
+    block[p + 3] = (byte) v;
+    position = p + 4;
+  }
+
+  void putLong(long v)
+  {
+    putInt((int) (v >> 32));
+    putInt((int) v);
+  }
+
+  void putFloat(float v)
+  {
+    putInt(Float.floatToRawIntBits(v));
+  }
+
+  void putDouble(double v)
+  {
+    putLong(Double.doubleToRawLongBits(v));
+  }
+
+  /**
+   * Complete the encoding.
+   *
+   * @return the encoded string.
+   */
+  String finish()
+  {
+    try
+    {
+      flush();
+      deflater.finish();
+      while (!deflater.finished())
+        encode(deflater.deflate(deflated));
+
+      // Pad the final group
+      if (carried == 1)
+      {
+        out.append(ENCODE[(carry >> 2) & 0x3f]);
+        out.append(ENCODE[(carry << 4) & 0x3f]);
+        out.append("==");
+      }
+      else if (carried == 2)
+      {
+        out.append(ENCODE[(carry >> 10) & 0x3f]);
+        out.append(ENCODE[(carry >> 4) & 0x3f]);
+        out.append(ENCODE[(carry << 2) & 0x3f]);
+        out.append('=');
+      }
+      return out.toString();
+    }
+    finally
+    {
+      deflater.end();
+    }
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private void flush()
+  {
+    deflater.setInput(block, 0, position);
+    while (!deflater.needsInput())
+      encode(deflater.deflate(deflated));
+    position = 0;
+  }
+
+  /**
+   * Base64 encode the deflated bytes.
+   *
+   * @param length is the number of bytes in the deflated buffer.
+   */
+  private void encode(int length)
+  {
+    int i = 0;
+    int n = 0;
+
+    // Complete the group held over from the last call
+    while (carried > 0 && carried < 3 && i < length)
+    {
+      carry = (carry << 8) | (deflated[i++] & 0xff);
+      carried++;
+    }
+    if (carried == 3)
+    {
+      n = encodeGroup(carry, n);
+      carried = 0;
+      carry = 0;
+    }
+
+    for (; i + 3 <= length; i += 3)
+    {
+      int group = ((deflated[i] & 0xff) << 16) | ((deflated[i + 1] & 0xff) << 8) | (deflated[i + 2] & 0xff);
+      n = encodeGroup(group, n);
+    }
+    out.append(chars, 0, n);
+
+    for (; i < length; ++i)
+    {
+      carry = (carry << 8) | (deflated[i] & 0xff);
+      carried++;
+    }
+  }
+
+  private int encodeGroup(int group, int n)
+  {
+    chars[n] = ENCODE[(group >> 18) & 0x3f];
+    chars[n + 1] = ENCODE[(group >> 12) & 0x3f];
+    chars[n + 2] = ENCODE[(group >> 6) & 0x3f];
+    chars[n + 3] = ENCODE[group & 0x3f];
+    return n + 4;
+  }
+//</editor-fold>
+}
@@ -13,8 +13,6 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
-import java.nio.ShortBuffer;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -63,24 +61,16 @@ public class ArrayEncoding
     if (values == null)
       return "";
 
-    // Pack in a byte buffer
-    int length = values.length;
-    byte[] typeB = "[S;".getBytes(UTF_8);
-    ByteBuffer bb = ByteBuffer.allocate(typeB.length + 4 + length * 2);
-    bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put(typeB);
-    bb.putInt(values.length);
-    for (int i = 0; i < length; i++)
+    EncodedArrayWriter out = new EncodedArrayWriter("[S;", 4 + values.length * 2);
+    out.next(4, 1);
+    out.putInt(values.length);
+    for (int i = 0; i < values.length;)
     {
-      bb.putShort(values[i]);
+      int n = out.next(2, values.length - i);
+      for (int j = 0; j < n; ++j)
+        out.putShort(values[i++]);
     }
-    int outSize = bb.capacity();
-    byte[] out = bb.array();
-
-    out = deflate(out);
-    outSize = out.length;
-
-    return base64Encode(out, 0, outSize);
+    return out.finish();
   }
 
   /**
@@ -94,24 +84,16 @@ public class ArrayEncoding
     if (values == null)
       return "";
 
-    // Pack in a byte buffer
-    int length = values.length;
-    byte[] typeB = "[I;".getBytes(UTF_8);
-    ByteBuffer bb = ByteBuffer.allocate(typeB.length + 4 + length * 4);
-    bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put(typeB);
-    bb.putInt(values.length);
-    for (int i = 0; i < length; i++)
+    EncodedArrayWriter out = new EncodedArrayWriter("[I;", 4 + values.length * 4);
+    out.next(4, 1);
+    out.putInt(values.length);
+    for (int i = 0; i < values.length;)
     {
-      bb.putInt(values[i]);
+      int n = out.next(4, values.length - i);
+      for (int j = 0; j < n; ++j)
+        out.putInt(values[i++]);
     }
-    int outSize = bb.capacity();
-    byte[] out = bb.array();
-
-    out = deflate(out);
-    outSize = out.length;
-
-    return base64Encode(out, 0, outSize);
+    return out.finish();
   }
 
   /**
@@ -125,24 +107,16 @@ public class ArrayEncoding
     if (values == null)
       return "";
 
-    // Pack in a byte buffer
-    int length = values.length;
-    byte[] typeB = "[L;".getBytes(UTF_8);
-    ByteBuffer bb = ByteBuffer.allocate(typeB.length + 4 + length * 8);
-    bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put(typeB);
-    bb.putInt(values.length);
-    for (int i = 0; i < length; i++)
+    EncodedArrayWriter out = new EncodedArrayWriter("[L;", 4 + values.length * 8);
+    out.next(4, 1);
+    out.putInt(values.length);
+    for (int i = 0; i < values.length;)
     {
-      bb.putLong(values[i]);
+      int n = out.next(8, values.length - i);
+      for (int j = 0; j < n; ++j)
+        out.putLong(values[i++]);
     }
-    int outSize = bb.capacity();
-    byte[] out = bb.array();
-
-    out = deflate(out);
-    outSize = out.length;
-
-    return base64Encode(out, 0, outSize);
+    return out.finish();
   }
 
   /**
@@ -156,24 +130,16 @@ public class ArrayEncoding
     if (values == null)
       return "";
 
-    // Pack in a byte buffer
-    int length = values.length;
-    byte[] typeB = "[F;".getBytes(UTF_8);
-    ByteBuffer bb = ByteBuffer.allocate(typeB.length + 4 + length * 4);
-    bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put(typeB);
-    bb.putInt(values.length);
-    for (int i = 0; i < length; i++)
+    EncodedArrayWriter out = new EncodedArrayWriter("[F;", 4 + values.length * 4);
+    out.next(4, 1);
+    out.putInt(values.length);
+    for (int i = 0; i < values.length;)
     {
-      bb.putFloat(values[i]);
+      int n = out.next(4, values.length - i);
+      for (int j = 0; j < n; ++j)
+        out.putFloat(values[i++]);
     }
-    int outSize = bb.capacity();
-    byte[] out = bb.array();
-
-    out = deflate(out);
-    outSize = out.length;
-
-    return base64Encode(out, 0, outSize);
+    return out.finish();
   }
 
   /**
@@ -187,29 +153,33 @@ public class ArrayEncoding
     if (values == null)
       return "";
 
-    // Pack in a byte buffer
-    int length = values.length;
-    byte[] typeB = "[D;".getBytes(UTF_8);
-    ByteBuffer bb = ByteBuffer.allocate(typeB.length + 4 + length * 8);
-    bb.order(ByteOrder.BIG_ENDIAN);
-    bb.put(typeB);
-    bb.putInt(values.length);
-    for (int i = 0; i < length; i++)
+    EncodedArrayWriter out = new EncodedArrayWriter("[D;", 4 + values.length * 8);
+    out.next(4, 1);
+    out.putInt(values.length);
+    for (int i = 0; i < values.length;)
     {
-      bb.putDouble(values[i]);
+      int n = out.next(8, values.length - i);
+      for (int j = 0; j < n; ++j)
+        out.putDouble(values[i++]);
     }
-    int outSize = bb.capacity();
-    byte[] out = bb.array();
-
-    out = deflate(out);
-    outSize = out.length;
-
-    return base64Encode(out, 0, outSize);
+    return out.finish();
   }
 
-  public static String encodeDoublesAsFloats(double[] data)
+  public static String encodeDoublesAsFloats(double[] values)
   {
-    return encodeFloats(convertToFloats(data));
+    if (values == null)
+      return "";
+
+    EncodedArrayWriter out = new EncodedArrayWriter("[F;", 4 + values.length * 4);
+    out.next(4, 1);
+    out.putInt(values.length);
+    for (int i = 0; i < values.length;)
+    {
+      int n = out.next(4, values.length - i);
+      for (int j = 0; j < n; ++j)
+        out.putFloat((float) values[i++]);
+    }
+    return out.finish();
   }
 
   public static float[] convertToFloats(double[] values)
@@ -287,76 +257,70 @@ public class ArrayEncoding
         return parseFloats(contents);
       throw new ParseException("unknown format", 1);
     }
-    byte[] in = base64Decode(contents);
-    //byte[] in = DatatypeConverter.parseBase64Binary(contents);
-    if (in[0] != '[' && in[0] == 0x78)
-    {
-      in = inflate(in);
-    }
 
-    ByteBuffer bb = ByteBuffer.wrap(in);
-    bb.order(ByteOrder.BIG_ENDIAN);
-    byte[] typeB = new byte[3];
-    bb.get(typeB);
-    String type = new String(typeB);
-    if ("[F;".equals(type))
-    {
-      int size = bb.getInt();
-      int available = Math.min(size, bb.remaining() / 4);
-      FloatBuffer ib = bb.asFloatBuffer();
-      float[] tmp = new float[available];
-      ib.get(tmp);
-      float[] out = new float[size];
-      for (int i = 0; i < available; i++)
+    EncodedArrayReader in = new EncodedArrayReader(contents);
+    try
+    {
+      String type = in.getType(3);
+      int size = in.getCount();
+      if ("[F;".equals(type))
       {
-        out[i] = tmp[i];
+        float[] out = new float[size];
+        for (int i = 0; i < size;)
+        {
+          int n = in.next(4, size - i);
+          if (n == 0)
+            break;
+          for (int j = 0; j < n; ++j)
+            out[i++] = in.nextFloat();
+        }
+        return out;
       }
-      return out;
-    }
-    if ("[D;".equals(type))
-    {
-      int size = bb.getInt();
-      int available = Math.min(size, bb.remaining() / 8);
-      DoubleBuffer ib = bb.asDoubleBuffer();
-      double[] tmp = new double[available];
-      ib.get(tmp);
-      float[] out = new float[size];
-      for (int i = 0; i < available; i++)
+      if ("[D;".equals(type))
       {
-        out[i] = (float) tmp[i];
+        float[] out = new float[size];
+        for (int i = 0; i < size;)
+        {
+          int n = in.next(8, size - i);
+          if (n == 0)
+            break;
+          for (int j = 0; j < n; ++j)
+            out[i++] = (float) in.nextDouble();
+        }
+        return out;
       }
-      return out;
-    }
-    if ("[I;".equals(type))
-    {
-      int size = bb.getInt();
-      int available = Math.min(size, bb.remaining() / 4);
-      IntBuffer ib = bb.asIntBuffer();
-      int[] tmp = new int[available];
-      ib.get(tmp);
-      float[] out = new float[size];
-      for (int i = 0; i < available; i++)
+      if ("[I;".equals(type))
       {
-        out[i] = tmp[i];
+        float[] out = new float[size];
+        for (int i = 0; i < size;)
+        {
+          int n = in.next(4, size - i);
+          if (n == 0)
+            break;
+          for (int j = 0; j < n; ++j)
+            out[i++] = in.nextInt();
+        }
+        return out;
       }
-      return out;
-    }
-    if ("[S;".equals(type))
-    {
-      int size = bb.getInt();
-      int available = Math.min(size, bb.remaining() / 2);
-
-      ShortBuffer ib = bb.asShortBuffer();
-      short[] tmp = new short[available];
-      ib.get(tmp);
-      float[] out = new float[size];
-      for (int i = 0; i < available; i++)
+      if ("[S;".equals(type))
       {
-        out[i] = tmp[i];
+        float[] out = new float[size];
+        for (int i = 0; i < size;)
+        {
+          int n = in.next(2, size - i);
+          if (n == 0)
+            break;
+          for (int j = 0; j < n; ++j)
+            out[i++] = in.nextShort();
+        }
+        return out;
       }
-      return out;
+      throw new ParseException("Unknown data format", 1);
+    }
+    finally
+    {
+      in.close();
     }
-    throw new ParseException("Unknown data format", 1);
   }
 
   static public double[] decodeDoubles(String contents) throws ParseException
@@ -369,70 +333,70 @@ public class ArrayEncoding
         return parseDoubles(contents);
       throw new ParseException("unknown format", 1);
     }
-    byte[] in = base64Decode(contents);
-    //byte[] in = DatatypeConverter.parseBase64Binary(contents);
-    if (in[0] != '[' && in[0] == 0x78)
-    {
-      in = inflate(in);
-    }
 
-    ByteBuffer bb = ByteBuffer.wrap(in);
-    bb.order(ByteOrder.BIG_ENDIAN);
-    byte[] typeB = new byte[3];
-    bb.get(typeB);
-    String type = new String(typeB);
-    if ("[F;".equals(type))
-    {
-      int size = bb.getInt();
-      int available = Math.min(size, bb.remaining() / 4);
-      FloatBuffer ib = bb.asFloatBuffer();
-      float[] tmp = new float[available];
-      ib.get(tmp);
-      double[] out = new double[size];
-      for (int i = 0; i < available; i++)
+    EncodedArrayReader in = new EncodedArrayReader(contents);
+    try
+    {
+      String type = in.getType(3);
+      int size = in.getCount();
+      if ("[F;".equals(type))
       {
-        out[i] = tmp[i];
+        double[] out = new double[size];
+        for (int i = 0; i < size;)
+        {
+          int n = in.next(4, size - i);
+          if (n == 0)
+            break;
+          for (int j = 0; j < n; ++j)
+            out[i++] = in.nextFloat();
+        }
+        return out;
       }
-      return out;
-    }
-    if ("[D;".equals(type))
-    {
-      int size = bb.getInt();
-      int available = Math.min(size, bb.remaining() / 8);
-      double[] out = new double[size];
-      bb.asDoubleBuffer().get(out, 0, available);
-      return out;
-    }
-    if ("[I;".equals(type))
-    {
-      int size = bb.getInt();
-      int available = Math.min(size, bb.remaining() / 4);
-      IntBuffer ib = bb.asIntBuffer();
-      int[] tmp = new int[available];
-      ib.get(tmp);
-      double[] out = new double[size];
-      for (int i = 0; i < available; i++)
+      if ("[D;".equals(type))
       {
-        out[i] = tmp[i];
+        double[] out = new double[size];
+        for (int i = 0; i < size;)
+        {
+          int n = in.next(8, size - i);
+          if (n == 0)
+            break;
+          for (int j = 0; j < n; ++j)
+            out[i++] = in.nextDouble();
+        }
+        return out;
       }
-      return out;
-    }
-    if ("[S;".equals(type))
-    {
-      int size = bb.getInt();
-      int available = Math.min(size, bb.remaining() / 2);
-
-      ShortBuffer ib = bb.asShortBuffer();
-      short[] tmp = new short[available];
-      ib.get(tmp);
-      double[] out = new double[size];
-      for (int i = 0; i < available; i++)
+      if ("[I;".equals(type))
       {
-        out[i] = tmp[i];
+        double[] out = new double[size];
+        for (int i = 0; i < size;)
+        {
+          int n = in.next(4, size - i);
+          if (n == 0)
+            break;
+          for (int j = 0; j < n; ++j)
+            out[i++] = in.nextInt();
+        }
+        return out;
       }
-      return out;
+      if ("[S;".equals(type))
+      {
+        double[] out = new double[size];
+        for (int i = 0; i < size;)
+        {
+          int n = in.next(2, size - i);
+          if (n == 0)
+            break;
+          for (int j = 0; j < n; ++j)
+            out[i++] = in.nextShort();
+        }
+        return out;
+      }
+      throw new ParseException("Unknown data format", 1);
+    }
+    finally
+    {
+      in.close();
     }
-    throw new ParseException("Unknown data format", 1);
   }
 
   public static int[] decodeIntegers(String contents) throws ParseException
@@ -446,39 +410,30 @@ public class ArrayEncoding
       throw new ParseException("unknown format", 1);
     }
 
-    byte[] in = null;
+    EncodedArrayReader in = new EncodedArrayReader(contents);
     try
     {
-      in = base64Decode(contents);
-    }
-    catch (IllegalArgumentException ex)
-    {
-      throw new ParseException("Unable to parse encoded integers\n   contents " + contents, 0);
-    }
-    //byte[] in = DatatypeConverter.parseBase64Binary(contents);
-    if (in[0] != '[' && in[0] == 0x78)
-    {
-      in = inflate(in);
-    }
-
-    ByteBuffer bb = ByteBuffer.wrap(in);
-    bb.order(ByteOrder.BIG_ENDIAN);
-    byte[] typeB = new byte[3];
-    bb.get(typeB);
-    String type = new String(typeB);
-    if ("[I;".equals(type))
-    {
-      int size = bb.getInt();
-      int available = Math.min(size, bb.remaining() / 4);
-      int[] out = new int[size];
-      for (int i = 0; i < available; i++)
+      String type = in.getType(3);
+      int size = in.getCount();
+      if ("[I;".equals(type))
       {
-        out[i] = bb.getInt();
+        int[] out = new int[size];
+        for (int i = 0; i < size;)
+        {
+          int n = in.next(4, size - i);
+          if (n == 0)
+            break;
+          for (int j = 0; j < n; ++j)
+            out[i++] = in.nextInt();
+        }
+        return out;
       }
-      return out;
+      return null;
+    }
+    finally
+    {
+      in.close();
     }
-
-    return null;
   }
 
   public static long[] decodeLongs(String contents) throws ParseException
@@ -492,39 +447,30 @@ public class ArrayEncoding
       throw new ParseException("unknown format", 1);
     }
 
-    byte[] in = null;
+    EncodedArrayReader in = new EncodedArrayReader(contents);
     try
     {
-      in = base64Decode(contents);
-    }
-    catch (IllegalArgumentException ex)
-    {
-      throw new ParseException("Unable to parse encoded integers\n   contents " + contents, 0);
-    }
-    //byte[] in = DatatypeConverter.parseBase64Binary(contents);
-    if (in[0] != '[' && in[0] == 0x78)
-    {
-      in = inflate(in);
-    }
-
-    ByteBuffer bb = ByteBuffer.wrap(in);
-    bb.order(ByteOrder.BIG_ENDIAN);
-    byte[] typeB = new byte[3];
-    bb.get(typeB);
-    String type = new String(typeB);
-    if ("[L;".equals(type))
-    {
-      int size = bb.getInt();
-      int available = Math.min(size, bb.remaining() / 4);
-      long[] out = new long[size];
-      for (int i = 0; i < available; i++)
+      String type = in.getType(3);
+      int size = in.getCount();
+      if ("[L;".equals(type))
       {
-        out[i] = bb.getLong();
+        long[] out = new long[size];
+        for (int i = 0; i < size;)
+        {
+          int n = in.next(8, size - i);
+          if (n == 0)
+            break;
+          for (int j = 0; j < n; ++j)
+            out[i++] = in.nextLong();
+        }
+        return out;
       }
-      return out;
+      return null;
+    }
+    finally
+    {
+      in.close();
     }
-
-    return null;
   }
 
 //<editor-fold desc="double-array">
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Utilities for running a batch of tasks on an executor and waiting for all of
+ * them to complete.
+ *
+ * If any task fails or the waiting thread is interrupted, the tasks which have
+ * not yet completed are cancelled so that the executor is not left working on
+ * a batch whose result will be discarded.
+ */
+public class ExecutorUtilities
+{
+
+  /**
+   * Task applied to a block of indices.
+   */
+  @FunctionalInterface
+  public interface BlockTask
+  {
+    /**
+     * Process a block.
+     *
+     * @param begin is the first index (inclusive).
+     * @param end is the last index (exclusive).
+     */
+    void apply(int begin, int end);
+  }
+
+  /**
+   * Submit tasks and wait for the results.
+   *
+   * @param <T>
+   * @param executor is used to run the tasks.
+   * @param tasks are the tasks to submit.
+   * @return the results in the same order as the tasks.
+   * @throws InterruptedException if interrupted while waiting.
+   * @throws ExecutionException holding the failure of the first failed task.
+   */
+  public static <T> List<T> invokeAll(ExecutorService executor, List<? extends Callable<T>> tasks)
+          throws InterruptedException, ExecutionException
+  {
+    List<Future<T>> futures = new ArrayList<>(tasks.size());
+    List<T> out = new ArrayList<>(tasks.size());
+    try
+    {
+      for (Callable<T> task : tasks)
+        futures.add(executor.submit(task));
+      for (Future<T> future : futures)
+        out.add(future.get());
+    }
+    catch (InterruptedException | ExecutionException | RuntimeException ex)
+    {
+      futures.forEach(p -> p.cancel(true));
+      throw ex;
+    }
+    return out;
+  }
+
+  /**
+   * Apply a task to blocks of indices in parallel.
+   *
+   * If the work fits in a single block it is run on the calling thread.
+   *
+   * @param n is the number of indices.
+   * @param blockSize is the number of indices in each task.
+   * @param executor is used to run the blocks.
+   * @param task is applied to each block.
+   * @throws RuntimeException if interrupted, or the exception thrown by a
+   * task.
+   */
+  public static void executeBlocks(int n, int blockSize, ExecutorService executor, BlockTask task)
+  {
+    if (n <= blockSize)
+    {
+      if (n > 0)
+        task.apply(0, n);
+      return;
+    }
+    List<Callable<Void>> tasks = new ArrayList<>((n + blockSize - 1) / blockSize);
+    for (int start = 0; start < n; start += blockSize)
+    {
+      int begin = start;
+      int end = Math.min(n, start + blockSize);
+      tasks.add(() ->
+      {
+        task.apply(begin, end);
+        return null;
+      });
+    }
+    try
+    {
+      invokeAll(executor, tasks);
+    }
+    catch (InterruptedException ex)
+    {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted", ex);
+    }
+    catch (ExecutionException ex)
+    {
+      throw unwrap(ex);
+    }
+  }
+
+  /**
+   * Apply a task to each index in parallel.
+   *
+   * @param n is the number of indices.
+   * @param blockSize is the number of indices in each task.
+   * @param executor is used to run the blocks.
+   * @param task is applied to each index.
+   * @throws RuntimeException if interrupted, or the exception thrown by a
+   * task.
+   */
+  public static void executeEach(int n, int blockSize, ExecutorService executor, IntConsumer task)
+  {
+    executeBlocks(n, blockSize, executor, (begin, end) ->
+    {
+      for (int i = begin; i < end; ++i)
+        task.accept(i);
+    });
+  }
+
+  /**
+   * Get the unchecked exception for the failure of a task.
+   *
+   * @param ex is the failure.
+   * @return the cause if it is unchecked, otherwise the cause wrapped in a
+   * RuntimeException.
+   * @throws Error if the task failed with an error.
+   */
+  public static RuntimeException unwrap(ExecutionException ex)
+  {
+    Throwable cause = ex.getCause();
+    if (cause instanceof Error)
+      throw (Error) cause;
+    if (cause instanceof RuntimeException)
+      return (RuntimeException) cause;
+    return new RuntimeException(cause);
+  }
+}
@@ -67,6 +67,46 @@ public class BoolEncodingImpl extends BooleanEncoding
     baos.write(result ? 1 : 0);
   }
 
+  @Override
+  public int sizeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    if (isLegacySerializer())
+      return sink.sizeLegacy(this, field, obj);
+    if (field.getter == null)
+      return 0;
+    if (field.getter instanceof Function
+            && ((Function) field.getter).apply(obj) == null)
+      return 0;
+    return ((field.id != -1) ? 1 : 0) + 1;
+  }
+
+  @Override
+  public void writeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    if (isLegacySerializer())
+    {
+      sink.writeLegacy();
+      return;
+    }
+    if (field.getter == null)
+      return;
+    boolean result;
+    if (field.getter instanceof Function)
+    {
+      Object value = ((Function) field.getter).apply(obj);
+      if (value == null)
+        return;
+      result = value == Boolean.TRUE;
+    }
+    else
+      result = ((Predicate) field.getter).test(obj);
+    if (field.id != -1)
+      sink.write((field.id << 3));
+    sink.write(result ? 1 : 0);
+  }
+
   @Override
   public int getWireType()
   {
@@ -56,7 +56,27 @@ class ByteBufferSource implements ByteSource
     if (!data.hasRemaining())
       return -1;
     offset++;
-    return data.get();
+    return data.get() & 0xff;
+  }
+
+  @Override
+  public int getFixed32() throws ProtoException
+  {
+    if (data.remaining() < Integer.BYTES)
+      throw new ProtoException("truncated fixed int field", position());
+    offset += Integer.BYTES;
+    int v = data.getInt();
+    return (data.order() == ByteOrder.LITTLE_ENDIAN) ? v : Integer.reverseBytes(v);
+  }
+
+  @Override
+  public long getFixed64() throws ProtoException
+  {
+    if (data.remaining() < Long.BYTES)
+      throw new ProtoException("truncated fixed int field", position());
+    offset += Long.BYTES;
+    long v = data.getLong();
+    return (data.order() == ByteOrder.LITTLE_ENDIAN) ? v : Long.reverseBytes(v);
   }
 
   @Override
@@ -8,6 +8,7 @@ package gov.llnl.utility.proto;
 
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  *
@@ -100,4 +101,32 @@ public interface ByteSource
   public ByteBuffer request(int bytes);
 
   int remaining();
+
+  /**
+   * Get a little endian fixed width int.
+   *
+   * @return the value.
+   * @throws ProtoException if the source is truncated.
+   */
+  default int getFixed32() throws ProtoException
+  {
+    ByteBuffer b = request(Integer.BYTES);
+    if (b.remaining() != Integer.BYTES)
+      throw new ProtoException("truncated fixed int field", position());
+    return b.order(ByteOrder.LITTLE_ENDIAN).getInt();
+  }
+
+  /**
+   * Get a little endian fixed width long.
+   *
+   * @return the value.
+   * @throws ProtoException if the source is truncated.
+   */
+  default long getFixed64() throws ProtoException
+  {
+    ByteBuffer b = request(Long.BYTES);
+    if (b.remaining() != Long.BYTES)
+      throw new ProtoException("truncated fixed int field", position());
+    return b.order(ByteOrder.LITTLE_ENDIAN).getLong();
+  }
 }
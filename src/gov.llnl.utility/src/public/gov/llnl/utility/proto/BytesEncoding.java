@@ -23,6 +23,18 @@ public class BytesEncoding extends MessageEncoding<byte[]>
     return obj;
   }
 
+  @Override
+  protected int sizeContents(ProtoSink sink, byte[] obj)
+  {
+    return obj.length;
+  }
+
+  @Override
+  protected void writeContents(ProtoSink sink, byte[] obj)
+  {
+    sink.writeBytes(obj);
+  }
+
   @Override
   public byte[] parseContents(ProtoContext context, ByteSource bs)
           throws ProtoException
@@ -61,17 +61,52 @@ class CollectionEncoding<T> implements ProtoEncoding
     if (result == null)
       return;
 
-    ProtoField field1 = new ProtoField();
-    field1.id = field.id;
-    field1.encoding = embedded.encoding;
-    field1.getter = getter;
-
+    ProtoField field1 = newElementField(field);
     for (T value : result)
     {
       embedded.encoding.serializeField(field1, baos, value);
     }
   }
 
+  @Override
+  public int sizeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    Iterable<T> result = (Iterable<T>) ((Function) field.getter).apply(obj);
+    if (result == null)
+      return 0;
+    ProtoField field1 = newElementField(field);
+    int size = 0;
+    for (T value : result)
+    {
+      size += embedded.encoding.sizeField(sink, field1, value);
+    }
+    return size;
+  }
+
+  @Override
+  public void writeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    Iterable<T> result = (Iterable<T>) ((Function) field.getter).apply(obj);
+    if (result == null)
+      return;
+    ProtoField field1 = newElementField(field);
+    for (T value : result)
+    {
+      embedded.encoding.writeField(sink, field1, value);
+    }
+  }
+
+  private ProtoField newElementField(ProtoField field)
+  {
+    ProtoField field1 = new ProtoField();
+    field1.id = field.id;
+    field1.encoding = embedded.encoding;
+    field1.getter = getter;
+    return field1;
+  }
+
   @Override
   public void parseFinish(ProtoContext context, ProtoField field, Object obj)
   {
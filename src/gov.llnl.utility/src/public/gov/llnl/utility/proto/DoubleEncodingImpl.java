@@ -7,8 +7,6 @@
 package gov.llnl.utility.proto;
 
 import java.io.ByteArrayOutputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.ObjDoubleConsumer;
@@ -28,12 +26,11 @@ class DoubleEncodingImpl extends DoubleEncoding
   {
     if (type != 1)
       throw new ProtoException("bad wire type", bs.position());
-    ByteBuffer b= bs.request(Double.BYTES);
-    b.order(ByteOrder.LITTLE_ENDIAN);
+    double value = Double.longBitsToDouble(bs.getFixed64());
     if (field.setter instanceof BiConsumer)
-      ((BiConsumer) field.setter).accept(o, b.getDouble());
+      ((BiConsumer) field.setter).accept(o, value);
     else
-      ((ObjDoubleConsumer) field.setter).accept(o, b.getDouble());
+      ((ObjDoubleConsumer) field.setter).accept(o, value);
   }
 
   @Override
@@ -52,10 +49,43 @@ class DoubleEncodingImpl extends DoubleEncoding
     // field and wire type
     if (field.id != -1)
       baos.write((field.id << 3) | 1);
-    ByteBuffer bb = ByteBuffer.allocate(Double.BYTES);
-    bb.order(ByteOrder.LITTLE_ENDIAN);
-    bb.putDouble(result);
-    baos.writeBytes(bb.array());
+    FixedInt64Encoding.encodeFixed64(baos, Double.doubleToRawLongBits(result));
+  }
+
+  @Override
+  public int sizeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    if (isLegacySerializer())
+      return sink.sizeLegacy(this, field, obj);
+    if (field.getter instanceof Function
+            && ((Function) field.getter).apply(obj) == null)
+      return 0;
+    return ((field.id != -1) ? 1 : 0) + Double.BYTES;
+  }
+
+  @Override
+  public void writeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    if (isLegacySerializer())
+    {
+      sink.writeLegacy();
+      return;
+    }
+    double result;
+    if (field.getter instanceof Function)
+    {
+      Object value = ((Function) field.getter).apply(obj);
+      if (value == null)
+        return;
+      result = (Double) value;
+    }
+    else
+      result = ((ToDoubleFunction) field.getter).applyAsDouble(obj);
+    if (field.id != -1)
+      sink.write((field.id << 3) | 1);
+    sink.writeFixed64(Double.doubleToRawLongBits(result));
   }
 
   @Override
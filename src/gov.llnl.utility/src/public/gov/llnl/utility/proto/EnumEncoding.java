@@ -86,4 +86,23 @@ public class EnumEncoding<T extends Enum> implements ProtoEncoding<T>
     Int32Encoding.encodeVInt32(baos, ordinal);
   }
 
+  @Override
+  public int sizeField(ProtoSink sink, ProtoField field, Object obj)
+  {
+    T v = (T) ((Function) field.getter).apply(obj);
+    if (v == null)
+      return 0;
+    return 1 + ProtoSink.sizeVInt32(this.lambda1.applyAsInt(v));
+  }
+
+  @Override
+  public void writeField(ProtoSink sink, ProtoField field, Object obj)
+  {
+    T v = (T) ((Function) field.getter).apply(obj);
+    if (v == null)
+      return;
+    sink.write((field.id << 3));
+    sink.writeVInt32(this.lambda1.applyAsInt(v));
+  }
+
 }
@@ -7,8 +7,6 @@
 package gov.llnl.utility.proto;
 
 import java.io.ByteArrayOutputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.ObjIntConsumer;
@@ -31,14 +29,11 @@ class FixedInt32Encoding extends Int32Encoding
     if (type != 5)
       throw new ProtoException("bad wire type", bs.position());
 
-    ByteBuffer b = bs.request(Integer.BYTES);
-    if (b.remaining() != Integer.BYTES)
-      throw new ProtoException("truncated fixed int field", bs.position());
-    b.order(ByteOrder.LITTLE_ENDIAN);
+    int value = bs.getFixed32();
     if (field.setter instanceof BiConsumer)
-      ((BiConsumer) field.setter).accept(o, b.getInt());
+      ((BiConsumer) field.setter).accept(o, value);
     else
-      ((ObjIntConsumer) field.setter).accept(o, b.getInt());
+      ((ObjIntConsumer) field.setter).accept(o, value);
   }
 
   @Override
@@ -58,10 +53,28 @@ class FixedInt32Encoding extends Int32Encoding
     // field and wire type
     if (field.id != -1)
       baos.write((field.id << 3) | 5);
-    ByteBuffer bb = ByteBuffer.allocate(4);
-    bb.order(ByteOrder.LITTLE_ENDIAN);
-    bb.putInt(result);
-    baos.writeBytes(bb.array());
+    encodeFixed32(baos, result);
+  }
+
+  @Override
+  int sizeValue(int v)
+  {
+    return Integer.BYTES;
+  }
+
+  @Override
+  void writeValue(ProtoSink sink, int v)
+  {
+    sink.writeFixed32(v);
+  }
+
+  static void encodeFixed32(ByteArrayOutputStream baos, int v)
+  {
+    for (int i = 0; i < Integer.BYTES; ++i)
+    {
+      baos.write(v);
+      v >>>= 8;
+    }
   }
 
   @Override
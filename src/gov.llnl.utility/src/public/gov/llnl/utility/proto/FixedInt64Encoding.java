@@ -7,8 +7,6 @@
 package gov.llnl.utility.proto;
 
 import java.io.ByteArrayOutputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.ObjLongConsumer;
@@ -30,14 +28,11 @@ public class FixedInt64Encoding extends Int64Encoding
   {
     if (type != 1)
       throw new ProtoException("bad wire type", bs.position());
-    ByteBuffer b = bs.request(Long.BYTES);
-    if (b.remaining() != Long.BYTES)
-      throw new ProtoException("truncated fixed int field", bs.position());
-    b.order(ByteOrder.LITTLE_ENDIAN);
+    long value = bs.getFixed64();
     if (field.setter instanceof BiConsumer)
-      ((BiConsumer) field.setter).accept(o, b.getLong());
+      ((BiConsumer) field.setter).accept(o, value);
     else
-      ((ObjLongConsumer) field.setter).accept(o, b.getLong());
+      ((ObjLongConsumer) field.setter).accept(o, value);
   }
 
   @Override
@@ -58,10 +53,28 @@ public class FixedInt64Encoding extends Int64Encoding
     if (field.id != -1)
 
       baos.write((field.id << 3) | 1);
-    ByteBuffer bb = ByteBuffer.allocate(Long.BYTES);
-    bb.order(ByteOrder.LITTLE_ENDIAN);
-    bb.putLong(result);
-    baos.writeBytes(bb.array());
+    encodeFixed64(baos, result);
+  }
+
+  @Override
+  int sizeValue(long v)
+  {
+    return Long.BYTES;
+  }
+
+  @Override
+  void writeValue(ProtoSink sink, long v)
+  {
+    sink.writeFixed64(v);
+  }
+
+  static void encodeFixed64(ByteArrayOutputStream baos, long v)
+  {
+    for (int i = 0; i < Long.BYTES; ++i)
+    {
+      baos.write((int) v);
+      v >>>= 8;
+    }
   }
 
   @Override
@@ -9,8 +9,6 @@ package gov.llnl.utility.proto;
 import gov.llnl.utility.proto.ProtoBuilder.ObjFloatConsumer;
 import gov.llnl.utility.proto.ProtoBuilder.ToFloatFunction;
 import java.io.ByteArrayOutputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -29,12 +27,11 @@ class FloatEncodingImpl extends FloatEncoding
   {
     if (type != 5)
       throw new ProtoException("bad wire type", bs.position());
-    ByteBuffer b = bs.request(Float.BYTES);
-    b.order(ByteOrder.LITTLE_ENDIAN);
+    float value = Float.intBitsToFloat(bs.getFixed32());
     if (field.setter instanceof BiConsumer)
-      ((BiConsumer) field.setter).accept(o, b.getFloat());
+      ((BiConsumer) field.setter).accept(o, value);
     else
-      ((ObjFloatConsumer) field.setter).accept(o, b.getFloat());
+      ((ObjFloatConsumer) field.setter).accept(o, value);
   }
 
   @Override
@@ -53,10 +50,43 @@ class FloatEncodingImpl extends FloatEncoding
     // field and wire type
     if (field.id != -1)
       baos.write((field.id << 3) | 5);
-    ByteBuffer bb = ByteBuffer.allocate(4);
-    bb.order(ByteOrder.LITTLE_ENDIAN);
-    bb.putFloat(result);
-    baos.writeBytes(bb.array());
+    FixedInt32Encoding.encodeFixed32(baos, Float.floatToRawIntBits(result));
+  }
+
+  @Override
+  public int sizeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    if (isLegacySerializer())
+      return sink.sizeLegacy(this, field, obj);
+    if (field.getter instanceof Function
+            && ((Function) field.getter).apply(obj) == null)
+      return 0;
+    return ((field.id != -1) ? 1 : 0) + Float.BYTES;
+  }
+
+  @Override
+  public void writeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    if (isLegacySerializer())
+    {
+      sink.writeLegacy();
+      return;
+    }
+    float result;
+    if (field.getter instanceof Function)
+    {
+      Object value = ((Function) field.getter).apply(obj);
+      if (value == null)
+        return;
+      result = (Float) value;
+    }
+    else
+      result = ((ToFloatFunction) field.getter).applyAsFloat(obj);
+    if (field.id != -1)
+      sink.write((field.id << 3) | 5);
+    sink.writeFixed32(Float.floatToRawIntBits(result));
   }
 
   @Override
@@ -57,6 +57,71 @@ public class Int32Encoding extends IntEncoding
     Int32Encoding.encodeVInt32(baos, result);
   }
 
+  @Override
+  public int sizeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    if (isLegacySerializer())
+      return sink.sizeLegacy(this, field, obj);
+    int result;
+    if (field.getter instanceof Function)
+    {
+      Object value = ((Function) field.getter).apply(obj);
+      if (value == null)
+        return 0;
+      result = (Integer) value;
+    }
+    else
+      result = ((ToIntFunction) field.getter).applyAsInt(obj);
+    return ((field.id != -1) ? 1 : 0) + sizeValue(result);
+  }
+
+  @Override
+  public void writeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    if (isLegacySerializer())
+    {
+      sink.writeLegacy();
+      return;
+    }
+    int result;
+    if (field.getter instanceof Function)
+    {
+      Object value = ((Function) field.getter).apply(obj);
+      if (value == null)
+        return;
+      result = (Integer) value;
+    }
+    else
+      result = ((ToIntFunction) field.getter).applyAsInt(obj);
+    if (field.id != -1)
+      sink.write((field.id << 3) | getWireType());
+    writeValue(sink, result);
+  }
+
+  /**
+   * Compute the number of bytes used by a value without the tag.
+   *
+   * @param v
+   * @return the number of bytes.
+   */
+  int sizeValue(int v)
+  {
+    return ProtoSink.sizeVInt32(v);
+  }
+
+  /**
+   * Write a value without the tag.
+   *
+   * @param sink
+   * @param v
+   */
+  void writeValue(ProtoSink sink, int v)
+  {
+    sink.writeVInt32(v);
+  }
+
   static int decodeVInt32(ByteSource is) throws ProtoException
   {
     int i = 0;
@@ -57,6 +57,71 @@ public class Int64Encoding extends LongEncoding
     Int64Encoding.encodeVInt64(baos, result);
   }
 
+  @Override
+  public int sizeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    if (isLegacySerializer())
+      return sink.sizeLegacy(this, field, obj);
+    long result;
+    if (field.getter instanceof Function)
+    {
+      Object value = ((Function) field.getter).apply(obj);
+      if (value == null)
+        return 0;
+      result = (Long) value;
+    }
+    else
+      result = ((ToLongFunction) field.getter).applyAsLong(obj);
+    return ((field.id != -1) ? 1 : 0) + sizeValue(result);
+  }
+
+  @Override
+  public void writeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    if (isLegacySerializer())
+    {
+      sink.writeLegacy();
+      return;
+    }
+    long result;
+    if (field.getter instanceof Function)
+    {
+      Object value = ((Function) field.getter).apply(obj);
+      if (value == null)
+        return;
+      result = (Long) value;
+    }
+    else
+      result = ((ToLongFunction) field.getter).applyAsLong(obj);
+    if (field.id != -1)
+      sink.write((field.id << 3) | getWireType());
+    writeValue(sink, result);
+  }
+
+  /**
+   * Compute the number of bytes used by a value without the tag.
+   *
+   * @param v
+   * @return the number of bytes.
+   */
+  int sizeValue(long v)
+  {
+    return ProtoSink.sizeVInt64(v);
+  }
+
+  /**
+   * Write a value without the tag.
+   *
+   * @param sink
+   * @param v
+   */
+  void writeValue(ProtoSink sink, long v)
+  {
+    sink.writeVInt64(v);
+  }
+
   static long decodeVInt64(ByteSource bs) throws ProtoException
   {
     long i = 0;
@@ -66,7 +131,7 @@ public class Int64Encoding extends LongEncoding
       int j = bs.get();
       if (j == -1)
         throw new ProtoException("truncated fixed int field", bs.position());
-      i |= (j & (0x7f)) << shift;
+      i |= (long) (j & (0x7f)) << shift;
       if ((j & 0x80) == 0)
         break;
       shift += 7;
@@ -83,7 +148,7 @@ public class Int64Encoding extends LongEncoding
       while (true)
       {
         int j = bs.get();
-        i |= (j & (0x7f)) << shift;
+        i |= (long) (j & (0x7f)) << shift;
         if ((j & 0x80) == 0)
           break;
         shift += 7;
@@ -10,6 +10,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -157,6 +160,190 @@ public abstract class MessageEncoding<T> implements ProtoEncoding<T>
     baos.writeBytes(contents);
   }
 
+  @Override
+  public int sizeField(ProtoSink sink, ProtoField field, Object obj) throws ProtoException
+  {
+    if (isLegacySerializer())
+      return ProtoEncoding.super.sizeField(sink, field, obj);
+
+    T result = (T) ((Function) field.getter).apply(obj);
+    if (result == null)
+      return 0;
+
+    // Reserve the slot before visiting the children so the sizes are consumed in order
+    int slot = sink.reserveSize();
+    int size = this.sizeContents(sink, result);
+    sink.setSize(slot, size);
+    return 1 + ProtoSink.sizeVInt32(size) + size;
+  }
+
+  @Override
+  public void writeField(ProtoSink sink, ProtoField field, Object obj) throws ProtoException
+  {
+    if (isLegacySerializer())
+    {
+      ProtoEncoding.super.writeField(sink, field, obj);
+      return;
+    }
+
+    T result = (T) ((Function) field.getter).apply(obj);
+    if (result == null)
+      return;
+
+    sink.write((field.id << 3) | 2);
+    sink.writeVInt32(sink.nextSize());
+    this.writeContents(sink, result);
+  }
+
+  /**
+   * Compute the size of the contents for the two pass serializer.
+   *
+   * This must visit the same fields in the same order as writeContents.
+   * Encodings that override serializeContents should also override this
+   * method and writeContents. Otherwise they must override
+   * isLegacySerializer so that the contents are produced by
+   * serializeContents and held until the writing pass.
+   *
+   * @param sink is the sink for the sizing pass.
+   * @param obj
+   * @return the size of the contents in bytes.
+   * @throws ProtoException
+   */
+  protected int sizeContents(ProtoSink sink, T obj) throws ProtoException
+  {
+    if (isLegacySerializer())
+    {
+      byte[] contents = this.serializeContents(null, obj);
+      if (contents == null)
+        contents = new byte[0];
+      sink.pushCached(contents);
+      return contents.length;
+    }
+
+    int size = 0;
+    for (ProtoField field : getFields())
+    {
+      if (field.id == -1)
+        continue;
+      if ((field.optional != null)
+              && (!field.optional.test(obj)))
+        continue;
+      size += field.encoding.sizeField(sink, field, obj);
+    }
+    return size;
+  }
+
+  /**
+   * Write the contents for the two pass serializer.
+   *
+   * @param sink is the sink for the writing pass.
+   * @param obj
+   * @throws ProtoException
+   */
+  protected void writeContents(ProtoSink sink, T obj) throws ProtoException
+  {
+    if (isLegacySerializer())
+    {
+      sink.writeBytes(sink.nextCached());
+      return;
+    }
+
+    for (ProtoField field : getFields())
+    {
+      if (field.id == -1)
+        continue;
+      if ((field.optional != null)
+              && (!field.optional.test(obj)))
+        continue;
+      field.encoding.writeField(sink, field, obj);
+    }
+  }
+
+  /**
+   * Compute the number of bytes required to serialize an object.
+   *
+   * @param value
+   * @return the size in bytes.
+   * @throws ProtoException
+   */
+  public int getSerializedSize(T value) throws ProtoException
+  {
+    return sizeContents(new ProtoSink(), value);
+  }
+
+  /**
+   * Serialize an object into a new heap ByteBuffer.
+   *
+   * The contents are written into a single buffer of the exact size without
+   * intermediate copies of nested messages.
+   *
+   * @param value
+   * @return a buffer ready to be read.
+   * @throws ProtoException
+   */
+  public ByteBuffer toByteBuffer(T value) throws ProtoException
+  {
+    return toByteBuffer(value, false);
+  }
+
+  /**
+   * Serialize an object into a new ByteBuffer.
+   *
+   * @param value
+   * @param direct is true if the buffer should be allocated outside the heap.
+   * @return a buffer ready to be read.
+   * @throws ProtoException
+   */
+  public ByteBuffer toByteBuffer(T value, boolean direct) throws ProtoException
+  {
+    ProtoSink sizing = new ProtoSink();
+    int size = sizeContents(sizing, value);
+    ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    writeContents(new ProtoSink(sizing, buffer), value);
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Serialize an object into an existing ByteBuffer.
+   *
+   * The contents are written starting at the current position of the buffer.
+   * The position is advanced by the number of bytes written.
+   *
+   * @param value
+   * @param buffer
+   * @return the number of bytes written.
+   * @throws ProtoException
+   * @throws BufferOverflowException if the buffer does not have
+   * space for the contents.
+   */
+  public int serializeTo(T value, ByteBuffer buffer) throws ProtoException
+  {
+    ProtoSink sizing = new ProtoSink();
+    int size = sizeContents(sizing, value);
+    if (buffer.remaining() < size)
+      throw new BufferOverflowException();
+    writeContents(new ProtoSink(sizing, buffer), value);
+    return size;
+  }
+
+  /**
+   * Serialize an object to a channel.
+   *
+   * The channel is not closed.
+   *
+   * @param channel
+   * @param value
+   * @throws IOException
+   * @throws ProtoException
+   */
+  public void saveChannel(WritableByteChannel channel, T value) throws IOException, ProtoException
+  {
+    ByteBuffer buffer = toByteBuffer(value);
+    while (buffer.hasRemaining())
+      channel.write(buffer);
+  }
+
   /**
    * Parse bytes into an object using an empty context.
    *
@@ -208,16 +395,16 @@ public abstract class MessageEncoding<T> implements ProtoEncoding<T>
 
   public void saveStream(OutputStream os, T t) throws IOException, ProtoException
   {
-    byte[] bytes = this.toBytes(t);
-    os.write(bytes);
+    ByteBuffer buffer = this.toByteBuffer(t);
+    os.write(buffer.array(), 0, buffer.limit());
   }
 
   public void saveStreamGZ(OutputStream os, T t) throws IOException, ProtoException
   {
     try ( GZIPOutputStream gos = new GZIPOutputStream(os))
     {
-      byte[] bytes = this.toBytes(t);
-      gos.write(bytes);
+      ByteBuffer buffer = this.toByteBuffer(t);
+      gos.write(buffer.array(), 0, buffer.limit());
     }
   }
 
@@ -267,7 +454,8 @@ public abstract class MessageEncoding<T> implements ProtoEncoding<T>
     Object obj = this.allocate(context, fields);
 
     ProtoHeader header = (ProtoHeader) fields[0];
-    ProtoField found = null;
+    ProtoField[] dispatch = header.dispatch;
+    ProtoField found;
     // Consume fields until we run out of contents
     while (bs.hasRemaining())
     {
@@ -281,8 +469,7 @@ public abstract class MessageEncoding<T> implements ProtoEncoding<T>
       int type = tag & 0x7;
 
       // Check for a field handler
-      if (found == null || found.id != id)
-        found = header.map.get(id);
+      found = (id < dispatch.length) ? dispatch[id] : null;
 
       // If we find a valid field process it
       if (found != null)
@@ -300,10 +487,8 @@ public abstract class MessageEncoding<T> implements ProtoEncoding<T>
     }
 
     // Complete work for list/map/repeated fields
-    for (ProtoField field : fields)
+    for (ProtoField field : header.finishers)
     {
-      if (field.encoding == null)
-        continue;
       field.encoding.parseFinish(context, field, obj);
     }
 
@@ -394,7 +579,8 @@ public abstract class MessageEncoding<T> implements ProtoEncoding<T>
    */
   public byte[] toBytes(T value) throws ProtoException
   {
-    return serializeContents(null, value);
+    // The buffer is allocated to the exact size
+    return toByteBuffer(value).array();
   }
 
   /**
@@ -439,4 +625,19 @@ public abstract class MessageEncoding<T> implements ProtoEncoding<T>
     return this.getClass().getSimpleName();
   }
 
+  /**
+   * Check if this encoding must be serialized through the byte[] methods.
+   *
+   * Encodings written before the two pass serializer override
+   * serializeContents or serializeField without overriding sizeContents and
+   * writeContents. Those encodings must override this method to return true
+   * so that their output is used unchanged.
+   *
+   * @return true if the contents are produced by serializeContents.
+   */
+  protected boolean isLegacySerializer()
+  {
+    return false;
+  }
+
 }
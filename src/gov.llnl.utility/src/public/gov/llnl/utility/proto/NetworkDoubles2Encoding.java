@@ -65,6 +65,52 @@ class NetworkDoubles2Encoding extends MessageEncoding<double[][]>
     return bb.array();
   }
 
+  @Override
+  protected int sizeContents(ProtoSink sink, double[][] values)
+  {
+    if (values == null)
+      return Integer.BYTES;
+    int size = Integer.BYTES;
+    for (double[] v : values)
+    {
+      size += Integer.BYTES;
+      if (v != null)
+        size += v.length * Double.BYTES;
+    }
+    return size;
+  }
+
+  @Override
+  protected void writeContents(ProtoSink sink, double[][] values)
+  {
+    ByteBuffer bb = sink.getBuffer();
+    ByteOrder order = bb.order();
+    bb.order(ByteOrder.BIG_ENDIAN);
+    if (values == null)
+    {
+      bb.asIntBuffer().put(-1);
+      sink.skip(Integer.BYTES);
+      bb.order(order);
+      return;
+    }
+    bb.asIntBuffer().put(values.length);
+    sink.skip(Integer.BYTES);
+    for (double[] v : values)
+    {
+      if (v == null)
+      {
+        bb.asIntBuffer().put(-1);
+        sink.skip(Integer.BYTES);
+        continue;
+      }
+      bb.asIntBuffer().put(v.length);
+      sink.skip(Integer.BYTES);
+      bb.asDoubleBuffer().put(v);
+      sink.skip(v.length * Double.BYTES);
+    }
+    bb.order(order);
+  }
+
   /**
    * Parse a ByteBuffer into a double[][].
    *
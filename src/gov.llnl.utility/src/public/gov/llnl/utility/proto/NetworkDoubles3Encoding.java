@@ -50,6 +50,36 @@ import java.nio.ByteOrder;
     return baos.toByteArray();
   }
 
+  @Override
+  protected int sizeContents(ProtoSink sink, double[][][] values)
+  {
+    if (values == null)
+      return Integer.BYTES;
+    int size = Integer.BYTES;
+    for (double[][] v : values)
+    {
+      size += NetworkDoubles2Encoding.INSTANCE.sizeContents(sink, v);
+    }
+    return size;
+  }
+
+  @Override
+  protected void writeContents(ProtoSink sink, double[][][] values)
+  {
+    ByteBuffer bb = sink.getBuffer();
+    ByteOrder order = bb.order();
+    bb.order(ByteOrder.BIG_ENDIAN);
+    bb.asIntBuffer().put((values == null) ? -1 : values.length);
+    sink.skip(Integer.BYTES);
+    bb.order(order);
+    if (values == null)
+      return;
+    for (double[][] v : values)
+    {
+      NetworkDoubles2Encoding.INSTANCE.writeContents(sink, v);
+    }
+  }
+
   /**
    * Parse a ByteBuffer into a double[][][].
    *
@@ -43,6 +43,25 @@ class NetworkDoublesEncoding extends MessageEncoding<double[]>
     return bb.array();
   }
 
+  @Override
+  protected int sizeContents(ProtoSink sink, double[] values)
+  {
+    return values.length * Double.BYTES + Integer.BYTES;
+  }
+
+  @Override
+  protected void writeContents(ProtoSink sink, double[] values)
+  {
+    ByteBuffer bb = sink.getBuffer();
+    ByteOrder order = bb.order();
+    bb.order(ByteOrder.BIG_ENDIAN);
+    bb.asIntBuffer().put(values.length);
+    sink.skip(Integer.BYTES);
+    bb.asDoubleBuffer().put(values);
+    sink.skip(values.length * Double.BYTES);
+    bb.order(order);
+  }
+
   /**
    * Parse a ByteBuffer into a double[].
    *
@@ -75,6 +75,33 @@ public class OneOfEncoding<T> extends MessageEncoding<T>
     return baos.toByteArray();
   }
 
+  @Override
+  protected int sizeContents(ProtoSink sink, T values) throws ProtoException
+  {
+    ProtoField f = select(values);
+    if (f == null)
+      return 0;
+    return f.encoding.sizeField(sink, f, values);
+  }
+
+  @Override
+  protected void writeContents(ProtoSink sink, T values) throws ProtoException
+  {
+    ProtoField f = select(values);
+    if (f != null)
+      f.encoding.writeField(sink, f, values);
+  }
+
+  private ProtoField select(T values)
+  {
+    for (ProtoField f : getFields())
+    {
+      if (f instanceof ClassField && ((ClassField) f).cls.isInstance(values))
+        return f;
+    }
+    return null;
+  }
+
   @Override
   public ProtoField[] getFields()
   {
@@ -10,6 +10,8 @@ import gov.llnl.utility.proto.ProtoBuilder.ObjFloatConsumer;
 import gov.llnl.utility.proto.ProtoBuilder.ToFloatFunction;
 import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -31,10 +33,23 @@ import java.util.function.ToLongFunction;
 class PackedScalarEncoding extends MessageEncoding<Object>
 {
   final ScalarEncoding parent;
+  final int kind;
+
+  // Layouts with a specialized packer
+  static final int OTHER = 0;
+  static final int DOUBLE = 1;
+  static final int FLOAT = 2;
+  static final int FIXED32 = 3;
+  static final int FIXED64 = 4;
+  static final int VARINT32 = 5;
+  static final int ZIGZAG32 = 6;
+  static final int VARINT64 = 7;
+  static final int ZIGZAG64 = 8;
 
   PackedScalarEncoding(ScalarEncoding e)
   {
     this.parent = e;
+    this.kind = kindOf(e);
   }
 
   Object newContext()
@@ -60,10 +75,18 @@ class PackedScalarEncoding extends MessageEncoding<Object>
     }
     ws.reserve(size);
 
-    type = parent.getWireType();
-    while (bs2.hasRemaining())
+    if (kind >= DOUBLE && kind <= FIXED64)
     {
-      parent.parseField(context, ws, type, ws, bs2);
+      // Fixed width values can be copied in bulk
+      readValues(ws, bs2, size);
+    }
+    else
+    {
+      type = parent.getWireType();
+      while (bs2.hasRemaining())
+      {
+        parent.parseField(context, ws, type, ws, bs2);
+      }
     }
     context.leaveMessage(bs2);
   }
@@ -79,37 +102,19 @@ class PackedScalarEncoding extends MessageEncoding<Object>
     if (result == null)
       return;
 
-    // Set up a dealer
-    ProtoField dealer = newDealer(result);
-
-    // suppress adding tag
-    dealer.id = -1;
-
-    // Guess how much memory we will need
-    int wiretype = parent.getWireType();
-    int ns = 1;
-    switch (wiretype)
+    byte[] contents;
+    if (kind != OTHER)
     {
-      case 0:
-        ns = 1;
-        break;
-      case 1:
-        ns = 8;
-        break;
-      case 5:
-        ns = 4;
-        break;
-      default:
-        break;
+      // Pack using bulk copies
+      int size = sizeValues(result);
+      ByteBuffer bb = ByteBuffer.allocate(size);
+      writeValues(new ProtoSink(new ProtoSink(), bb), result);
+      contents = bb.array();
     }
-
-    // Pack up contents
-    ByteArrayOutputStream bs2 = new ByteArrayOutputStream(Array.getLength(result) * ns);
-    for (int i = 0; i < Array.getLength(result); ++i)
+    else
     {
-      parent.serializeField(dealer, bs2, result);
+      contents = packValues(result);
     }
-    byte[] contents = bs2.toByteArray();
 
     // field and wire type
     baos.write((field.id << 3) | 2);
@@ -119,6 +124,37 @@ class PackedScalarEncoding extends MessageEncoding<Object>
     baos.writeBytes(contents);
   }
 
+  @Override
+  public int sizeField(ProtoSink sink, ProtoField field, Object obj) throws ProtoException
+  {
+    if (kind == OTHER)
+      return sink.sizeLegacy(this, field, obj);
+
+    Object result = ((Function) field.getter).apply(obj);
+    if (result == null)
+      return 0;
+    int size = sizeValues(result);
+    sink.setSize(sink.reserveSize(), size);
+    return 1 + ProtoSink.sizeVInt32(size) + size;
+  }
+
+  @Override
+  public void writeField(ProtoSink sink, ProtoField field, Object obj) throws ProtoException
+  {
+    if (kind == OTHER)
+    {
+      sink.writeLegacy();
+      return;
+    }
+
+    Object result = ((Function) field.getter).apply(obj);
+    if (result == null)
+      return;
+    sink.write((field.id << 3) | 2);
+    sink.writeVInt32(sink.nextSize());
+    writeValues(sink, result);
+  }
+
   @Override
   public void parseFinish(ProtoContext context, ProtoField field, Object o)
   {
@@ -128,6 +164,184 @@ class PackedScalarEncoding extends MessageEncoding<Object>
   }
 
 //<editor-fold desc="private">
+  private static int kindOf(ScalarEncoding e)
+  {
+    if (e instanceof DoubleEncodingImpl)
+      return DOUBLE;
+    if (e instanceof FloatEncodingImpl)
+      return FLOAT;
+    if (e instanceof FixedInt32Encoding)
+      return FIXED32;
+    if (e instanceof SInt32Encoding)
+      return ZIGZAG32;
+    if (e instanceof Int32Encoding)
+      return VARINT32;
+    if (e instanceof FixedInt64Encoding)
+      return FIXED64;
+    if (e instanceof SInt64Encoding)
+      return ZIGZAG64;
+    if (e instanceof Int64Encoding)
+      return VARINT64;
+    return OTHER;
+  }
+
+  /**
+   * Compute the size of the packed contents for a specialized layout.
+   */
+  private int sizeValues(Object result)
+  {
+    switch (kind)
+    {
+      case DOUBLE:
+        return ((double[]) result).length * Double.BYTES;
+      case FLOAT:
+        return ((float[]) result).length * Float.BYTES;
+      case FIXED32:
+        return ((int[]) result).length * Integer.BYTES;
+      case FIXED64:
+        return ((long[]) result).length * Long.BYTES;
+      case VARINT32:
+      {
+        int size = 0;
+        for (int v : (int[]) result)
+          size += ProtoSink.sizeVInt32(v);
+        return size;
+      }
+      case ZIGZAG32:
+      {
+        int size = 0;
+        for (int v : (int[]) result)
+          size += ProtoSink.sizeVInt32(SInt32Encoding.zigzag(v));
+        return size;
+      }
+      case VARINT64:
+      {
+        int size = 0;
+        for (long v : (long[]) result)
+          size += ProtoSink.sizeVInt64(v);
+        return size;
+      }
+      case ZIGZAG64:
+      {
+        int size = 0;
+        for (long v : (long[]) result)
+          size += ProtoSink.sizeVInt64(SInt64Encoding.zigzag(v));
+        return size;
+      }
+      default:
+        throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * Write the packed contents for a specialized layout.
+   */
+  private void writeValues(ProtoSink sink, Object result)
+  {
+    switch (kind)
+    {
+      case DOUBLE:
+        sink.writeDoubles((double[]) result);
+        break;
+      case FLOAT:
+        sink.writeFloats((float[]) result);
+        break;
+      case FIXED32:
+        sink.writeFixedInts((int[]) result);
+        break;
+      case FIXED64:
+        sink.writeFixedLongs((long[]) result);
+        break;
+      case VARINT32:
+        for (int v : (int[]) result)
+          sink.writeVInt32(v);
+        break;
+      case ZIGZAG32:
+        for (int v : (int[]) result)
+          sink.writeVInt32(SInt32Encoding.zigzag(v));
+        break;
+      case VARINT64:
+        for (long v : (long[]) result)
+          sink.writeVInt64(v);
+        break;
+      case ZIGZAG64:
+        for (long v : (long[]) result)
+          sink.writeVInt64(SInt64Encoding.zigzag(v));
+        break;
+      default:
+        throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * Read the packed contents for a fixed width layout.
+   */
+  private void readValues(PackedCollector ws, ByteSource bs, int size) throws ProtoException
+  {
+    ByteBuffer bb = bs.request(size);
+    if (bb.remaining() != size)
+      throw new ProtoException("truncated packed field", bs.position());
+    bb.order(ByteOrder.LITTLE_ENDIAN);
+    switch (kind)
+    {
+      case DOUBLE:
+      {
+        ProtoCollectorDouble c = (ProtoCollectorDouble) ws;
+        int n = size / Double.BYTES;
+        bb.asDoubleBuffer().get(c.buffer, c.index, n);
+        c.index += n;
+        break;
+      }
+      case FLOAT:
+      {
+        ProtoCollectorFloat c = (ProtoCollectorFloat) ws;
+        int n = size / Float.BYTES;
+        bb.asFloatBuffer().get(c.buffer, c.index, n);
+        c.index += n;
+        break;
+      }
+      case FIXED32:
+      {
+        ProtoCollectorInt c = (ProtoCollectorInt) ws;
+        int n = size / Integer.BYTES;
+        bb.asIntBuffer().get(c.buffer, c.index, n);
+        c.index += n;
+        break;
+      }
+      case FIXED64:
+      {
+        ProtoCollectorLong c = (ProtoCollectorLong) ws;
+        int n = size / Long.BYTES;
+        bb.asLongBuffer().get(c.buffer, c.index, n);
+        c.index += n;
+        break;
+      }
+      default:
+        throw new UnsupportedOperationException();
+    }
+  }
+
+  // Must match SInt32Encoding and SInt64Encoding
+  /**
+   * Pack the contents using the scalar encoding for each element.
+   */
+  private byte[] packValues(Object result) throws ProtoException
+  {
+    // Set up a dealer
+    ProtoField dealer = newDealer(result);
+
+    // suppress adding tag
+    dealer.id = -1;
+
+    int n = Array.getLength(result);
+    ByteArrayOutputStream bs2 = new ByteArrayOutputStream(n);
+    for (int i = 0; i < n; ++i)
+    {
+      parent.serializeField(dealer, bs2, result);
+    }
+    return bs2.toByteArray();
+  }
+
   private PackedCollector newCollector()
   {
     if (parent instanceof Int32Encoding)
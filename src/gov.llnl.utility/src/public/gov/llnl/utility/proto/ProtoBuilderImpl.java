@@ -84,7 +84,9 @@ public class ProtoBuilderImpl extends ProtoBuilder
     // Mark the
     if (repeated)
       header.repeated = repeated;
-    return fields_.toArray(ProtoField[]::new);
+    ProtoField[] out = fields_.toArray(ProtoField[]::new);
+    header.compile(out);
+    return out;
   }
 //</editor-fold>
 //<editor-fold desc="types" defaultstate="collapsed">
@@ -21,38 +21,42 @@ public class ProtoContext
   
   public void enterFields(ProtoField[] fields)
   {
-    this.current = new HashMap<>();
-    stack.add(current);
+    // Most messages have no repeated fields so the state is created on demand
+    this.current = null;
+    stack.add(null);
   }
 
   public void leaveFields(ProtoField[] fields)
   {
     stack.remove(stack.size() - 1);
     if (stack.isEmpty())
-      current=null;
+      current = null;
     else
       current = stack.get(stack.size() - 1);
   }
 
   public Object getState(ProtoField field)
   {
-    Object out = current.get(field);
-    
     // search backwards
-    if (out == null)
+    for (int i = stack.size() - 1; i >= 0; --i)
     {
-      int i = stack.size()-1;
-      while (i>0 & out == null)
-      {
-        i--;
-        out = stack.get(i).get(field);      
-      }
+      HashMap<ProtoField, Object> map = stack.get(i);
+      if (map == null)
+        continue;
+      Object out = map.get(field);
+      if (out != null)
+        return out;
     }
-    return out;
+    return null;
   }
 
   public void setState(ProtoField field, Object state)
   {
+    if (current == null)
+    {
+      current = new HashMap<>();
+      stack.set(stack.size() - 1, current);
+    }
     current.put(field, state);
   }
 
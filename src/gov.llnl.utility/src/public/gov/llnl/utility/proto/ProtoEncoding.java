@@ -112,6 +112,43 @@ public interface ProtoEncoding<T>
   void serializeField(ProtoField field, ByteArrayOutputStream baos, Object obj)
           throws ProtoException;
 
+  /**
+   * Compute the size of a field for the two pass serializer.
+   *
+   * Includes the tag and size. Encodings holding nested messages should
+   * override this to record the nested sizes in the sink. The default
+   * serializes the field with serializeField and holds the bytes in the sink
+   * for writeField.
+   *
+   * @param sink is the sink for the sizing pass.
+   * @param field
+   * @param obj
+   * @return the number of bytes required.
+   * @throws ProtoException
+   */
+  default int sizeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    return sink.sizeLegacy(this, field, obj);
+  }
+
+  /**
+   * Write a field for the two pass serializer.
+   *
+   * Must write exactly the number of bytes reported by sizeField. The default
+   * copies the bytes held by the default sizeField.
+   *
+   * @param sink is the sink for the writing pass.
+   * @param field
+   * @param obj
+   * @throws ProtoException
+   */
+  default void writeField(ProtoSink sink, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    sink.writeLegacy();
+  }
+
   default void parseFinish(ProtoContext context, ProtoField field, Object obj)
           throws ProtoException
   {
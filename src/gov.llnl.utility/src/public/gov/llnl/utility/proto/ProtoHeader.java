@@ -6,6 +6,8 @@
  */
 package gov.llnl.utility.proto;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -21,6 +23,10 @@ class ProtoHeader extends ProtoField
   final Supplier allocator;
   final Function converter;
   final HashMap<Integer, ProtoField> map = new HashMap<>();
+
+  // Tables compiled from the fields to avoid lookups while parsing
+  ProtoField[] dispatch = new ProtoField[0];
+  ProtoField[] finishers = new ProtoField[0];
   
   ProtoHeader(Object pkg, String name, Supplier a, Function f)
   {
@@ -31,4 +37,49 @@ class ProtoHeader extends ProtoField
     converter =f;
   }
   
+  /**
+   * Build the lookup tables used by the parser.
+   *
+   * Fields are dispatched by direct indexing on the field id. Only fields
+   * with encodings that need to complete work after parsing are visited by
+   * parseFinish.
+   *
+   * @param fields
+   */
+  void compile(ProtoField[] fields)
+  {
+    int max = 0;
+    ArrayList<ProtoField> f = new ArrayList<>();
+    for (ProtoField field : fields)
+    {
+      if (field.id == -1)
+        continue;
+      max = Math.max(max, field.id);
+      if (hasFinish(field.encoding))
+        f.add(field);
+    }
+    ProtoField[] d = new ProtoField[max + 1];
+    for (ProtoField field : fields)
+    {
+      if (field.id != -1)
+        d[field.id] = field;
+    }
+    this.dispatch = d;
+    this.finishers = f.toArray(ProtoField[]::new);
+  }
+
+  private static boolean hasFinish(ProtoEncoding encoding)
+  {
+    try
+    {
+      Method method = encoding.getClass().getMethod("parseFinish",
+              ProtoContext.class, ProtoField.class, Object.class);
+      return method.getDeclaringClass() != ProtoEncoding.class;
+    }
+    catch (NoSuchMethodException ex)
+    {
+      return true;
+    }
+  }
+
 }
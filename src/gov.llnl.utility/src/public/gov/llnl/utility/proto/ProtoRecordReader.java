@@ -0,0 +1,502 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility.proto;
+
+import gov.llnl.utility.ExecutorUtilities;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reader for a stream of proto records produced by {@link ProtoRecordWriter}.
+ *
+ * The block index at the end of the file is used to locate the block holding
+ * a record. Only that block is read and decompressed. Blocks are independent
+ * and can be decoded on multiple threads.
+ *
+ * The file layout is a header, a sequence of blocks each with a small header,
+ * the block index and a trailer. If the writer was not closed the index is
+ * missing and is recovered from the block headers.
+ *
+ * @param <T>
+ */
+public class ProtoRecordReader<T> implements Closeable, Iterable<T>
+{
+  static final byte[] MAGIC = "PROTOREC".getBytes(US_ASCII);
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 12;
+  static final int BLOCK_HEADER_SIZE = 16;
+  static final int TRAILER_SIZE = 24;
+  static final int CODEC_NONE = 0;
+  static final int CODEC_DEFLATE = 1;
+  static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+  private final MessageEncoding<T> encoding;
+  private final FileChannel channel;
+  private final Block[] blocks;
+  private final long records;
+  private volatile Decoded last;
+
+  /**
+   * Open a record file.
+   *
+   * @param <T>
+   * @param path
+   * @param encoding is the encoding for each record.
+   * @return a new reader.
+   * @throws IOException if the file is not a record file.
+   */
+  public static <T> ProtoRecordReader<T> open(Path path, MessageEncoding<T> encoding)
+          throws IOException
+  {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try
+    {
+      return new ProtoRecordReader<>(encoding, channel, readIndex(channel));
+    }
+    catch (IOException ex)
+    {
+      channel.close();
+      throw ex;
+    }
+  }
+
+  private ProtoRecordReader(MessageEncoding<T> encoding, FileChannel channel, Index index)
+  {
+    this.encoding = encoding;
+    this.channel = channel;
+    this.blocks = index.blocks.toArray(new Block[0]);
+    this.records = index.records;
+  }
+
+  /**
+   * Get the number of records.
+   *
+   * @return the number of records in the file.
+   */
+  public long size()
+  {
+    return records;
+  }
+
+  public int getBlockCount()
+  {
+    return blocks.length;
+  }
+
+  /**
+   * Get a record by index.
+   *
+   * The most recently used block is held so that nearby records can be read
+   * without further access to the file.
+   *
+   * @param index
+   * @return the record.
+   * @throws IOException
+   * @throws ProtoException
+   */
+  public T get(long index) throws IOException, ProtoException
+  {
+    if (index < 0 || index >= records)
+      throw new IndexOutOfBoundsException("record " + index + " of " + records);
+    int b = findBlock(index);
+    Decoded decoded = this.last;
+    if (decoded == null || decoded.block != b)
+    {
+      decoded = decode(b);
+      this.last = decoded;
+    }
+    return decoded.parse((int) (index - blocks[b].first));
+  }
+
+  /**
+   * Read all of the records in a block.
+   *
+   * This may be called from multiple threads.
+   *
+   * @param block
+   * @return the records in the block.
+   * @throws IOException
+   * @throws ProtoException
+   */
+  public List<T> readBlock(int block) throws IOException, ProtoException
+  {
+    Decoded decoded = decode(block);
+    ArrayList<T> out = new ArrayList<>(decoded.offsets.length);
+    for (int i = 0; i < decoded.offsets.length; ++i)
+      out.add(decoded.parse(i));
+    return out;
+  }
+
+  /**
+   * Read all records using the common pool.
+   *
+   * @return the records in order.
+   * @throws IOException
+   * @throws ProtoException
+   */
+  public List<T> readAll() throws IOException, ProtoException
+  {
+    return readAll(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Read all records decoding the blocks in parallel.
+   *
+   * @param executor is used to decode the blocks.
+   * @return the records in order.
+   * @throws IOException
+   * @throws ProtoException
+   */
+  public List<T> readAll(ExecutorService executor) throws IOException, ProtoException
+  {
+    List<Callable<List<T>>> tasks = new ArrayList<>(blocks.length);
+    for (int i = 0; i < blocks.length; ++i)
+    {
+      final int b = i;
+      tasks.add(() -> readBlock(b));
+    }
+
+    ArrayList<T> out = new ArrayList<>((int) Math.min(records, Integer.MAX_VALUE));
+    try
+    {
+      for (List<T> block : ExecutorUtilities.invokeAll(executor, tasks))
+        out.addAll(block);
+    }
+    catch (InterruptedException ex)
+    {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted", ex);
+    }
+    catch (ExecutionException ex)
+    {
+      Throwable cause = ex.getCause();
+      if (cause instanceof IOException)
+        throw (IOException) cause;
+      if (cause instanceof ProtoException)
+        throw (ProtoException) cause;
+      throw ExecutorUtilities.unwrap(ex);
+    }
+    return out;
+  }
+
+  /**
+   * Iterate through the records in order.
+   *
+   * Errors while reading are reported as RuntimeException.
+   *
+   * @return a new iterator.
+   */
+  @Override
+  public Iterator<T> iterator()
+  {
+    return new Iterator<T>()
+    {
+      int block = 0;
+      int index = 0;
+      Decoded decoded;
+
+      @Override
+      public boolean hasNext()
+      {
+        while (decoded == null || index == decoded.offsets.length)
+        {
+          if (block == blocks.length)
+            return false;
+          try
+          {
+            decoded = decode(block++);
+            index = 0;
+          }
+          catch (IOException ex)
+          {
+            throw new RuntimeException(ex);
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public T next()
+      {
+        if (!hasNext())
+          throw new NoSuchElementException();
+        try
+        {
+          return decoded.parse(index++);
+        }
+        catch (ProtoException ex)
+        {
+          throw new RuntimeException(ex);
+        }
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException
+  {
+    channel.close();
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private int findBlock(long index)
+  {
+    int lo = 0;
+    int hi = blocks.length - 1;
+    while (lo < hi)
+    {
+      int mid = (lo + hi + 1) >>> 1;
+      if (blocks[mid].first <= index)
+        lo = mid;
+      else
+        hi = mid - 1;
+    }
+    return lo;
+  }
+
+  /**
+   * Read and decompress a block and locate its records.
+   */
+  private Decoded decode(int b) throws IOException
+  {
+    Block block = blocks[b];
+    ByteBuffer stored = ByteBuffer.allocate(block.stored);
+    read(channel, stored, block.offset + BLOCK_HEADER_SIZE);
+    stored.flip();
+
+    ByteBuffer contents = stored;
+    if (block.codec == CODEC_DEFLATE)
+    {
+      Inflater inflater = new Inflater();
+      try
+      {
+        inflater.setInput(stored.array(), 0, block.stored);
+        byte[] raw = new byte[block.raw];
+        int n = 0;
+        while (n < raw.length && !inflater.finished())
+        {
+          int m = inflater.inflate(raw, n, raw.length - n);
+          if (m == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+            break;
+          n += m;
+        }
+        if (n != raw.length)
+          throw new IOException("corrupt block " + b);
+        contents = ByteBuffer.wrap(raw);
+      }
+      catch (DataFormatException ex)
+      {
+        throw new IOException("corrupt block " + b, ex);
+      }
+      finally
+      {
+        inflater.end();
+      }
+    }
+    else if (block.codec != CODEC_NONE)
+      throw new IOException("unknown codec " + block.codec);
+
+    // Locate the records by their size prefixes
+    int[] offsets = new int[block.records];
+    int[] sizes = new int[block.records];
+    int position = 0;
+    try
+    {
+      for (int i = 0; i < block.records; ++i)
+      {
+        contents.position(position);
+        sizes[i] = Int32Encoding.decodeVInt32(contents);
+        offsets[i] = contents.position();
+        position = offsets[i] + sizes[i];
+      }
+    }
+    catch (ProtoException ex)
+    {
+      throw new IOException("corrupt block " + b, ex);
+    }
+    if (position != contents.limit())
+      throw new IOException("corrupt block " + b);
+    return new Decoded(b, contents, offsets, sizes);
+  }
+
+  private class Decoded
+  {
+    final int block;
+    final ByteBuffer contents;
+    final int[] offsets;
+    final int[] sizes;
+
+    Decoded(int block, ByteBuffer contents, int[] offsets, int[] sizes)
+    {
+      this.block = block;
+      this.contents = contents;
+      this.offsets = offsets;
+      this.sizes = sizes;
+    }
+
+    T parse(int i) throws ProtoException
+    {
+      ByteBuffer record = contents.duplicate();
+      record.position(offsets[i]);
+      record.limit(offsets[i] + sizes[i]);
+      return encoding.parseContents(new ProtoContext(), ByteSource.wrap(record.slice()));
+    }
+  }
+
+  static class Block
+  {
+    static final int BYTES = 8 + 8 + 4 + 4 + 4 + 4;
+
+    long offset;
+    long first;
+    int records;
+    int codec;
+    int stored;
+    int raw;
+
+    void writeHeader(ByteBuffer bb)
+    {
+      bb.putInt(codec);
+      bb.putInt(stored);
+      bb.putInt(raw);
+      bb.putInt(records);
+    }
+
+    void writeIndex(ByteBuffer bb)
+    {
+      bb.putLong(offset);
+      bb.putLong(first);
+      bb.putInt(records);
+      bb.putInt(codec);
+      bb.putInt(stored);
+      bb.putInt(raw);
+    }
+
+    static Block readIndex(ByteBuffer bb)
+    {
+      Block block = new Block();
+      block.offset = bb.getLong();
+      block.first = bb.getLong();
+      block.records = bb.getInt();
+      block.codec = bb.getInt();
+      block.stored = bb.getInt();
+      block.raw = bb.getInt();
+      return block;
+    }
+  }
+
+  static class Index
+  {
+    List<Block> blocks = new ArrayList<>();
+    long records;
+    // End of the last block
+    long end;
+  }
+
+  /**
+   * Read the block index of a record file.
+   *
+   * Falls back to scanning the block headers if the index is missing.
+   */
+  static Index readIndex(FileChannel channel) throws IOException
+  {
+    long length = channel.size();
+    ByteBuffer header = allocate(HEADER_SIZE);
+    read(channel, header, 0);
+    header.flip();
+    byte[] magic = new byte[MAGIC.length];
+    if (header.remaining() < HEADER_SIZE)
+      throw new IOException("not a record file");
+    header.get(magic);
+    if (!Arrays.equals(magic, MAGIC))
+      throw new IOException("not a record file");
+    int version = header.getInt();
+    if (version != VERSION)
+      throw new IOException("unsupported version " + version);
+
+    Index index = new Index();
+    if (length >= HEADER_SIZE + TRAILER_SIZE)
+    {
+      ByteBuffer trailer = allocate(TRAILER_SIZE);
+      read(channel, trailer, length - TRAILER_SIZE);
+      trailer.flip();
+      long footer = trailer.getLong();
+      long records = trailer.getLong();
+      trailer.get(magic);
+      if (Arrays.equals(magic, MAGIC) && footer >= HEADER_SIZE && footer < length)
+      {
+        ByteBuffer bb = allocate((int) (length - TRAILER_SIZE - footer));
+        read(channel, bb, footer);
+        bb.flip();
+        int n = bb.getInt();
+        for (int i = 0; i < n; ++i)
+          index.blocks.add(Block.readIndex(bb));
+        index.records = records;
+        index.end = footer;
+        return index;
+      }
+    }
+
+    // Writer was not closed, recover the blocks that were completed
+    long position = HEADER_SIZE;
+    ByteBuffer bb = allocate(BLOCK_HEADER_SIZE);
+    while (position + BLOCK_HEADER_SIZE <= length)
+    {
+      bb.clear();
+      read(channel, bb, position);
+      bb.flip();
+      Block block = new Block();
+      block.offset = position;
+      block.first = index.records;
+      block.codec = bb.getInt();
+      block.stored = bb.getInt();
+      block.raw = bb.getInt();
+      block.records = bb.getInt();
+      if (block.stored < 0 || position + BLOCK_HEADER_SIZE + block.stored > length)
+        break;
+      index.blocks.add(block);
+      index.records += block.records;
+      position += BLOCK_HEADER_SIZE + block.stored;
+    }
+    index.end = position;
+    return index;
+  }
+
+  private static void read(FileChannel channel, ByteBuffer bb, long position) throws IOException
+  {
+    while (bb.hasRemaining())
+    {
+      int n = channel.read(bb, position);
+      if (n < 0)
+        break;
+      position += n;
+    }
+  }
+
+  static ByteBuffer allocate(int size)
+  {
+    return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+  }
+//</editor-fold>
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility.proto;
+
+import gov.llnl.utility.proto.ProtoRecordReader.Block;
+import static gov.llnl.utility.proto.ProtoRecordReader.*;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writer for a stream of proto records.
+ *
+ * Each record is stored as a variable length size followed by the message
+ * contents. Records are gathered into blocks which may be compressed
+ * individually. An index of the blocks is written when the writer is closed
+ * so that the reader can locate any record without scanning the file.
+ *
+ * A writer can be opened on an existing file to add further records. The
+ * index is rewritten on close.
+ *
+ * Use {@link ProtoRecordReader} to read the records.
+ *
+ * @param <T>
+ */
+public class ProtoRecordWriter<T> implements Closeable
+{
+  private final MessageEncoding<T> encoding;
+  private final FileChannel channel;
+  private final List<Block> blocks;
+  private long position;
+  private long records;
+
+  private int blockSize = DEFAULT_BLOCK_SIZE;
+  private boolean compress = false;
+
+  // Current block
+  private ByteBuffer buffer = allocate(4096);
+  private int blockRecords = 0;
+
+  /**
+   * Create a new record file.
+   *
+   * Any existing file is replaced.
+   *
+   * @param <T>
+   * @param path
+   * @param encoding is the encoding for each record.
+   * @return a new writer.
+   * @throws IOException
+   */
+  public static <T> ProtoRecordWriter<T> create(Path path, MessageEncoding<T> encoding)
+          throws IOException
+  {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    try
+    {
+      ByteBuffer header = allocate(HEADER_SIZE);
+      header.put(MAGIC);
+      header.putInt(VERSION);
+      header.flip();
+      write(channel, header);
+      return new ProtoRecordWriter<>(encoding, channel, new ArrayList<>(), HEADER_SIZE, 0);
+    }
+    catch (IOException ex)
+    {
+      channel.close();
+      throw ex;
+    }
+  }
+
+  /**
+   * Open a record file to add records.
+   *
+   * The file is created if it does not exist.
+   *
+   * @param <T>
+   * @param path
+   * @param encoding is the encoding for each record.
+   * @return a new writer positioned at the end of the existing records.
+   * @throws IOException if the file is not a record file.
+   */
+  public static <T> ProtoRecordWriter<T> append(Path path, MessageEncoding<T> encoding)
+          throws IOException
+  {
+    if (!Files.exists(path) || Files.size(path) == 0)
+      return create(path, encoding);
+
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try
+    {
+      ProtoRecordReader.Index index = ProtoRecordReader.readIndex(channel);
+
+      // New blocks overwrite the old index
+      channel.truncate(index.end);
+      channel.position(index.end);
+      return new ProtoRecordWriter<>(encoding, channel, index.blocks, index.end, index.records);
+    }
+    catch (IOException ex)
+    {
+      channel.close();
+      throw ex;
+    }
+  }
+
+  private ProtoRecordWriter(MessageEncoding<T> encoding, FileChannel channel,
+          List<Block> blocks, long position, long records)
+  {
+    this.encoding = encoding;
+    this.channel = channel;
+    this.blocks = blocks;
+    this.position = position;
+    this.records = records;
+  }
+
+  /**
+   * Set the size of the uncompressed contents at which a block is ended.
+   *
+   * Larger blocks compress better. Smaller blocks reduce the cost of reading
+   * a single record.
+   *
+   * @param blockSize in bytes.
+   */
+  public void setBlockSize(int blockSize)
+  {
+    if (blockSize <= 0)
+      throw new IllegalArgumentException("block size must be positive");
+    this.blockSize = blockSize;
+  }
+
+  public int getBlockSize()
+  {
+    return blockSize;
+  }
+
+  /**
+   * Set if blocks should be compressed.
+   *
+   * Blocks that do not shrink are always stored uncompressed.
+   *
+   * @param compress
+   */
+  public void setCompress(boolean compress)
+  {
+    this.compress = compress;
+  }
+
+  public boolean isCompress()
+  {
+    return compress;
+  }
+
+  /**
+   * Get the number of records in the file including those pending.
+   *
+   * @return the number of records.
+   */
+  public long size()
+  {
+    return records + blockRecords;
+  }
+
+  /**
+   * Add a record.
+   *
+   * @param value
+   * @throws IOException
+   * @throws ProtoException
+   */
+  public void write(T value) throws IOException, ProtoException
+  {
+    ProtoSink sizing = new ProtoSink();
+    int size = encoding.sizeContents(sizing, value);
+    reserve(ProtoSink.sizeVInt32(size) + size);
+    ProtoSink sink = new ProtoSink(sizing, buffer);
+    sink.writeVInt32(size);
+    encoding.writeContents(sink, value);
+    blockRecords++;
+    if (buffer.position() >= blockSize)
+      flush();
+  }
+
+  /**
+   * End the current block.
+   *
+   * The records written so far will not be visible to a reader until the
+   * writer is closed.
+   *
+   * @throws IOException
+   */
+  public void flush() throws IOException
+  {
+    if (blockRecords == 0)
+      return;
+    buffer.flip();
+    int raw = buffer.remaining();
+    ByteBuffer contents = buffer;
+    int codec = CODEC_NONE;
+    if (compress)
+    {
+      ByteBuffer packed = deflate(buffer);
+      if (packed != null)
+      {
+        contents = packed;
+        codec = CODEC_DEFLATE;
+      }
+    }
+
+    Block block = new Block();
+    block.offset = position;
+    block.first = records;
+    block.records = blockRecords;
+    block.codec = codec;
+    block.stored = contents.remaining();
+    block.raw = raw;
+
+    ByteBuffer header = allocate(BLOCK_HEADER_SIZE);
+    block.writeHeader(header);
+    header.flip();
+    write(channel, header);
+    write(channel, contents);
+    position += BLOCK_HEADER_SIZE + block.stored;
+    blocks.add(block);
+
+    records += blockRecords;
+    blockRecords = 0;
+    buffer.clear();
+  }
+
+  /**
+   * Write the index and close the file.
+   *
+   * @throws IOException
+   */
+  @Override
+  public void close() throws IOException
+  {
+    try
+    {
+      flush();
+      ByteBuffer footer = allocate(4 + blocks.size() * Block.BYTES + TRAILER_SIZE);
+      footer.putInt(blocks.size());
+      for (Block block : blocks)
+        block.writeIndex(footer);
+      footer.putLong(position);
+      footer.putLong(records);
+      footer.put(MAGIC);
+      footer.flip();
+      write(channel, footer);
+    }
+    finally
+    {
+      channel.close();
+    }
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  private void reserve(int bytes)
+  {
+    if (buffer.remaining() >= bytes)
+      return;
+    int capacity = buffer.capacity();
+    while (capacity - buffer.position() < bytes)
+      capacity *= 2;
+    ByteBuffer n = allocate(capacity);
+    buffer.flip();
+    n.put(buffer);
+    buffer = n;
+  }
+
+  private static ByteBuffer deflate(ByteBuffer contents)
+  {
+    Deflater deflater = new Deflater();
+    try
+    {
+      deflater.setInput(contents.array(), contents.arrayOffset() + contents.position(), contents.remaining());
+      deflater.finish();
+      byte[] out = new byte[contents.remaining()];
+      int n = 0;
+      while (!deflater.finished() && n < out.length)
+        n += deflater.deflate(out, n, out.length - n);
+      if (!deflater.finished())
+        return null;
+      return ByteBuffer.wrap(out, 0, n);
+    }
+    finally
+    {
+      deflater.end();
+    }
+  }
+
+  private static void write(FileChannel channel, ByteBuffer buffer) throws IOException
+  {
+    while (buffer.hasRemaining())
+      channel.write(buffer);
+  }
+//</editor-fold>
+}
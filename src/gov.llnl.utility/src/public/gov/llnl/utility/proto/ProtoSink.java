@@ -0,0 +1,399 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility.proto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+
+/**
+ * Output used by the two pass serializer.
+ *
+ * The first pass runs with no buffer and only counts the bytes that would be
+ * written. Encodings record the size of each nested message as they are
+ * visited so that the second pass can emit the size prefix before the
+ * contents without having to produce the contents first. The second pass
+ * writes directly into a single preallocated ByteBuffer.
+ *
+ * Both passes must visit the fields in the same order.
+ *
+ * Encodings which only implement serializeField write into a
+ * ByteArrayOutputStream. Those fields are serialized once during the sizing
+ * pass into a scratch buffer shared by both passes, and the writing pass
+ * copies the bytes from it.
+ */
+public final class ProtoSink extends OutputStream
+{
+  final ByteBuffer buffer;
+  int position = 0;
+
+  // Sizes of nested messages in the order they are visited
+  int[] sizes;
+  int sizesCount = 0;
+  int sizesCursor = 0;
+
+  // Contents for encodings that can only produce a byte[]
+  final ArrayList<byte[]> cached;
+  int cachedCursor = 0;
+
+  // Fields serialized by encodings that only support serializeField
+  final LegacyBuffer legacy;
+  int legacyCursor = 0;
+
+  /**
+   * Create a sink for the sizing pass.
+   */
+  ProtoSink()
+  {
+    this.buffer = null;
+    this.sizes = new int[16];
+    this.cached = new ArrayList<>();
+    this.legacy = new LegacyBuffer();
+  }
+
+  /**
+   * Create a sink for the writing pass.
+   *
+   * @param sizing is the sink used for the sizing pass.
+   * @param buffer is the destination.
+   */
+  ProtoSink(ProtoSink sizing, ByteBuffer buffer)
+  {
+    this.buffer = buffer;
+    this.sizes = sizing.sizes;
+    this.sizesCount = sizing.sizesCount;
+    this.cached = sizing.cached;
+    this.legacy = sizing.legacy;
+  }
+
+  /**
+   * Check if this sink is counting bytes rather than writing them.
+   *
+   * @return true during the sizing pass.
+   */
+  public boolean isSizing()
+  {
+    return buffer == null;
+  }
+
+  /**
+   * Reserve a slot to hold the size of a nested message.
+   *
+   * Used in the sizing pass. Slots must be reserved before visiting the
+   * children of the message so that they are consumed in the same order by
+   * the writing pass.
+   *
+   * @return the slot to pass to setSize.
+   */
+  public int reserveSize()
+  {
+    if (sizesCount == sizes.length)
+    {
+      int[] n = new int[sizes.length * 2];
+      System.arraycopy(sizes, 0, n, 0, sizes.length);
+      sizes = n;
+    }
+    return sizesCount++;
+  }
+
+  public void setSize(int slot, int size)
+  {
+    sizes[slot] = size;
+  }
+
+  /**
+   * Get the next size recorded during the sizing pass.
+   *
+   * @return the size of the next nested message.
+   */
+  public int nextSize()
+  {
+    return sizes[sizesCursor++];
+  }
+
+  /**
+   * Hold contents computed during the sizing pass.
+   *
+   * @param contents
+   */
+  public void pushCached(byte[] contents)
+  {
+    cached.add(contents);
+  }
+
+  public byte[] nextCached()
+  {
+    return cached.get(cachedCursor++);
+  }
+
+  /**
+   * Get the destination buffer.
+   *
+   * Used for bulk copies. The byte order of the buffer must be restored if
+   * altered.
+   *
+   * @return the buffer or null during the sizing pass.
+   */
+  public ByteBuffer getBuffer()
+  {
+    return buffer;
+  }
+
+  /**
+   * Advance the output after a bulk copy into the buffer.
+   *
+   * @param bytes
+   */
+  public void skip(int bytes)
+  {
+    if (buffer != null)
+      buffer.position(buffer.position() + bytes);
+    position += bytes;
+  }
+
+  @Override
+  public void write(int b)
+  {
+    if (buffer != null)
+      buffer.put((byte) b);
+    position++;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len)
+  {
+    if (buffer != null)
+      buffer.put(b, off, len);
+    position += len;
+  }
+
+  @Override
+  public void write(byte[] b)
+  {
+    write(b, 0, b.length);
+  }
+
+  public void writeBytes(byte[] b)
+  {
+    write(b, 0, b.length);
+  }
+
+  /**
+   * Get the number of bytes written or counted.
+   *
+   * @return the number of bytes.
+   */
+  public int size()
+  {
+    return position;
+  }
+
+  /**
+   * Write a variable length int.
+   *
+   * @param v
+   */
+  public void writeVInt32(int v)
+  {
+    while (v < 0 || v >= 0x80)
+    {
+      write((v & 0x7f) | 0x80);
+      v >>>= 7;
+    }
+    write(v);
+  }
+
+  /**
+   * Write a variable length long.
+   *
+   * @param v
+   */
+  public void writeVInt64(long v)
+  {
+    while (v < 0 || v >= 0x80)
+    {
+      write((int) ((v & 0x7f) | 0x80));
+      v >>>= 7;
+    }
+    write((int) v);
+  }
+
+  /**
+   * Write a fixed int in little endian order.
+   *
+   * @param v
+   */
+  public void writeFixed32(int v)
+  {
+    for (int i = 0; i < Integer.BYTES; ++i)
+    {
+      write(v);
+      v >>>= 8;
+    }
+  }
+
+  /**
+   * Write a fixed long in little endian order.
+   *
+   * @param v
+   */
+  public void writeFixed64(long v)
+  {
+    for (int i = 0; i < Long.BYTES; ++i)
+    {
+      write((int) v);
+      v >>>= 8;
+    }
+  }
+
+  /**
+   * Size a field using an encoding which only implements serializeField.
+   *
+   * Used in the sizing pass. The field is serialized into the scratch buffer
+   * where it is held for writeLegacy.
+   *
+   * @param encoding
+   * @param field
+   * @param obj
+   * @return the number of bytes required.
+   * @throws ProtoException
+   */
+  int sizeLegacy(ProtoEncoding encoding, ProtoField field, Object obj)
+          throws ProtoException
+  {
+    int start = legacy.size();
+    encoding.serializeField(field, legacy, obj);
+    int size = legacy.size() - start;
+    setSize(reserveSize(), size);
+    position += size;
+    return size;
+  }
+
+  /**
+   * Write a field held by sizeLegacy.
+   *
+   * Used in the writing pass at the same point as sizeLegacy was called.
+   */
+  void writeLegacy()
+  {
+    int size = nextSize();
+    write(legacy.array(), legacyCursor, size);
+    legacyCursor += size;
+  }
+
+  /**
+   * Write a block of doubles in little endian order.
+   *
+   * @param values
+   */
+  public void writeDoubles(double[] values)
+  {
+    if (buffer != null)
+    {
+      ByteOrder order = buffer.order();
+      buffer.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().put(values);
+      buffer.order(order);
+    }
+    skip(values.length * Double.BYTES);
+  }
+
+  /**
+   * Write a block of floats in little endian order.
+   *
+   * @param values
+   */
+  public void writeFloats(float[] values)
+  {
+    if (buffer != null)
+    {
+      ByteOrder order = buffer.order();
+      buffer.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().put(values);
+      buffer.order(order);
+    }
+    skip(values.length * Float.BYTES);
+  }
+
+  /**
+   * Write a block of fixed ints in little endian order.
+   *
+   * @param values
+   */
+  public void writeFixedInts(int[] values)
+  {
+    if (buffer != null)
+    {
+      ByteOrder order = buffer.order();
+      buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(values);
+      buffer.order(order);
+    }
+    skip(values.length * Integer.BYTES);
+  }
+
+  /**
+   * Write a block of fixed longs in little endian order.
+   *
+   * @param values
+   */
+  public void writeFixedLongs(long[] values)
+  {
+    if (buffer != null)
+    {
+      ByteOrder order = buffer.order();
+      buffer.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().put(values);
+      buffer.order(order);
+    }
+    skip(values.length * Long.BYTES);
+  }
+
+  /**
+   * Compute the number of bytes used by a variable length int.
+   *
+   * @param v
+   * @return the number of bytes.
+   */
+  static int sizeVInt32(int v)
+  {
+    int n = 1;
+    while (v < 0 || v >= 0x80)
+    {
+      v >>>= 7;
+      n++;
+    }
+    return n;
+  }
+
+  /**
+   * Compute the number of bytes used by a variable length long.
+   *
+   * @param v
+   * @return the number of bytes.
+   */
+  static int sizeVInt64(long v)
+  {
+    int n = 1;
+    while (v < 0 || v >= 0x80)
+    {
+      v >>>= 7;
+      n++;
+    }
+    return n;
+  }
+
+  /**
+   * Scratch storage which exposes its array so that it can be copied without
+   * an intermediate byte[].
+   */
+  static final class LegacyBuffer extends ByteArrayOutputStream
+  {
+    byte[] array()
+    {
+      return buf;
+    }
+  }
+}
@@ -63,6 +63,23 @@ class SInt32Encoding extends Int32Encoding
     // contents
     Int32Encoding.encodeVInt32(baos, result);
   }
+
+  @Override
+  int sizeValue(int v)
+  {
+    return ProtoSink.sizeVInt32(zigzag(v));
+  }
+
+  @Override
+  void writeValue(ProtoSink sink, int v)
+  {
+    sink.writeVInt32(zigzag(v));
+  }
+
+  static int zigzag(int v)
+  {
+    return (v < 0) ? -v * 2 - 1 : v * 2;
+  }
   
   
     @Override
@@ -63,6 +63,23 @@ class SInt64Encoding extends Int64Encoding
     Int64Encoding.encodeVInt64(baos, result);
   }
 
+  @Override
+  int sizeValue(long v)
+  {
+    return ProtoSink.sizeVInt64(zigzag(v));
+  }
+
+  @Override
+  void writeValue(ProtoSink sink, long v)
+  {
+    sink.writeVInt64(zigzag(v));
+  }
+
+  static long zigzag(long v)
+  {
+    return (v < 0) ? -v * 2 - 1 : v * 2;
+  }
+
   @Override
   public String getSchemaName()
   {
@@ -15,4 +15,17 @@ package gov.llnl.utility.proto;
 public abstract class ScalarEncoding<T> implements ProtoEncoding<T>
 {
   public abstract int getWireType();
+
+  /**
+   * Check if this encoding must be serialized through serializeField.
+   *
+   * Subclasses which override serializeField must override this method to
+   * return true so that the two pass serializer uses their output.
+   *
+   * @return true if the field is produced by serializeField.
+   */
+  protected boolean isLegacySerializer()
+  {
+    return false;
+  }
 }
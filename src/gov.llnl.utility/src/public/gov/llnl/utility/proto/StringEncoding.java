@@ -26,6 +26,21 @@ class StringEncoding extends MessageEncoding<String>
     return obj.getBytes(UTF_8);
   }
 
+  @Override
+  protected int sizeContents(ProtoSink sink, String obj)
+  {
+    // Hold the encoded bytes so they are only produced once
+    byte[] contents = obj.getBytes(UTF_8);
+    sink.pushCached(contents);
+    return contents.length;
+  }
+
+  @Override
+  protected void writeContents(ProtoSink sink, String obj)
+  {
+    sink.writeBytes(sink.nextCached());
+  }
+
   @Override
   public String parseContents(ProtoContext context, ByteSource bs) throws ProtoException
   {
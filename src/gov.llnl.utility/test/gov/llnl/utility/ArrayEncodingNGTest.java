@@ -370,6 +370,51 @@ strictfp public class ArrayEncodingNGTest
     ArrayEncoding.decodeLongs("e!@#$%^&*()_+-=\\");
   }
 
+  /**
+   * Test of arrays larger than the streaming block size.
+   */
+  @Test
+  public void testLargeRoundTrip() throws Exception
+  {
+    double[] values = new double[20000];
+    for (int i = 0; i < values.length; ++i)
+      values[i] = Math.sin(i) * i;
+    assertEquals(ArrayEncoding.decodeDoubles(ArrayEncoding.encodeDoubles(values)), values);
+
+    float[] floats = ArrayEncoding.decodeFloats(ArrayEncoding.encodeDoublesAsFloats(values));
+    assertEquals(floats, ArrayEncoding.convertToFloats(values));
+
+    int[] ints = new int[20001];
+    for (int i = 0; i < ints.length; ++i)
+      ints[i] = i * 7919;
+    assertEquals(ArrayEncoding.decodeIntegers(ArrayEncoding.encodeIntegers(ints)), ints);
+
+    long[] longs = new long[9999];
+    for (int i = 0; i < longs.length; ++i)
+      longs[i] = -31L * i * i * i;
+    assertEquals(ArrayEncoding.decodeLongs(ArrayEncoding.encodeLongs(longs)), longs);
+  }
+
+  /**
+   * Test of decoding contents that were not compressed.
+   */
+  @Test
+  public void testDecodeUncompressed() throws Exception
+  {
+    // [D; with 2 values 1.0 and 2.0
+    String contents = "W0Q7AAAAAj/wAAAAAAAAQAAAAAAAAAA=";
+    assertEquals(ArrayEncoding.decodeDoubles(contents), new double[]
+    {
+      1, 2
+    });
+
+    // Missing values are left as zero
+    assertEquals(ArrayEncoding.decodeDoubles(contents.substring(0, 20)), new double[]
+    {
+      1, 0
+    });
+  }
+
   /**
    * Test of toStringDoubles method, of class ArrayEncoding.
    */
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for ExecutorUtilities.
+ */
+public class ExecutorUtilitiesNGTest
+{
+  final ExecutorService executor = Executors.newFixedThreadPool(4, r ->
+  {
+    Thread thread = new Thread(r);
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public ExecutorUtilitiesNGTest()
+  {
+  }
+
+  @AfterClass
+  public void shutdown()
+  {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Test of invokeAll method, of class ExecutorUtilities.
+   */
+  @Test
+  public void testInvokeAll() throws Exception
+  {
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 20; ++i)
+    {
+      int v = i;
+      tasks.add(() -> v * v);
+    }
+    List<Integer> result = ExecutorUtilities.invokeAll(executor, tasks);
+    assertEquals(result.size(), 20);
+    for (int i = 0; i < 20; ++i)
+      assertEquals((int) result.get(i), i * i);
+  }
+
+  /**
+   * Test of invokeAll method, of class ExecutorUtilities.
+   */
+  @Test
+  public void testInvokeAllCancel() throws Exception
+  {
+    CountDownLatch started = new CountDownLatch(1);
+    AtomicBoolean interrupted = new AtomicBoolean();
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    tasks.add(() ->
+    {
+      started.await();
+      throw new IOException("failed");
+    });
+    tasks.add(() ->
+    {
+      started.countDown();
+      try
+      {
+        Thread.sleep(10000);
+      }
+      catch (InterruptedException ex)
+      {
+        interrupted.set(true);
+      }
+      return 0;
+    });
+    try
+    {
+      ExecutorUtilities.invokeAll(executor, tasks);
+      fail("expected failure");
+    }
+    catch (ExecutionException ex)
+    {
+      assertTrue(ex.getCause() instanceof IOException);
+    }
+    for (int i = 0; i < 100 && !interrupted.get(); ++i)
+      TimeUnit.MILLISECONDS.sleep(10);
+    assertTrue(interrupted.get());
+  }
+
+  /**
+   * Test of executeEach method, of class ExecutorUtilities.
+   */
+  @Test
+  public void testExecuteEach()
+  {
+    int[] out = new int[1000];
+    ExecutorUtilities.executeEach(out.length, 64, executor, i -> out[i] = i + 1);
+    for (int i = 0; i < out.length; ++i)
+      assertEquals(out[i], i + 1);
+
+    // Small work runs on the calling thread
+    Thread[] thread = new Thread[1];
+    ExecutorUtilities.executeEach(3, 64, executor, i -> thread[0] = Thread.currentThread());
+    assertSame(thread[0], Thread.currentThread());
+  }
+
+  /**
+   * Test of executeBlocks method, of class ExecutorUtilities.
+   */
+  @Test
+  public void testExecuteBlocks()
+  {
+    int[] blocks = new int[10];
+    ExecutorUtilities.executeBlocks(95, 10, executor, (begin, end) -> blocks[begin / 10] = end - begin);
+    assertEquals(blocks, new int[]
+    {
+      10, 10, 10, 10, 10, 10, 10, 10, 10, 5
+    });
+    ExecutorUtilities.executeBlocks(0, 10, executor, (begin, end) -> fail("empty"));
+  }
+
+  /**
+   * Test of executeEach method, of class ExecutorUtilities.
+   */
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testExecuteEachFailure()
+  {
+    ExecutorUtilities.executeEach(100, 8, executor, i ->
+    {
+      if (i == 50)
+        throw new IllegalStateException();
+    });
+  }
+
+  /**
+   * Test of unwrap method, of class ExecutorUtilities.
+   */
+  @Test
+  public void testUnwrap()
+  {
+    IllegalArgumentException iae = new IllegalArgumentException();
+    assertSame(ExecutorUtilities.unwrap(new ExecutionException(iae)), iae);
+    IOException io = new IOException();
+    RuntimeException wrapped = ExecutorUtilities.unwrap(new ExecutionException(io));
+    assertSame(wrapped.getCause(), io);
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility.proto;
+
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for ProtoHeader.
+ */
+public class ProtoHeaderNGTest
+{
+
+  public ProtoHeaderNGTest()
+  {
+  }
+
+  @Test
+  public void testCompile()
+  {
+    ProtoField[] fields = new ComplexProto().getFields();
+    ProtoHeader header = (ProtoHeader) fields[0];
+    assertEquals(header.dispatch.length, 8);
+    assertNull(header.dispatch[0]);
+    for (int i = 1; i < fields.length; ++i)
+      assertSame(header.dispatch[fields[i].id], fields[i]);
+
+    // Only the list, map and packed fields need to be finished
+    assertEquals(header.finishers.length, 3);
+    assertEquals(header.finishers[0].name, "strs");
+    assertEquals(header.finishers[1].name, "h");
+    assertEquals(header.finishers[2].name, "f");
+  }
+
+  @Test
+  public void testContextState()
+  {
+    ProtoContext context = new ProtoContext();
+    ProtoField outer = new ProtoField();
+    ProtoField inner = new ProtoField();
+    context.enterFields(null);
+    assertNull(context.getState(outer));
+    context.setState(outer, "A");
+    context.enterFields(null);
+    assertEquals(context.getState(outer), "A");
+    assertNull(context.getState(inner));
+    context.setState(inner, "B");
+    assertEquals(context.getState(inner), "B");
+    context.leaveFields(null);
+    assertNull(context.getState(inner));
+    assertEquals(context.getState(outer), "A");
+    context.leaveFields(null);
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility.proto;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for ProtoRecord.
+ */
+public class ProtoRecordNGTest
+{
+
+  public ProtoRecordNGTest()
+  {
+  }
+
+  static Complex newRecord(int i)
+  {
+    Complex c = new Complex();
+    c.a = i;
+    c.b = -i;
+    c.c = 3 * i;
+    c.name = "record " + i;
+    c.f = new float[i % 5];
+    for (int j = 0; j < c.f.length; ++j)
+      c.f[j] = i + j;
+    return c;
+  }
+
+  static void write(ProtoRecordWriter<Complex> writer, int first, int n) throws Exception
+  {
+    for (int i = first; i < first + n; ++i)
+      writer.write(newRecord(i));
+  }
+
+  static void check(Complex c, int i)
+  {
+    assertEquals(c.a, i);
+    assertEquals(c.b, -i);
+    assertEquals(c.c, 3 * i);
+    assertEquals(c.name, "record " + i);
+    assertEquals(c.f.length, i % 5);
+  }
+
+  @Test
+  public void testRandomAccess() throws Exception
+  {
+    Path path = Files.createTempFile("records", ".bin");
+    try
+    {
+      ComplexProto encoding = new ComplexProto();
+      try (ProtoRecordWriter<Complex> writer = ProtoRecordWriter.create(path, encoding))
+      {
+        writer.setBlockSize(500);
+        write(writer, 0, 1000);
+      }
+      try (ProtoRecordReader<Complex> reader = ProtoRecordReader.open(path, encoding))
+      {
+        assertEquals(reader.size(), 1000);
+        assertTrue(reader.getBlockCount() > 1);
+        check(reader.get(999), 999);
+        check(reader.get(0), 0);
+        check(reader.get(517), 517);
+        check(reader.get(518), 518);
+        int i = 0;
+        for (Complex c : reader)
+          check(c, i++);
+        assertEquals(i, 1000);
+      }
+    }
+    finally
+    {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test
+  public void testCompressedParallel() throws Exception
+  {
+    Path path = Files.createTempFile("records", ".bin");
+    try
+    {
+      ComplexProto encoding = new ComplexProto();
+      try (ProtoRecordWriter<Complex> writer = ProtoRecordWriter.create(path, encoding))
+      {
+        writer.setBlockSize(1000);
+        writer.setCompress(true);
+        write(writer, 0, 2000);
+      }
+      try (ProtoRecordReader<Complex> reader = ProtoRecordReader.open(path, encoding))
+      {
+        List<Complex> all = reader.readAll();
+        assertEquals(all.size(), 2000);
+        for (int i = 0; i < all.size(); ++i)
+          check(all.get(i), i);
+        check(reader.get(1234), 1234);
+      }
+    }
+    finally
+    {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test
+  public void testAppend() throws Exception
+  {
+    Path path = Files.createTempFile("records", ".bin");
+    try
+    {
+      ComplexProto encoding = new ComplexProto();
+      try (ProtoRecordWriter<Complex> writer = ProtoRecordWriter.create(path, encoding))
+      {
+        write(writer, 0, 10);
+      }
+      try (ProtoRecordWriter<Complex> writer = ProtoRecordWriter.append(path, encoding))
+      {
+        assertEquals(writer.size(), 10);
+        write(writer, 10, 15);
+      }
+      try (ProtoRecordReader<Complex> reader = ProtoRecordReader.open(path, encoding))
+      {
+        assertEquals(reader.size(), 25);
+        assertEquals(reader.getBlockCount(), 2);
+        for (int i = 0; i < 25; ++i)
+          check(reader.get(i), i);
+      }
+    }
+    finally
+    {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  @Test
+  public void testRecoverUnclosed() throws Exception
+  {
+    Path path = Files.createTempFile("records", ".bin");
+    ComplexProto encoding = new ComplexProto();
+    ProtoRecordWriter<Complex> writer = ProtoRecordWriter.create(path, encoding);
+    try
+    {
+      write(writer, 0, 7);
+      writer.flush();
+      write(writer, 7, 3);
+
+      // Only completed blocks are visible
+      try (ProtoRecordReader<Complex> reader = ProtoRecordReader.open(path, encoding))
+      {
+        assertEquals(reader.size(), 7);
+        check(reader.get(6), 6);
+      }
+    }
+    finally
+    {
+      writer.close();
+      Files.deleteIfExists(path);
+    }
+  }
+
+}
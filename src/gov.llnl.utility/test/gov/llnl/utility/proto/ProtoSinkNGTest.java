@@ -0,0 +1,401 @@
+/*
+ * Copyright 2026, Lawrence Livermore National Security, LLC.
+ * All rights reserved
+ *
+ * Terms and conditions are given in "Notice" file.
+ */
+package gov.llnl.utility.proto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test code for ProtoSink.
+ */
+public class ProtoSinkNGTest
+{
+  public static class P
+  {
+    double[] d;
+    float[] f;
+    int[] fixed;
+    int[] signed;
+    long[] l;
+    long[] sl;
+    double[] network;
+    Complex complex;
+  }
+
+  public static class PProto extends MessageEncoding<P>
+  {
+    final static ProtoField[] FIELDS;
+
+    static
+    {
+      ProtoBuilder<P, P> builder = newBuilder(null, "P", P::new);
+      builder.field("d", 1).packed(Type.Double).as((o) -> o.d, (o, v) -> o.d = v);
+      builder.field("f", 2).packed(Type.Float).as((o) -> o.f, (o, v) -> o.f = v);
+      builder.field("fixed", 3).packed(Type.FixedInt32).as((o) -> o.fixed, (o, v) -> o.fixed = v);
+      builder.field("signed", 4).packed(Type.SInt32).as((o) -> o.signed, (o, v) -> o.signed = v);
+      builder.field("l", 5).packed(Type.Int64).as((o) -> o.l, (o, v) -> o.l = v);
+      builder.field("sl", 6).packed(Type.SInt64).as((o) -> o.sl, (o, v) -> o.sl = v);
+      builder.field("network", 7).type(Type.NetworkDoubles).as((o) -> o.network, (o, v) -> o.network = v);
+      builder.field("complex", 8).type(new ComplexProto()).as((o) -> o.complex, (o, v) -> o.complex = v);
+      FIELDS = builder.toFields();
+    }
+
+    @Override
+    public ProtoField[] getFields()
+    {
+      return FIELDS;
+    }
+  }
+
+  /**
+   * Encoding which only implements serializeField.
+   */
+  public static class CountingEncoding extends Int32Encoding
+  {
+    int calls = 0;
+
+    @Override
+    public void serializeField(ProtoField field, ByteArrayOutputStream baos, Object obj)
+    {
+      calls++;
+      super.serializeField(field, baos, obj);
+    }
+
+    @Override
+    protected boolean isLegacySerializer()
+    {
+      return true;
+    }
+  }
+
+  public static class Q
+  {
+    int a;
+    int b;
+  }
+
+  public static class QProto extends MessageEncoding<Q>
+  {
+    final CountingEncoding counting = new CountingEncoding();
+    final ProtoField[] fields;
+
+    QProto()
+    {
+      ProtoBuilder<Q, Q> builder = newBuilder(null, "Q", Q::new);
+      builder.field("a", 1).type(counting).asInt((o) -> o.a, (o, v) -> o.a = v);
+      builder.field("b", 2).type(counting).asInt((o) -> o.b, (o, v) -> o.b = v);
+      fields = builder.toFields();
+    }
+
+    @Override
+    public ProtoField[] getFields()
+    {
+      return fields;
+    }
+  }
+
+  public enum E
+  {
+    A, B
+  }
+
+  public static class S
+  {
+    int i32;
+    int s32;
+    int f32;
+    long i64;
+    long s64;
+    long f64;
+    float f;
+    double d;
+    boolean b;
+    Integer boxed;
+    E e;
+    double[][] network2;
+    double[][][] network3;
+  }
+
+  public static class SProto extends MessageEncoding<S>
+  {
+    final static ProtoField[] FIELDS;
+
+    static
+    {
+      ProtoBuilder<S, S> builder = newBuilder(null, "S", S::new);
+      builder.field("i32", 1).type(Type.Int32).asInt((o) -> o.i32, (o, v) -> o.i32 = v);
+      builder.field("s32", 2).type(Type.SInt32).asInt((o) -> o.s32, (o, v) -> o.s32 = v);
+      builder.field("f32", 3).type(Type.FixedInt32).asInt((o) -> o.f32, (o, v) -> o.f32 = v);
+      builder.field("i64", 4).type(Type.Int64).asLong((o) -> o.i64, (o, v) -> o.i64 = v);
+      builder.field("s64", 5).type(Type.SInt64).asLong((o) -> o.s64, (o, v) -> o.s64 = v);
+      builder.field("f64", 6).type(Type.FixedInt64).asLong((o) -> o.f64, (o, v) -> o.f64 = v);
+      builder.field("f", 7).type(Type.Float).asFloat((o) -> o.f, (o, v) -> o.f = v);
+      builder.field("d", 8).type(Type.Double).asDouble((o) -> o.d, (o, v) -> o.d = v);
+      builder.field("b", 9).type(Type.Bool).asBool((o) -> o.b, (o, v) -> o.b = v);
+      builder.field("boxed", 10).type(Type.Int32).as((o) -> o.boxed, (o, v) -> o.boxed = v);
+      builder.field("e", 11).enumeration(E.class).as((o) -> o.e, (o, v) -> o.e = v);
+      builder.field("network2", 12).type(Type.NetworkDoubles2).as((o) -> o.network2, (o, v) -> o.network2 = v);
+      builder.field("network3", 13).type(Type.NetworkDoubles3).as((o) -> o.network3, (o, v) -> o.network3 = v);
+      FIELDS = builder.toFields();
+    }
+
+    @Override
+    public ProtoField[] getFields()
+    {
+      return FIELDS;
+    }
+  }
+
+  /**
+   * Encoding which only implements serializeContents.
+   */
+  public static class LegacyProto extends MessageEncoding<Q>
+  {
+    @Override
+    public byte[] serializeContents(ProtoContext context, Q obj)
+    {
+      return new byte[]
+      {
+        (byte) obj.a, (byte) obj.b
+      };
+    }
+
+    @Override
+    protected boolean isLegacySerializer()
+    {
+      return true;
+    }
+
+    @Override
+    public ProtoField[] getFields()
+    {
+      return null;
+    }
+  }
+
+  public ProtoSinkNGTest()
+  {
+  }
+
+  static P newP()
+  {
+    P p = new P();
+    p.d = new double[]
+    {
+      1.5, -2.25, 1e300
+    };
+    p.f = new float[]
+    {
+      1, 2, 3.5f
+    };
+    p.fixed = new int[]
+    {
+      0, -1, Integer.MAX_VALUE
+    };
+    p.signed = new int[]
+    {
+      1, -2, 300, -70000
+    };
+    p.l = new long[]
+    {
+      1, 1L << 40, -5
+    };
+    p.sl = new long[]
+    {
+      -1, 2, -(1L << 50)
+    };
+    p.network = new double[]
+    {
+      4, 5, 6
+    };
+    Complex c = new Complex();
+    c.a = 1;
+    c.b = -2;
+    c.c = 3;
+    c.name = "nested";
+    c.strs.add("A");
+    c.map.put("B", 2);
+    c.f = new float[]
+    {
+      7, 8
+    };
+    p.complex = c;
+    return p;
+  }
+
+  @Test
+  public void testMatchesLegacy() throws ProtoException
+  {
+    PProto encoding = new PProto();
+    P p = newP();
+    byte[] legacy = encoding.serializeContents(null, p);
+    ByteBuffer buffer = encoding.toByteBuffer(p);
+    assertEquals(buffer.remaining(), legacy.length);
+    assertEquals(encoding.getSerializedSize(p), legacy.length);
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    assertEquals(bytes, legacy);
+  }
+
+  @Test
+  public void testRoundTrip() throws ProtoException
+  {
+    PProto encoding = new PProto();
+    P p = newP();
+    P p2 = encoding.parseBytes(encoding.toBytes(p));
+    assertEquals(p2.d, p.d);
+    assertEquals(p2.f, p.f);
+    assertEquals(p2.fixed, p.fixed);
+    assertEquals(p2.signed, p.signed);
+    assertEquals(p2.l, p.l);
+    assertEquals(p2.sl, p.sl);
+    assertEquals(p2.network, p.network);
+    assertEquals(p2.complex.name, "nested");
+    assertEquals(p2.complex.f, p.complex.f);
+  }
+
+  @Test
+  public void testDirect() throws ProtoException
+  {
+    PProto encoding = new PProto();
+    P p = newP();
+    ByteBuffer buffer = encoding.toByteBuffer(p, true);
+    assertTrue(buffer.isDirect());
+    P p2 = encoding.parseContents(new ProtoContext(), ByteSource.wrap(buffer));
+    assertEquals(p2.d, p.d);
+    assertEquals(p2.sl, p.sl);
+  }
+
+  @Test
+  public void testSerializeTo() throws ProtoException
+  {
+    PProto encoding = new PProto();
+    P p = newP();
+    int size = encoding.getSerializedSize(p);
+    ByteBuffer buffer = ByteBuffer.allocate(size + 10);
+    buffer.position(5);
+    assertEquals(encoding.serializeTo(p, buffer), size);
+    assertEquals(buffer.position(), size + 5);
+    buffer.flip().position(5);
+    P p2 = encoding.parseContents(new ProtoContext(), ByteSource.wrap(buffer));
+    assertEquals(p2.fixed, p.fixed);
+  }
+
+  @Test
+  public void testLegacyOnce() throws ProtoException
+  {
+    QProto encoding = new QProto();
+    Q q = new Q();
+    q.a = 300;
+    q.b = -7;
+    ByteBuffer buffer = encoding.toByteBuffer(q);
+    assertEquals(encoding.counting.calls, 2);
+    Q q2 = encoding.parseContents(new ProtoContext(), ByteSource.wrap(buffer));
+    assertEquals(q2.a, 300);
+    assertEquals(q2.b, -7);
+  }
+
+  @Test
+  public void testScalars() throws ProtoException
+  {
+    SProto encoding = new SProto();
+    S s = new S();
+    s.i32 = -3;
+    s.s32 = -70000;
+    s.f32 = 0x80000001;
+    s.i64 = 1L << 40;
+    s.s64 = -(1L << 50);
+    s.f64 = -2;
+    s.f = 1.25f;
+    s.d = -1e300;
+    s.b = true;
+    s.e = E.A;
+    s.network2 = new double[][]
+    {
+      {
+        1, 2
+      }, null,
+      {
+        3
+      }
+    };
+    s.network3 = new double[][][]
+    {
+      s.network2, null
+    };
+
+    // Scalar fields are written directly rather than through serializeField
+    ProtoSink sizing = new ProtoSink();
+    int size = encoding.sizeContents(sizing, s);
+    assertEquals(sizing.legacy.size(), 0);
+
+    byte[] legacy = encoding.serializeContents(null, s);
+    byte[] bytes = encoding.toBytes(s);
+    assertEquals(size, legacy.length);
+    assertEquals(bytes, legacy);
+
+    S s2 = encoding.parseBytes(bytes);
+    assertEquals(s2.i32, s.i32);
+    assertEquals(s2.s32, s.s32);
+    assertEquals(s2.f32, s.f32);
+    assertEquals(s2.i64, s.i64);
+    assertEquals(s2.s64, s.s64);
+    assertEquals(s2.f64, s.f64);
+    assertEquals(s2.f, s.f);
+    assertEquals(s2.d, s.d);
+    assertEquals(s2.b, s.b);
+    assertNull(s2.boxed);
+    assertEquals(s2.e, E.A);
+    assertEquals(s2.network2[0], s.network2[0]);
+    assertNull(s2.network2[1]);
+    assertEquals(s2.network3[0][2], s.network2[2]);
+    assertNull(s2.network3[1]);
+
+    // Boxed values are written when present
+    s.boxed = 300;
+    assertEquals(encoding.toBytes(s), encoding.serializeContents(null, s));
+  }
+
+  @Test
+  public void testLegacyContents() throws ProtoException
+  {
+    Q q = new Q();
+    q.a = 5;
+    q.b = 6;
+    assertEquals(new LegacyProto().toBytes(q), new byte[]
+    {
+      5, 6
+    });
+  }
+
+  @Test
+  public void testWriteVInt()
+  {
+    ByteBuffer buffer = ByteBuffer.allocate(32);
+    ProtoSink sink = new ProtoSink(new ProtoSink(), buffer);
+    sink.writeVInt32(300);
+    sink.writeVInt32(-1);
+    sink.writeVInt64(1L << 35);
+    assertEquals(sink.size(), 2 + 5 + 6);
+    assertEquals(buffer.position(), sink.size());
+    assertEquals(buffer.get(0), (byte) 0xac);
+    assertEquals(buffer.get(1), (byte) 0x02);
+  }
+
+  @Test
+  public void testSizeVInt()
+  {
+    assertEquals(ProtoSink.sizeVInt32(0), 1);
+    assertEquals(ProtoSink.sizeVInt32(127), 1);
+    assertEquals(ProtoSink.sizeVInt32(128), 2);
+    assertEquals(ProtoSink.sizeVInt32(-1), 5);
+    assertEquals(ProtoSink.sizeVInt64(-1), 10);
+    assertEquals(ProtoSink.sizeVInt64(1L << 35), 6);
+  }
+}
@@ -4,6 +4,7 @@
  */
 package gov.nist.xray;
 
+import gov.llnl.rtk.physics.AttenuationLibrary;
 import gov.llnl.rtk.physics.Element;
 import gov.llnl.rtk.physics.Elements;
 import gov.llnl.rtk.physics.XrayData;
@@ -18,7 +19,7 @@ import java.util.HashMap;
  *
  * @author nelson85
  */
-public class NISTLibrary implements XrayLibrary
+public class NISTLibrary implements XrayLibrary, AttenuationLibrary
 {
 
   public HashMap<String, XrayDataImpl> bySymbol = new HashMap<>();
@@ -55,6 +56,23 @@ public class NISTLibrary implements XrayLibrary
   {
     return this.byNumber.get(element.getAtomicNumber());
   }
+
+  /**
+   * Get the mass attenuation coefficient from the Elam tables.
+   *
+   * @param element
+   * @param energy in keV.
+   * @return the mass attenuation in m^2/kg.
+   */
+  @Override
+  public double getMassAttenuation(Element element, double energy)
+  {
+    XrayDataImpl data = this.byNumber.get(element.getAtomicNumber());
+    if (data == null)
+      throw new IllegalArgumentException("No attenuation data for " + element);
+    // Tables are in cm^2/g
+    return data.getMassAttenuation(energy) * 0.1;
+  }
   
   public static void main(String args[])
   {
@@ -41,6 +41,151 @@ public class XrayDataImpl implements XrayData
   {
     return Collections.unmodifiableList(edges);
   }
-  
-  
+
+  /**
+   * Get the total mass attenuation coefficient.
+   *
+   * The tables are interpolated with the cubic splines in log-log space. At an
+   * absorption edge the value above the edge is used. Above the end of the
+   * tables the photo absorption relaxes from the final slope toward 1/E, the
+   * coherent scatter is extrapolated in log-log space, the incoherent scatter
+   * follows Klein-Nishina, and the pair production is added using the Maximon
+   * expansions without screening.
+   *
+   * @param energy in keV.
+   * @return the mass attenuation in cm^2/g.
+   */
+  public double getMassAttenuation(double energy)
+  {
+    if (!(energy > 0))
+      return Double.POSITIVE_INFINITY;
+    double x = Math.log(energy * 1000);
+    double out = getPhoto(x);
+    out += Math.exp(interpolate(scatter, 1, x));
+    out += getIncoherent(x);
+    out += getPair(energy) * AVOGADRO / atomic_weigth;
+    return out;
+  }
+
+//<editor-fold desc="internal" defaultstate="collapsed">
+  static final double AVOGADRO = 6.02214076e23;
+  static final double ELECTRON_MASS = 510.99895; // keV
+  static final double ELECTRON_RADIUS = 2.8179403262e-13; // cm
+  static final double FINE_STRUCTURE = 1 / 137.035999;
+  static final double ZETA3 = 1.2020569031595942;
+
+  private double getPhoto(double x)
+  {
+    int n = photo.length;
+    double last = photo[n - 1][0];
+    if (x <= last)
+      return Math.exp(interpolate(photo, 1, x));
+    // The slope in log-log approaches -1 at high energy
+    double slope = (photo[n - 1][1] - photo[n - 2][1]) / (last - photo[n - 2][0]);
+    double excess = Math.min(slope + 1, 0);
+    return Math.exp(photo[n - 1][1] - (x - last) + excess * (1 - Math.exp(last - x)));
+  }
+
+  private double getIncoherent(double x)
+  {
+    double last = scatter[scatter.length - 1][0];
+    if (x <= last)
+      return Math.exp(interpolate(scatter, 3, x));
+    double k0 = Math.exp(last) / 1000 / ELECTRON_MASS;
+    double k = Math.exp(x) / 1000 / ELECTRON_MASS;
+    return Math.exp(scatter[scatter.length - 1][3]) * kleinNishina(k) / kleinNishina(k0);
+  }
+
+  /**
+   * Cross section for pair production in the field of the nucleus and of the
+   * electrons.
+   *
+   * @param energy in keV.
+   * @return the cross section in cm^2 per atom.
+   */
+  double getPair(double energy)
+  {
+    double k = energy / ELECTRON_MASS;
+    if (k <= 2)
+      return 0;
+    double z = atomic_number;
+    double scale = FINE_STRUCTURE * ELECTRON_RADIUS * ELECTRON_RADIUS;
+    if (k < 4)
+    {
+      double e = (2 * k - 4) / (2 + k + 2 * Math.sqrt(2 * k));
+      double r = (k - 2) / k;
+      double s = 1 + e * (0.5 + e * (23.0 / 40 + e * (11.0 / 60 + e * 29.0 / 960)));
+      return 2 * Math.PI / 3 * scale * z * z * r * r * r * s;
+    }
+    double l = Math.log(2 * k);
+    double q = 4 / k / k;
+    double s = 28.0 / 9 * l - 218.0 / 27
+            + q * (6 * l - 3.5 + 2.0 / 3 * l * l * l - l * l - Math.PI * Math.PI / 3 * l
+            + 2 * ZETA3 + Math.PI * Math.PI / 6)
+            - q * q * (3.0 / 16 * l + 1.0 / 8)
+            - q * q * q * (29.0 / 2304 * l - 77.0 / 13824);
+    // Triplet production is approximated by one extra unit of charge
+    return scale * z * (z + 1) * s;
+  }
+
+  /**
+   * Klein-Nishina cross section per electron.
+   *
+   * @param k is the energy in units of the electron mass.
+   * @return the cross section in cm^2.
+   */
+  static double kleinNishina(double k)
+  {
+    double a = 1 + 2 * k;
+    double l = Math.log(a);
+    return 2 * Math.PI * ELECTRON_RADIUS * ELECTRON_RADIUS
+            * ((1 + k) / k / k * (2 * (1 + k) / a - l / k) + l / 2 / k - (1 + 3 * k) / a / a);
+  }
+
+  /**
+   * Evaluate a log-log table with its spline.
+   *
+   * The spline second derivative is held in the column after the value.
+   *
+   * @param table has the log energy in the first column.
+   * @param column is the column for the log value.
+   * @param x is the log energy in eV.
+   * @return the log of the value.
+   */
+  static double interpolate(double[][] table, int column, double x)
+  {
+    int n = table.length;
+    if (x >= table[n - 1][0])
+      return extrapolate(table[n - 2], table[n - 1], column, x);
+    if (x < table[0][0])
+      return extrapolate(table[0], table[1], column, x);
+
+    // Find the last entry at or below x so edges use the upper value
+    int lo = 0;
+    int hi = n - 1;
+    while (hi - lo > 1)
+    {
+      int mid = (lo + hi) >>> 1;
+      if (table[mid][0] <= x)
+        lo = mid;
+      else
+        hi = mid;
+    }
+    double[] p0 = table[lo];
+    double[] p1 = table[lo + 1];
+    double h = p1[0] - p0[0];
+    double a = (p1[0] - x) / h;
+    double b = (x - p0[0]) / h;
+    return a * p0[column] + b * p1[column]
+            + ((a * a * a - a) * p0[column + 1] + (b * b * b - b) * p1[column + 1]) * h * h / 6;
+  }
+
+  private static double extrapolate(double[] p0, double[] p1, int column, double x)
+  {
+    double h = p1[0] - p0[0];
+    if (h == 0)
+      return p1[column];
+    return p1[column] + (x - p1[0]) * (p1[column] - p0[column]) / h;
+  }
+//</editor-fold>
 }